@@ -0,0 +1,129 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.data.neural.methods;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.knime.base.data.neural.Architecture;
+import org.knime.base.data.neural.MultiLayerPerceptron;
+import org.knime.base.data.neural.Perceptron;
+
+/**
+ * Tests that the {@link FlatRProp} trains the same network as the {@link RProp}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class FlatRPropTest {
+
+    @Test
+    void testSingleHiddenLayer() {
+        assertSameTraining(50, 1);
+    }
+
+    @Test
+    void testSeveralHiddenLayersAndPartitions() {
+        // more patterns than fit into a single partition
+        assertSameTraining(3000, 3);
+    }
+
+    private static void assertSameTraining(final int nrPatterns, final int nrHiddenLayers) {
+        final Architecture architecture = new Architecture();
+        architecture.setNrInputNeurons(5);
+        architecture.setNrHiddenLayers(nrHiddenLayers);
+        architecture.setNrHiddenNeurons(7);
+        architecture.setNrOutputNeurons(3);
+        final MultiLayerPerceptron expected = new MultiLayerPerceptron(architecture, new Random(1));
+        final MultiLayerPerceptron actual = new MultiLayerPerceptron(architecture, new Random(1));
+
+        final Random random = new Random(2);
+        final Double[][] samples = new Double[nrPatterns][5];
+        final Double[][] outputs = new Double[nrPatterns][3];
+        final double[][] flatSamples = new double[nrPatterns][5];
+        final double[][] flatOutputs = new double[nrPatterns][3];
+        for (int i = 0; i < nrPatterns; i++) {
+            for (int k = 0; k < 5; k++) {
+                flatSamples[i][k] = random.nextDouble();
+                samples[i][k] = flatSamples[i][k];
+            }
+            final int clazz = random.nextInt(3);
+            for (int k = 0; k < 3; k++) {
+                flatOutputs[i][k] = k == clazz ? 1 : 0;
+                outputs[i][k] = flatOutputs[i][k];
+            }
+        }
+
+        final RProp rprop = new RProp();
+        final FlatRProp flatRProp = new FlatRProp(actual);
+        for (int iteration = 0; iteration < 20; iteration++) {
+            rprop.train(expected, samples, outputs);
+            flatRProp.train(flatSamples, flatOutputs);
+            double error = 0;
+            for (int i = 0; i < nrPatterns; i++) {
+                final double[] out = expected.output(flatSamples[i]);
+                for (int k = 0; k < 3; k++) {
+                    error += (out[k] - flatOutputs[i][k]) * (out[k] - flatOutputs[i][k]);
+                }
+            }
+            assertEquals(error, flatRProp.getError(flatSamples, flatOutputs), 1e-9 * error,
+                "Error after iteration " + iteration);
+        }
+        assertArrayEquals(expected.output(flatSamples[0]), flatRProp.output(flatSamples[0]), 1e-12);
+
+        flatRProp.writeTo(actual);
+        for (int l = 1; l < expected.getNrLayers(); l++) {
+            for (int j = 0; j < expected.getLayer(l).getPerceptrons().length; j++) {
+                final Perceptron e = expected.getLayer(l).getPerceptron(j);
+                final Perceptron a = actual.getLayer(l).getPerceptron(j);
+                assertArrayEquals(e.getWeights(), a.getWeights(), 1e-12, "Weights of neuron " + j + " in layer " + l);
+                assertEquals(e.getThreshold(), a.getThreshold(), 1e-12, "Threshold of neuron " + j + " in layer " + l);
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.data.sort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.knime.base.data.sort.ScoreSorter.SortedScores;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.filestore.internal.NotInWorkflowDataRepository;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.core.node.workflow.virtual.parchunk.VirtualParallelizedChunkPortObjectInNodeFactory;
+
+/**
+ * Tests for the {@link ScoreSorter}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class ScoreSorterTest {
+
+    /** Large enough to be sorted in several runs by multiple threads. */
+    private static final int NUM_ROWS = 200000;
+
+    private static ExecutionContext execContext;
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    @BeforeAll
+    static void setUpBeforeAll() {
+        execContext = new ExecutionContext(new DefaultNodeProgressMonitor(),
+            new Node((NodeFactory)new VirtualParallelizedChunkPortObjectInNodeFactory(new PortType[0])),
+            SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, NotInWorkflowDataRepository.newInstance());
+    }
+
+    @Test
+    void testSortKeepingMissingValues() throws Exception {
+        assertSortedStably(createTable(false), false, false);
+    }
+
+    @Test
+    void testSortSkippingMissingValues() throws Exception {
+        assertSortedStably(createTable(false), true, true);
+    }
+
+    /**
+     * Skipping rows with a missing label while keeping most of the rows with missing scores makes the block of
+     * missing scores overlap with the position it is moved to after the scan.
+     */
+    @Test
+    void testSortKeepingManyMissingScores() throws Exception {
+        final BufferedDataTable table = createTable(true);
+        assertSortedStably(table, true, false);
+        assertSortedStably(table, false, false);
+    }
+
+    private static void assertSortedStably(final BufferedDataTable table, final boolean skipMissingLabels,
+        final boolean skipMissingScores) throws Exception {
+        final int[] scoreColumns = {1, 2};
+        final ScoreSorter sorter =
+            new ScoreSorter(c -> c.toString().equals("pos"), skipMissingLabels, skipMissingScores);
+        final int[] consumed = new int[1];
+        assertTrue(sorter.sort(table, 0, scoreColumns, 4, execContext, (i, scores) -> {
+            consumed[0]++;
+            assertSameOrder(expectedOrder(table, scoreColumns[i], skipMissingLabels, skipMissingScores), scores);
+        }), "Scores of the test table must fit into memory");
+        assertEquals(scoreColumns.length, consumed[0]);
+    }
+
+    private static void assertSameOrder(final List<DataRow> expected, final SortedScores scores) {
+        assertEquals(expected.size(), scores.size());
+        for (int i = 0; i < expected.size(); i++) {
+            final DataRow row = expected.get(i);
+            assertEquals(row.getCell(0).toString().equals("pos"), scores.isPositive(i), "Label at position " + i);
+            final DataCell score = row.getCell(1);
+            assertEquals(score.isMissing(), scores.isMissingScore(i), "Missing score at position " + i);
+            if (!score.isMissing()) {
+                assertEquals(((DoubleValue)score).getDoubleValue(), scores.getScore(i), "Score at position " + i);
+            }
+        }
+    }
+
+    /**
+     * @return rows holding the label and the score, sorted by a stable sort with descending scores, missing last
+     */
+    private static List<DataRow> expectedOrder(final BufferedDataTable table, final int scoreColumn,
+        final boolean skipMissingLabels, final boolean skipMissingScores) {
+        final List<DataRow> rows = new ArrayList<>();
+        try (final CloseableRowIterator iterator = table.iterator()) {
+            while (iterator.hasNext()) {
+                final DataRow row = iterator.next();
+                final DataCell label = row.getCell(0);
+                final DataCell score = row.getCell(scoreColumn);
+                if (!(skipMissingLabels && label.isMissing()) && !(skipMissingScores && score.isMissing())) {
+                    rows.add(new DefaultRow(row.getKey(), label, score));
+                }
+            }
+        }
+        rows.sort(Comparator.comparing((final DataRow r) -> r.getCell(1).isMissing())
+            .thenComparing(r -> r.getCell(1).isMissing() ? 0 : -((DoubleValue)r.getCell(1)).getDoubleValue()));
+        return rows;
+    }
+
+    /**
+     * @param mostlyMissingScores whether most or only few of the scores are missing
+     */
+    private static BufferedDataTable createTable(final boolean mostlyMissingScores) {
+        final DataTableSpec spec = new DataTableSpec(new String[]{"class", "coarse score", "fine score"},
+            new DataType[]{StringCell.TYPE, DoubleCell.TYPE, DoubleCell.TYPE});
+        final BufferedDataContainer cont = execContext.createDataContainer(spec);
+        final Random random = new Random(42);
+        for (int i = 0; i < NUM_ROWS; i++) {
+            final DataCell label =
+                i % 101 == 0 ? DataType.getMissingCell() : new StringCell(random.nextBoolean() ? "pos" : "neg");
+            // many ties in the coarse score
+            final DataCell coarse = (i % 97 == 0) != mostlyMissingScores ? DataType.getMissingCell()
+                : new DoubleCell(random.nextInt(100) / 10.0);
+            final DataCell fine = (i % 89 == 0) != mostlyMissingScores ? DataType.getMissingCell()
+                : new DoubleCell(random.nextDouble());
+            cont.addRowToTable(new DefaultRow(RowKey.createRowKey((long)i), label, coarse, fine));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.arff.reader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.knime.base.node.io.filehandling.arff.reader.ARFFAttribute.Kind;
+import org.knime.core.data.DataValue;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
+
+/**
+ * Tests the parsing of ARFF headers and rows by {@link ARFFHeader} and {@link ARFFRowParser}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class ARFFRowParserTest {
+
+    private static final String HEADER = "% comment\n" //
+        + "@RELATION test\n" //
+        + "\n" //
+        + "@attribute 'first col' numeric\n" //
+        + "@attribute count integer % comment\n" //
+        + "@attribute class{a,'b c', \"d\"}\n" //
+        + "@ATTRIBUTE text string\n" //
+        + "@attribute date date \"yyyy-MM-dd\"\n" //
+        + "@data\n";
+
+    @Test
+    void testReadHeader() throws IOException {
+        final BufferedReader reader = new BufferedReader(new StringReader(HEADER + "1,2,a,x,y\n"));
+        final ARFFHeader header = ARFFHeader.read(reader);
+        final List<ARFFAttribute> attributes = header.getAttributes();
+        assertEquals(5, attributes.size());
+        assertEquals("first col", attributes.get(0).getName());
+        assertEquals(Kind.NUMERIC, attributes.get(0).getKind());
+        assertEquals(Kind.INTEGER, attributes.get(1).getKind());
+        assertEquals(Kind.NOMINAL, attributes.get(2).getKind());
+        assertEquals(new StringCell("a"), attributes.get(2).getSparseDefault());
+        assertEquals(Kind.STRING, attributes.get(3).getKind());
+        assertEquals(Kind.DATE, attributes.get(4).getKind());
+        assertEquals(9, header.getNumLines());
+        assertEquals("1,2,a,x,y", reader.readLine());
+    }
+
+    @Test
+    void testMalformedHeader() {
+        assertThrows(IOException.class, () -> readHeader("@relation r\n@attribute a numeric\n"));
+        assertThrows(IOException.class, () -> readHeader("@attribute a numeric\n@attribute a string\n@data\n"));
+        assertThrows(IOException.class, () -> readHeader("@attribute a relational\n@data\n"));
+        assertThrows(IOException.class, () -> readHeader("@attribute a {x,y\n@data\n"));
+    }
+
+    @Test
+    void testParseDenseRows() throws IOException {
+        final ARFFRowParser parser = createParser(true, true, true, true, true);
+        assertRow(parser.parse("1.5, 2, 'b c', 'it\\'s', 2020-01-01", 10), new DoubleCell(1.5), new IntCell(2),
+            new StringCell("b c"), new StringCell("it's"), new StringCell("2020-01-01"));
+        assertRow(parser.parse("?,,a,\"x,y\" % comment", 11), null, null, new StringCell("a"), new StringCell("x,y"),
+            null);
+        assertNull(parser.parse("% comment", 12));
+        assertNull(parser.parse("  ", 13));
+    }
+
+    @Test
+    void testParseSparseRows() throws IOException {
+        final ARFFRowParser parser = createParser(true, true, true, true, true);
+        assertRow(parser.parse("{0 3, 2 d}", 10), new DoubleCell(3), new IntCell(0), new StringCell("d"), null, null);
+        assertRow(parser.parse("{}", 11), new DoubleCell(0), new IntCell(0), new StringCell("a"), null, null);
+        assertRow(parser.parse("{3 'q r',1 7}", 12), new DoubleCell(0), new IntCell(7), new StringCell("a"),
+            new StringCell("q r"), null);
+    }
+
+    @Test
+    void testOnlyConvertsRequiredColumns() throws IOException {
+        final ARFFRowParser parser = createParser(false, true, false, true, false);
+        assertRow(parser.parse("no number, 2, a, x, y", 10), null, new IntCell(2), null, new StringCell("x"), null);
+        assertRow(parser.parse("{3 x, 1 7, 0 no number}", 11), null, new IntCell(7), null, new StringCell("x"),
+            null);
+    }
+
+    @Test
+    void testMalformedRows() throws IOException {
+        final ARFFRowParser parser = createParser(true, true, true, true, true);
+        assertThrows(IllegalStateException.class, () -> parser.parse("x,1", 10));
+        assertThrows(IllegalStateException.class, () -> parser.parse("{a 1}", 10));
+        assertThrows(IllegalStateException.class, () -> parser.parse("{9 1}", 10));
+        assertThrows(IllegalStateException.class, () -> parser.parse("{1 2", 10));
+        assertThrows(IllegalStateException.class, () -> parser.parse("{1 2, 1 3}", 10));
+        assertThrows(IllegalStateException.class, () -> parser.parse("{0 1, 1 2, 0 1, 1 2, 0 1, 1 2}", 10));
+    }
+
+    private static ARFFHeader readHeader(final String header) throws IOException {
+        return ARFFHeader.read(new BufferedReader(new StringReader(header)));
+    }
+
+    private static ARFFRowParser createParser(final boolean... required) throws IOException {
+        return new ARFFRowParser(readHeader(HEADER).getAttributes(), required);
+    }
+
+    private static void assertRow(final RandomAccessible<DataValue> row, final DataValue... expected) {
+        assertEquals(expected.length, row.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], row.get(i), "Unexpected value at index " + i);
+        }
+    }
+}
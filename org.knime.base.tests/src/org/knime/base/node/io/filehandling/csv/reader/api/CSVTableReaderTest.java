@@ -0,0 +1,199 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.csv.reader.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.knime.filehandling.core.connections.DefaultFSConnectionFactory;
+import org.knime.filehandling.core.connections.FSConnection;
+import org.knime.filehandling.core.connections.FSPath;
+import org.knime.filehandling.core.node.table.reader.config.DefaultTableReadConfig;
+import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
+import org.knime.filehandling.core.node.table.reader.read.Read;
+
+/**
+ * Tests that reading only some columns of a CSV file with the {@link CSVTableReader} yields the same rows as
+ * reading all columns.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class CSVTableReaderTest {
+
+    private static final String CONTENT = "a,b,c,d\n1,2\n\n5,6,7,8,9\n,,\n\"q\",x,\"y\"\n10\n";
+
+    private static final CSVTableReader READER = new CSVTableReader();
+
+    @TempDir
+    Path m_tempDir;
+
+    @Test
+    void testShortRows() throws IOException {
+        final List<List<String>> rows = assertSameRows(CONTENT, createConfig(true, false), 1, 3);
+        assertEquals(Arrays.asList(null, "b", null, "d"), rows.get(0));
+        assertEquals(Arrays.asList(null, "2"), rows.get(1));
+        assertEquals(Arrays.asList(null, "6", null, "8", null), rows.get(2));
+        assertEquals(Arrays.asList(null, "x", null), rows.get(4));
+        assertEquals(Arrays.asList((String)null), rows.get(5));
+    }
+
+    @Test
+    void testSelectedIndexBeyondRowLength() throws IOException {
+        final List<List<String>> rows = assertSameRows(CONTENT, createConfig(true, false), 4);
+        assertEquals(6, rows.size());
+        assertEquals(Arrays.asList(null, null, null, null, "9"), rows.get(2));
+        // rows that end before the selected column are neither padded nor dropped
+        assertEquals(4, rows.get(0).size());
+        assertEquals(1, rows.get(5).size());
+    }
+
+    @Test
+    void testSkipEmptyRows() throws IOException {
+        final String content = "a,b,c\n\n\n1,2,3\n\n";
+        assertEquals(2, assertSameRows(content, createConfig(true, true), 0, 2).size());
+        assertEquals(2, assertSameRows(content, createConfig(true, false), 0, 2).size());
+        assertEquals(2, assertSameRows(content, createConfig(false, true), 0, 2).size());
+    }
+
+    @Test
+    void testQuotedValuesInSkippedColumns() throws IOException {
+        final List<List<String>> rows =
+            assertSameRows("\"a,1\",b,\"c\nd\"\n\"e\"\"\",f,g\n", createConfig(false, false), 1);
+        assertEquals(Arrays.asList(null, "b", null), rows.get(0));
+        assertEquals(Arrays.asList(null, "f", null), rows.get(1));
+    }
+
+    @Test
+    void testShortRowsNotAllowed() throws IOException {
+        final DefaultTableReadConfig<CSVTableReaderConfig> config = createConfig(false, false);
+        try (FSConnection connection = DefaultFSConnectionFactory.createLocalFSConnection()) {
+            final FSPath path = write(connection, CONTENT);
+            try (Read<String> read = READER.read(path, config)) {
+                assertEquals(Arrays.asList("a", "b", "c", "d"), values(read.next()));
+                assertThrows(IllegalArgumentException.class, read::next);
+            }
+            // the selection must not pad the short second row to the length of the first one
+            try (Read<String> read = READER.read(path, config, new int[]{1, 3})) {
+                assertEquals(Arrays.asList(null, "b", null, "d"), values(read.next()));
+                assertThrows(IllegalArgumentException.class, read::next);
+            }
+        }
+    }
+
+    private List<List<String>> assertSameRows(final String content,
+        final DefaultTableReadConfig<CSVTableReaderConfig> config, final int... columnIndices) throws IOException {
+        try (FSConnection connection = DefaultFSConnectionFactory.createLocalFSConnection()) {
+            final FSPath path = write(connection, content);
+            final List<List<String>> expected;
+            try (Read<String> read = READER.read(path, config)) {
+                expected = readAll(read);
+            }
+            final List<List<String>> actual;
+            try (Read<String> read = READER.read(path, config, columnIndices)) {
+                actual = readAll(read);
+            }
+            assertEquals(expected.size(), actual.size(), "Different number of rows");
+            for (int r = 0; r < expected.size(); r++) {
+                final List<String> expectedRow = expected.get(r);
+                final List<String> actualRow = actual.get(r);
+                assertEquals(expectedRow.size(), actualRow.size(), "Different size of row " + r);
+                for (int c = 0; c < expectedRow.size(); c++) {
+                    if (isSelected(c, columnIndices)) {
+                        assertEquals(expectedRow.get(c), actualRow.get(c), "Different value in row " + r);
+                    } else {
+                        assertNull(actualRow.get(c), "Unselected column " + c + " is parsed in row " + r);
+                    }
+                }
+            }
+            return actual;
+        }
+    }
+
+    private static boolean isSelected(final int column, final int[] columnIndices) {
+        return Arrays.stream(columnIndices).anyMatch(i -> i == column);
+    }
+
+    private FSPath write(final FSConnection connection, final String content) throws IOException {
+        final Path file = Files.writeString(m_tempDir.resolve("test.csv"), content);
+        return connection.getFileSystem().getPath(file.toAbsolutePath().toString());
+    }
+
+    private static DefaultTableReadConfig<CSVTableReaderConfig> createConfig(final boolean allowShortRows,
+        final boolean skipEmptyRows) {
+        final DefaultTableReadConfig<CSVTableReaderConfig> config =
+            new DefaultTableReadConfig<>(new CSVTableReaderConfig());
+        config.setUseColumnHeaderIdx(false);
+        config.setAllowShortRows(allowShortRows);
+        config.setSkipEmptyRows(skipEmptyRows);
+        return config;
+    }
+
+    private static List<List<String>> readAll(final Read<String> read) throws IOException {
+        final List<List<String>> rows = new ArrayList<>();
+        for (RandomAccessible<String> row = read.next(); row != null; row = read.next()) {
+            rows.add(values(row));
+        }
+        return rows;
+    }
+
+    private static List<String> values(final RandomAccessible<String> row) {
+        final List<String> values = new ArrayList<>();
+        for (int i = 0; i < row.size(); i++) {
+            values.add(row.get(i));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.csv.writer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the {@link CSVNumberFormatter} writes the same as the decimal formats of the {@link CSVWriter2}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class CSVNumberFormatterTest {
+
+    private static final DecimalFormatSymbols SYMBOLS = DecimalFormatSymbols.getInstance(Locale.ENGLISH);
+
+    @Test
+    void testSpecialValues() {
+        final double[] values = {0.0, -0.0, 0.5, -0.5, 1.0, -3.0, 2.5, 1.25e-7, 0x1p53 - 1, -(0x1p53 - 1), 0x1p53,
+            1e20, 123456.789, 0.1 + 0.2, Double.MIN_VALUE, Double.MAX_VALUE, Double.NaN, Double.POSITIVE_INFINITY};
+        for (double value : values) {
+            assertSameAsDecimalFormat(value);
+        }
+    }
+
+    @Test
+    void testRandomValues() {
+        final Random random = new Random(7);
+        for (int i = 0; i < 200000; i++) {
+            assertSameAsDecimalFormat(random.nextDouble());
+            assertSameAsDecimalFormat((random.nextInt(2000000) - 1000000) / Math.pow(10, random.nextInt(12)));
+            assertSameAsDecimalFormat(Double.longBitsToDouble(random.nextLong()));
+            assertSameAsDecimalFormat(random.nextLong() >> random.nextInt(64));
+            assertSameAsDecimalFormat(random.nextGaussian() * Math.pow(10, random.nextInt(30) - 15));
+        }
+    }
+
+    private static void assertSameAsDecimalFormat(final double value) {
+        final DecimalFormat decimal = new DecimalFormat("#.#", SYMBOLS);
+        decimal.setMaximumFractionDigits(340);
+        final DecimalFormat trailingZero = new DecimalFormat("#.0", SYMBOLS);
+        trailingZero.setMaximumFractionDigits(340);
+        final StringBuilder sb = new StringBuilder();
+        if (CSVNumberFormatter.appendDecimal(value, false, sb)) {
+            assertEquals(decimal.format(value), sb.toString(), "#.# of " + value);
+        }
+        sb.setLength(0);
+        if (CSVNumberFormatter.appendDecimal(value, true, sb)) {
+            assertEquals(trailingZero.format(value), sb.toString(), "#.0 of " + value);
+        }
+        sb.setLength(0);
+        if (CSVNumberFormatter.appendInteger(value, sb)) {
+            assertEquals(new DecimalFormat("#", SYMBOLS).format(value), sb.toString(), "# of " + value);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.csv.writer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.knime.base.node.io.filehandling.csv.writer.config.LineBreakTypes;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.streamable.RowInput;
+
+/**
+ * Tests that the {@link CSVWriter2} writes the same rows with and without writing in parallel.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class CSVWriter2Test {
+
+    private static final DataTableSpec SPEC = new DataTableSpec(//
+        new DataColumnSpecCreator("int", IntCell.TYPE).createSpec(), //
+        new DataColumnSpecCreator("double", DoubleCell.TYPE).createSpec(), //
+        new DataColumnSpecCreator("string", StringCell.TYPE).createSpec());
+
+    /** More than two batches, the last one incomplete. */
+    private static final int NUM_ROWS = 2500;
+
+    @Test
+    void testParallelAndSequentialOutputsAreEqual() throws Exception {
+        final String sequential = write(false);
+        assertEquals(write(true), sequential);
+        assertEquals(NUM_ROWS, sequential.split("\n", -1).length - 1);
+    }
+
+    @Test
+    void testSequentialOutput() throws Exception {
+        final String[] lines = write(false).split("\n");
+        assertEquals("0,0.5,\"text 0\"", lines[0]);
+        assertEquals(",,", lines[7]);
+        assertEquals("8,-8.25,\"a,b\"", lines[8]);
+    }
+
+    private static String write(final boolean inParallel) throws Exception {
+        final CSVWriter2Config config =
+            new CSVWriter2Config(new CSVWriter2NodeFactory().createPortsConfigBuilder().get().build());
+        config.setLineBreak(LineBreakTypes.UNIX_LINUX);
+        config.getAdvancedConfig().setWriteInParallel(inParallel);
+        final StringWriter out = new StringWriter();
+        try (CSVWriter2 writer = new CSVWriter2(out, config)) {
+            writer.writeRows(createInput(), new ExecutionMonitor());
+        }
+        return out.toString();
+    }
+
+    private static RowInput createInput() {
+        final List<DataRow> rows = new ArrayList<>();
+        for (int i = 0; i < NUM_ROWS; i++) {
+            final DataCell[] cells;
+            if (i % 7 == 0 && i > 0) {
+                cells = new DataCell[]{DataType.getMissingCell(), DataType.getMissingCell(),
+                    DataType.getMissingCell()};
+            } else if (i % 8 == 0 && i > 0) {
+                cells = new DataCell[]{new IntCell(i), new DoubleCell(-i - 0.25), new StringCell("a,b")};
+            } else {
+                cells = new DataCell[]{new IntCell(i), new DoubleCell(i + 0.5), new StringCell("text " + i)};
+            }
+            rows.add(new DefaultRow(RowKey.createRowKey((long)i), cells));
+        }
+        final Iterator<DataRow> iterator = rows.iterator();
+        return new RowInput() {
+
+            @Override
+            public DataTableSpec getDataTableSpec() {
+                return SPEC;
+            }
+
+            @Override
+            public DataRow poll() {
+                return iterator.hasNext() ? iterator.next() : null;
+            }
+
+            @Override
+            public void close() {
+                // nothing to close
+            }
+        };
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.csv.writer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.knime.base.node.io.filehandling.csv.writer.config.LineBreakTypes;
+import org.knime.base.node.io.filehandling.csv.writer.config.PartitionConfig;
+import org.knime.base.node.io.filehandling.csv.writer.config.PartitionConfig.PartitionMode;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+import org.knime.filehandling.core.defaultnodesettings.filechooser.writer.FileOverwritePolicy;
+
+/**
+ * Tests the {@link PartitionedCSVWriter}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class PartitionedCSVWriterTest {
+
+    private static final String[] SUFFIXES = {".csv", ".tsv", ".txt", ".csv.gz", ".tsv.gz", ".txt.gz"};
+
+    private static final String HEADER = "header\n";
+
+    /** The partition values of the rows, including a missing value and values that need to be quoted. */
+    private static final String[] VALUES = {"b", "a", null, "", "x\"y,z"};
+
+    @TempDir
+    Path m_dir;
+
+    private CSVWriter2Config m_config;
+
+    private PartitionConfig m_partitionConfig;
+
+    @BeforeEach
+    void createConfig() {
+        m_config = new CSVWriter2Config(new CSVWriter2NodeFactory().createPortsConfigBuilder().get().build());
+        m_config.setLineBreak(LineBreakTypes.UNIX_LINUX);
+        m_config.getFileChooserModel().setFileOverwritePolicy(FileOverwritePolicy.FAIL);
+        m_partitionConfig = m_config.getPartitionConfig();
+    }
+
+    @Test
+    void testRowCountParts() throws Exception {
+        m_partitionConfig.setPartitionMode(PartitionMode.ROW_COUNT);
+        m_partitionConfig.setRowsPerPart(2);
+        try (PartitionedCSVWriter writer = createWriter("data.csv")) {
+            for (int i = 0; i < 5; i++) {
+                accept(writer, i, null, "row" + i + "\n");
+            }
+            writer.finish();
+        }
+        assertEquals(HEADER + "row0\nrow1\n", read("data_part-00000.csv"));
+        assertEquals(HEADER + "row2\nrow3\n", read("data_part-00001.csv"));
+        assertEquals(HEADER + "row4\n", read("data_part-00002.csv"));
+        assertEquals("file,rows\n" //
+            + "\"data_part-00000.csv\",2\n" //
+            + "\"data_part-00001.csv\",2\n" //
+            + "\"data_part-00002.csv\",1\n", read("data_manifest.csv"));
+    }
+
+    @Test
+    void testFileSizeParts() throws Exception {
+        m_partitionConfig.setPartitionMode(PartitionMode.FILE_SIZE);
+        m_partitionConfig.setMegabytesPerPart(1);
+        // 1047 lines and the header fit into one MB, the 1048th line doesn't
+        final String line = "x".repeat(1000) + "\n";
+        try (PartitionedCSVWriter writer = createWriter("data.csv")) {
+            for (int i = 0; i < 2500; i++) {
+                accept(writer, i, null, line);
+            }
+            writer.finish();
+        }
+        assertEquals("file,rows\n" //
+            + "\"data_part-00000.csv\",1047\n" //
+            + "\"data_part-00001.csv\",1047\n" //
+            + "\"data_part-00002.csv\",406\n", read("data_manifest.csv"));
+        assertEquals(HEADER.length() + 1047L * line.length(), Files.size(m_dir.resolve("data_part-00000.csv")));
+        assertEquals(HEADER.length() + 406L * line.length(), Files.size(m_dir.resolve("data_part-00002.csv")));
+    }
+
+    @Test
+    void testColumnParts() throws Exception {
+        writeColumnParts("data.csv", KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(4), 16);
+        assertColumnParts("");
+    }
+
+    @Test
+    void testCompressedColumnParts() throws Exception {
+        m_config.getAdvancedConfig().setCompressWithGzip(true);
+        writeColumnParts("data.csv.gz", KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(4), 16);
+        assertColumnParts(".gz");
+    }
+
+    /**
+     * The rows are written from a task of a pool with a single thread that also writes the parts, and only one chunk
+     * may be pending. Waiting for a permit must release the thread, otherwise the parts are never written.
+     */
+    @Test
+    void testSingleThreadPool() throws Exception {
+        final ThreadPool pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(1);
+        final Future<Void> future = pool.enqueue(() -> {
+            writeColumnParts("data.csv", pool, 1);
+            return null;
+        });
+        future.get(1, TimeUnit.MINUTES);
+        assertColumnParts("");
+    }
+
+    /** Writes 200 lines of 200 characters per value, so that each part receives several chunks. */
+    private void writeColumnParts(final String fileName, final ThreadPool pool, final int maxPendingChunks)
+        throws IOException {
+        m_partitionConfig.setPartitionMode(PartitionMode.COLUMN);
+        m_partitionConfig.setPartitionColumn("column");
+        try (PartitionedCSVWriter writer =
+            new PartitionedCSVWriter(m_config, m_dir.resolve(fileName), HEADER, pool, maxPendingChunks)) {
+            for (int i = 0; i < 1000; i++) {
+                accept(writer, i, VALUES[i % VALUES.length], columnLine(i));
+            }
+            writer.finish();
+        }
+    }
+
+    private static String columnLine(final int i) {
+        return String.format("%04d,%s\n", i, "y".repeat(195));
+    }
+
+    private void assertColumnParts(final String suffix) throws IOException {
+        // the parts are numbered in the order of the first occurrence of their value
+        assertEquals("file,rows,value\n" //
+            + "\"data_part-00000.csv" + suffix + "\",200,\"b\"\n" //
+            + "\"data_part-00001.csv" + suffix + "\",200,\"a\"\n" //
+            + "\"data_part-00002.csv" + suffix + "\",200,\n" //
+            + "\"data_part-00003.csv" + suffix + "\",200,\"\"\n" //
+            + "\"data_part-00004.csv" + suffix + "\",200,\"x\"\"y,z\"\n", read("data_manifest.csv"));
+        for (int part = 0; part < VALUES.length; part++) {
+            final StringBuilder expected = new StringBuilder(HEADER);
+            for (int i = part; i < 1000; i += VALUES.length) {
+                expected.append(columnLine(i));
+            }
+            assertEquals(expected.toString(), read(String.format("data_part-%05d.csv%s", part, suffix)));
+        }
+    }
+
+    @Test
+    void testEmptyTable() throws Exception {
+        m_partitionConfig.setPartitionMode(PartitionMode.ROW_COUNT);
+        try (PartitionedCSVWriter writer = createWriter("data.csv")) {
+            writer.finish();
+        }
+        assertEquals(HEADER, read("data_part-00000.csv"));
+        assertEquals("file,rows\n\"data_part-00000.csv\",0\n", read("data_manifest.csv"));
+        assertEquals(2, countFiles());
+    }
+
+    @Test
+    void testTooManyColumnParts() throws Exception {
+        m_partitionConfig.setPartitionMode(PartitionMode.COLUMN);
+        m_partitionConfig.setPartitionColumn("column");
+        try (PartitionedCSVWriter writer = createWriter("data.csv")) {
+            for (int i = 0; i < PartitionedCSVWriter.MAX_COLUMN_PARTS; i++) {
+                accept(writer, i, "value" + i, "row\n");
+            }
+            final IOException ex = assertThrows(IOException.class,
+                () -> accept(writer, PartitionedCSVWriter.MAX_COLUMN_PARTS, "other", "row\n"));
+            assertEquals("The column 'column' has more than 1000 distinct values.", ex.getMessage());
+        }
+        assertEquals(0, countFiles());
+    }
+
+    @Test
+    void testFailureWhileWritingAPart() throws Exception {
+        m_partitionConfig.setPartitionMode(PartitionMode.ROW_COUNT);
+        m_partitionConfig.setRowsPerPart(2);
+        final Path existing = Files.writeString(m_dir.resolve("data_part-00001.csv"), "existing");
+        try (PartitionedCSVWriter writer = createWriter("data.csv")) {
+            // the failure surfaces either when the next line is accepted or when the parts are finished
+            final IOException ex = assertThrows(IOException.class, () -> {
+                for (int i = 0; i < 5; i++) {
+                    accept(writer, i, null, "row" + i + "\n");
+                }
+                writer.finish();
+            });
+            assertTrue(ex.getMessage().contains("must not be overwritten"), ex.getMessage());
+        }
+        assertEquals("existing", Files.readString(existing));
+        assertFalse(Files.exists(m_dir.resolve("data_manifest.csv")));
+    }
+
+    @Test
+    void testDeleteCreatedFilesAfterCancel() throws Exception {
+        m_partitionConfig.setPartitionMode(PartitionMode.ROW_COUNT);
+        m_partitionConfig.setRowsPerPart(2);
+        final PartitionedCSVWriter writer = createWriter("data.csv");
+        for (int i = 0; i < 5; i++) {
+            accept(writer, i, null, "row" + i + "\n");
+        }
+        // the first two parts are complete and written in the background
+        final Path firstPart = m_dir.resolve("data_part-00000.csv");
+        final long timeout = System.currentTimeMillis() + 10_000;
+        while (!Files.exists(firstPart) && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        assertTrue(Files.exists(firstPart));
+        // same order as in the node model, the writer is closed before the files are deleted
+        writer.close();
+        writer.deleteCreatedFiles();
+        assertEquals(0, countFiles());
+    }
+
+    private PartitionedCSVWriter createWriter(final String fileName) {
+        return new PartitionedCSVWriter(m_config, m_dir.resolve(fileName), HEADER);
+    }
+
+    private static void accept(final PartitionedCSVWriter writer, final long rowIdx, final String value,
+        final String line) throws IOException {
+        writer.accept(rowIdx, value, line, 0, line.length());
+    }
+
+    private String read(final String fileName) throws IOException {
+        final Path path = m_dir.resolve(fileName);
+        final InputStream raw = Files.newInputStream(path);
+        try (InputStream in = fileName.endsWith(".gz") ? new GZIPInputStream(raw) : raw) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private long countFiles() throws IOException {
+        try (Stream<Path> files = Files.list(m_dir)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void testKnownSuffixes() {
+        assertSplit("data", ".csv", "data.csv");
+        assertSplit("data", ".csv.gz", "data.csv.gz");
+        assertSplit("my.data", ".TSV.GZ", "my.data.TSV.GZ");
+    }
+
+    @Test
+    void testUnknownSuffixes() {
+        assertSplit("data", ".gz", "data.gz");
+        assertSplit("archive.2023", ".dat", "archive.2023.dat");
+    }
+
+    @Test
+    void testNoSuffix() {
+        assertSplit("data", "", "data");
+        assertSplit(".csv", "", ".csv");
+        assertSplit(".hidden", "", ".hidden");
+    }
+
+    private static void assertSplit(final String name, final String extension, final String fileName) {
+        assertArrayEquals(new String[]{name, extension}, PartitionedCSVWriter.splitFileName(fileName, SUFFIXES),
+            fileName);
+    }
+}
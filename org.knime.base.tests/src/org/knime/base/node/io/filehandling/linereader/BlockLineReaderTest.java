@@ -0,0 +1,151 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.linereader;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that {@link BlockLineReader} splits lines like {@link java.io.BufferedReader#readLine()}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class BlockLineReaderTest {
+
+    @TempDir
+    Path m_tempDir;
+
+    @Test
+    void testDecodeLines() {
+        assertDecoded(new String[0], "");
+        assertDecoded(new String[]{"a", "b", "", "c"}, "a\nb\r\n\rc");
+        assertDecoded(new String[]{"a", ""}, "a\n\n");
+        assertDecoded(new String[]{"äöü", "中文"}, "äöü\r中文\r\n");
+    }
+
+    @Test
+    void testBlocksEndAtLineBreaks() throws IOException {
+        final String content = "first line\r\nsecond\rthird\n\nfourth line without line break";
+        for (int blockSize = 1; blockSize < content.length(); blockSize++) {
+            assertEquals(List.of("first line", "second", "third", "", "fourth line without line break"),
+                readAll(content.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, blockSize));
+        }
+    }
+
+    @Test
+    void testSkipsUtf8Bom() throws IOException {
+        final byte[] bom = {(byte)0xEF, (byte)0xBB, (byte)0xBF};
+        final byte[] line = "bom\nline".getBytes(StandardCharsets.UTF_8);
+        final byte[] content = new byte[bom.length + line.length];
+        System.arraycopy(bom, 0, content, 0, bom.length);
+        System.arraycopy(line, 0, content, bom.length, line.length);
+        assertEquals(List.of("bom", "line"), readAll(content, StandardCharsets.UTF_8, 2));
+    }
+
+    @Test
+    void testBlocksOfDifferentLengths() throws IOException {
+        // the lines get longer, so the buffers of earlier blocks are too small for later ones
+        final List<String> expected = new ArrayList<>();
+        final StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            final String line = "line " + i + " " + "äöü".repeat(i / 10);
+            expected.add(line);
+            content.append(line).append('\n');
+        }
+        assertEquals(expected, readAll(content.toString().getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8,
+            64));
+    }
+
+    @Test
+    void testFileCanBeDeletedAfterClose() throws IOException {
+        final byte[] content = "a\nb\nc".getBytes(StandardCharsets.UTF_8);
+        assertEquals(List.of("a", "b", "c"), readAll(content, StandardCharsets.UTF_8, 1));
+        // no buffers are mapped to the file, i.e. it isn't locked once the reader is closed
+        Files.delete(m_tempDir.resolve("lines.txt"));
+    }
+
+    @Test
+    void testSupportedCharsets() {
+        assertTrue(BlockLineReader.supports(StandardCharsets.UTF_8));
+        assertTrue(BlockLineReader.supports(StandardCharsets.ISO_8859_1));
+        assertTrue(BlockLineReader.supports(Charset.forName("windows-1252")));
+        assertFalse(BlockLineReader.supports(StandardCharsets.UTF_16));
+    }
+
+    private List<String> readAll(final byte[] content, final Charset charset, final int blockSize)
+        throws IOException {
+        final Path file = Files.write(m_tempDir.resolve("lines.txt"), content);
+        final List<String> lines = new ArrayList<>();
+        try (BlockLineReader reader = new BlockLineReader(file, charset, 2, blockSize)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+            assertEquals(content.length, reader.getProgress());
+        }
+        return lines;
+    }
+
+    private static void assertDecoded(final String[] expected, final String content) {
+        assertArrayEquals(expected,
+            BlockLineReader.decodeLines(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)),
+                StandardCharsets.UTF_8));
+    }
+}
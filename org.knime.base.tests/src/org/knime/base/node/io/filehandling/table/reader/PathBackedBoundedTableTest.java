@@ -0,0 +1,217 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.table.reader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.ContainerTable;
+import org.knime.core.data.container.DataContainer;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.filestore.internal.NotInWorkflowDataRepository;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.core.node.workflow.virtual.parchunk.VirtualParallelizedChunkPortObjectInNodeFactory;
+import org.knime.filehandling.core.connections.DefaultFSConnectionFactory;
+import org.knime.filehandling.core.connections.FSConnection;
+import org.knime.filehandling.core.connections.FSPath;
+
+/**
+ * Round-trip tests for the {@link PathBackedBoundedTable}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class PathBackedBoundedTableTest {
+
+    private static ExecutionContext execContext;
+
+    @TempDir
+    Path m_tempDir;
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    @BeforeAll
+    static void setUpBeforeAll() {
+        execContext = new ExecutionContext(new DefaultNodeProgressMonitor(),
+            new Node((NodeFactory)new VirtualParallelizedChunkPortObjectInNodeFactory(new PortType[0])),
+            SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, NotInWorkflowDataRepository.newInstance());
+    }
+
+    @Test
+    void testReadUncompressedLocalFile() throws Exception {
+        final BufferedDataTable table = createTable();
+        final File file = m_tempDir.resolve("data.table").toFile();
+        DataContainer.writeToZip(table, file, new ExecutionMonitor());
+        try (FSConnection connection = DefaultFSConnectionFactory.createLocalFSConnection()) {
+            final FSPath path = connection.getFileSystem().getPath(file.getAbsolutePath());
+            // the zip file is opened in place instead of being copied from its stream
+            final Optional<File> localZipFile = PathBackedBoundedTable.getLocalZipFile(path);
+            assertTrue(localZipFile.isPresent(), "Uncompressed local file must be read from the zip file");
+            assertEquals(file.getAbsoluteFile(), localZipFile.get().getAbsoluteFile());
+            assertSameRows(table, path);
+        }
+    }
+
+    @Test
+    void testReadCompressedLocalFile() throws Exception {
+        final BufferedDataTable table = createTable();
+        final File zipFile = m_tempDir.resolve("data.table").toFile();
+        DataContainer.writeToZip(table, zipFile, new ExecutionMonitor());
+        final Path gzipFile = m_tempDir.resolve("data.table.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzipFile))) {
+            Files.copy(zipFile.toPath(), out);
+        }
+        try (FSConnection connection = DefaultFSConnectionFactory.createLocalFSConnection()) {
+            final FSPath path = connection.getFileSystem().getPath(gzipFile.toAbsolutePath().toString());
+            assertFalse(PathBackedBoundedTable.getLocalZipFile(path).isPresent(),
+                "Compressed file must be decompressed by the stream");
+            assertSameRows(table, path);
+        }
+    }
+
+    @Test
+    void testMaterializeSelectedColumns() throws Exception {
+        final BufferedDataTable table = createTable();
+        final File file = m_tempDir.resolve("data.table").toFile();
+        DataContainer.writeToZip(table, file, new ExecutionMonitor());
+        try (FSConnection connection = DefaultFSConnectionFactory.createLocalFSConnection()) {
+            final FSPath path = connection.getFileSystem().getPath(file.getAbsolutePath());
+            final PathBackedBoundedTable read = new PathBackedBoundedTable(path, new int[]{1});
+            try {
+                assertEquals(table.getDataTableSpec(), read.getDataTableSpec());
+                assertEquals(table.size(), read.size());
+                final List<DataRow> expected = rows(table);
+                int i = 0;
+                try (CloseableRowIterator cursor = read.cursor()) {
+                    while (cursor.hasNext()) {
+                        final DataRow row = cursor.next();
+                        assertEquals(expected.get(i).getKey(), row.getKey());
+                        assertEquals(expected.get(i).getCell(1), row.getCell(1));
+                        i++;
+                    }
+                }
+                assertEquals(expected.size(), i);
+            } finally {
+                read.close();
+            }
+        }
+    }
+
+    private static void assertSameRows(final BufferedDataTable expected, final FSPath path) throws Exception {
+        final ContainerTable read = PathBackedBoundedTable.readTable(path);
+        try {
+            assertEquals(expected.getDataTableSpec(), read.getDataTableSpec());
+            final List<DataRow> expectedRows = rows(expected);
+            final List<DataRow> actualRows = new ArrayList<>();
+            try (CloseableRowIterator it = read.iterator()) {
+                while (it.hasNext()) {
+                    actualRows.add(it.next());
+                }
+            }
+            assertEquals(expectedRows.size(), actualRows.size());
+            for (int i = 0; i < expectedRows.size(); i++) {
+                assertEquals(expectedRows.get(i).getKey(), actualRows.get(i).getKey());
+                for (int c = 0; c < expectedRows.get(i).getNumCells(); c++) {
+                    assertEquals(expectedRows.get(i).getCell(c), actualRows.get(i).getCell(c),
+                        "Cell " + c + " of row " + i);
+                }
+            }
+        } finally {
+            read.clear();
+        }
+    }
+
+    private static List<DataRow> rows(final BufferedDataTable table) {
+        final List<DataRow> rows = new ArrayList<>();
+        try (CloseableRowIterator it = table.iterator()) {
+            while (it.hasNext()) {
+                rows.add(it.next());
+            }
+        }
+        return rows;
+    }
+
+    private static BufferedDataTable createTable() {
+        final DataTableSpec spec = new DataTableSpec(new String[]{"string", "double", "int"},
+            new DataType[]{StringCell.TYPE, DoubleCell.TYPE, IntCell.TYPE});
+        final BufferedDataContainer cont = execContext.createDataContainer(spec);
+        for (int i = 0; i < 1000; i++) {
+            final DataCell string = i % 7 == 0 ? DataType.getMissingCell() : new StringCell("value " + i);
+            final DataCell dbl = i % 11 == 0 ? DataType.getMissingCell() : new DoubleCell(i / 3.0);
+            cont.addRowToTable(new DefaultRow(RowKey.createRowKey((long)i), string, dbl, new IntCell(i)));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+}
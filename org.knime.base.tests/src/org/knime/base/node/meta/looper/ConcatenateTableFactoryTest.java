@@ -0,0 +1,229 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.meta.looper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Optional;
+import java.util.function.IntFunction;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.filestore.internal.NotInWorkflowDataRepository;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.streamable.RowInput;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.core.node.workflow.virtual.parchunk.VirtualParallelizedChunkPortObjectInNodeFactory;
+
+/**
+ * Tests the consolidated mode of the {@link ConcatenateTableFactory}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class ConcatenateTableFactoryTest {
+
+    private static ExecutionContext execContext;
+
+    /**
+     * Creates the shared execution context.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    @BeforeClass
+    public static void setUpBeforeClass() {
+        execContext = new ExecutionContext(new DefaultNodeProgressMonitor(),
+            new Node((NodeFactory)new VirtualParallelizedChunkPortObjectInNodeFactory(new PortType[0])),
+            SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, NotInWorkflowDataRepository.newInstance());
+    }
+
+    /**
+     * Tests that alternating column types result in the same table with and without consolidation.
+     *
+     * @throws Exception if the tables can't be created
+     */
+    @Test
+    public void testAlternatingColumnTypes() throws Exception {
+        final IntFunction<RowInput> iteration = i -> {
+            final DataCell cell = i % 2 == 0 ? new IntCell(i) : new DoubleCell(i);
+            return new ArrayRowInput(new DataTableSpec(new String[]{"value", "name"},
+                new DataType[]{cell.getType(), StringCell.TYPE}),
+                new DefaultRow(RowKey.createRowKey((long)i), cell, new StringCell("row " + i)));
+        };
+        assertTablesEqual(concatenate(false, 500, iteration), concatenate(true, 500, iteration));
+    }
+
+    /**
+     * Tests that a new column in each iteration results in the same table with and without consolidation.
+     *
+     * @throws Exception if the tables can't be created
+     */
+    @Test
+    public void testChangingSpecs() throws Exception {
+        final IntFunction<RowInput> iteration = i -> new ArrayRowInput(
+            new DataTableSpec(new String[]{"value", "column " + (i % 120)},
+                new DataType[]{IntCell.TYPE, StringCell.TYPE}),
+            new DefaultRow(RowKey.createRowKey((long)i), new IntCell(i), new StringCell("row " + i)));
+        assertTablesEqual(concatenate(false, 300, iteration), concatenate(true, 300, iteration));
+    }
+
+    /**
+     * Tests that flushing the rows in between iterations, which writes the buffered rows of the consolidated mode,
+     * doesn't change the result.
+     *
+     * @throws Exception if the tables can't be created
+     */
+    @Test
+    public void testFlushRows() throws Exception {
+        final IntFunction<RowInput> iteration = i -> {
+            final DataCell cell = i % 2 == 0 ? new IntCell(i) : new DoubleCell(i);
+            return new ArrayRowInput(new DataTableSpec(new String[]{"value"}, new DataType[]{cell.getType()}),
+                new DefaultRow(RowKey.createRowKey((long)i), cell));
+        };
+        final var factory = new ConcatenateTableFactory(false, true, true, true, Optional.empty(), true);
+        for (int i = 0; i < 100; i++) {
+            factory.addTable(iteration.apply(i), execContext);
+            if (i % 7 == 0) {
+                factory.flushRows();
+            }
+        }
+        assertTablesEqual(concatenate(false, 100, iteration), factory.createTable(execContext));
+    }
+
+    /**
+     * Tests a loop of many tiny iterations with alternating column types, whose rows are buffered and written to a
+     * single container.
+     *
+     * @throws Exception if the table can't be created
+     */
+    @Test
+    public void testManyTinyIterations() throws Exception {
+        final int numIterations = 500;
+        final IntFunction<RowInput> iteration = i -> {
+            final DataCell cell = i % 2 == 0 ? new IntCell(i) : new DoubleCell(i);
+            return new ArrayRowInput(new DataTableSpec(new String[]{"value"}, new DataType[]{cell.getType()}),
+                new DefaultRow(RowKey.createRowKey((long)i), cell));
+        };
+        final BufferedDataTable table = concatenate(true, numIterations, iteration);
+        assertEquals(numIterations, table.size());
+        try (final var it = table.iterator()) {
+            for (int i = 0; i < numIterations; i++) {
+                final DataRow row = it.next();
+                assertEquals(RowKey.createRowKey((long)i), row.getKey());
+                assertEquals(i, ((IntCell)row.getCell(1)).getIntValue());
+            }
+        }
+    }
+
+    private static BufferedDataTable concatenate(final boolean consolidate, final int numIterations,
+        final IntFunction<RowInput> iteration) throws Exception {
+        final var factory = new ConcatenateTableFactory(false, true, true, true, Optional.empty(), consolidate);
+        for (int i = 0; i < numIterations; i++) {
+            factory.addTable(iteration.apply(i), execContext);
+        }
+        return factory.createTable(execContext);
+    }
+
+    private static void assertTablesEqual(final BufferedDataTable expected, final BufferedDataTable actual) {
+        assertTrue("Different specs", expected.getDataTableSpec().equalStructure(actual.getDataTableSpec()));
+        assertEquals(expected.size(), actual.size());
+        try (final var expectedIt = expected.iterator(); final var actualIt = actual.iterator()) {
+            while (expectedIt.hasNext()) {
+                final DataRow expectedRow = expectedIt.next();
+                final DataRow actualRow = actualIt.next();
+                assertEquals(expectedRow.getKey(), actualRow.getKey());
+                for (int i = 0; i < expectedRow.getNumCells(); i++) {
+                    assertEquals(expectedRow.getCell(i), actualRow.getCell(i));
+                }
+            }
+            assertFalse(actualIt.hasNext());
+        }
+    }
+
+    /** Row input over a fixed array of rows. */
+    private static final class ArrayRowInput extends RowInput {
+
+        private final DataTableSpec m_spec;
+
+        private final DataRow[] m_rows;
+
+        private int m_index;
+
+        ArrayRowInput(final DataTableSpec spec, final DataRow... rows) {
+            m_spec = spec;
+            m_rows = rows;
+        }
+
+        @Override
+        public DataTableSpec getDataTableSpec() {
+            return m_spec;
+        }
+
+        @Override
+        public DataRow poll() {
+            return m_index < m_rows.length ? m_rows[m_index++] : null;
+        }
+
+        @Override
+        public void close() {
+            // nothing to close
+        }
+    }
+}
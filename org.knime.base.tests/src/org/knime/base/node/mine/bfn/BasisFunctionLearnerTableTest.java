@@ -0,0 +1,169 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.mine.bfn;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.knime.base.node.mine.bfn.BasisFunctionLearnerTable.MissingValueReplacementFunction;
+import org.knime.base.node.mine.bfn.fuzzy.FuzzyBasisFunctionFactory;
+import org.knime.base.node.mine.bfn.radial.RadialBasisFunctionFactory;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.filestore.internal.NotInWorkflowDataRepository;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.core.node.workflow.virtual.parchunk.VirtualParallelizedChunkPortObjectInNodeFactory;
+
+/**
+ * Tests that the {@link BasisFunctionLearnerTable} learns the same model with and without {@link BasisFunctionIndex}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class BasisFunctionLearnerTableTest {
+
+    private static final String[] DATA_COLUMNS = {"x", "y", "z"};
+
+    private static final String[] TARGET_COLUMNS = {"class"};
+
+    private static ExecutionContext execContext;
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    @BeforeAll
+    static void setUpBeforeAll() {
+        execContext = new ExecutionContext(new DefaultNodeProgressMonitor(),
+            new Node((NodeFactory)new VirtualParallelizedChunkPortObjectInNodeFactory(new PortType[0])),
+            SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, NotInWorkflowDataRepository.newInstance());
+    }
+
+    @Test
+    void testSameRadialModelWithIndex() throws Exception {
+        for (final boolean shrinkAfterCommit : new boolean[]{false, true}) {
+            final BufferedDataTable data = createTable(new Random(7), 800);
+            final String withIndex = learn(data, createRadialFactory(data), shrinkAfterCommit, true);
+            final String withoutIndex = learn(data, createRadialFactory(data), shrinkAfterCommit, false);
+            assertEquals(withoutIndex, withIndex, "Radial model, shrink after commit: " + shrinkAfterCommit);
+        }
+    }
+
+    @Test
+    void testSameFuzzyModelWithIndex() throws Exception {
+        for (final boolean shrinkAfterCommit : new boolean[]{false, true}) {
+            final BufferedDataTable data = createTable(new Random(11), 800);
+            final String withIndex = learn(data, createFuzzyFactory(data), shrinkAfterCommit, true);
+            final String withoutIndex = learn(data, createFuzzyFactory(data), shrinkAfterCommit, false);
+            assertEquals(withoutIndex, withIndex, "Fuzzy model, shrink after commit: " + shrinkAfterCommit);
+        }
+    }
+
+    private static BasisFunctionFactory createRadialFactory(final BufferedDataTable data) {
+        // the constructor is protected
+        return new RadialBasisFunctionFactory(0.2, 0.4, 0, data.getDataTableSpec(), TARGET_COLUMNS) {
+        };
+    }
+
+    private static BasisFunctionFactory createFuzzyFactory(final BufferedDataTable data) {
+        return new FuzzyBasisFunctionFactory(0, 0, data.getDataTableSpec(), TARGET_COLUMNS, 0);
+    }
+
+    /**
+     * @return the learned rules, including their bounds and coverage
+     */
+    private static String learn(final BufferedDataTable data, final BasisFunctionFactory factory,
+        final boolean shrinkAfterCommit, final boolean useIndex) throws Exception {
+        final MissingValueReplacementFunction missing = BasisFunctionLearnerTable.MISSINGS[0];
+        final BasisFunctionLearnerTable table = new BasisFunctionLearnerTable(data, DATA_COLUMNS, TARGET_COLUMNS,
+            factory, missing, shrinkAfterCommit, false, 0, new int[]{1}, useIndex, execContext);
+        assertTrue(table.getNumBasisFunctions() > 10, "Too few rules to be meaningful");
+        final StringBuffer buf = new StringBuffer();
+        table.write(buf, true);
+        for (final DataRow row : table) {
+            buf.append(row.getKey());
+            for (final DataCell cell : row) {
+                buf.append(' ').append(cell);
+            }
+            buf.append('\n');
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Creates overlapping clusters of three classes with a few missing values.
+     */
+    private static BufferedDataTable createTable(final Random random, final int numRows) {
+        final DataTableSpec spec = new DataTableSpec(new String[]{"x", "y", "z", "class"},
+            new DataType[]{DoubleCell.TYPE, DoubleCell.TYPE, DoubleCell.TYPE, StringCell.TYPE});
+        final BufferedDataContainer cont = execContext.createDataContainer(spec);
+        for (int i = 0; i < numRows; i++) {
+            final int clazz = random.nextInt(3);
+            final DataCell[] cells = new DataCell[4];
+            for (int c = 0; c < 3; c++) {
+                cells[c] = random.nextInt(50) == 0 ? DataType.getMissingCell()
+                    : new DoubleCell(clazz + c + random.nextGaussian());
+            }
+            cells[3] = new StringCell("class" + clazz);
+            cont.addRowToTable(new DefaultRow(RowKey.createRowKey((long)i), cells));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.mine.cluster.assign;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.knime.base.node.mine.cluster.PMMLClusterTranslator.ComparisonMeasure;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+
+/**
+ * Tests that the {@link ClusterAssignCellFactory} assigns the same prototypes as the distances of {@link Prototype}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class ClusterAssignCellFactoryTest {
+
+    private static final int[] COLUMNS = {3, 0, 2};
+
+    @Test
+    void testSquaredEuclidean() {
+        assertSameAssignment(ComparisonMeasure.squaredEuclidean);
+    }
+
+    @Test
+    void testEuclidean() {
+        assertSameAssignment(ComparisonMeasure.euclidean);
+    }
+
+    @Test
+    void testMissingValue() {
+        final ClusterAssignCellFactory factory = createFactory(ComparisonMeasure.squaredEuclidean, createPrototypes());
+        final DataRow row = new DefaultRow(RowKey.createRowKey(0L), new DoubleCell(1), new StringCell("a"),
+            DataType.getMissingCell(), new DoubleCell(2));
+        assertTrue(factory.getCell(row).isMissing());
+    }
+
+    @Test
+    void testNoPrototypes() {
+        final ClusterAssignCellFactory factory = createFactory(ComparisonMeasure.squaredEuclidean, new ArrayList<>());
+        assertTrue(factory.getCell(createRow(new Random(0), 0)).isMissing());
+    }
+
+    private static void assertSameAssignment(final ComparisonMeasure measure) {
+        final List<Prototype> prototypes = createPrototypes();
+        final ClusterAssignCellFactory factory = createFactory(measure, prototypes);
+        final Random random = new Random(1);
+        for (int r = 0; r < 1000; r++) {
+            final DataRow row = createRow(random, r);
+            double minDistance = Double.MAX_VALUE;
+            DataCell expected = DataType.getMissingCell();
+            for (Prototype proto : prototypes) {
+                final double dist = measure == ComparisonMeasure.squaredEuclidean
+                    ? proto.getSquaredEuclideanDistance(row, COLUMNS) : proto.getDistance(row, COLUMNS);
+                if (dist < minDistance) {
+                    minDistance = dist;
+                    expected = proto.getLabel();
+                }
+            }
+            assertEquals(expected, factory.getCell(row), "Assignment of row " + r);
+        }
+    }
+
+    private static ClusterAssignCellFactory createFactory(final ComparisonMeasure measure,
+        final List<Prototype> prototypes) {
+        return new ClusterAssignCellFactory(measure, prototypes,
+            new DataColumnSpecCreator("Cluster", StringCell.TYPE).createSpec(), COLUMNS);
+    }
+
+    private static List<Prototype> createPrototypes() {
+        final Random random = new Random(0);
+        final List<Prototype> prototypes = new ArrayList<>();
+        for (int p = 0; p < 7; p++) {
+            final double[] values = new double[COLUMNS.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = random.nextInt(4);
+            }
+            prototypes.add(new Prototype(values, new StringCell("cluster_" + p)));
+        }
+        // a duplicate prototype, the first one must win
+        prototypes.add(new Prototype(prototypes.get(2).getValues().clone(), new StringCell("duplicate")));
+        return prototypes;
+    }
+
+    private static DataRow createRow(final Random random, final int index) {
+        // integer values produce ties, NaN values are ignored by the distance
+        final DataCell first = new DoubleCell(random.nextInt(10) == 0 ? Double.NaN : random.nextInt(4));
+        return new DefaultRow(RowKey.createRowKey((long)index), first, new StringCell("ignored"),
+            new IntCell(random.nextInt(4)), new DoubleCell(random.nextDouble() * 4));
+    }
+}
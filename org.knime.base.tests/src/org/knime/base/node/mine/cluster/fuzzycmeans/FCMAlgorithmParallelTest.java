@@ -0,0 +1,118 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.mine.cluster.fuzzycmeans;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.RowKey;
+import org.knime.core.node.CanceledExecutionException;
+
+/**
+ * Tests that the {@link FCMAlgorithmParallel} finds the same clustering as the {@link FCMAlgorithmMemory}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class FCMAlgorithmParallelTest {
+
+    @Test
+    void testWithoutNoise() throws CanceledExecutionException {
+        assertSameClustering(new FCMAlgorithmMemory(3, 2.0), new FCMAlgorithmParallel(3, 2.0), 200);
+    }
+
+    @Test
+    void testSeveralPartitions() throws CanceledExecutionException {
+        // more rows than fit into a single partition
+        assertSameClustering(new FCMAlgorithmMemory(4, 1.5), new FCMAlgorithmParallel(4, 1.5), 5000);
+    }
+
+    @Test
+    void testFixedNoiseDelta() throws CanceledExecutionException {
+        assertSameClustering(new FCMAlgorithmMemory(3, 2.0, false, 0.5),
+            new FCMAlgorithmParallel(3, 2.0, false, 0.5), 3000);
+    }
+
+    @Test
+    void testCalculatedNoiseDelta() throws CanceledExecutionException {
+        assertSameClustering(new FCMAlgorithmMemory(3, 1.7, true, 0.3),
+            new FCMAlgorithmParallel(3, 1.7, true, 0.3), 3000);
+    }
+
+    private static void assertSameClustering(final FCMAlgorithmMemory expected, final FCMAlgorithmParallel actual,
+        final int nrRows) throws CanceledExecutionException {
+        final Random random = new Random(nrRows);
+        final double[][] data = new double[nrRows][4];
+        for (double[] row : data) {
+            for (int j = 0; j < row.length; j++) {
+                // some duplicate values so that rows may coincide with a prototype
+                row[j] = random.nextInt(3) == 0 ? random.nextInt(2) : random.nextGaussian();
+            }
+        }
+        final RowKey[] keys = new RowKey[nrRows];
+        for (int i = 0; i < nrRows; i++) {
+            keys[i] = RowKey.createRowKey((long)i);
+        }
+        expected.init(keys, data, new Random(1));
+        actual.init(keys, data, new Random(1));
+
+        for (int iteration = 0; iteration < 30; iteration++) {
+            assertEquals(expected.doOneIteration(null), actual.doOneIteration(null), 1e-9,
+                "Total change in iteration " + iteration);
+        }
+        final double[][] expectedCentres = expected.getClusterCentres();
+        final double[][] actualCentres = actual.getClusterCentres();
+        for (int c = 0; c < expectedCentres.length; c++) {
+            assertArrayEquals(expectedCentres[c], actualCentres[c], 1e-9, "Prototype " + c);
+        }
+        for (int i = 0; i < nrRows; i++) {
+            assertArrayEquals(expected.getweightMatrix()[i], actual.getweightMatrix()[i], 1e-9,
+                "Memberships of row " + i);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.mine.mds;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.knime.base.node.mine.mds.distances.DistanceManager;
+import org.knime.base.node.mine.mds.distances.DistanceManagerFactory;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.filestore.internal.NotInWorkflowDataRepository;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.core.node.workflow.virtual.parchunk.VirtualParallelizedChunkPortObjectInNodeFactory;
+
+/**
+ * Tests the landmark training of the {@link MDSManager} against a sequential implementation running one epoch
+ * after another.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class MDSManagerTest {
+
+    private static final int DIMENSION = 2;
+
+    private static final int EPOCHS = 20;
+
+    private static final double LEARNING_RATE = 1.0;
+
+    private static final long SEED = 42;
+
+    private static ExecutionContext execContext;
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    @BeforeAll
+    static void setUpBeforeAll() {
+        execContext = new ExecutionContext(new DefaultNodeProgressMonitor(),
+            new Node((NodeFactory)new VirtualParallelizedChunkPortObjectInNodeFactory(new PortType[0])),
+            SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, NotInWorkflowDataRepository.newInstance());
+    }
+
+    @Test
+    void testLandmarksSameAsSequentialEpochs() throws Exception {
+        final BufferedDataTable table = createTable(3000);
+        final int nrLandmarks = 100;
+        final MDSManager manager = new MDSManager(DIMENSION, DistanceManagerFactory.EUCLIDEAN_DIST, false, table,
+            execContext);
+        manager.setNumberOfLandmarks(nrLandmarks);
+        manager.init(SEED);
+        manager.train(EPOCHS, LEARNING_RATE);
+
+        final Hashtable<RowKey, DataPoint> expected = trainSequentially(table, nrLandmarks);
+        final Hashtable<RowKey, DataPoint> actual = manager.getDataPoints();
+        assertEquals(expected.size(), actual.size());
+        for (final DataRow row : table) {
+            final DataPoint e = expected.get(row.getKey());
+            final DataPoint a = actual.get(row.getKey());
+            for (int d = 0; d < DIMENSION; d++) {
+                assertEquals(e.getElementAt(d), a.getElementAt(d), "Dimension " + d + " of " + row.getKey());
+            }
+        }
+    }
+
+    /**
+     * Arranges the landmarks and afterwards all other points epoch by epoch on a single thread, drawing the initial
+     * points and the landmarks the same way as the {@link MDSManager}.
+     */
+    private static Hashtable<RowKey, DataPoint> trainSequentially(final BufferedDataTable table,
+        final int nrLandmarks) {
+        final DistanceManager distMan = DistanceManagerFactory.createDistanceManager(
+            DistanceManagerFactory.EUCLIDEAN_DIST, false);
+        final Random rand = new Random(SEED);
+        final Hashtable<RowKey, DataPoint> points = new Hashtable<>();
+        final List<RowKey> keys = new ArrayList<>();
+        for (final DataRow row : table) {
+            final DataPoint p = new DataPoint(DIMENSION);
+            for (int d = 0; d < DIMENSION; d++) {
+                p.setElementAt(d, rand.nextDouble());
+            }
+            points.put(row.getKey(), p);
+            keys.add(row.getKey());
+        }
+        for (int i = 0; i < nrLandmarks; i++) {
+            Collections.swap(keys, i, i + rand.nextInt(keys.size() - i));
+        }
+        final Set<RowKey> landmarkKeys = new HashSet<>(keys.subList(0, nrLandmarks));
+        final List<DataRow> landmarks = new ArrayList<>();
+        final List<DataRow> others = new ArrayList<>();
+        for (final DataRow row : table) {
+            (landmarkKeys.contains(row.getKey()) ? landmarks : others).add(row);
+        }
+
+        double learningRate = LEARNING_RATE;
+        final double[] learningRates = new double[EPOCHS];
+        for (int e = 1; e <= EPOCHS; e++) {
+            learningRates[e - 1] = learningRate;
+            for (final DataRow r1 : landmarks) {
+                for (final DataRow r2 : landmarks) {
+                    adjust(points.get(r1.getKey()), points.get(r2.getKey()), distMan.getDistance(r1, r2),
+                        learningRate, distMan);
+                }
+            }
+            learningRate = LEARNING_RATE * Math.pow(0.001 / LEARNING_RATE, e / (double)EPOCHS);
+        }
+        for (final double rate : learningRates) {
+            for (final DataRow r1 : others) {
+                for (final DataRow r2 : landmarks) {
+                    adjust(points.get(r1.getKey()), points.get(r2.getKey()), distMan.getDistance(r1, r2), rate,
+                        distMan);
+                }
+            }
+        }
+        return points;
+    }
+
+    private static void adjust(final DataPoint p1, final DataPoint p2, final double disparity,
+        final double learningRate, final DistanceManager distMan) {
+        if (p1 == p2) {
+            return;
+        }
+        final double distance = distMan.getDistance(p1, p2);
+        for (int d = 0; d < DIMENSION; d++) {
+            final double value = p1.getElementAt(d);
+            if (distance != 0) {
+                p1.setElementAt(d, value + learningRate * (1 - (disparity / distance)) * (p2.getElementAt(d) - value));
+            }
+        }
+    }
+
+    private static BufferedDataTable createTable(final int numRows) {
+        final DataTableSpec spec = new DataTableSpec(new String[]{"a", "b", "c", "d"},
+            new DataType[]{DoubleCell.TYPE, DoubleCell.TYPE, DoubleCell.TYPE, DoubleCell.TYPE});
+        final BufferedDataContainer cont = execContext.createDataContainer(spec);
+        final Random random = new Random(3);
+        for (int i = 0; i < numRows; i++) {
+            cont.addRowToTable(new DefaultRow(RowKey.createRowKey((long)i), new DoubleCell(random.nextGaussian()),
+                new DoubleCell(random.nextGaussian()), new DoubleCell(random.nextDouble()),
+                new DoubleCell(random.nextInt(10))));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+}
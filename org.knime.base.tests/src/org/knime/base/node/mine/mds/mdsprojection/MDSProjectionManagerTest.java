@@ -0,0 +1,175 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.mine.mds.mdsprojection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Hashtable;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.knime.base.node.mine.mds.DataPoint;
+import org.knime.base.node.mine.mds.distances.DistanceManagerFactory;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.filestore.internal.NotInWorkflowDataRepository;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.core.node.workflow.virtual.parchunk.VirtualParallelizedChunkPortObjectInNodeFactory;
+
+/**
+ * Tests that the concurrent projection of the {@link MDSProjectionManager} yields the same coordinates as running
+ * the epochs one after another.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class MDSProjectionManagerTest {
+
+    private static final int NUM_FEATURES = 3;
+
+    private static final int EPOCHS = 15;
+
+    private static final double LEARNING_RATE = 1.0;
+
+    private static final long SEED = 7;
+
+    private static ExecutionContext execContext;
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    @BeforeAll
+    static void setUpBeforeAll() {
+        execContext = new ExecutionContext(new DefaultNodeProgressMonitor(),
+            new Node((NodeFactory)new VirtualParallelizedChunkPortObjectInNodeFactory(new PortType[0])),
+            SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, NotInWorkflowDataRepository.newInstance());
+    }
+
+    @Test
+    void testProjectOnlySameAsSequentialEpochs() throws Exception {
+        final Random random = new Random(1);
+        final BufferedDataTable fixed = createTable(random, 50, true, null);
+        // some rows equal fixed rows, which pins them to the fixed points
+        final BufferedDataTable in = createTable(random, 5000, false, fixed);
+
+        final MDSProjectionManager concurrent = createManager(in, fixed);
+        concurrent.init(SEED);
+        concurrent.train(EPOCHS, LEARNING_RATE);
+
+        final MDSProjectionManager sequential = createManager(in, fixed);
+        sequential.init(SEED);
+        sequential.m_learningrate = LEARNING_RATE;
+        sequential.m_initialLearningrate = LEARNING_RATE;
+        sequential.m_epochs = EPOCHS;
+        for (int e = 1; e <= EPOCHS; e++) {
+            sequential.doEpoch(e, execContext);
+        }
+
+        final Hashtable<RowKey, DataPoint> expected = sequential.getDataPoints();
+        final Hashtable<RowKey, DataPoint> actual = concurrent.getDataPoints();
+        assertEquals(expected.size(), actual.size());
+        for (final DataRow row : in) {
+            for (int d = 0; d < 2; d++) {
+                assertEquals(expected.get(row.getKey()).getElementAt(d), actual.get(row.getKey()).getElementAt(d),
+                    "Dimension " + d + " of " + row.getKey());
+            }
+        }
+    }
+
+    private static MDSProjectionManager createManager(final BufferedDataTable in, final BufferedDataTable fixed)
+        throws Exception {
+        final MDSProjectionManager manager = new MDSProjectionManager(2, DistanceManagerFactory.EUCLIDEAN_DIST,
+            false, in, fixed, new int[]{NUM_FEATURES, NUM_FEATURES + 1}, execContext);
+        manager.setProjectOnly(true);
+        return manager;
+    }
+
+    /**
+     * @param withMds whether two columns holding the coordinates of the fixed points are appended
+     * @param copyFrom table whose features are copied into some rows, may be <code>null</code>
+     */
+    private static BufferedDataTable createTable(final Random random, final int numRows, final boolean withMds,
+        final BufferedDataTable copyFrom) {
+        final int numCols = withMds ? NUM_FEATURES + 2 : NUM_FEATURES;
+        final String[] names = new String[numCols];
+        final DataType[] types = new DataType[numCols];
+        for (int c = 0; c < numCols; c++) {
+            names[c] = c < NUM_FEATURES ? "feature" + c : "mds" + (c - NUM_FEATURES);
+            types[c] = DoubleCell.TYPE;
+        }
+        final BufferedDataContainer cont = execContext.createDataContainer(new DataTableSpec(names, types));
+        final DataRow[] copies = copyFrom == null ? new DataRow[0] : rows(copyFrom);
+        for (int i = 0; i < numRows; i++) {
+            final DataCell[] cells = new DataCell[numCols];
+            final DataRow copy = i % 100 == 0 && copies.length > 0 ? copies[random.nextInt(copies.length)] : null;
+            for (int c = 0; c < numCols; c++) {
+                cells[c] = copy != null ? copy.getCell(c) : new DoubleCell(random.nextGaussian());
+            }
+            cont.addRowToTable(new DefaultRow(RowKey.createRowKey((long)i), cells));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    private static DataRow[] rows(final BufferedDataTable table) {
+        final DataRow[] rows = new DataRow[(int)table.size()];
+        int i = 0;
+        for (final DataRow row : table) {
+            rows[i++] = row;
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.mine.regression.logistic.learner4;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.knime.base.node.mine.regression.logistic.learner4.IrlsLearner.Accumulator;
+import org.knime.base.node.mine.regression.logistic.learner4.data.ClassificationTrainingRow;
+
+/**
+ * Contains unit tests for the {@link Accumulator} of the {@link IrlsLearner}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class IrlsLearnerTest {
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * Compares the accumulated hessian and gradient with a straightforward dense computation, also if the rows are
+     * split among several accumulators.
+     */
+    @Test
+    public void testAccumulation() {
+        final Random random = new Random(42);
+        final int rC = 6;
+        for (int tcC = 2; tcC <= 4; tcC++) {
+            final int dim = (rC + 1) * (tcC - 1);
+            final double[] beta = new double[dim];
+            for (int i = 0; i < dim; i++) {
+                beta[i] = 0.3 * random.nextGaussian();
+            }
+            final List<ClassificationTrainingRow> rows = new ArrayList<>();
+            for (int r = 0; r < 100; r++) {
+                final double[] features = new double[rC];
+                for (int i = 0; i < rC; i++) {
+                    // sparse rows
+                    features[i] = random.nextBoolean() ? random.nextGaussian() : 0;
+                }
+                rows.add(new TestRow(features, r, random.nextInt(tcC)));
+            }
+
+            final Accumulator first = new Accumulator(rC, tcC);
+            first.add(rows.subList(0, 37), beta);
+            final Accumulator second = new Accumulator(rC, tcC);
+            second.add(rows.subList(37, rows.size()), beta);
+            first.add(second);
+
+            final double[][] expectedHessian = new double[dim][dim];
+            final double[] expectedGradient = new double[dim];
+            computeDense(rows, beta, rC, tcC, expectedHessian, expectedGradient);
+            final double[][] hessian = first.getHessian();
+            for (int i = 0; i < dim; i++) {
+                assertArrayEquals("Row " + i + " of hessian", expectedHessian[i], hessian[i], EPSILON);
+            }
+            assertArrayEquals(expectedGradient, first.getGradient(), EPSILON);
+        }
+    }
+
+    private static void computeDense(final List<ClassificationTrainingRow> rows, final double[] beta, final int rC,
+        final int tcC, final double[][] hessian, final double[] gradient) {
+        for (ClassificationTrainingRow row : rows) {
+            final double[] x = ((TestRow)row).m_x;
+            final double[] pi = new double[tcC - 1];
+            double sum = 0;
+            for (int k = 0; k < tcC - 1; k++) {
+                double z = 0;
+                for (int i = 0; i <= rC; i++) {
+                    z += x[i] * beta[k * (rC + 1) + i];
+                }
+                pi[k] = Math.exp(z);
+                sum += pi[k];
+            }
+            for (int k = 0; k < tcC - 1; k++) {
+                pi[k] /= 1 + sum;
+            }
+            for (int k = 0; k < tcC - 1; k++) {
+                for (int kk = 0; kk < tcC - 1; kk++) {
+                    final double w = k == kk ? pi[k] * (1 - pi[k]) : -pi[k] * pi[kk];
+                    for (int i = 0; i <= rC; i++) {
+                        for (int ii = 0; ii <= rC; ii++) {
+                            hessian[k * (rC + 1) + i][kk * (rC + 1) + ii] += x[i] * w * x[ii];
+                        }
+                    }
+                }
+                for (int i = 0; i <= rC; i++) {
+                    gradient[k * (rC + 1) + i] += (row.getProbability(k) - pi[k]) * x[i];
+                }
+            }
+        }
+    }
+
+    /** Sparse row with intercept, only the non-zero features are iterated. */
+    private static final class TestRow implements ClassificationTrainingRow {
+
+        private final double[] m_x;
+
+        private final int m_id;
+
+        private final int m_category;
+
+        TestRow(final double[] features, final int id, final int category) {
+            m_x = new double[features.length + 1];
+            m_x[0] = 1;
+            System.arraycopy(features, 0, m_x, 1, features.length);
+            m_id = id;
+            m_category = category;
+        }
+
+        @Override
+        public int getId() {
+            return m_id;
+        }
+
+        @Override
+        public int getCategory() {
+            return m_category;
+        }
+
+        @Override
+        public double getProbability(final int classIdx) {
+            return m_category == classIdx ? 1.0 : 0.0;
+        }
+
+        @Override
+        public FeatureIterator getFeatureIterator() {
+            return new Iter(-1);
+        }
+
+        private final class Iter implements FeatureIterator {
+            private int m_idx;
+
+            Iter(final int idx) {
+                m_idx = idx;
+            }
+
+            private int nextNonZero(final int from) {
+                int i = from + 1;
+                while (i < m_x.length && m_x[i] == 0) {
+                    i++;
+                }
+                return i;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return nextNonZero(m_idx) < m_x.length;
+            }
+
+            @Override
+            public boolean next() {
+                m_idx = nextNonZero(m_idx);
+                return m_idx < m_x.length;
+            }
+
+            @Override
+            public int getFeatureIndex() {
+                return m_idx;
+            }
+
+            @Override
+            public double getFeatureValue() {
+                return m_x[m_idx];
+            }
+
+            @Override
+            public FeatureIterator spawn() {
+                return new Iter(m_idx - 1);
+            }
+        }
+    }
+}
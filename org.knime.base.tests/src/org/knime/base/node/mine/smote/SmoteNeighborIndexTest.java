@@ -0,0 +1,133 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.mine.smote;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.node.CanceledExecutionException;
+
+/**
+ * Tests for the {@link SmoteNeighborIndex}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class SmoteNeighborIndexTest {
+
+    @Test
+    void testTreeMatchesExhaustiveSearch() throws CanceledExecutionException {
+        final Random random = new Random(3);
+        // small integer coordinates provoke many ties
+        final double[][] features = createFeatures(random, 500, 3);
+        final boolean[][] missing = new boolean[features.length][];
+        assertNeighbors(features, missing);
+    }
+
+    @Test
+    void testScanWithMissingValuesMatchesExhaustiveSearch() throws CanceledExecutionException {
+        final Random random = new Random(5);
+        final double[][] features = createFeatures(random, 300, 4);
+        final boolean[][] missing = new boolean[features.length][];
+        for (int i = 0; i < features.length; i += 7) {
+            missing[i] = new boolean[4];
+            missing[i][random.nextInt(4)] = true;
+        }
+        assertNeighbors(features, missing);
+    }
+
+    @Test
+    void testSingleRow() throws CanceledExecutionException {
+        final SmoteNeighborIndex index =
+            new SmoteNeighborIndex(new double[][]{{1.0, 2.0}}, new boolean[1][], null);
+        assertArrayEquals(new int[0], index.getNeighbors(0, 5));
+    }
+
+    private static double[][] createFeatures(final Random random, final int size, final int dims) {
+        final double[][] features = new double[size][dims];
+        for (final double[] f : features) {
+            for (int d = 0; d < dims; d++) {
+                f[d] = random.nextInt(6);
+            }
+        }
+        return features;
+    }
+
+    private static void assertNeighbors(final double[][] features, final boolean[][] missing)
+        throws CanceledExecutionException {
+        final SmoteNeighborIndex index = new SmoteNeighborIndex(features, missing, null);
+        for (final int k : new int[]{1, 5, 20}) {
+            for (int row = 0; row < features.length; row++) {
+                assertArrayEquals(exhaustiveSearch(features, missing, row, k), index.getNeighbors(row, k),
+                    "Neighbors of row " + row + " for k = " + k);
+            }
+        }
+    }
+
+    private static int[] exhaustiveSearch(final double[][] features, final boolean[][] missing, final int row,
+        final int k) {
+        final double[] distances = new double[features.length];
+        for (int i = 0; i < features.length; i++) {
+            double d = 0;
+            for (int j = 0; j < features[row].length; j++) {
+                if (!isMissing(missing, row, j) && !isMissing(missing, i, j)) {
+                    d += (features[row][j] - features[i][j]) * (features[row][j] - features[i][j]);
+                }
+            }
+            distances[i] = d;
+        }
+        final double[] others = IntStream.range(0, features.length).filter(i -> i != row)
+            .mapToDouble(i -> distances[i]).sorted().toArray();
+        final double threshold = others[Math.min(k, others.length) - 1];
+        return IntStream.range(0, features.length).filter(i -> i != row && distances[i] <= threshold).toArray();
+    }
+
+    private static boolean isMissing(final boolean[][] missing, final int row, final int dim) {
+        return missing[row] != null && missing[row][dim];
+    }
+}
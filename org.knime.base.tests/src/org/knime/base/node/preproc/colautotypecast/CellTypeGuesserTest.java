@@ -0,0 +1,124 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.colautotypecast;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.DataType;
+import org.knime.core.data.date.DateAndTimeCell;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+
+/**
+ * Tests that the {@link CellTypeGuesser} accepts exactly the strings the parse methods accept.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class CellTypeGuesserTest {
+
+    private static final String[] SAMPLES = {"", "-", "+", "0", "+1", "-1", "007", "2147483647", "2147483648",
+        "-2147483648", "-2147483649", "9223372036854775807", "9223372036854775808", "-9223372036854775808",
+        "-9223372036854775809", "٣٤", " 12 ", "1.", ".5", ".", "1..2", "1e", "1e+", "1e-3", "1E10d", "2.5f",
+        "1fx", "NaN", "-NaN", "NaNd", "Infinity", "+Infinity", "Infinit", "0x", "0x1p3", "0X.8P-2d", "0x1.p1", "0x1",
+        "abc", "1,5"};
+
+    @Test
+    void testSamples() {
+        for (String str : SAMPLES) {
+            assertSameAsParse(str);
+        }
+    }
+
+    @Test
+    void testRandomStrings() {
+        final String alphabet = "0123456789+-.eExXpPfFdDaNI \t";
+        final Random random = new Random(42);
+        for (int n = 0; n < 100000; n++) {
+            final StringBuilder str = new StringBuilder();
+            for (int i = random.nextInt(10); i > 0; i--) {
+                str.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertSameAsParse(str.toString());
+        }
+    }
+
+    @Test
+    void testGuessType() {
+        final CellTypeGuesser guesser = new CellTypeGuesser("dd.MM.yy");
+        assertEquals(DateAndTimeCell.TYPE, guessType(guesser, "24.12.20"));
+        assertEquals(IntCell.TYPE, guessType(guesser, "42"));
+        assertEquals(LongCell.TYPE, guessType(guesser, "4200000000"));
+        assertEquals(DoubleCell.TYPE, guessType(guesser, "4.2e1"));
+        assertEquals(StringCell.TYPE, guessType(guesser, "foo"));
+        // an infinite double consisting of zeros and ones is assumed to be a bit vector
+        assertEquals(StringCell.TYPE, guessType(guesser, "1".repeat(400)));
+        assertEquals(DataType.getMissingCell().getType(), guesser.guessType(DataType.getMissingCell()));
+    }
+
+    private static DataType guessType(final CellTypeGuesser guesser, final String str) {
+        return guesser.guessType(new StringCell(str));
+    }
+
+    private static void assertSameAsParse(final String str) {
+        assertEquals(parses(() -> Integer.parseInt(str)), CellTypeGuesser.isInt(str), "int: '" + str + "'");
+        assertEquals(parses(() -> Long.parseLong(str)), CellTypeGuesser.isLong(str), "long: '" + str + "'");
+        assertEquals(parses(() -> Double.parseDouble(str)), CellTypeGuesser.isDouble(str), "double: '" + str + "'");
+    }
+
+    private static boolean parses(final Runnable parse) {
+        try {
+            parse.run();
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.crossjoin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.filestore.internal.NotInWorkflowDataRepository;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.streamable.BufferedDataTableRowOutput;
+import org.knime.core.node.streamable.DataTableRowInput;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.core.node.workflow.virtual.parchunk.VirtualParallelizedChunkPortObjectInNodeFactory;
+
+/**
+ * Tests for the {@link TiledCrossJoiner}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class TiledCrossJoinerTest {
+
+    private static final DataTableSpec JOINED_SPEC =
+        new DataTableSpec(new String[]{"left", "right"}, new DataType[]{IntCell.TYPE, IntCell.TYPE});
+
+    private static ExecutionContext execContext;
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    @BeforeAll
+    static void setUpBeforeAll() {
+        execContext = new ExecutionContext(new DefaultNodeProgressMonitor(),
+            new Node((NodeFactory)new VirtualParallelizedChunkPortObjectInNodeFactory(new PortType[0])),
+            SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, NotInWorkflowDataRepository.newInstance());
+    }
+
+    /**
+     * Checks that the output equals the one of the sequential block nested loop for tiles that are smaller than,
+     * equal to and larger than the product of two chunks.
+     */
+    @Test
+    void testSameOrderAsBlockNestedLoop() throws Exception {
+        final BufferedDataTable left = createTable("l", 123);
+        final BufferedDataTable right = createTable("r", 45);
+        final int[][] chunkAndTileSizes = {{1, 1}, {1, 4096}, {7, 5}, {7, 49}, {7, 100}, {50, 3}, {1000, 4096}};
+        for (final int[] sizes : chunkAndTileSizes) {
+            assertEquals(blockNestedLoop(left, right, sizes[0]), crossJoin(left, right, sizes[0], sizes[1], 4),
+                () -> "chunk size " + sizes[0] + ", tile size " + sizes[1]);
+        }
+    }
+
+    @Test
+    void testEmptyTables() throws Exception {
+        final BufferedDataTable empty = createTable("e", 0);
+        final BufferedDataTable right = createTable("r", 10);
+        assertEquals(List.of(), crossJoin(empty, right, 3, 5, 2));
+        assertEquals(List.of(), crossJoin(right, empty, 3, 5, 2));
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new TiledCrossJoiner(TiledCrossJoinerTest::join, 0, 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> new TiledCrossJoiner(TiledCrossJoinerTest::join, 1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TiledCrossJoiner(TiledCrossJoinerTest::join, 1, 0));
+    }
+
+    private static List<String> crossJoin(final BufferedDataTable left, final BufferedDataTable right,
+        final int chunkSize, final int tileSize, final int maxThreads) throws Exception {
+        final BufferedDataTableRowOutput output =
+            new BufferedDataTableRowOutput(execContext.createDataContainer(JOINED_SPEC));
+        new TiledCrossJoiner(TiledCrossJoinerTest::join, chunkSize, tileSize, maxThreads)
+            .join(new DataTableRowInput(left), right, output, left.size() * right.size(), execContext);
+        return rowKeys(output.getDataTable());
+    }
+
+    private static List<String> blockNestedLoop(final BufferedDataTable left, final BufferedDataTable right,
+        final int chunkSize) {
+        final List<DataRow> lRows = rows(left);
+        final List<DataRow> rRows = rows(right);
+        final List<String> keys = new ArrayList<>();
+        for (int lFrom = 0; lFrom < lRows.size(); lFrom += chunkSize) {
+            for (int rFrom = 0; rFrom < rRows.size(); rFrom += chunkSize) {
+                for (final DataRow lRow : lRows.subList(lFrom, Math.min(lFrom + chunkSize, lRows.size()))) {
+                    for (final DataRow rRow : rRows.subList(rFrom, Math.min(rFrom + chunkSize, rRows.size()))) {
+                        keys.add(join(lRow, rRow).getKey().getString());
+                    }
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static DataRow join(final DataRow left, final DataRow right) {
+        return new DefaultRow(new RowKey(left.getKey() + "_" + right.getKey()), left.getCell(0), right.getCell(0));
+    }
+
+    private static BufferedDataTable createTable(final String prefix, final int numRows) {
+        final BufferedDataContainer cont = execContext
+            .createDataContainer(new DataTableSpec(new String[]{"value"}, new DataType[]{IntCell.TYPE}));
+        for (int i = 0; i < numRows; i++) {
+            cont.addRowToTable(new DefaultRow(new RowKey(prefix + i), new IntCell(i)));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    private static List<DataRow> rows(final BufferedDataTable table) {
+        final List<DataRow> rows = new ArrayList<>();
+        try (final CloseableRowIterator iterator = table.iterator()) {
+            iterator.forEachRemaining(rows::add);
+        }
+        return rows;
+    }
+
+    private static List<String> rowKeys(final BufferedDataTable table) {
+        final List<String> keys = new ArrayList<>();
+        for (final DataRow row : rows(table)) {
+            keys.add(row.getKey().getString());
+        }
+        return keys;
+    }
+}
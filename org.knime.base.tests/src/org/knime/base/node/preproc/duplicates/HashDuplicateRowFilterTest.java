@@ -0,0 +1,166 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.duplicates;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.filestore.internal.NotInWorkflowDataRepository;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.core.node.workflow.virtual.parchunk.VirtualParallelizedChunkPortObjectInNodeFactory;
+
+/**
+ * Tests for the {@link HashDuplicateRowFilter}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class HashDuplicateRowFilterTest {
+
+    private static final int NUM_ROWS = 20000;
+
+    private static ExecutionContext execContext;
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    @BeforeAll
+    static void setUpBeforeAll() {
+        execContext = new ExecutionContext(new DefaultNodeProgressMonitor(),
+            new Node((NodeFactory)new VirtualParallelizedChunkPortObjectInNodeFactory(new PortType[0])),
+            SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, NotInWorkflowDataRepository.newInstance());
+    }
+
+    @Test
+    void testInMemory() throws Exception {
+        assertFilteredCorrectly(3001, () -> false);
+    }
+
+    @Test
+    void testPartitionedOnce() throws Exception {
+        // memory runs low after the first few thousand rows
+        final AtomicInteger checks = new AtomicInteger();
+        assertFilteredCorrectly(3001, () -> checks.incrementAndGet() == 2);
+    }
+
+    @Test
+    void testPartitionedRecursively() throws Exception {
+        // few groups as every level down to the maximum depth creates its own partitions
+        assertFilteredCorrectly(50, () -> true);
+    }
+
+    private static void assertFilteredCorrectly(final int numGroups, final BooleanSupplier isMemoryLow)
+        throws Exception {
+        final BufferedDataTable input = createTable(numGroups);
+        final int[] grpIndices = {0, 1};
+        final BufferedDataTable filtered =
+            new HashDuplicateRowFilter(grpIndices, isMemoryLow).removeDuplicates(input, execContext);
+        assertEquals(expectedRowKeys(input, grpIndices), rowKeys(filtered));
+    }
+
+    private static BufferedDataTable createTable(final int numGroups) {
+        final DataTableSpec spec = new DataTableSpec(new String[]{"group", "subgroup", "value"},
+            new DataType[]{IntCell.TYPE, StringCell.TYPE, IntCell.TYPE});
+        final BufferedDataContainer cont = execContext.createDataContainer(spec);
+        for (int i = 0; i < NUM_ROWS; i++) {
+            final int group = (i * 7919) % numGroups;
+            final DataCell subgroup = i % 13 == 0 ? DataType.getMissingCell() : new StringCell("s" + (i % 3));
+            cont.addRowToTable(new DefaultRow(RowKey.createRowKey((long)i), new IntCell(group), subgroup,
+                new IntCell(i)));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    private static List<String> expectedRowKeys(final BufferedDataTable table, final int[] grpIndices) {
+        final Set<List<DataCell>> seen = new HashSet<>();
+        final List<String> keys = new ArrayList<>();
+        try (final CloseableRowIterator iterator = table.iterator()) {
+            while (iterator.hasNext()) {
+                final DataRow row = iterator.next();
+                final List<DataCell> key = new ArrayList<>();
+                for (final int i : grpIndices) {
+                    key.add(row.getCell(i));
+                }
+                if (seen.add(key)) {
+                    keys.add(row.getKey().getString());
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static List<String> rowKeys(final BufferedDataTable table) {
+        final List<String> keys = new ArrayList<>();
+        try (final CloseableRowIterator iterator = table.iterator()) {
+            while (iterator.hasNext()) {
+                keys.add(iterator.next().getKey().getString());
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.joiner3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.knime.base.node.preproc.joiner3.Joiner3Settings.RowKeyFactoryButtonGroup;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.filestore.internal.NotInWorkflowDataRepository;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.core.node.workflow.virtual.parchunk.VirtualParallelizedChunkPortObjectInNodeFactory;
+
+/**
+ * Tests for the {@link BandJoiner}. The results are compared with a nested loop join.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class BandJoinerTest {
+
+    private static final DataTableSpec LEFT_SPEC =
+        new DataTableSpec(new String[]{"value", "leftPayload"}, new DataType[]{DoubleCell.TYPE, IntCell.TYPE});
+
+    private static final DataTableSpec RIGHT_SPEC = new DataTableSpec(new String[]{"lower", "upper", "rightPayload"},
+        new DataType[]{IntCell.TYPE, DoubleCell.TYPE, IntCell.TYPE});
+
+    private static ExecutionContext execContext;
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    @BeforeAll
+    static void setUpBeforeAll() {
+        execContext = new ExecutionContext(new DefaultNodeProgressMonitor(),
+            new Node((NodeFactory)new VirtualParallelizedChunkPortObjectInNodeFactory(new PortType[0])),
+            SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, NotInWorkflowDataRepository.newInstance());
+    }
+
+    /**
+     * Compares the matches and unmatched rows with a nested loop join for all combinations of inclusive and exclusive
+     * bounds. The values are drawn from a small range such that many of them are equal to a bound, and some values
+     * and bounds are missing.
+     */
+    @Test
+    void testSameAsNestedLoopJoin() throws Exception {
+        final BufferedDataTable left = createLeftTable(new Random(42), 300);
+        final BufferedDataTable right = createRightTable(new Random(43), 200);
+        for (final boolean lowerInclusive : new boolean[]{true, false}) {
+            for (final boolean upperInclusive : new boolean[]{true, false}) {
+                final BandJoinerSettings settings = createSettings(lowerInclusive, upperInclusive);
+                settings.m_outputUnmatchedRowsToSeparatePortsModel.setBooleanValue(true);
+                final BufferedDataTable[] result =
+                    new BandJoiner(settings, LEFT_SPEC, RIGHT_SPEC).join(left, right, execContext);
+                final NestedLoopJoin expected = new NestedLoopJoin(left, right, lowerInclusive, upperInclusive);
+                final String bounds = "lower inclusive " + lowerInclusive + ", upper inclusive " + upperInclusive;
+                assertEquals(expected.m_matches, sortedRowKeys(result[0]), bounds);
+                assertEquals(expected.m_leftUnmatched, sortedRowKeys(result[1]), bounds);
+                assertEquals(expected.m_rightUnmatched, sortedRowKeys(result[2]), bounds);
+            }
+        }
+    }
+
+    /**
+     * Checks that the unmatched rows are padded with missing cells if they are output to the single output table.
+     */
+    @Test
+    void testUnmatchedRowsInSingleOutput() throws Exception {
+        final BufferedDataTable left = createTable(LEFT_SPEC, //
+            leftRow("L0", 1.5), leftRow("L1", 5.0), leftRow("L2", null));
+        final BufferedDataTable right = createTable(RIGHT_SPEC, //
+            rightRow("R0", 1, 2.0), rightRow("R1", 3, 4.0), rightRow("R2", 1, null));
+        final BandJoinerSettings settings = createSettings(true, true);
+        final BufferedDataTable[] result =
+            new BandJoiner(settings, LEFT_SPEC, RIGHT_SPEC).join(left, right, execContext);
+        assertEquals(1, result.length);
+        assertEquals(List.of("?_R1", "?_R2", "L0_R0", "L1_?", "L2_?"), sortedRowKeys(result[0]));
+        try (final CloseableRowIterator iterator = result[0].iterator()) {
+            while (iterator.hasNext()) {
+                final DataRow row = iterator.next();
+                final String key = row.getKey().getString();
+                assertEquals(key.startsWith("?"), row.getCell(1).isMissing(), key);
+                assertEquals(key.endsWith("?"), row.getCell(4).isMissing(), key);
+            }
+        }
+    }
+
+    /**
+     * Checks a band join on non-numeric columns, which uses the comparator of the column type.
+     */
+    @Test
+    void testStringBounds() throws Exception {
+        final DataTableSpec leftSpec = new DataTableSpec(new String[]{"value"}, new DataType[]{StringCell.TYPE});
+        final DataTableSpec rightSpec =
+            new DataTableSpec(new String[]{"lower", "upper"}, new DataType[]{StringCell.TYPE, StringCell.TYPE});
+        final BufferedDataTable left = createTable(leftSpec, //
+            new DefaultRow("L0", "apple"), new DefaultRow("L1", "kiwi"), new DefaultRow("L2", "plum"));
+        final BufferedDataTable right = createTable(rightSpec, //
+            new DefaultRow("R0", "a", "l"), new DefaultRow("R1", "kiwi", "z"), new DefaultRow("R2", "q", "r"));
+        final BandJoinerSettings settings = createSettings(false, true);
+        settings.m_includeRightUnmatchedModel.setBooleanValue(true);
+        settings.m_rowKeyFactoryModel.setStringValue(RowKeyFactoryButtonGroup.SEQUENTIAL.name());
+        final BufferedDataTable[] result = new BandJoiner(settings, leftSpec, rightSpec).join(left, right, execContext);
+        final List<String> joined = new ArrayList<>();
+        try (final CloseableRowIterator iterator = result[0].iterator()) {
+            while (iterator.hasNext()) {
+                final DataRow row = iterator.next();
+                joined.add(row.getCell(0) + "|" + row.getCell(1) + "|" + row.getCell(2));
+            }
+        }
+        joined.sort(null);
+        assertEquals(List.of("?|q|r", "apple|a|l", "kiwi|a|l", "plum|kiwi|z"), joined);
+    }
+
+    private static BandJoinerSettings createSettings(final boolean lowerInclusive, final boolean upperInclusive) {
+        final BandJoinerSettings settings = new BandJoinerSettings();
+        settings.m_leftValueColumnModel.setStringValue("value");
+        settings.m_rightLowerBoundColumnModel.setStringValue("lower");
+        settings.m_rightUpperBoundColumnModel.setStringValue("upper");
+        settings.m_lowerBoundInclusiveModel.setBooleanValue(lowerInclusive);
+        settings.m_upperBoundInclusiveModel.setBooleanValue(upperInclusive);
+        settings.m_includeLeftUnmatchedModel.setBooleanValue(true);
+        settings.m_includeRightUnmatchedModel.setBooleanValue(true);
+        return settings;
+    }
+
+    private static BufferedDataTable createLeftTable(final Random random, final int numRows) {
+        final List<DataRow> rows = new ArrayList<>();
+        for (int i = 0; i < numRows; i++) {
+            rows.add(leftRow("L" + i, random.nextInt(20) == 0 ? null : (double)random.nextInt(40)));
+        }
+        return createTable(LEFT_SPEC, rows.toArray(new DataRow[0]));
+    }
+
+    private static BufferedDataTable createRightTable(final Random random, final int numRows) {
+        final List<DataRow> rows = new ArrayList<>();
+        for (int i = 0; i < numRows; i++) {
+            final Integer lower = random.nextInt(20) == 0 ? null : random.nextInt(40);
+            // some intervals are empty as the upper bound is smaller than the lower bound
+            final Double upper = random.nextInt(20) == 0 || lower == null ? null
+                : (double)(lower + random.nextInt(6) - 1);
+            rows.add(rightRow("R" + i, lower, upper));
+        }
+        return createTable(RIGHT_SPEC, rows.toArray(new DataRow[0]));
+    }
+
+    private static DataRow leftRow(final String key, final Double value) {
+        return new DefaultRow(key, value == null ? DataType.getMissingCell() : new DoubleCell(value),
+            new IntCell(key.hashCode()));
+    }
+
+    private static DataRow rightRow(final String key, final Integer lower, final Double upper) {
+        return new DefaultRow(key, lower == null ? DataType.getMissingCell() : new IntCell(lower),
+            upper == null ? DataType.getMissingCell() : new DoubleCell(upper), new IntCell(key.hashCode()));
+    }
+
+    private static BufferedDataTable createTable(final DataTableSpec spec, final DataRow... rows) {
+        final BufferedDataContainer cont = execContext.createDataContainer(spec);
+        for (final DataRow row : rows) {
+            cont.addRowToTable(row);
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    private static List<String> sortedRowKeys(final BufferedDataTable table) {
+        final List<String> keys = new ArrayList<>();
+        try (final CloseableRowIterator iterator = table.iterator()) {
+            while (iterator.hasNext()) {
+                keys.add(iterator.next().getKey().getString());
+            }
+        }
+        keys.sort(null);
+        return keys;
+    }
+
+    /** The expected row keys, computed by comparing all pairs of rows. */
+    private static final class NestedLoopJoin {
+
+        private final List<String> m_matches = new ArrayList<>();
+
+        private final List<String> m_leftUnmatched = new ArrayList<>();
+
+        private final List<String> m_rightUnmatched = new ArrayList<>();
+
+        NestedLoopJoin(final BufferedDataTable left, final BufferedDataTable right, final boolean lowerInclusive,
+            final boolean upperInclusive) {
+            final List<DataRow> leftRows = rows(left);
+            final List<DataRow> rightRows = rows(right);
+            final boolean[] rightMatched = new boolean[rightRows.size()];
+            for (final DataRow leftRow : leftRows) {
+                boolean leftMatched = false;
+                for (int r = 0; r < rightRows.size(); r++) {
+                    final DataRow rightRow = rightRows.get(r);
+                    if (matches(leftRow.getCell(0), rightRow.getCell(0), rightRow.getCell(1), lowerInclusive,
+                        upperInclusive)) {
+                        m_matches.add(leftRow.getKey() + "_" + rightRow.getKey());
+                        leftMatched = true;
+                        rightMatched[r] = true;
+                    }
+                }
+                if (!leftMatched) {
+                    m_leftUnmatched.add(leftRow.getKey().getString());
+                }
+            }
+            for (int r = 0; r < rightRows.size(); r++) {
+                if (!rightMatched[r]) {
+                    m_rightUnmatched.add(rightRows.get(r).getKey().getString());
+                }
+            }
+            m_matches.sort(null);
+            m_leftUnmatched.sort(null);
+            m_rightUnmatched.sort(null);
+        }
+
+        private static boolean matches(final DataCell value, final DataCell lower, final DataCell upper,
+            final boolean lowerInclusive, final boolean upperInclusive) {
+            if (value.isMissing() || lower.isMissing() || upper.isMissing()) {
+                return false;
+            }
+            final double v = ((DoubleValue)value).getDoubleValue();
+            final double l = ((DoubleValue)lower).getDoubleValue();
+            final double u = ((DoubleValue)upper).getDoubleValue();
+            return (lowerInclusive ? l <= v : l < v) && (upperInclusive ? v <= u : v < u);
+        }
+
+        private static List<DataRow> rows(final BufferedDataTable table) {
+            final List<DataRow> rows = new ArrayList<>();
+            try (final CloseableRowIterator iterator = table.iterator()) {
+                iterator.forEachRemaining(rows::add);
+            }
+            return rows;
+        }
+    }
+}
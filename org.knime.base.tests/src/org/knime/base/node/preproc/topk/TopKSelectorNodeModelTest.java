@@ -52,11 +52,17 @@
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTable;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataType;
@@ -65,6 +71,7 @@
 import org.knime.core.data.def.DoubleCell;
 import org.knime.core.data.def.StringCell;
 import org.knime.core.data.filestore.internal.NotInWorkflowDataRepository;
+import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.DefaultNodeProgressMonitor;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.InvalidSettingsException;
@@ -207,4 +214,105 @@ public final void testExecute() throws Exception {
             assertFalse(it.hasNext());
         }
     }
+
+    /**
+     * Tests that the parallel selection of the top unique values yields the same rows as the sequential selection.
+     * @throws Exception invalid settings, node execution exception, or creating buffered data tables canceled
+     */
+    @Test
+    public final void testParallelExecute() throws Exception {
+        final var input = createTiedInput();
+        assertSameRowKeys(executeTopK(input, false, TopKMode.TOP_K_ALL_ROWS_W_UNIQUE, 3),
+            executeTopK(input, true, TopKMode.TOP_K_ALL_ROWS_W_UNIQUE, 3));
+    }
+
+    /**
+     * Tests that the parallel selection of the top rows selects the same values as the sequential selection and that
+     * the earliest rows are selected if several rows are tied with the k-th row.
+     * @throws Exception invalid settings, node execution exception, or creating buffered data tables canceled
+     */
+    @Test
+    public final void testParallelExecuteWithTies() throws Exception {
+        final var input = createTiedInput();
+        // each value occurs 50 times, i.e., k cuts through the rows of a value
+        for (final int k : new int[]{1, 3, 120}) {
+            final var sequential = executeTopK(input, false, TopKMode.TOP_K_ROWS, k);
+            final var parallel = executeTopK(input, true, TopKMode.TOP_K_ROWS, k);
+            assertEquals(values(sequential), values(parallel));
+            final Map<Double, Integer> expectedCounts = new HashMap<>();
+            values(parallel).forEach(v -> expectedCounts.merge(v, 1, Integer::sum));
+            final List<RowKey> expected = new ArrayList<>();
+            try (final var it = input.iterator()) {
+                while (it.hasNext()) {
+                    final DataRow row = it.next();
+                    final Integer remaining = expectedCounts.computeIfPresent(value(row), (v, c) -> c - 1);
+                    if (remaining != null && remaining >= 0) {
+                        expected.add(row.getKey());
+                    }
+                }
+            }
+            final List<RowKey> actual = new ArrayList<>();
+            try (final var it = parallel.iterator()) {
+                it.forEachRemaining(r -> actual.add(r.getKey()));
+            }
+            assertEquals("k = " + k, expected, actual);
+            if (k == 1) {
+                // the sequential selector of the top row selects the earliest row, too
+                assertSameRowKeys(sequential, parallel);
+            }
+        }
+    }
+
+    private static BufferedDataTable createTiedInput() {
+        final var dts = new DataTableSpec(new String[] {"Strings", "Doubles"},
+            new DataType[] {StringCell.TYPE, DoubleCell.TYPE});
+        final var cont = execContext.createDataContainer(dts);
+        for (long i = 0; i < 50000; i++) {
+            cont.addRowToTable(new DefaultRow(RowKey.createRowKey(i), new StringCell("MyRow" + i),
+                new DoubleCell((i * 7919) % 1000)));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    private static double value(final DataRow row) {
+        return ((DoubleCell)row.getCell(1)).getDoubleValue();
+    }
+
+    /** @return the sorted values of the table */
+    private static List<Double> values(final BufferedDataTable table) {
+        final List<Double> values = new ArrayList<>();
+        try (final var it = table.iterator()) {
+            it.forEachRemaining(r -> values.add(value(r)));
+        }
+        values.sort(null);
+        return values;
+    }
+
+    private static void assertSameRowKeys(final BufferedDataTable expected, final BufferedDataTable actual) {
+        assertEquals(expected.size(), actual.size());
+        try (final var expectedIt = expected.iterator(); final var actualIt = actual.iterator()) {
+            while (expectedIt.hasNext()) {
+                assertEquals(expectedIt.next().getKey(), actualIt.next().getKey());
+            }
+            assertFalse(actualIt.hasNext());
+        }
+    }
+
+    private static BufferedDataTable executeTopK(final BufferedDataTable input, final boolean parallel,
+        final TopKMode mode, final int k) throws Exception {
+        final var model = new TopKSelectorNodeModel();
+        final var settings = new NodeSettings("TopKSelector");
+        model.saveSettingsTo(settings);
+        settings.addBooleanArray(TopKSelectorNodeModel.SORTORDER_KEY, false);
+        settings.addStringArray(TopKSelectorNodeModel.INCLUDELIST_KEY, "Doubles");
+        settings.addBooleanArray(TopKSelectorNodeModel.ALPHANUMCOMP_KEY, false);
+        settings.addString("outputOrder", OutputOrder.RETAIN.name());
+        settings.addString("selectionMode", mode.getText());
+        settings.addInt("k", k);
+        settings.addBoolean("parallelSelection", parallel);
+        model.validateSettings(settings);
+        model.loadValidatedSettingsFrom(settings);
+        return model.execute(new BufferedDataTable[]{input}, execContext)[0];
+    }
 }
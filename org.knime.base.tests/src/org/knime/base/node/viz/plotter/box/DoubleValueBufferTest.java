@@ -0,0 +1,98 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.viz.plotter.box;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link DoubleValueBuffer}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class DoubleValueBufferTest {
+
+    @Test
+    void testSelectMatchesSortedOrder() {
+        final Random random = new Random(7);
+        for (final int size : new int[]{1, 2, 3, 4, 5, 17, 1000, 12345}) {
+            final DoubleValueBuffer buffer = new DoubleValueBuffer();
+            final double[] values = new double[size];
+            for (int i = 0; i < size; i++) {
+                // many duplicates
+                values[i] = random.nextInt(Math.max(1, size / 3)) - size / 6;
+                buffer.add(values[i]);
+            }
+            Arrays.sort(values);
+            assertEquals(values[0], buffer.min());
+            assertEquals(values[size - 1], buffer.max());
+            // ascending selections, as done for the quartiles
+            for (final int k : new int[]{size / 4, size / 2, 3 * size / 4, size - 1}) {
+                assertEquals(values[k], buffer.select(k), "Value at position " + k + " of " + size);
+            }
+            // descending selections start from scratch
+            for (int k = size - 1; k >= 0; k -= Math.max(1, size / 7)) {
+                assertEquals(values[k], buffer.select(k), "Value at position " + k + " of " + size);
+            }
+        }
+    }
+
+    @Test
+    void testSelectOnSortedInput() {
+        final DoubleValueBuffer buffer = new DoubleValueBuffer();
+        final int size = 100000;
+        for (int i = 0; i < size; i++) {
+            buffer.add(i);
+        }
+        assertEquals(size / 4, buffer.select(size / 4));
+        assertEquals(size / 2, buffer.select(size / 2));
+        assertEquals(3 * size / 4, buffer.select(3 * size / 4));
+    }
+}
@@ -48,10 +48,14 @@
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
 
 import junit.framework.TestCase;
 
@@ -137,6 +141,50 @@ public void testSearch() {
         }
     }
 
+    /**
+     * Tests that all patterns having the same distance as the k-th nearest
+     * neighbour are returned, independent of the order in which they are
+     * visited.
+     */
+    public void testEquidistantNeighbours() {
+        final Random rand = new Random(3);
+        for (int i = 0; i < 50; i++) {
+            final int size = rand.nextInt(500) + 1;
+            KDTreeBuilder<Integer> builder = new KDTreeBuilder<Integer>(3);
+            final double[][] patterns = new double[size][3];
+            for (int j = 0; j < size; j++) {
+                for (int k = 0; k < 3; k++) {
+                    // few distinct coordinates lead to many ties
+                    patterns[j][k] = rand.nextInt(6);
+                }
+                builder.addPattern(patterns[j], j);
+            }
+            KDTree<Integer> tree = builder.buildTree(rand.nextInt(8) + 1);
+            final double[] query = patterns[rand.nextInt(size)];
+            final int neighbours = rand.nextInt(Math.min(size, 20)) + 1;
+
+            final double[] dists = new double[size];
+            for (int j = 0; j < size; j++) {
+                dists[j] = new Helper(patterns[j], j, query).m_dist;
+            }
+            final double[] sortedDists = dists.clone();
+            Arrays.sort(sortedDists);
+            final Set<Integer> expected = new HashSet<Integer>();
+            for (int j = 0; j < size; j++) {
+                if (dists[j] <= sortedDists[neighbours - 1]) {
+                    expected.add(j);
+                }
+            }
+
+            final Set<Integer> actual = new HashSet<Integer>();
+            for (NearestNeighbour<Integer> nn : tree.getKNearestNeighbours(
+                    query, neighbours, true)) {
+                actual.add(nn.getData());
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
     private void singleTest(final int size, final int dimensions,
             final int neighbours, final int bucketSize) {
         KDTreeBuilder<Integer> builder = new KDTreeBuilder<Integer>(dimensions);
@@ -47,6 +47,7 @@
  */
 package org.knime.base.node.io.arffreader;
 
+import org.knime.base.node.io.filehandling.arff.reader.ARFFTableReaderNodeFactory;
 import org.knime.core.node.NodeDialogPane;
 import org.knime.core.node.NodeFactory;
 import org.knime.core.node.NodeModel;
@@ -55,7 +56,9 @@
 /**
  * 
  * @author Peter Ohl, University of Konstanz
+ * @deprecated replaced by {@link ARFFTableReaderNodeFactory}
  */
+@Deprecated
 public class ARFFReaderNodeFactory extends NodeFactory {
 
     private final String m_fileURL;
@@ -0,0 +1,477 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.data.neural.methods;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.knime.base.data.neural.Layer;
+import org.knime.base.data.neural.MultiLayerPerceptron;
+import org.knime.base.data.neural.Perceptron;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+import org.knime.filehandling.core.util.ThreadPoolUtils;
+
+/**
+ * Alternative implementation of the {@link RProp} algorithm that keeps the weights and thresholds of each layer in
+ * contiguous double arrays instead of walking the object graph of a {@link MultiLayerPerceptron}. The patterns are
+ * split into partitions that are processed by separate threads; within a partition the forward and backward waves
+ * are computed for blocks of patterns at once. The gradients of the partitions are summed up before the weights are
+ * updated, i.e. as {@link RProp} this is a batch learning method.
+ *
+ * <p>
+ * The weights are copied from the network upon construction and can be written back with
+ * {@link #writeTo(MultiLayerPerceptron)}, e.g. in order to export the trained network. The partitioning only depends
+ * on the number of patterns, hence the training is deterministic and independent of the number of available
+ * processors.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 5.1
+ */
+public final class FlatRProp {
+    /*
+     * Lower limit for update-values. (As proposed in the paper)
+     */
+    private static final double DELTA_MIN = 1E-6;
+
+    /*
+     * Upper limit for update-values. (As proposed in the paper)
+     */
+    private static final double DELTA_MAX = 50.0;
+
+    /** Number of patterns for which the waves are computed at once. */
+    private static final int BLOCK_SIZE = 64;
+
+    private static final int MIN_PATTERNS_PER_PARTITION = 512;
+
+    private static final int MAX_PARTITIONS = 32;
+
+    private final double m_etaPlus;
+
+    private final double m_etaMinus;
+
+    /** Number of neurons per layer, including the input layer. */
+    private final int[] m_sizes;
+
+    /** Per non-input layer the weights, the ones of neuron j start at j * (size of the previous layer). */
+    private final double[][] m_weights;
+
+    private final double[][] m_thresholds;
+
+    private final double[][] m_etaIJ;
+
+    private final double[][] m_thrEtaIJ;
+
+    private final double[][] m_oldErrDers;
+
+    private final double[][] m_oldThrErrDers;
+
+    private Partition[] m_partitions;
+
+    /**
+     * Creates a new engine for the given network, using the default learning rate of 0.1, increase parameter 1.2
+     * and decrease parameter 0.5 as proposed in the paper.
+     *
+     * @param nn the network whose weights are the starting point of the training
+     */
+    public FlatRProp(final MultiLayerPerceptron nn) {
+        this(nn, 1.2, 0.5, 0.1);
+    }
+
+    /**
+     * Creates a new engine for the given network.
+     *
+     * @param nn the network whose weights are the starting point of the training
+     * @param etaPlus increase parameter
+     * @param etaMinus decrease parameter
+     * @param etaNull initial learning rate
+     */
+    public FlatRProp(final MultiLayerPerceptron nn, final double etaPlus, final double etaMinus,
+        final double etaNull) {
+        m_etaPlus = etaPlus;
+        m_etaMinus = etaMinus;
+        final Layer[] layers = nn.getLayers();
+        m_sizes = new int[layers.length];
+        for (int l = 0; l < layers.length; l++) {
+            m_sizes[l] = layers[l].getPerceptrons().length;
+        }
+        final int nrLayers = layers.length - 1;
+        m_weights = new double[nrLayers][];
+        m_thresholds = new double[nrLayers][];
+        m_etaIJ = new double[nrLayers][];
+        m_thrEtaIJ = new double[nrLayers][];
+        m_oldErrDers = new double[nrLayers][];
+        m_oldThrErrDers = new double[nrLayers][];
+        for (int l = 0; l < nrLayers; l++) {
+            final int nrIn = m_sizes[l];
+            final int nrOut = m_sizes[l + 1];
+            m_weights[l] = new double[nrOut * nrIn];
+            m_thresholds[l] = new double[nrOut];
+            for (int j = 0; j < nrOut; j++) {
+                final Perceptron p = layers[l + 1].getPerceptron(j);
+                for (int k = 0; k < nrIn; k++) {
+                    m_weights[l][j * nrIn + k] = p.getWeight(k);
+                }
+                m_thresholds[l][j] = p.getThreshold();
+            }
+            m_etaIJ[l] = new double[nrOut * nrIn];
+            Arrays.fill(m_etaIJ[l], etaNull);
+            m_thrEtaIJ[l] = new double[nrOut];
+            Arrays.fill(m_thrEtaIJ[l], etaNull);
+            m_oldErrDers[l] = new double[nrOut * nrIn];
+            m_oldThrErrDers[l] = new double[nrOut];
+        }
+    }
+
+    /**
+     * Train the neural network once, i.e. computes the gradient over all patterns and updates the weights.
+     *
+     * @param samples the samples
+     * @param outputs the desired outputs for these samples
+     * @return the sum of squared errors of the network before the update, which is computed as a by-product
+     */
+    public double train(final double[][] samples, final double[][] outputs) {
+        final Partition[] partitions = getPartitions(samples.length);
+        process(partitions, samples, outputs, true);
+        double error = 0;
+        for (Partition p : partitions) {
+            error += p.m_error;
+        }
+        // sum up the gradients in a fixed order
+        final Partition total = partitions[0];
+        for (int i = 1; i < partitions.length; i++) {
+            for (int l = 0; l < m_weights.length; l++) {
+                add(total.m_errDers[l], partitions[i].m_errDers[l]);
+                add(total.m_thrErrDers[l], partitions[i].m_thrErrDers[l]);
+            }
+        }
+        for (int l = 0; l < m_weights.length; l++) {
+            update(m_weights[l], total.m_errDers[l], m_etaIJ[l], m_oldErrDers[l]);
+            update(m_thresholds[l], total.m_thrErrDers[l], m_thrEtaIJ[l], m_oldThrErrDers[l]);
+        }
+        return error;
+    }
+
+    /**
+     * Computes the sum of squared errors of the network.
+     *
+     * @param samples the samples
+     * @param outputs the desired outputs for these samples
+     * @return the sum of squared errors
+     */
+    public double getError(final double[][] samples, final double[][] outputs) {
+        final Partition[] partitions = getPartitions(samples.length);
+        process(partitions, samples, outputs, false);
+        double error = 0;
+        for (Partition p : partitions) {
+            error += p.m_error;
+        }
+        return error;
+    }
+
+    /**
+     * Evaluates input and returns output of output neurons.
+     *
+     * @param in input for the net
+     * @return output of the output neurons after having processed a forward wave through the net
+     */
+    public double[] output(final double[] in) {
+        final Partition p = new Partition(0, 1);
+        p.forward(new double[][]{in}, 0, 1);
+        final double[] out = p.m_output[m_sizes.length - 1];
+        return Arrays.copyOf(out, m_sizes[m_sizes.length - 1]);
+    }
+
+    /**
+     * Writes the current weights and thresholds into the given network, which must have the same architecture as
+     * the network this engine has been created with.
+     *
+     * @param nn the network to write the weights to
+     */
+    public void writeTo(final MultiLayerPerceptron nn) {
+        final Layer[] layers = nn.getLayers();
+        if (layers.length != m_sizes.length) {
+            throw new IllegalArgumentException("The network has " + layers.length + " layers instead of "
+                + m_sizes.length);
+        }
+        for (int l = 0; l < m_weights.length; l++) {
+            final int nrIn = m_sizes[l];
+            for (int j = 0; j < m_sizes[l + 1]; j++) {
+                final Perceptron p = layers[l + 1].getPerceptron(j);
+                for (int k = 0; k < nrIn; k++) {
+                    p.setWeight(k, m_weights[l][j * nrIn + k]);
+                }
+                p.setThreshold(m_thresholds[l][j]);
+            }
+        }
+    }
+
+    /* The partitions only depend on the number of patterns, they are reused as long as that doesn't change. */
+    private Partition[] getPartitions(final int nrPatterns) {
+        if (m_partitions == null || m_partitions[m_partitions.length - 1].m_to != nrPatterns) {
+            final int nrPartitions =
+                Math.max(1, Math.min(MAX_PARTITIONS, nrPatterns / MIN_PATTERNS_PER_PARTITION));
+            final int size = (nrPatterns + nrPartitions - 1) / nrPartitions;
+            final List<Partition> partitions = new ArrayList<>(nrPartitions);
+            for (int from = 0; from < nrPatterns || partitions.isEmpty(); from += size) {
+                partitions.add(new Partition(from, Math.min(from + size, nrPatterns)));
+            }
+            m_partitions = partitions.toArray(new Partition[0]);
+        }
+        return m_partitions;
+    }
+
+    private void process(final Partition[] partitions, final double[][] samples, final double[][] outputs,
+        final boolean computeGradient) {
+        if (partitions.length == 1) {
+            partitions[0].process(samples, outputs, computeGradient);
+            return;
+        }
+        final int nrThreads = Math.min(partitions.length, Runtime.getRuntime().availableProcessors());
+        final ThreadPool pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(nrThreads);
+        final List<Callable<Void>> tasks = new ArrayList<>(partitions.length);
+        for (Partition p : partitions) {
+            tasks.add(() -> {
+                p.process(samples, outputs, computeGradient);
+                return null;
+            });
+        }
+        ThreadPoolUtils.invokeAll(pool, tasks);
+    }
+
+    private static void add(final double[] sum, final double[] summand) {
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] += summand[i];
+        }
+    }
+
+    /* The RProp update rule, see RProp#train. */
+    private void update(final double[] values, final double[] errDers, final double[] etaIJ,
+        final double[] oldErrDers) {
+        for (int i = 0; i < values.length; i++) {
+            final double errDer = errDers[i];
+            final double oldErrDer = oldErrDers[i];
+            if ((errDer * oldErrDer) > 0.0) {
+                etaIJ[i] = Math.min(etaIJ[i] * m_etaPlus, DELTA_MAX);
+                values[i] += -RProp.sgn(errDer) * etaIJ[i];
+                oldErrDers[i] = errDer;
+            } else if ((errDer * oldErrDer) < 0.0) {
+                etaIJ[i] = Math.max(etaIJ[i] * m_etaMinus, DELTA_MIN);
+                oldErrDers[i] = 0;
+            } else if ((errDer * oldErrDer) == 0) {
+                values[i] += -RProp.sgn(errDer) * etaIJ[i];
+                oldErrDers[i] = errDer;
+            }
+        }
+    }
+
+    /* Sigmoid activation function, see SigmoidPerceptron#activationFunction. */
+    private static double sigmoid(final double in) {
+        if (in < -37) {
+            return 0;
+        } else if (in > 37) {
+            return 1;
+        }
+        return 1 / (1 + Math.exp(-in));
+    }
+
+    /**
+     * A range of patterns together with the buffers for the waves and the gradient computed over the range.
+     */
+    private final class Partition {
+
+        private final int m_from;
+
+        private final int m_to;
+
+        /** Per layer the outputs of the neurons for a block of patterns, pattern by pattern. */
+        private final double[][] m_output;
+
+        /** Per layer the deltas of the neurons for a block of patterns, pattern by pattern. */
+        private final double[][] m_delta;
+
+        private final double[] m_sum;
+
+        private double[][] m_errDers;
+
+        private double[][] m_thrErrDers;
+
+        private double m_error;
+
+        Partition(final int from, final int to) {
+            m_from = from;
+            m_to = to;
+            final int blockSize = Math.max(1, Math.min(BLOCK_SIZE, to - from));
+            m_output = new double[m_sizes.length][];
+            m_delta = new double[m_sizes.length][];
+            int maxSize = 0;
+            for (int l = 0; l < m_sizes.length; l++) {
+                m_output[l] = new double[blockSize * m_sizes[l]];
+                m_delta[l] = new double[blockSize * m_sizes[l]];
+                maxSize = Math.max(maxSize, m_sizes[l]);
+            }
+            m_sum = new double[maxSize];
+        }
+
+        void process(final double[][] samples, final double[][] outputs, final boolean computeGradient) {
+            if (computeGradient) {
+                if (m_errDers == null) {
+                    m_errDers = new double[m_weights.length][];
+                    m_thrErrDers = new double[m_weights.length][];
+                    for (int l = 0; l < m_weights.length; l++) {
+                        m_errDers[l] = new double[m_weights[l].length];
+                        m_thrErrDers[l] = new double[m_thresholds[l].length];
+                    }
+                } else {
+                    for (int l = 0; l < m_weights.length; l++) {
+                        Arrays.fill(m_errDers[l], 0);
+                        Arrays.fill(m_thrErrDers[l], 0);
+                    }
+                }
+            }
+            m_error = 0;
+            for (int s = m_from; s < m_to; s += BLOCK_SIZE) {
+                final int nrPatterns = Math.min(BLOCK_SIZE, m_to - s);
+                forward(samples, s, nrPatterns);
+                final int last = m_sizes.length - 1;
+                final int nrOut = m_sizes[last];
+                for (int b = 0; b < nrPatterns; b++) {
+                    for (int j = 0; j < nrOut; j++) {
+                        final double diff = m_output[last][b * nrOut + j] - outputs[s + b][j];
+                        m_error += diff * diff;
+                    }
+                }
+                if (computeGradient) {
+                    backward(outputs, s, nrPatterns);
+                    accumulate(nrPatterns);
+                }
+            }
+        }
+
+        /* Forward wave. */
+        void forward(final double[][] samples, final int start, final int nrPatterns) {
+            final int nrInputs = m_sizes[0];
+            for (int b = 0; b < nrPatterns; b++) {
+                System.arraycopy(samples[start + b], 0, m_output[0], b * nrInputs, nrInputs);
+            }
+            for (int l = 1; l < m_sizes.length; l++) {
+                final double[] in = m_output[l - 1];
+                final double[] out = m_output[l];
+                final double[] weights = m_weights[l - 1];
+                final double[] thresholds = m_thresholds[l - 1];
+                final int nrIn = m_sizes[l - 1];
+                final int nrOut = m_sizes[l];
+                for (int b = 0; b < nrPatterns; b++) {
+                    final int inOffset = b * nrIn;
+                    for (int j = 0; j < nrOut; j++) {
+                        final int wOffset = j * nrIn;
+                        double sum = 0.0;
+                        for (int k = 0; k < nrIn; k++) {
+                            sum += in[inOffset + k] * weights[wOffset + k];
+                        }
+                        out[b * nrOut + j] = sigmoid(sum - thresholds[j]);
+                    }
+                }
+            }
+        }
+
+        /* Backward wave, the deltas of the input layer are not needed. */
+        private void backward(final double[][] outputs, final int start, final int nrPatterns) {
+            final int last = m_sizes.length - 1;
+            final int nrOut = m_sizes[last];
+            for (int b = 0; b < nrPatterns; b++) {
+                for (int j = 0; j < nrOut; j++) {
+                    final double y = m_output[last][b * nrOut + j];
+                    m_delta[last][b * nrOut + j] = (outputs[start + b][j] - y) * y * (1 - y);
+                }
+            }
+            for (int l = last - 1; l > 0; l--) {
+                final double[] weights = m_weights[l];
+                final int nrIn = m_sizes[l];
+                final int nrNext = m_sizes[l + 1];
+                for (int b = 0; b < nrPatterns; b++) {
+                    Arrays.fill(m_sum, 0, nrIn, 0.0);
+                    for (int j = 0; j < nrNext; j++) {
+                        final double d = m_delta[l + 1][b * nrNext + j];
+                        final int wOffset = j * nrIn;
+                        for (int k = 0; k < nrIn; k++) {
+                            m_sum[k] += d * weights[wOffset + k];
+                        }
+                    }
+                    for (int k = 0; k < nrIn; k++) {
+                        final double y = m_output[l][b * nrIn + k];
+                        m_delta[l][b * nrIn + k] = y * (1 - y) * m_sum[k];
+                    }
+                }
+            }
+        }
+
+        /* Adds the error derivations of the current block. */
+        private void accumulate(final int nrPatterns) {
+            for (int l = 0; l < m_weights.length; l++) {
+                final double[] errDers = m_errDers[l];
+                final double[] thrErrDers = m_thrErrDers[l];
+                final double[] in = m_output[l];
+                final double[] delta = m_delta[l + 1];
+                final int nrIn = m_sizes[l];
+                final int nrOut = m_sizes[l + 1];
+                for (int b = 0; b < nrPatterns; b++) {
+                    final int inOffset = b * nrIn;
+                    for (int j = 0; j < nrOut; j++) {
+                        final double d = delta[b * nrOut + j];
+                        final int wOffset = j * nrIn;
+                        for (int k = 0; k < nrIn; k++) {
+                            errDers[wOffset + k] += in[inOffset + k] * -d;
+                        }
+                        thrErrDers[j] += d;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,412 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.data.sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Predicate;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+import org.knime.filehandling.core.util.ThreadPoolUtils;
+
+/**
+ * Sorts the values of several score columns in descending order, each of them together with a binary label of its row,
+ * e.g., whether the row belongs to the positive class. This is what ROC curves and lift charts are based on.
+ *
+ * <p>
+ * Instead of sorting the whole table once per score column, the table is scanned once and the scores and labels are
+ * copied into primitive arrays, which are then sorted in parallel. The sort is stable, i.e., rows with equal scores
+ * retain their input order, and rows with a missing score are placed at the end, as they would be when sorting the
+ * table in descending order. If the arrays of all columns don't fit into memory at once, the columns are processed in
+ * batches, each of them requiring a scan of the table.
+ * </p>
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 5.1
+ */
+public final class ScoreSorter {
+
+    /** Ranges up to this length are sorted using insertion sort. */
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    /** The minimum number of scores sorted by a single thread. */
+    private static final int MIN_RUN_LENGTH = 1 << 16;
+
+    /** The scores, the labels and the merge buffers take 18 bytes per row. */
+    private static final long BYTES_PER_ROW = 2 * (Double.BYTES + 1);
+
+    private final Predicate<DataCell> m_isPositive;
+
+    private final boolean m_skipMissingLabels;
+
+    private final boolean m_skipMissingScores;
+
+    /**
+     * Creates a new sorter.
+     *
+     * @param isPositive tells whether a label cell represents the positive class; it is applied to missing cells unless
+     *            rows with missing labels are skipped
+     * @param skipMissingLabels whether rows with a missing label are skipped
+     * @param skipMissingScores whether rows with a missing score are skipped
+     */
+    public ScoreSorter(final Predicate<DataCell> isPositive, final boolean skipMissingLabels,
+        final boolean skipMissingScores) {
+        m_isPositive = isPositive;
+        m_skipMissingLabels = skipMissingLabels;
+        m_skipMissingScores = skipMissingScores;
+    }
+
+    /**
+     * Consumes the sorted scores of a column.
+     */
+    @FunctionalInterface
+    public interface SortedScoresConsumer {
+        /**
+         * @param scoreColumn the position of the column in the array of score columns passed to the sorter
+         * @param scores the sorted scores
+         * @throws CanceledExecutionException if the execution has been canceled
+         */
+        void accept(int scoreColumn, SortedScores scores) throws CanceledExecutionException;
+    }
+
+    /**
+     * Sorts the scores of the given columns. The columns must be compatible with {@link DoubleValue}.
+     *
+     * @param table the table to sort
+     * @param labelColumn the index of the label column
+     * @param scoreColumns the indices of the score columns
+     * @param maxThreads the maximum number of threads used for sorting
+     * @param exec the execution context used to report progress
+     * @param consumer receives the sorted scores of each column, one column after the other
+     * @return {@code false} if the scores of a single column don't fit into memory or the table is too large for
+     *         arrays; the consumer has not been called in this case and the caller should fall back to sorting the
+     *         table
+     * @throws CanceledExecutionException if the execution has been canceled
+     */
+    public boolean sort(final BufferedDataTable table, final int labelColumn, final int[] scoreColumns,
+        final int maxThreads, final ExecutionContext exec, final SortedScoresConsumer consumer)
+        throws CanceledExecutionException {
+        final long numRows = table.size();
+        if (numRows > Integer.MAX_VALUE - 8) {
+            return false;
+        }
+        final Runtime runtime = Runtime.getRuntime();
+        // leave half of the available memory to the rest of the workflow
+        final long availableMemory = (runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory())) / 2;
+        final int batchSize =
+            (int)Math.min(scoreColumns.length, availableMemory / Math.max(1, numRows * BYTES_PER_ROW));
+        if (batchSize == 0 && scoreColumns.length > 0) {
+            return false;
+        }
+        final ThreadPool pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(Math.max(1, maxThreads));
+        for (int from = 0; from < scoreColumns.length; from += batchSize) {
+            final int to = Math.min(from + batchSize, scoreColumns.length);
+            final double batchProgress = (to - from) / (double)scoreColumns.length;
+            final SortedScores[] batch =
+                scan(table, labelColumn, scoreColumns, from, to, exec.createSubProgress(0.5 * batchProgress));
+            for (int i = from; i < to; i++) {
+                final ExecutionContext sortExec = exec.createSubExecutionContext(0.5 / scoreColumns.length);
+                batch[i - from].sort(pool, maxThreads, sortExec);
+                consumer.accept(i, batch[i - from]);
+                // allow the arrays to be garbage collected
+                batch[i - from] = null;
+                sortExec.setProgress(1.0);
+            }
+        }
+        return true;
+    }
+
+    private SortedScores[] scan(final BufferedDataTable table, final int labelColumn, final int[] scoreColumns,
+        final int from, final int to, final ExecutionMonitor exec)
+        throws CanceledExecutionException {
+        final int numRows = (int)table.size();
+        final SortedScores[] scores = new SortedScores[to - from];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = new SortedScores(numRows);
+        }
+        long rowCnt = 0;
+        try (final CloseableRowIterator iterator = table.iterator()) {
+            while (iterator.hasNext()) {
+                exec.checkCanceled();
+                final DataRow row = iterator.next();
+                exec.setProgress(++rowCnt / (double)numRows);
+                final DataCell labelCell = row.getCell(labelColumn);
+                if (labelCell.isMissing() && m_skipMissingLabels) {
+                    continue;
+                }
+                final boolean isPositive = m_isPositive.test(labelCell);
+                for (int i = 0; i < scores.length; i++) {
+                    final DataCell scoreCell = row.getCell(scoreColumns[from + i]);
+                    if (!scoreCell.isMissing()) {
+                        scores[i].addScore(((DoubleValue)scoreCell).getDoubleValue(), isPositive,
+                            labelCell.isMissing());
+                    } else if (!m_skipMissingScores) {
+                        scores[i].addMissingScore(isPositive);
+                    }
+                }
+            }
+        }
+        for (final SortedScores s : scores) {
+            s.finishScan();
+        }
+        return scores;
+    }
+
+    /**
+     * The scores and labels of a single column, sorted by descending score. Rows with a missing score are at the end.
+     */
+    public static final class SortedScores {
+
+        private double[] m_scores;
+
+        private boolean[] m_labels;
+
+        /** The number of non-missing scores. */
+        private int m_numScores;
+
+        /** The number of missing scores; their labels are stored in reverse order at the end until the scan ends. */
+        private int m_numMissingScores;
+
+        private boolean m_containsMissingValues;
+
+        private SortedScores(final int capacity) {
+            m_scores = new double[capacity];
+            m_labels = new boolean[capacity];
+        }
+
+        private void addScore(final double score, final boolean isPositive, final boolean isMissingLabel) {
+            m_scores[m_numScores] = score;
+            m_labels[m_numScores] = isPositive;
+            m_numScores++;
+            m_containsMissingValues |= isMissingLabel;
+        }
+
+        private void addMissingScore(final boolean isPositive) {
+            m_numMissingScores++;
+            m_labels[m_labels.length - m_numMissingScores] = isPositive;
+            m_containsMissingValues = true;
+        }
+
+        private void finishScan() {
+            final int start = m_labels.length - m_numMissingScores;
+            // restore the input order of the missing scores' labels, then move them behind the scored rows
+            for (int i = start, j = m_labels.length - 1; i < j; i++, j--) {
+                final boolean tmp = m_labels[i];
+                m_labels[i] = m_labels[j];
+                m_labels[j] = tmp;
+            }
+            // the regions might overlap, which arraycopy handles
+            System.arraycopy(m_labels, start, m_labels, m_numScores, m_numMissingScores);
+        }
+
+        private void sort(final ThreadPool pool, final int maxThreads, final ExecutionContext exec)
+            throws CanceledExecutionException {
+            final int numRuns = Math.max(1, Math.min(maxThreads, m_numScores / MIN_RUN_LENGTH));
+            final double[] scoreBuffer = new double[m_numScores];
+            final boolean[] labelBuffer = new boolean[m_numScores];
+            final int[] bounds = new int[numRuns + 1];
+            for (int i = 0; i <= numRuns; i++) {
+                bounds[i] = (int)((long)m_numScores * i / numRuns);
+            }
+            final List<Callable<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < numRuns; i++) {
+                final int from = bounds[i];
+                final int to = bounds[i + 1];
+                tasks.add(() -> {
+                    mergeSort(m_scores, m_labels, scoreBuffer, labelBuffer, from, to);
+                    return null;
+                });
+            }
+            runAll(pool, tasks, exec);
+            // merge adjacent runs until a single run is left
+            for (int width = 1; width < numRuns; width *= 2) {
+                tasks.clear();
+                for (int i = 0; i + width < numRuns; i += 2 * width) {
+                    final int from = bounds[i];
+                    final int mid = bounds[i + width];
+                    final int to = bounds[Math.min(i + 2 * width, numRuns)];
+                    tasks.add(() -> {
+                        mergeRuns(m_scores, m_labels, scoreBuffer, labelBuffer, from, mid, to);
+                        return null;
+                    });
+                }
+                runAll(pool, tasks, exec);
+            }
+        }
+
+        /**
+         * @return the number of rows, including the ones with missing score
+         */
+        public int size() {
+            return m_numScores + m_numMissingScores;
+        }
+
+        /**
+         * @param index the position in the sorted order
+         * @return the score at the given position, only defined if the score is not missing
+         */
+        public double getScore(final int index) {
+            return m_scores[index];
+        }
+
+        /**
+         * @param index the position in the sorted order
+         * @return whether the score at the given position is missing
+         */
+        public boolean isMissingScore(final int index) {
+            return index >= m_numScores;
+        }
+
+        /**
+         * @param index the position in the sorted order
+         * @return whether the row at the given position has the positive label
+         */
+        public boolean isPositive(final int index) {
+            return m_labels[index];
+        }
+
+        /**
+         * @param index1 a position in the sorted order
+         * @param index2 another position in the sorted order
+         * @return whether the scores at both positions are equal; missing scores are equal to each other
+         */
+        public boolean isSameScore(final int index1, final int index2) {
+            if (isMissingScore(index1) || isMissingScore(index2)) {
+                return isMissingScore(index1) && isMissingScore(index2);
+            }
+            return Double.compare(m_scores[index1], m_scores[index2]) == 0;
+        }
+
+        /**
+         * @return whether any of the rows has a missing label or a missing score
+         */
+        public boolean containsMissingValues() {
+            return m_containsMissingValues;
+        }
+    }
+
+    private static void runAll(final ThreadPool pool, final List<Callable<Void>> tasks,
+        final ExecutionContext exec) throws CanceledExecutionException {
+        if (tasks.size() == 1) {
+            try {
+                tasks.get(0).call();
+            } catch (Exception e) { // NOSONAR the tasks don't throw checked exceptions
+                throw new IllegalStateException(e);
+            }
+            return;
+        }
+        ThreadPoolUtils.invokeAll(pool, tasks, exec);
+        exec.checkCanceled();
+    }
+
+    /**
+     * Stable merge sort in descending order, moving the labels along with the scores.
+     */
+    private static void mergeSort(final double[] scores, final boolean[] labels, final double[] scoreBuffer,
+        final boolean[] labelBuffer, final int from, final int to) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(scores, labels, from, to);
+            return;
+        }
+        final int mid = (from + to) >>> 1;
+        mergeSort(scores, labels, scoreBuffer, labelBuffer, from, mid);
+        mergeSort(scores, labels, scoreBuffer, labelBuffer, mid, to);
+        mergeRuns(scores, labels, scoreBuffer, labelBuffer, from, mid, to);
+    }
+
+    private static void mergeRuns(final double[] scores, final boolean[] labels, final double[] scoreBuffer,
+        final boolean[] labelBuffer, final int from, final int mid, final int to) {
+        if (Double.compare(scores[mid - 1], scores[mid]) >= 0) {
+            // already in order
+            return;
+        }
+        System.arraycopy(scores, from, scoreBuffer, from, to - from);
+        System.arraycopy(labels, from, labelBuffer, from, to - from);
+        int i = from;
+        int j = mid;
+        int k = from;
+        while (i < mid && j < to) {
+            // take from the left run on ties to keep the sort stable
+            if (Double.compare(scoreBuffer[i], scoreBuffer[j]) >= 0) {
+                scores[k] = scoreBuffer[i];
+                labels[k++] = labelBuffer[i++];
+            } else {
+                scores[k] = scoreBuffer[j];
+                labels[k++] = labelBuffer[j++];
+            }
+        }
+        System.arraycopy(scoreBuffer, i, scores, k, mid - i);
+        System.arraycopy(labelBuffer, i, labels, k, mid - i);
+        k += mid - i;
+        System.arraycopy(scoreBuffer, j, scores, k, to - j);
+        System.arraycopy(labelBuffer, j, labels, k, to - j);
+    }
+
+    private static void insertionSort(final double[] scores, final boolean[] labels, final int from, final int to) {
+        for (int i = from + 1; i < to; i++) {
+            final double score = scores[i];
+            final boolean label = labels[i];
+            int j = i - 1;
+            while (j >= from && Double.compare(scores[j], score) < 0) {
+                scores[j + 1] = scores[j];
+                labels[j + 1] = labels[j];
+                j--;
+            }
+            scores[j + 1] = score;
+            labels[j + 1] = label;
+        }
+    }
+}
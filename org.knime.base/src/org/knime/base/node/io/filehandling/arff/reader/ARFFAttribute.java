@@ -0,0 +1,166 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.arff.reader;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.knime.core.data.DataType;
+import org.knime.core.data.DataValue;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+
+/**
+ * An attribute declared in the header of an ARFF file.</br>
+ * Numeric and real attributes are read as doubles, integer attributes as integers and string, date and nominal
+ * attributes as strings.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ARFFAttribute {
+
+    private static final DoubleCell DOUBLE_ZERO = new DoubleCell(0);
+
+    private static final IntCell INT_ZERO = new IntCell(0);
+
+    enum Kind {
+            NUMERIC(DoubleCell.TYPE), INTEGER(IntCell.TYPE), STRING(StringCell.TYPE), DATE(StringCell.TYPE),
+            NOMINAL(StringCell.TYPE);
+
+        private final DataType m_type;
+
+        Kind(final DataType type) {
+            m_type = type;
+        }
+    }
+
+    private final String m_name;
+
+    private final Kind m_kind;
+
+    /** The cells of the declared nominal values, shared by all rows. */
+    private final Map<String, StringCell> m_nominalCells;
+
+    private final DataValue m_sparseDefault;
+
+    private ARFFAttribute(final String name, final Kind kind, final List<String> nominalValues) {
+        m_name = name;
+        m_kind = kind;
+        m_nominalCells = new HashMap<>();
+        for (final String value : nominalValues) {
+            m_nominalCells.putIfAbsent(value, new StringCell(value));
+        }
+        m_sparseDefault = createSparseDefault(kind, nominalValues);
+    }
+
+    static ARFFAttribute create(final String name, final Kind kind) {
+        return new ARFFAttribute(name, kind, Collections.emptyList());
+    }
+
+    static ARFFAttribute createNominal(final String name, final List<String> values) {
+        return new ARFFAttribute(name, Kind.NOMINAL, values);
+    }
+
+    /**
+     * In sparse rows omitted values are 0 for numeric attributes and the first declared value for nominal attributes.
+     * String and date attributes don't have such a value and are missing.
+     */
+    private DataValue createSparseDefault(final Kind kind, final List<String> nominalValues) {
+        switch (kind) {
+            case NUMERIC:
+                return DOUBLE_ZERO;
+            case INTEGER:
+                return INT_ZERO;
+            case NOMINAL:
+                return nominalValues.isEmpty() ? null : m_nominalCells.get(nominalValues.get(0));
+            default:
+                return null;
+        }
+    }
+
+    String getName() {
+        return m_name;
+    }
+
+    Kind getKind() {
+        return m_kind;
+    }
+
+    DataType getType() {
+        return m_kind.m_type;
+    }
+
+    /**
+     * @return the value of this attribute if it is omitted in a sparse row, {@code null} if it is missing
+     */
+    DataValue getSparseDefault() {
+        return m_sparseDefault;
+    }
+
+    /**
+     * Converts a non-missing token into a value of this attribute.
+     *
+     * @param token the token to convert
+     * @return the converted value
+     * @throws NumberFormatException if the attribute is numeric and the token is not a number
+     */
+    DataValue parse(final String token) {
+        switch (m_kind) {
+            case NUMERIC:
+                return new DoubleCell(Double.parseDouble(token));
+            case INTEGER:
+                return new IntCell(Integer.parseInt(token));
+            case NOMINAL:
+                final StringCell cell = m_nominalCells.get(token);
+                return cell != null ? cell : new StringCell(token);
+            default:
+                return new StringCell(token);
+        }
+    }
+}
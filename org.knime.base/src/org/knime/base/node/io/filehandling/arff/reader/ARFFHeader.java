@@ -0,0 +1,173 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.arff.reader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.knime.base.node.io.filehandling.arff.reader.ARFFAttribute.Kind;
+import org.knime.core.node.NodeLogger;
+
+/**
+ * The header of an ARFF file i.e. everything up to and including the {@code @data} declaration.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ARFFHeader {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(ARFFHeader.class);
+
+    private static final String WHITESPACE = " \t";
+
+    private final List<ARFFAttribute> m_attributes;
+
+    private final long m_numLines;
+
+    private ARFFHeader(final List<ARFFAttribute> attributes, final long numLines) {
+        m_attributes = attributes;
+        m_numLines = numLines;
+    }
+
+    /**
+     * @return the declared attributes in the order of their declaration
+     */
+    List<ARFFAttribute> getAttributes() {
+        return m_attributes;
+    }
+
+    /**
+     * @return the number of lines of the header including the {@code @data} declaration
+     */
+    long getNumLines() {
+        return m_numLines;
+    }
+
+    /**
+     * Reads the header from the provided reader, which is afterwards positioned at the first line of the data
+     * section.
+     *
+     * @param reader to read the header from
+     * @return the read header
+     * @throws IOException if the header is incomplete or malformed
+     */
+    static ARFFHeader read(final BufferedReader reader) throws IOException {
+        final List<ARFFAttribute> attributes = new ArrayList<>();
+        final Set<String> names = new HashSet<>();
+        final ARFFTokenizer tokenizer = new ARFFTokenizer();
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (!tokenizer.reset(line)) {
+                continue;
+            }
+            final String keyword = tokenizer.next(WHITESPACE).toLowerCase(Locale.ROOT);
+            if ("@data".equals(keyword)) {
+                return new ARFFHeader(attributes, lineNumber);
+            } else if ("@attribute".equals(keyword)) {
+                final ARFFAttribute attribute = readAttribute(tokenizer, lineNumber);
+                if (!names.add(attribute.getName())) {
+                    throw new IOException(String.format(
+                        "The attribute '%s' in line %d is declared more than once.", attribute.getName(), lineNumber));
+                }
+                attributes.add(attribute);
+            } else if (!"@relation".equals(keyword)) {
+                LOGGER.warnWithFormat("Ignoring the unsupported statement '%s' in line %d of the ARFF header.",
+                    keyword, lineNumber);
+            }
+        }
+        throw new IOException("Incomplete ARFF file. No data section found.");
+    }
+
+    private static ARFFAttribute readAttribute(final ARFFTokenizer tokenizer, final long lineNumber)
+        throws IOException {
+        // Weka allows the list of nominal values to directly follow the name
+        final String name = tokenizer.next(WHITESPACE + "{");
+        if (name.isEmpty()) {
+            throw new IOException(String.format("Incomplete '@attribute' statement in line %d.", lineNumber));
+        }
+        if (tokenizer.consume('{')) {
+            return ARFFAttribute.createNominal(name, readNominalValues(tokenizer, lineNumber));
+        }
+        final String type = tokenizer.next(WHITESPACE).toLowerCase(Locale.ROOT);
+        switch (type) {
+            case "numeric":
+            case "real":
+                return ARFFAttribute.create(name, Kind.NUMERIC);
+            case "integer":
+                return ARFFAttribute.create(name, Kind.INTEGER);
+            case "string":
+                return ARFFAttribute.create(name, Kind.STRING);
+            case "date":
+                // the optional date format is ignored, dates are read as strings
+                return ARFFAttribute.create(name, Kind.DATE);
+            default:
+                throw new IOException(
+                    String.format("Unsupported type '%s' of attribute '%s' in line %d.", type, name, lineNumber));
+        }
+    }
+
+    private static List<String> readNominalValues(final ARFFTokenizer tokenizer, final long lineNumber)
+        throws IOException {
+        final List<String> values = new ArrayList<>();
+        if (tokenizer.consume('}')) {
+            return values;
+        }
+        do {
+            values.add(tokenizer.next(",}"));
+        } while (tokenizer.consume(','));
+        if (!tokenizer.consume('}')) {
+            throw new IOException(
+                String.format("The list of nominal values in line %d is not terminated by '}'.", lineNumber));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.arff.reader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.Future;
+
+import org.knime.core.data.DataValue;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+import org.knime.filehandling.core.connections.FSPath;
+import org.knime.filehandling.core.node.table.reader.config.TableReadConfig;
+import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
+import org.knime.filehandling.core.node.table.reader.read.Read;
+import org.knime.filehandling.core.util.BomEncodingUtils;
+import org.knime.filehandling.core.util.CompressionAwareCountingInputStream;
+import org.knime.filehandling.core.util.ThreadPoolUtils;
+
+/**
+ * {@link Read} for ARFF files.</br>
+ * The lines of the data section are read in batches that are tokenized and converted in parallel while the next
+ * batches are read from the file. The rows are returned in the order of the file.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ARFFRead implements Read<DataValue> {
+
+    /** The number of lines that are parsed by a single task. */
+    static final int BATCH_SIZE = 1024;
+
+    private final CompressionAwareCountingInputStream m_stream;
+
+    private final BufferedReader m_reader;
+
+    private final long m_size;
+
+    private final List<ARFFAttribute> m_attributes;
+
+    private final boolean[] m_required;
+
+    private final ThreadPool m_pool;
+
+    private final int m_maxPendingBatches;
+
+    private final Deque<Future<List<RandomAccessible<DataValue>>>> m_pendingBatches = new ArrayDeque<>();
+
+    private Iterator<RandomAccessible<DataValue>> m_rows = Collections.emptyIterator();
+
+    private long m_lineNumber;
+
+    private boolean m_endOfFile;
+
+    /**
+     * Constructor.
+     *
+     * @param path the {@link FSPath} to the file
+     * @param config the {@link TableReadConfig} of the node
+     * @param columnIndices the indices of the required columns, {@code null} if all columns are required
+     * @throws IOException if the file can't be opened or its header is malformed
+     */
+    ARFFRead(final FSPath path, final TableReadConfig<ARFFTableReaderConfig> config, final int[] columnIndices)
+        throws IOException {
+        m_size = Files.size(path);
+        final String charsetName = config.getReaderSpecificConfig().getCharSetName();
+        final Charset charset = charsetName == null ? Charset.defaultCharset() : Charset.forName(charsetName);
+        m_stream = new CompressionAwareCountingInputStream(path);
+        m_reader = BomEncodingUtils.createBufferedReader(m_stream, charset);
+        try {
+            final ARFFHeader header = ARFFHeader.read(m_reader);
+            m_attributes = header.getAttributes();
+            m_lineNumber = header.getNumLines();
+        } catch (IOException ex) {
+            close();
+            throw ex;
+        }
+        m_required = new boolean[m_attributes.size()];
+        if (columnIndices == null) {
+            Arrays.fill(m_required, true);
+        } else {
+            for (final int idx : columnIndices) {
+                m_required[idx] = true;
+            }
+        }
+        final int nrThreads = Runtime.getRuntime().availableProcessors();
+        m_pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(nrThreads);
+        m_maxPendingBatches = 2 * nrThreads;
+    }
+
+    @Override
+    public RandomAccessible<DataValue> next() throws IOException {
+        while (!m_rows.hasNext()) {
+            enqueueBatches();
+            final Future<List<RandomAccessible<DataValue>>> batch = m_pendingBatches.poll();
+            if (batch == null) {
+                return null;
+            }
+            m_rows = waitFor(batch).iterator();
+        }
+        return m_rows.next();
+    }
+
+    private void enqueueBatches() throws IOException {
+        while (!m_endOfFile && m_pendingBatches.size() < m_maxPendingBatches) {
+            final List<String> lines = new ArrayList<>(BATCH_SIZE);
+            String line;
+            while (lines.size() < BATCH_SIZE && (line = m_reader.readLine()) != null) {
+                lines.add(line);
+            }
+            m_endOfFile = lines.size() < BATCH_SIZE;
+            if (!lines.isEmpty()) {
+                final long firstLineNumber = m_lineNumber + 1;
+                m_pendingBatches.add(m_pool.enqueue(() -> parse(lines, firstLineNumber)));
+                m_lineNumber += lines.size();
+            }
+        }
+    }
+
+    private List<RandomAccessible<DataValue>> parse(final List<String> lines, final long firstLineNumber) {
+        final ARFFRowParser parser = new ARFFRowParser(m_attributes, m_required);
+        final List<RandomAccessible<DataValue>> rows = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            final RandomAccessible<DataValue> row = parser.parse(lines.get(i), firstLineNumber + i);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private List<RandomAccessible<DataValue>> waitFor(final Future<List<RandomAccessible<DataValue>>> batch)
+        throws IOException {
+        try {
+            return ThreadPoolUtils.waitFor(m_pool, batch, RuntimeException.class);
+        } catch (IllegalStateException ex) {
+            throw new IOException(ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        m_pendingBatches.forEach(b -> b.cancel(true));
+        m_pendingBatches.clear();
+        try {
+            m_reader.close();
+        } finally {
+            m_stream.close();
+        }
+    }
+
+    @Override
+    public OptionalLong getMaxProgress() {
+        return OptionalLong.of(m_size);
+    }
+
+    @Override
+    public long getProgress() {
+        return m_stream.getCount();
+    }
+}
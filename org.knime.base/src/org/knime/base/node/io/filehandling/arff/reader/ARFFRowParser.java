@@ -0,0 +1,245 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.arff.reader;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.knime.core.data.DataValue;
+import org.knime.filehandling.core.node.table.reader.randomaccess.AbstractRandomAccessible;
+import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
+import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessibleUtils;
+
+/**
+ * Parses the lines of the data section of an ARFF file into rows.</br>
+ * Dense rows are converted into an array of values, while sparse rows only store the values they contain. The
+ * omitted values are provided on access by the {@link ARFFAttribute#getSparseDefault() defaults} of the attributes.
+ * A parser is not thread-safe but parsers for the same header can be used concurrently.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ARFFRowParser {
+
+    private static final String SPARSE_INDEX_DELIMITERS = " \t,}";
+
+    private final ARFFAttribute[] m_attributes;
+
+    private final DataValue[] m_sparseDefaults;
+
+    private final boolean[] m_required;
+
+    private final ARFFTokenizer m_tokenizer = new ARFFTokenizer();
+
+    private final int[] m_sparseIndices;
+
+    private final DataValue[] m_sparseValues;
+
+    // the number of the sparse row in which an index was last seen, used to detect duplicate indices
+    private final long[] m_seenInRow;
+
+    private long m_sparseRowCount;
+
+    /**
+     * Constructor.
+     *
+     * @param attributes the attributes declared in the header
+     * @param required flags which attributes need to be converted, the values of all others are {@code null}
+     */
+    ARFFRowParser(final List<ARFFAttribute> attributes, final boolean[] required) {
+        m_attributes = attributes.toArray(new ARFFAttribute[0]);
+        m_required = required;
+        m_sparseDefaults = new DataValue[m_attributes.length];
+        for (int i = 0; i < m_attributes.length; i++) {
+            m_sparseDefaults[i] = required[i] ? m_attributes[i].getSparseDefault() : null;
+        }
+        m_sparseIndices = new int[m_attributes.length];
+        m_sparseValues = new DataValue[m_attributes.length];
+        m_seenInRow = new long[m_attributes.length];
+    }
+
+    /**
+     * Parses a single line of the data section.
+     *
+     * @param line the line to parse
+     * @param lineNumber the number of the line in the file used in error messages
+     * @return the parsed row or {@code null} if the line is empty or a comment
+     * @throws IllegalStateException if the line is malformed
+     */
+    RandomAccessible<DataValue> parse(final String line, final long lineNumber) {
+        if (!m_tokenizer.reset(line)) {
+            return null;
+        }
+        if (m_tokenizer.consume('{')) {
+            return parseSparse(lineNumber);
+        } else {
+            return parseDense(lineNumber);
+        }
+    }
+
+    private RandomAccessible<DataValue> parseDense(final long lineNumber) {
+        // values beyond the declared attributes are ignored, missing trailing values are missing
+        final DataValue[] values = new DataValue[m_attributes.length];
+        int i = 0;
+        do {
+            final String token = m_tokenizer.next(",");
+            if (i < values.length && m_required[i] && !m_tokenizer.isMissing(token)) {
+                values[i] = convert(i, token, lineNumber);
+            }
+            i++;
+        } while (m_tokenizer.consume(','));
+        return RandomAccessibleUtils.createFromArrayUnsafe(values);
+    }
+
+    private RandomAccessible<DataValue> parseSparse(final long lineNumber) {
+        int size = 0;
+        boolean sorted = true;
+        final long row = ++m_sparseRowCount;
+        if (!m_tokenizer.consume('}')) {
+            do {
+                final int idx = parseIndex(m_tokenizer.next(SPARSE_INDEX_DELIMITERS), lineNumber);
+                if (m_seenInRow[idx] == row) {
+                    throw new IllegalStateException(
+                        String.format("The index %d occurs more than once in the sparse row in line %d.", idx,
+                            lineNumber));
+                }
+                m_seenInRow[idx] = row;
+                final String token = m_tokenizer.next(",}");
+                if (m_required[idx]) {
+                    sorted &= size == 0 || m_sparseIndices[size - 1] < idx;
+                    m_sparseIndices[size] = idx;
+                    m_sparseValues[size] = m_tokenizer.isMissing(token) ? null : convert(idx, token, lineNumber);
+                    size++;
+                }
+            } while (m_tokenizer.consume(','));
+            if (!m_tokenizer.consume('}')) {
+                throw new IllegalStateException(
+                    String.format("The sparse row in line %d is not terminated by '}'.", lineNumber));
+            }
+        }
+        final int[] indices = Arrays.copyOf(m_sparseIndices, size);
+        final DataValue[] values = Arrays.copyOf(m_sparseValues, size);
+        if (!sorted) {
+            sort(indices, values);
+        }
+        return new SparseRow(indices, values, m_sparseDefaults);
+    }
+
+    private int parseIndex(final String token, final long lineNumber) {
+        final int idx;
+        try {
+            idx = Integer.parseInt(token);
+        } catch (NumberFormatException ex) {
+            throw new IllegalStateException(
+                String.format("Malformed index '%s' in the sparse row in line %d.", token, lineNumber), ex);
+        }
+        if (idx < 0 || idx >= m_attributes.length) {
+            throw new IllegalStateException(String.format(
+                "The index %d in the sparse row in line %d is out of range [0, %d).", idx, lineNumber,
+                m_attributes.length));
+        }
+        return idx;
+    }
+
+    private DataValue convert(final int idx, final String token, final long lineNumber) {
+        final ARFFAttribute attribute = m_attributes[idx];
+        try {
+            return attribute.parse(token);
+        } catch (NumberFormatException ex) {
+            throw new IllegalStateException(String.format(
+                "Cannot parse '%s' in line %d as value of the %s attribute '%s'.", token,
+                lineNumber, attribute.getKind().name().toLowerCase(Locale.ROOT), attribute.getName()), ex);
+        }
+    }
+
+    /**
+     * Sorts the entries of a sparse row by index.
+     */
+    private static void sort(final int[] indices, final DataValue[] values) {
+        // sparse rows are short and almost always sorted, insertion sort is sufficient
+        for (int i = 1; i < indices.length; i++) {
+            final int idx = indices[i];
+            final DataValue value = values[i];
+            int j = i - 1;
+            while (j >= 0 && indices[j] > idx) {
+                indices[j + 1] = indices[j];
+                values[j + 1] = values[j];
+                j--;
+            }
+            indices[j + 1] = idx;
+            values[j + 1] = value;
+        }
+    }
+
+    /**
+     * A row of a sparse ARFF file that only stores the values that are contained in the file.
+     */
+    static final class SparseRow extends AbstractRandomAccessible<DataValue> {
+
+        private final int[] m_indices;
+
+        private final DataValue[] m_values;
+
+        private final DataValue[] m_defaults;
+
+        SparseRow(final int[] indices, final DataValue[] values, final DataValue[] defaults) {
+            m_indices = indices;
+            m_values = values;
+            m_defaults = defaults;
+        }
+
+        @Override
+        public int size() {
+            return m_defaults.length;
+        }
+
+        @Override
+        public DataValue get(final int idx) {
+            final int pos = Arrays.binarySearch(m_indices, idx);
+            return pos >= 0 ? m_values[pos] : m_defaults[idx];
+        }
+    }
+}
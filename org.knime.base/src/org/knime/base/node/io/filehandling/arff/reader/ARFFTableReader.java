@@ -0,0 +1,121 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.arff.reader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.knime.core.data.DataType;
+import org.knime.core.data.DataValue;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.filehandling.core.connections.FSPath;
+import org.knime.filehandling.core.node.table.reader.TableReader;
+import org.knime.filehandling.core.node.table.reader.config.TableReadConfig;
+import org.knime.filehandling.core.node.table.reader.read.Read;
+import org.knime.filehandling.core.node.table.reader.read.ReadUtils;
+import org.knime.filehandling.core.node.table.reader.spec.TypedReaderColumnSpec;
+import org.knime.filehandling.core.node.table.reader.spec.TypedReaderTableSpec;
+import org.knime.filehandling.core.util.BomEncodingUtils;
+import org.knime.filehandling.core.util.FileCompressionUtils;
+
+/**
+ * Reader for the ARFF reader node.</br>
+ * The spec is created from the attributes declared in the header, hence no rows need to be read to determine it.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ARFFTableReader implements TableReader<ARFFTableReaderConfig, DataType, DataValue> {
+
+    @SuppressWarnings("resource") // closing the read is the responsibility of the caller
+    @Override
+    public Read<DataValue> read(final FSPath path, final TableReadConfig<ARFFTableReaderConfig> config)
+        throws IOException {
+        return decorateForReading(new ARFFRead(path, config, null), config);
+    }
+
+    @SuppressWarnings("resource") // closing the read is the responsibility of the caller
+    @Override
+    public Read<DataValue> read(final FSPath path, final TableReadConfig<ARFFTableReaderConfig> config,
+        final int[] columnIndices) throws IOException {
+        return decorateForReading(new ARFFRead(path, config, columnIndices), config);
+    }
+
+    @Override
+    public TypedReaderTableSpec<DataType> readSpec(final FSPath path,
+        final TableReadConfig<ARFFTableReaderConfig> config, final ExecutionMonitor exec) throws IOException {
+        final String charsetName = config.getReaderSpecificConfig().getCharSetName();
+        final Charset charset = charsetName == null ? Charset.defaultCharset() : Charset.forName(charsetName);
+        final List<ARFFAttribute> attributes;
+        try (final InputStream in = FileCompressionUtils.createInputStream(path);
+                final BufferedReader reader = BomEncodingUtils.createBufferedReader(in, charset)) {
+            attributes = ARFFHeader.read(reader).getAttributes();
+        }
+        return new TypedReaderTableSpec<>(attributes.stream()//
+            .map(a -> TypedReaderColumnSpec.createWithName(a.getName(), a.getType(), true))//
+            .collect(Collectors.toList()));
+    }
+
+    /*
+     * Creates a decorated {@link Read} from {@link ARFFRead}, taking into account how many rows should be skipped or
+     * what is the maximum number of rows to read.
+     */
+    @SuppressWarnings("resource") // closing the read is the responsibility of the caller
+    private static Read<DataValue> decorateForReading(final ARFFRead read,
+        final TableReadConfig<ARFFTableReaderConfig> config) {
+        Read<DataValue> filtered = read;
+        if (config.skipRows()) {
+            filtered = ReadUtils.skip(filtered, config.getNumRowsToSkip());
+        }
+        if (config.limitRows()) {
+            filtered = ReadUtils.limit(filtered, config.getMaxRows());
+        }
+        return filtered;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.arff.reader;
+
+/**
+ * A fast, allocation-poor tokenizer for single lines of an ARFF file.</br>
+ * It supports single and double quotes (with backslash escapes as written by Weka) and treats a % outside of quotes
+ * as the start of a comment that extends to the end of the line.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ARFFTokenizer {
+
+    private static final char COMMENT = '%';
+
+    private String m_line = "";
+
+    private int m_pos;
+
+    private boolean m_quoted;
+
+    /**
+     * Sets the line to tokenize.
+     *
+     * @param line the line to tokenize
+     * @return {@code false} if the line is empty or only contains a comment
+     */
+    boolean reset(final String line) {
+        m_line = line;
+        m_pos = 0;
+        m_quoted = false;
+        return !atEnd();
+    }
+
+    /**
+     * Skips any whitespace and checks whether the end of the line (or a comment) has been reached.
+     *
+     * @return {@code true} if there are no more tokens in the line
+     */
+    boolean atEnd() {
+        skipWhitespace();
+        return m_pos >= m_line.length() || m_line.charAt(m_pos) == COMMENT;
+    }
+
+    /**
+     * Skips any whitespace and consumes the provided character if it comes next.
+     *
+     * @param c the character to consume
+     * @return {@code true} if the character was consumed
+     */
+    boolean consume(final char c) {
+        skipWhitespace();
+        if (m_pos < m_line.length() && m_line.charAt(m_pos) == c) {
+            m_pos++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reads the next token, which is either quoted or extends up to (excluding) the next occurrence of any of the
+     * provided delimiters, the start of a comment or the end of the line. Unquoted tokens are trimmed.
+     *
+     * @param delimiters the characters that end an unquoted token
+     * @return the next token, empty if there is none
+     */
+    String next(final String delimiters) {
+        skipWhitespace();
+        final int length = m_line.length();
+        if (m_pos < length) {
+            final char first = m_line.charAt(m_pos);
+            if (first == '\'' || first == '"') {
+                m_quoted = true;
+                return readQuoted(first);
+            }
+        }
+        m_quoted = false;
+        final int start = m_pos;
+        while (m_pos < length) {
+            final char c = m_line.charAt(m_pos);
+            if (c == COMMENT || delimiters.indexOf(c) >= 0) {
+                break;
+            }
+            m_pos++;
+        }
+        int end = m_pos;
+        while (end > start && Character.isWhitespace(m_line.charAt(end - 1))) {
+            end--;
+        }
+        return m_line.substring(start, end);
+    }
+
+    /**
+     * Checks whether the provided token, which must be the last one returned by {@link #next(String)}, denotes a
+     * missing value i.e. is an unquoted ? or empty.
+     *
+     * @param token the last token
+     * @return {@code true} if the token denotes a missing value
+     */
+    boolean isMissing(final String token) {
+        return !m_quoted && (token.isEmpty() || "?".equals(token));
+    }
+
+    private String readQuoted(final char quote) {
+        final int length = m_line.length();
+        // skip the opening quote
+        m_pos++;
+        final int start = m_pos;
+        while (m_pos < length) {
+            final char c = m_line.charAt(m_pos);
+            if (c == quote) {
+                final String token = m_line.substring(start, m_pos);
+                m_pos++;
+                return token;
+            } else if (c == '\\') {
+                return readEscaped(quote, start);
+            }
+            m_pos++;
+        }
+        // unterminated quote, the value extends to the end of the line
+        return m_line.substring(start);
+    }
+
+    private String readEscaped(final char quote, final int start) {
+        final int length = m_line.length();
+        final StringBuilder sb = new StringBuilder(m_line.length() - start).append(m_line, start, m_pos);
+        while (m_pos < length) {
+            final char c = m_line.charAt(m_pos);
+            m_pos++;
+            if (c == quote) {
+                return sb.toString();
+            } else if (c == '\\' && m_pos < length) {
+                sb.append(unescape(m_line.charAt(m_pos)));
+                m_pos++;
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static char unescape(final char c) {
+        switch (c) {
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            default:
+                return c;
+        }
+    }
+
+    private void skipWhitespace() {
+        final int length = m_line.length();
+        while (m_pos < length && Character.isWhitespace(m_line.charAt(m_pos))) {
+            m_pos++;
+        }
+    }
+}
@@ -56,6 +56,7 @@
 import java.util.OptionalLong;
 import java.util.function.Function;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 
 import org.knime.base.node.io.filehandling.csv.reader.OSIndependentNewLineReader;
 import org.knime.core.node.ExecutionMonitor;
@@ -92,6 +93,13 @@ public Read<String> read(final FSPath path, final TableReadConfig<CSVTableReader
         return decorateForReading(new CsvRead(path, config), config);
     }
 
+    @SuppressWarnings("resource") // closing the read is the responsibility of the caller
+    @Override
+    public Read<String> read(final FSPath path, final TableReadConfig<CSVTableReaderConfig> config,
+        final int[] columnIndices) throws IOException {
+        return decorateForReading(new CsvRead(path, config, columnIndices), config);
+    }
+
     /**
      * Parses the provided {@link InputStream} containing csv into a {@link Read} using the given
      * {@link TableReadConfig}.
@@ -161,6 +169,9 @@ private static final class CsvRead implements Read<String> {
 
         private static final NodeLogger LOGGER = NodeLogger.getLogger(CsvRead.class);
 
+        /** header set when selecting columns, it only prevents the parser from padding the rows */
+        private static final String SELECTION_DUMMY_HEADER = "column";
+
         /** a parser used to parse the file */
         private final CsvParser m_parser;
 
@@ -183,9 +194,23 @@ private static final class CsvRead implements Read<String> {
          * @param config the CSV table reader configuration.
          * @throws IOException if a stream can not be created from the provided file.
          */
-        @SuppressWarnings("resource") // The input stream is closed by the close method
         CsvRead(final FSPath path, final TableReadConfig<CSVTableReaderConfig> config) throws IOException {
-            this(new CompressionAwareCountingInputStream(path), Files.size(path), config);//NOSONAR
+            this(path, config, null);
+        }
+
+        /**
+         * Constructor
+         *
+         * @param path the path of the file to read
+         * @param config the CSV table reader configuration.
+         * @param columnIndices the indices of the columns whose values are required or {@code null} if all columns
+         *            are required
+         * @throws IOException if a stream can not be created from the provided file.
+         */
+        @SuppressWarnings("resource") // The input stream is closed by the close method
+        CsvRead(final FSPath path, final TableReadConfig<CSVTableReaderConfig> config, final int[] columnIndices)
+            throws IOException {
+            this(new CompressionAwareCountingInputStream(path), Files.size(path), config, columnIndices);//NOSONAR
         }
 
         /**
@@ -197,17 +222,26 @@ private static final class CsvRead implements Read<String> {
          */
         @SuppressWarnings("resource") //streams will be closed in the close method
         CsvRead(final InputStream inputStream, final TableReadConfig<CSVTableReaderConfig> config) throws IOException {
-            this(new CompressionAwareCountingInputStream(inputStream), -1, config);
+            this(new CompressionAwareCountingInputStream(inputStream), -1, config, null);
         }
 
         private CsvRead(final CompressionAwareCountingInputStream inputStream, final long size,
-            final TableReadConfig<CSVTableReaderConfig> config) throws IOException {
+            final TableReadConfig<CSVTableReaderConfig> config, final int[] columnIndices) throws IOException {
             m_size = size;
             m_compressionAwareStream = inputStream;
 
             final CSVTableReaderConfig csvReaderConfig = config.getReaderSpecificConfig();
             // Get the Univocity Parser settings from the reader specific configuration.
             m_csvParserSettings = csvReaderConfig.getCsvSettings();
+            if (columnIndices != null && columnIndices.length > 0) {
+                // the parser skips the values of all other columns but keeps them as null in the parsed rows,
+                // i.e. the rows have the same size as without the selection
+                m_csvParserSettings.setColumnReorderingEnabled(false);
+                m_csvParserSettings.selectIndexes(IntStream.of(columnIndices).boxed().toArray(Integer[]::new));
+                // without headers the parser pads all rows to the length of the first row, which hides short rows
+                // from the size check; a single dummy header keeps every row at its parsed length
+                m_csvParserSettings.setHeaders(SELECTION_DUMMY_HEADER);
+            }
             m_reader = createReader(csvReaderConfig);
             if (csvReaderConfig.skipLines()) {
                 skipLines(csvReaderConfig.getNumLinesToSkip());
@@ -0,0 +1,157 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.csv.writer;
+
+/**
+ * Formats numbers the same way the {@link java.text.DecimalFormat DecimalFormats} of the {@link CSVWriter2} do, but
+ * without allocating intermediate objects. Only values whose plain representation can be derived exactly with long
+ * arithmetic are handled, i.e. integers below 2<sup>53</sup> and decimals with at most 15 significant and
+ * {@value #MAX_FRACTION_DIGITS} fraction digits; for all other values the methods return {@code false} and the caller
+ * has to fall back to the decimal format.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class CSVNumberFormatter {
+
+    /** Values with a larger magnitude are not necessarily printed exactly by the decimal format. */
+    private static final double MAX_EXACT = 0x1p53;
+
+    /** Every decimal with fewer digits maps to a unique double. */
+    private static final long MAX_SIGNIFICAND = 1_000_000_000_000_000L;
+
+    private static final int MAX_FRACTION_DIGITS = 15;
+
+    private static final long[] POW10 = new long[MAX_FRACTION_DIGITS + 1];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    private CSVNumberFormatter() {
+        // utility class
+    }
+
+    /**
+     * Appends the value like a {@code DecimalFormat("#")} does, if it is an integer.
+     *
+     * @param value the value to append
+     * @param sb the builder to append to
+     * @return {@code true} if the value has been appended, {@code false} if the decimal format has to be used
+     */
+    static boolean appendInteger(final double value, final StringBuilder sb) {
+        if (!(Math.abs(value) < MAX_EXACT) || value != Math.rint(value)) {
+            return false;
+        }
+        if (isNegative(value)) {
+            sb.append('-');
+        }
+        sb.append(Math.abs((long)value));
+        return true;
+    }
+
+    /**
+     * Appends the value like a {@code DecimalFormat("#.#")} or {@code DecimalFormat("#.0")} with at most 340
+     * fraction digits does, using '.' as decimal separator.
+     *
+     * @param value the value to append
+     * @param keepTrailingZero whether integers are written with a trailing ".0", i.e. the pattern is "#.0"
+     * @param sb the builder to append to
+     * @return {@code true} if the value has been appended, {@code false} if the decimal format has to be used
+     */
+    static boolean appendDecimal(final double value, final boolean keepTrailingZero, final StringBuilder sb) {
+        final double abs = Math.abs(value);
+        if (!(abs < MAX_EXACT)) {
+            return false;
+        }
+        // find the fewest fraction digits that represent the value, which is what the decimal format prints
+        int fractionDigits = 0;
+        long significand = (long)abs;
+        if (abs != significand) {
+            significand = -1;
+            for (int k = 1; k <= MAX_FRACTION_DIGITS; k++) {
+                final double scaled = Math.rint(abs * POW10[k]);
+                if (scaled >= MAX_SIGNIFICAND) {
+                    break;
+                }
+                if (scaled / POW10[k] == abs) {
+                    significand = (long)scaled;
+                    fractionDigits = k;
+                    break;
+                }
+            }
+            if (significand < 0) {
+                return false;
+            }
+        }
+        if (isNegative(value)) {
+            sb.append('-');
+        }
+        final long integerPart = significand / POW10[fractionDigits];
+        // "#.0" omits a zero integer part, "#.#" does not
+        if (integerPart != 0 || !keepTrailingZero) {
+            sb.append(integerPart);
+        }
+        if (fractionDigits > 0) {
+            sb.append('.');
+            final long fraction = significand % POW10[fractionDigits];
+            for (int k = fractionDigits - 1; k > 0 && fraction < POW10[k]; k--) {
+                sb.append('0');
+            }
+            sb.append(fraction);
+        } else if (keepTrailingZero) {
+            sb.append(".0");
+        }
+        return true;
+    }
+
+    private static boolean isNegative(final double value) {
+        // also true for -0.0, which the decimal format writes with a sign
+        return Double.doubleToRawLongBits(value) < 0;
+    }
+}
@@ -52,9 +52,13 @@
 import java.io.Writer;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
 import java.util.Locale;
 import java.util.StringJoiner;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 
 import org.knime.base.node.io.filehandling.csv.writer.config.AdvancedConfig.QuoteMode;
@@ -67,23 +71,32 @@
 import org.knime.core.data.def.DoubleCell;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.KNIMEConstants;
 import org.knime.core.node.streamable.DataTableRowInput;
 import org.knime.core.node.streamable.RowInput;
+import org.knime.core.util.ThreadPool;
+import org.knime.filehandling.core.util.ThreadPoolUtils;
 
 /**
  * Class to write a {@link DataTable} to a CSV file
  *
+ * <p>
+ * The rows are collected in batches that are formatted into reusable buffers. If writing in parallel is enabled in the
+ * advanced settings, the rows are written in a pipeline: the batches are formatted concurrently and written in
+ * their original order by the thread writing the rows. Otherwise each batch is formatted and written by that thread.
+ *
  * @author Temesgen H. Dadi, KNIME GmbH, Berlin, Germany
  */
 class CSVWriter2 implements Closeable {
 
+    /** Number of rows formatted at a time by one thread. */
+    private static final int BATCH_SIZE = 1024;
+
     private final Writer m_writer;
 
     private final CSVWriter2Config m_config;
 
-    private final DecimalFormat m_decimalFormatter;
-
-    private final DecimalFormat m_integerFormatter;
+    private final DecimalFormatSymbols m_symbolFormat;
 
     private final String m_quoteReplacement;
 
@@ -106,13 +119,7 @@ public CSVWriter2(final Writer writer, final CSVWriter2Config config) {
         m_config = config;
         m_lastWarning = null;
 
-        final DecimalFormatSymbols symbolFormat = DecimalFormatSymbols.getInstance(Locale.ENGLISH);
-
-        final String decFormat = m_config.getAdvancedConfig().keepTrailingZero() ? "#.0" : "#.#";
-        m_decimalFormatter = new DecimalFormat(decFormat, symbolFormat);
-        m_decimalFormatter.setMaximumFractionDigits(340); // DecimalFormat.DOUBLE_FRACTION_DIGITS = 340
-
-        m_integerFormatter = new DecimalFormat("#", symbolFormat);
+        m_symbolFormat = DecimalFormatSymbols.getInstance(Locale.ENGLISH);
 
         m_quoteReplacement = String.valueOf(m_config.getQuoteEscapeChar()) + String.valueOf(m_config.getQuoteChar());
         m_columnOrRowDelimiter = Pattern.compile(Pattern.quote(m_config.getColumnDelimiter()) + "|\r|\n");
@@ -158,6 +165,23 @@ public void writeColumnHeader(final DataTableSpec inSpec) throws IOException {
      */
     public void writeRows(final RowInput input, final ExecutionMonitor exec)
         throws IOException, CanceledExecutionException, InterruptedException {
+        writeRows(input, exec, -1, null);
+    }
+
+    /**
+     * Formats the rows of the input and hands the formatted lines to a {@link LineSink} instead of the writer of this
+     * instance.
+     *
+     * @param input the {@link RowInput} to be written
+     * @param exec the {@link ExecutionMonitor}
+     * @param partitionColIdx the index of the column whose values are passed to the sink, or -1
+     * @param sink the sink receiving the formatted lines, or {@code null} to write them to the writer
+     * @throws IOException if something went wrong during writing
+     * @throws CanceledExecutionException
+     * @throws InterruptedException
+     */
+    void writeRows(final RowInput input, final ExecutionMonitor exec, final int partitionColIdx, final LineSink sink)
+        throws IOException, CanceledExecutionException, InterruptedException {
 
         final DataTableSpec inSpec = input.getDataTableSpec();
         m_lastWarning = null; // reset any previous warning
@@ -177,36 +201,96 @@ public void writeRows(final RowInput input, final ExecutionMonitor exec)
             isDoubleColumn[i] = type == DoubleCell.TYPE;
         }
 
-        DataRow row;
-        while ((row = input.poll()) != null) {
-            checkAndSetExecProgress(rowIdx, rowCnt, row.getKey().toString(), exec);
-            writeLine(dataRowToLine(row, rowIdx, isNumericalColumn, isDoubleColumn));
-            rowIdx++;
+        if (!m_config.getAdvancedConfig().writeInParallel()) {
+            final RowBatch batch = new RowBatch(isNumericalColumn, isDoubleColumn);
+            batch.reset(rowIdx);
+            DataRow row;
+            while ((row = input.poll()) != null) {
+                checkAndSetExecProgress(rowIdx, rowCnt, row.getKey().toString(), exec);
+                final boolean isFull = batch.add(row, partitionColIdx);
+                rowIdx++;
+                if (isFull) {
+                    writeBatch(batch.format(), sink);
+                    batch.reset(rowIdx);
+                }
+            }
+            writeBatch(batch.format(), sink);
+            return;
         }
-    }
 
-    private String dataRowToLine(final DataRow row, final long rowIdx, final boolean[] isNumericColumn,
-        final boolean[] isDoubleColumn) {
-        final StringJoiner rowJoiner = new StringJoiner(m_config.getColumnDelimiter());
-        if (m_config.writeRowHeader()) {
-            rowJoiner.add(replaceAndQuote(row.getKey().toString(), false));
-        }
-        // Iterate over all data cells in a row
-        for (int colIdx = 0; colIdx < isNumericColumn.length; colIdx++) {
-            final DataCell dCell = row.getCell(colIdx);
-            if (dCell.isMissing()) {
-                rowJoiner.add(m_config.getAdvancedConfig().getMissingValuePattern());
-            } else {
-                if (isNumericColumn[colIdx]) { // numeric type
-                    final String formattedNumber =
-                        convertNumericCellToString(dCell, rowIdx, colIdx, isDoubleColumn[colIdx]);
-                    rowJoiner.add(replaceAndQuote(formattedNumber, true));
-                } else {
-                    rowJoiner.add(replaceAndQuote(dCell.toString(), false));
+        // the batches are used round-robin, a batch is reused once it has been written
+        final int nrThreads = Runtime.getRuntime().availableProcessors();
+        final ThreadPool pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(nrThreads);
+        final RowBatch[] batches = new RowBatch[2 * nrThreads];
+        final Deque<Future<RowBatch>> pending = new ArrayDeque<>(batches.length);
+        int batchIdx = 0;
+        RowBatch batch = null;
+        try {
+            DataRow row;
+            while ((row = input.poll()) != null) {
+                checkAndSetExecProgress(rowIdx, rowCnt, row.getKey().toString(), exec);
+                if (batch == null) {
+                    if (pending.size() == batches.length) {
+                        writeBatch(pool, pending.poll(), sink);
+                    }
+                    if (batches[batchIdx] == null) {
+                        batches[batchIdx] = new RowBatch(isNumericalColumn, isDoubleColumn);
+                    }
+                    batch = batches[batchIdx];
+                    batchIdx = (batchIdx + 1) % batches.length;
+                    batch.reset(rowIdx);
+                }
+                if (batch.add(row, partitionColIdx)) {
+                    pending.add(pool.enqueue(batch::format));
+                    batch = null;
                 }
+                rowIdx++;
+            }
+            if (batch != null) {
+                pending.add(pool.enqueue(batch::format));
             }
+            while (!pending.isEmpty()) {
+                writeBatch(pool, pending.poll(), sink);
+            }
+        } finally {
+            pending.forEach(f -> f.cancel(true));
         }
-        return rowJoiner.toString();
+    }
+
+    private void writeBatch(final ThreadPool pool, final Future<RowBatch> future, final LineSink sink)
+        throws IOException {
+        writeBatch(ThreadPoolUtils.waitFor(pool, future, RuntimeException.class), sink);
+    }
+
+    private void writeBatch(final RowBatch batch, final LineSink sink) throws IOException {
+        if (sink == null) {
+            batch.writeTo(m_writer);
+        } else {
+            batch.writeTo(sink);
+        }
+        if (batch.m_warning != null) {
+            m_lastWarning = batch.m_warning;
+        }
+    }
+
+    /**
+     * Receives the formatted rows line by line and in the order of the input.
+     */
+    @FunctionalInterface
+    interface LineSink {
+
+        /**
+         * Called for each formatted row.
+         *
+         * @param rowIdx the index of the row in the input
+         * @param partitionValue the value of the partition column in the row, {@code null} if it is missing or no
+         *            partition column is set
+         * @param lines the characters holding the line, only valid during the call
+         * @param start the index of the first character of the line
+         * @param end the index after the line break terminating the line
+         * @throws IOException if the line can't be written
+         */
+        void accept(long rowIdx, String partitionValue, CharSequence lines, int start, int end) throws IOException;
     }
 
     private static void checkAndSetExecProgress(final long rowIdx, final long rowCnt, final String rowKey,
@@ -221,30 +305,6 @@ private static void checkAndSetExecProgress(final long rowIdx, final long rowCnt
         exec.checkCanceled();
     }
 
-    private String convertNumericCellToString(final DataCell dCell, final long rowIdx, final int colIdx,
-        final boolean isDouble) {
-        if (m_config.getAdvancedConfig().useScientificFormat()) {
-            return dCell.toString();
-        }
-        final double dVal = ((DoubleValue)dCell).getDoubleValue();
-        if (!isDouble) {
-            return m_integerFormatter.format(dVal);
-        }
-        final String strVal = m_decimalFormatter.format(dVal);
-        final char customDecSeparator = m_config.getAdvancedConfig().getDecimalSeparator();
-        if ('.' != customDecSeparator) {
-            if (strVal.indexOf(customDecSeparator) < 0) {
-                // TODO: can be done more efficiently
-                return strVal.replace('.', customDecSeparator);
-            } else {
-                m_lastWarning = "Specified decimal separator ('" + customDecSeparator + "') is"
-                    + " contained in the numerical value. Not replacing decimal separator (e.g." + " in row #" + rowIdx
-                    + " column #" + colIdx + ").";
-            }
-        }
-        return strVal;
-    }
-
     /**
      * Writes a string to file and appends a newline, which can be different from the system default. (
      *
@@ -328,4 +388,181 @@ private void newLine() throws IOException {
     public void close() throws IOException {
         m_writer.close();
     }
+
+    /**
+     * A batch of rows and the buffers they are formatted into. A batch is only accessed by one thread at a time and
+     * holds its own decimal formats, which are not thread-safe.
+     */
+    private final class RowBatch {
+
+        private final DataRow[] m_rows = new DataRow[BATCH_SIZE];
+
+        private final String[] m_partitionValues = new String[BATCH_SIZE];
+
+        private final int[] m_lineEnds = new int[BATCH_SIZE];
+
+        private final boolean[] m_isNumericColumn;
+
+        private final boolean[] m_isDoubleColumn;
+
+        private final DecimalFormat m_decimalFormatter;
+
+        private final DecimalFormat m_integerFormatter;
+
+        private final StringBuilder m_chars = new StringBuilder();
+
+        private char[] m_buffer = new char[0];
+
+        private int m_size;
+
+        private long m_firstRowIdx;
+
+        private String m_warning;
+
+        RowBatch(final boolean[] isNumericColumn, final boolean[] isDoubleColumn) {
+            m_isNumericColumn = isNumericColumn;
+            m_isDoubleColumn = isDoubleColumn;
+            final String decFormat = m_config.getAdvancedConfig().keepTrailingZero() ? "#.0" : "#.#";
+            m_decimalFormatter = new DecimalFormat(decFormat, m_symbolFormat);
+            m_decimalFormatter.setMaximumFractionDigits(340); // DecimalFormat.DOUBLE_FRACTION_DIGITS = 340
+            m_integerFormatter = new DecimalFormat("#", m_symbolFormat);
+        }
+
+        void reset(final long firstRowIdx) {
+            m_size = 0;
+            m_firstRowIdx = firstRowIdx;
+        }
+
+        /** @return whether the batch is full */
+        boolean add(final DataRow row, final int partitionColIdx) {
+            if (partitionColIdx >= 0) {
+                final DataCell cell = row.getCell(partitionColIdx);
+                m_partitionValues[m_size] = cell.isMissing() ? null : cell.toString();
+            }
+            m_rows[m_size++] = row;
+            return m_size == m_rows.length;
+        }
+
+        RowBatch format() {
+            m_chars.setLength(0);
+            m_warning = null;
+            final String lineBreak = m_config.getLineBreak().getLineBreak();
+            for (int i = 0; i < m_size; i++) {
+                appendRow(m_rows[i], m_firstRowIdx + i);
+                m_chars.append(lineBreak);
+                m_lineEnds[i] = m_chars.length();
+            }
+            // release the rows while the batch waits for reuse
+            Arrays.fill(m_rows, 0, m_size, null);
+            return this;
+        }
+
+        void writeTo(final Writer writer) throws IOException {
+            final int length = m_chars.length();
+            if (m_buffer.length < length) {
+                m_buffer = new char[length];
+            }
+            m_chars.getChars(0, length, m_buffer, 0);
+            writer.write(m_buffer, 0, length);
+        }
+
+        void writeTo(final LineSink sink) throws IOException {
+            int start = 0;
+            for (int i = 0; i < m_size; i++) {
+                sink.accept(m_firstRowIdx + i, m_partitionValues[i], m_chars, start, m_lineEnds[i]);
+                start = m_lineEnds[i];
+            }
+            Arrays.fill(m_partitionValues, 0, m_size, null);
+        }
+
+        private void appendRow(final DataRow row, final long rowIdx) {
+            final String delimiter = m_config.getColumnDelimiter();
+            if (m_config.writeRowHeader()) {
+                m_chars.append(replaceAndQuote(row.getKey().toString(), false));
+            }
+            // Iterate over all data cells in a row
+            for (int colIdx = 0; colIdx < m_isNumericColumn.length; colIdx++) {
+                if (colIdx > 0 || m_config.writeRowHeader()) {
+                    m_chars.append(delimiter);
+                }
+                final DataCell dCell = row.getCell(colIdx);
+                if (dCell.isMissing()) {
+                    m_chars.append(m_config.getAdvancedConfig().getMissingValuePattern());
+                } else if (m_isNumericColumn[colIdx]) { // numeric type
+                    appendNumericCell(dCell, rowIdx, colIdx, m_isDoubleColumn[colIdx]);
+                } else {
+                    m_chars.append(replaceAndQuote(dCell.toString(), false));
+                }
+            }
+        }
+
+        private void appendNumericCell(final DataCell dCell, final long rowIdx, final int colIdx,
+            final boolean isDouble) {
+            final int start = m_chars.length();
+            if (m_config.getAdvancedConfig().useScientificFormat()) {
+                m_chars.append(dCell.toString());
+            } else {
+                final double dVal = ((DoubleValue)dCell).getDoubleValue();
+                if (!isDouble) {
+                    if (!CSVNumberFormatter.appendInteger(dVal, m_chars)) {
+                        m_chars.append(m_integerFormatter.format(dVal));
+                    }
+                } else {
+                    if (!CSVNumberFormatter.appendDecimal(dVal, m_config.getAdvancedConfig().keepTrailingZero(),
+                        m_chars)) {
+                        m_chars.append(m_decimalFormatter.format(dVal));
+                    }
+                    replaceDecimalSeparator(start, rowIdx, colIdx);
+                }
+            }
+            quoteNumberIfNeeded(start);
+        }
+
+        private void replaceDecimalSeparator(final int start, final long rowIdx, final int colIdx) {
+            final char customDecSeparator = m_config.getAdvancedConfig().getDecimalSeparator();
+            if ('.' == customDecSeparator) {
+                return;
+            }
+            int point = -1;
+            for (int i = start; i < m_chars.length(); i++) {
+                final char c = m_chars.charAt(i);
+                if (c == customDecSeparator) {
+                    m_warning = "Specified decimal separator ('" + customDecSeparator + "') is"
+                        + " contained in the numerical value. Not replacing decimal separator (e.g." + " in row #"
+                        + rowIdx + " column #" + colIdx + ").";
+                    return;
+                } else if (c == '.' && point < 0) {
+                    point = i;
+                }
+            }
+            if (point >= 0) {
+                m_chars.setCharAt(point, customDecSeparator);
+            }
+        }
+
+        /* Same as replaceAndQuote(value, true) on the number appended from start on, without copying it if possible. */
+        private void quoteNumberIfNeeded(final int start) {
+            final QuoteMode qMode = m_config.getAdvancedConfig().getQuoteMode();
+            if (qMode == QuoteMode.STRINGS_ONLY || qMode == QuoteMode.NEVER
+                || (qMode == QuoteMode.IF_NEEDED && !containsColumnOrRowDelimiter(start))) {
+                return;
+            }
+            final String value = m_chars.substring(start);
+            m_chars.setLength(start);
+            m_chars.append(replaceAndQuote(value, true));
+        }
+
+        private boolean containsColumnOrRowDelimiter(final int start) {
+            if (m_chars.indexOf(m_config.getColumnDelimiter(), start) >= 0) {
+                return true;
+            }
+            for (int i = start; i < m_chars.length(); i++) {
+                final char c = m_chars.charAt(i);
+                if (c == '\r' || c == '\n') {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
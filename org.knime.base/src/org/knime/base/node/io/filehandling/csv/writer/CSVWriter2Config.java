@@ -57,6 +57,7 @@
 import org.knime.base.node.io.filehandling.csv.writer.config.AdvancedConfig;
 import org.knime.base.node.io.filehandling.csv.writer.config.CommentConfig;
 import org.knime.base.node.io.filehandling.csv.writer.config.LineBreakTypes;
+import org.knime.base.node.io.filehandling.csv.writer.config.PartitionConfig;
 import org.knime.base.node.io.filereader.FileReaderSettings;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeSettings;
@@ -89,6 +90,8 @@ final class CSVWriter2Config {
 
     private static final String CFG_ENCODING = "encoding";
 
+    private static final String CFG_PARTITION = "partition_settings";
+
     /** The settings key for the file chooser dialog */
     public static final String CFG_FILE_CHOOSER = "file_chooser_settings";
 
@@ -140,6 +143,8 @@ final class CSVWriter2Config {
 
     private final CommentConfig m_commentConfig;
 
+    private final PartitionConfig m_partitionConfig;
+
     private String m_charsetName;
 
     /**
@@ -166,6 +171,7 @@ public CSVWriter2Config(final PortsConfiguration portsConfig) {
 
         m_advancedConfig = new AdvancedConfig();
         m_commentConfig = new CommentConfig();
+        m_partitionConfig = new PartitionConfig();
 
         m_charsetName = DEFAULT_CHAR_ENCODING;
     }
@@ -184,6 +190,11 @@ public void validateSettingsForModel(final NodeSettingsRO settings) throws Inval
         m_commentConfig.validate(settings.getNodeSettings(CFG_COMMENT));
 
         settings.getNodeSettings(CFG_ENCODING).getString(CFG_CHAR_ENCODING);
+
+        // added in 5.1
+        if (settings.containsKey(CFG_PARTITION)) {
+            m_partitionConfig.validate(settings.getNodeSettings(CFG_PARTITION));
+        }
     }
 
     private static void validateSettingsTab(final NodeSettingsRO settings) throws InvalidSettingsException {
@@ -209,6 +220,7 @@ void loadSettingsForDialog(final NodeSettingsRO settings, final PortObjectSpec[]
         m_advancedConfig.loadInDialog(getConfigForDialog(settings, CFG_ADVANCED));
         m_commentConfig.loadInDialog(getConfigForDialog(settings, CFG_COMMENT));
         m_charsetName = getConfigForDialog(settings, CFG_ENCODING).getString(CFG_CHAR_ENCODING, DEFAULT_CHAR_ENCODING);
+        m_partitionConfig.loadInDialog(getConfigForDialog(settings, CFG_PARTITION));
     }
 
     private void loadSettingsTabForDialog(final NodeSettingsRO settings) {
@@ -249,8 +261,16 @@ void loadSettingsForModel(final NodeSettingsRO settings) throws InvalidSettingsE
 
         m_charsetName = settings.getNodeSettings(CFG_ENCODING).getString(CFG_CHAR_ENCODING);
 
+        // added in 5.1, older nodes always write a single file
+        if (settings.containsKey(CFG_PARTITION)) {
+            m_partitionConfig.loadInModel(settings.getNodeSettings(CFG_PARTITION));
+        } else {
+            m_partitionConfig.loadInDialog(new NodeSettings(CFG_PARTITION));
+        }
+
         checkColSeparator();
         checkGzipSettings();
+        checkPartitionSettings();
     }
 
     private void loadSettingsTab(final NodeSettingsRO settings) throws InvalidSettingsException {
@@ -279,6 +299,7 @@ private void save(final NodeSettingsWO settings) {
         m_commentConfig.save(settings.addNodeSettings(CFG_COMMENT));
 
         settings.addNodeSettings(CFG_ENCODING).addString(CFG_CHAR_ENCODING, m_charsetName);
+        m_partitionConfig.save(settings.addNodeSettings(CFG_PARTITION));
     }
 
     private void saveSettingsTab(final NodeSettingsWO settings) {
@@ -324,6 +345,13 @@ private void checkGzipSettings() throws InvalidSettingsException {
         }
     }
 
+    private void checkPartitionSettings() throws InvalidSettingsException {
+        if (m_partitionConfig.isPartitioned()
+            && FileOverwritePolicy.APPEND == getFileChooserModel().getFileOverwritePolicy()) {
+            throw new InvalidSettingsException("Can't append to existing files if output is split into several files");
+        }
+    }
+
     /**
      * @return a newly created {@link FileReaderSettings} with the a charSet similar to the current object
      */
@@ -500,6 +528,13 @@ CommentConfig getCommentConfig() {
         return m_commentConfig;
     }
 
+    /**
+     * @return a {@link PartitionConfig} deciding whether and how the output is split into several files
+     */
+    PartitionConfig getPartitionConfig() {
+        return m_partitionConfig;
+    }
+
     /**
      * @return the line break variant used
      */
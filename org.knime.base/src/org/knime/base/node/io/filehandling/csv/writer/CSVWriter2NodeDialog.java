@@ -65,6 +65,8 @@
 import org.knime.base.node.io.filehandling.csv.writer.config.LineBreakTypes;
 import org.knime.base.node.io.filehandling.csv.writer.panel.AdvancedPanel;
 import org.knime.base.node.io.filehandling.csv.writer.panel.CommentPanel;
+import org.knime.base.node.io.filehandling.csv.writer.panel.PartitionPanel;
+import org.knime.core.data.DataTableSpec;
 import org.knime.core.node.FlowVariableModel;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeDialog;
@@ -111,6 +113,8 @@ final class CSVWriter2NodeDialog extends NodeDialogPane {
 
     private final CommentPanel m_commentPanel;
 
+    private final PartitionPanel m_partitionPanel;
+
     private final CSVWriter2Config m_writerConfig;
 
     /**
@@ -146,6 +150,7 @@ public CSVWriter2NodeDialog(final CSVWriter2Config writerConfig) {
         m_advancedPanel = new AdvancedPanel();
         m_commentPanel = new CommentPanel();
         m_encodingPanel = new CharsetNamePanel();
+        m_partitionPanel = new PartitionPanel();
 
         initLayout();
         checkCheckerState();
@@ -157,6 +162,7 @@ private void initLayout() {
         addTab("Advanced Settings", m_advancedPanel);
         addTab("Comment Header", m_commentPanel);
         addTab("Encoding", m_encodingPanel);
+        addTab("Partitioning", m_partitionPanel);
     }
 
     /**
@@ -301,6 +307,16 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectS
 
         m_advancedPanel.readFromConfig(m_writerConfig.getAdvancedConfig());
         m_commentPanel.readFromConfig(m_writerConfig.getCommentConfig());
+        m_partitionPanel.readFromConfig(m_writerConfig.getPartitionConfig(), getDataTableSpec(specs));
+    }
+
+    private static DataTableSpec getDataTableSpec(final PortObjectSpec[] specs) {
+        for (final PortObjectSpec spec : specs) {
+            if (spec instanceof DataTableSpec) {
+                return (DataTableSpec)spec;
+            }
+        }
+        return null;
     }
 
     @Override
@@ -321,6 +337,7 @@ protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSetti
 
         m_advancedPanel.writeToConfig(m_writerConfig.getAdvancedConfig());
         m_commentPanel.writeToConfig(m_writerConfig.getCommentConfig());
+        m_partitionPanel.writeToConfig(m_writerConfig.getPartitionConfig());
 
         m_writerConfig.saveSettingsForDialog(settings);
 
@@ -52,6 +52,8 @@
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -60,6 +62,9 @@
 import java.util.List;
 import java.util.zip.GZIPOutputStream;
 
+import org.knime.base.node.io.filehandling.csv.writer.config.AdvancedConfig;
+import org.knime.base.node.io.filehandling.csv.writer.config.PartitionConfig;
+import org.knime.base.node.io.filehandling.csv.writer.config.PartitionConfig.PartitionMode;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataType;
 import org.knime.core.data.DoubleValue;
@@ -90,6 +95,7 @@
 import org.knime.filehandling.core.defaultnodesettings.filechooser.writer.WritePathAccessor;
 import org.knime.filehandling.core.defaultnodesettings.status.NodeModelStatusConsumer;
 import org.knime.filehandling.core.defaultnodesettings.status.StatusMessage.MessageType;
+import org.knime.filehandling.core.util.ParallelGZIPOutputStream;
 
 /**
  * NodeModel to write a DataTable to a CSV file.
@@ -133,6 +139,12 @@ protected DataTableSpec[] configure(final PortObjectSpec[] inSpecs) throws Inval
             throw new InvalidSettingsException(
                 "The column delimiter cannot contain (or be equal to) the  decimal separator!");
         }
+        final PartitionConfig partitionConfig = m_writerConfig.getPartitionConfig();
+        if (partitionConfig.getPartitionMode() == PartitionMode.COLUMN
+            && !inSpec.containsName(partitionConfig.getPartitionColumn())) {
+            throw new InvalidSettingsException("The partition column '" + partitionConfig.getPartitionColumn()
+                + "' is not contained in the input table.");
+        }
         return new DataTableSpec[0];
     }
 
@@ -144,8 +156,61 @@ protected BufferedDataTable[] execute(final PortObject[] data, final ExecutionCo
             createParentDirIfRequired(outputPath);
             final BufferedDataTable tbl = (BufferedDataTable)data[m_dataInputPortIdx];
             final DataTableRowInput rowInput = new DataTableRowInput(tbl);
-            return writeToFile(rowInput, exec, outputPath);
+            return write(rowInput, exec, outputPath);
+        }
+    }
+
+    private BufferedDataTable[] write(final RowInput input, final ExecutionContext exec, final Path outputPath)
+        throws IOException, InterruptedException, CanceledExecutionException {
+        if (m_writerConfig.getPartitionConfig().isPartitioned()) {
+            return writeToPartFiles(input, exec, outputPath);
         }
+        return writeToFile(input, exec, outputPath);
+    }
+
+    /**
+     * Writes the table to several part files next to the output file, and a manifest listing them.
+     *
+     * @param input a row input
+     * @param exec the execution context
+     * @param outputPath the path of the output file naming the part files
+     * @return an empty array of BufferedDataTable
+     * @throws IOException
+     * @throws InterruptedException
+     * @throws CanceledExecutionException
+     */
+    private BufferedDataTable[] writeToPartFiles(final RowInput input, final ExecutionContext exec,
+        final Path outputPath) throws IOException, InterruptedException, CanceledExecutionException {
+        final DataTableSpec spec = input.getDataTableSpec();
+        final PartitionConfig partitionConfig = m_writerConfig.getPartitionConfig();
+        final int partitionColIdx = partitionConfig.getPartitionMode() == PartitionMode.COLUMN
+            ? spec.findColumnIndex(partitionConfig.getPartitionColumn()) : -1;
+
+        final PartitionedCSVWriter partsWriter =
+            new PartitionedCSVWriter(m_writerConfig, outputPath, createPartHeader(spec));
+        // the rows are formatted by the table writer and written by the parts writer
+        try (partsWriter; CSVWriter2 tableWriter = new CSVWriter2(Writer.nullWriter(), m_writerConfig)) {
+            tableWriter.writeRows(input, exec, partitionColIdx, partsWriter);
+            partsWriter.finish();
+            if (tableWriter.hasWarningMessage()) {
+                setWarningMessage(tableWriter.getLastWarningMessage());
+            }
+            return new BufferedDataTable[0];
+        } catch (final CanceledExecutionException e) {
+            partsWriter.deleteCreatedFiles();
+            throw e;
+        }
+    }
+
+    private String createPartHeader(final DataTableSpec spec) throws IOException {
+        final StringWriter header = new StringWriter();
+        try (CSVWriter2 headerWriter = new CSVWriter2(header, m_writerConfig)) {
+            headerWriter.writeLines(m_writerConfig.getCommentConfig().getCommentHeader(spec.getName(), false));
+            if (m_writerConfig.writeColumnHeader()) {
+                headerWriter.writeColumnHeader(spec);
+            }
+        }
+        return header.toString();
     }
 
     /**
@@ -217,7 +282,12 @@ private OutputStream createOutputStream(final Path outputPath) throws IOExceptio
             throw new IOException(
                 "Output file '" + e.getFile() + "' exists and must not be overwritten due to user settings.", e);
         }
-        if (m_writerConfig.getAdvancedConfig().compressWithGzip()) {
+        final AdvancedConfig advancedConfig = m_writerConfig.getAdvancedConfig();
+        if (advancedConfig.compressWithGzip()) {
+            if (advancedConfig.writeInParallel()) {
+                // compresses blocks concurrently and buffers them itself
+                return new ParallelGZIPOutputStream(outStream);
+            }
             outStream = new GZIPOutputStream(outStream);
         }
         outStream = new BufferedOutputStream(outStream);
@@ -259,7 +329,7 @@ public void runFinal(final PortInput[] inputs, final PortOutput[] outputs, final
                     m_statusConsumer.setWarningsIfRequired(s -> setWarningMessage(s));
                     createParentDirIfRequired(outputPath);
                     final RowInput input = (RowInput)inputs[m_dataInputPortIdx];
-                    writeToFile(input, exec, outputPath);
+                    write(input, exec, outputPath);
                 }
             }
         };
@@ -0,0 +1,534 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.csv.writer;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import org.knime.base.node.io.filehandling.csv.writer.config.PartitionConfig;
+import org.knime.base.node.io.filehandling.csv.writer.config.PartitionConfig.PartitionMode;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.ThreadPool;
+import org.knime.filehandling.core.connections.FSFiles;
+
+/**
+ * Splits the formatted rows of a table into several part files next to the configured output file, and writes a
+ * manifest listing the part files and their row counts once all parts are complete.
+ *
+ * <p>
+ * The part files are named after the output file, e.g. {@code data_part-00000.csv}, {@code data_part-00001.csv} and
+ * {@code data_manifest.csv} for {@code data.csv}. The lines of a part are collected in chunks, which the part writes in
+ * order on a thread of a shared pool, so that different parts are encoded, compressed and written concurrently.
+ * When writing one part per value of a column, a part closes its file whenever it has written all of its chunks and
+ * appends to it once further chunks arrive, so that the number of open files and deflaters is bounded by the number of
+ * threads rather than the number of values. Compressed parts then consist of several gzip members.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class PartitionedCSVWriter implements CSVWriter2.LineSink, Closeable {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(PartitionedCSVWriter.class);
+
+    /** Number of characters collected for a part before they are handed to it. */
+    private static final int CHUNK_SIZE = 1 << 15;
+
+    /** Every distinct value of a partition column buffers up to one chunk until the whole table is written. */
+    static final int MAX_COLUMN_PARTS = 1000;
+
+    private final CSVWriter2Config m_config;
+
+    private final PartitionConfig m_partitionConfig;
+
+    private final Path m_outputPath;
+
+    private final String m_baseName;
+
+    private final String m_extension;
+
+    private final String m_header;
+
+    private final OpenOption[] m_openOptions;
+
+    private final long m_charsPerPart;
+
+    private final ThreadPool m_pool;
+
+    /** Whether the parts close their files while they have no chunks to write. */
+    private final boolean m_closeIdleParts;
+
+    private final int m_maxPendingChunks;
+
+    /** One permit for each chunk (or close request) that may be pending, limits the memory held by the parts. */
+    private final Semaphore m_pendingChunks;
+
+    private final AtomicReference<Throwable> m_failure = new AtomicReference<>();
+
+    private final List<Part> m_parts = new ArrayList<>();
+
+    private final Map<String, Part> m_partsByValue = new HashMap<>();
+
+    private Part m_currentPart;
+
+    private boolean m_finished;
+
+    /**
+     * Constructor.
+     *
+     * @param config the configuration of the writer
+     * @param outputPath the configured output file, the parts are written to the same folder
+     * @param header the comment and column header lines written at the beginning of each part
+     */
+    PartitionedCSVWriter(final CSVWriter2Config config, final Path outputPath, final String header) {
+        this(config, outputPath, header,
+            KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(Runtime.getRuntime().availableProcessors()),
+            4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param config the configuration of the writer
+     * @param outputPath the configured output file, the parts are written to the same folder
+     * @param header the comment and column header lines written at the beginning of each part
+     * @param pool the pool writing the parts
+     * @param maxPendingChunks the maximal number of chunks waiting to be written
+     */
+    PartitionedCSVWriter(final CSVWriter2Config config, final Path outputPath, final String header,
+        final ThreadPool pool, final int maxPendingChunks) {
+        m_config = config;
+        m_partitionConfig = config.getPartitionConfig();
+        m_outputPath = outputPath;
+        final String[] nameAndExtension = splitFileName(outputPath.getFileName().toString(), config.FILE_SUFFIXES);
+        m_baseName = nameAndExtension[0];
+        m_extension = nameAndExtension[1];
+        m_header = header;
+        m_openOptions = config.getFileChooserModel().getFileOverwritePolicy().getOpenOptions();
+        // the size of a part is measured in characters before encoding and compression
+        m_charsPerPart = m_partitionConfig.getMegabytesPerPart() * 1024L * 1024L;
+        m_closeIdleParts = m_partitionConfig.getPartitionMode() == PartitionMode.COLUMN;
+
+        m_pool = pool;
+        m_maxPendingChunks = maxPendingChunks;
+        m_pendingChunks = new Semaphore(m_maxPendingChunks);
+    }
+
+    /**
+     * Splits a file name into the name and its extension, preferring the longest of the given suffixes.
+     *
+     * @param fileName the file name to split
+     * @param suffixes the known suffixes
+     * @return an array holding the name without extension and the extension, which might be empty
+     */
+    static String[] splitFileName(final String fileName, final String[] suffixes) {
+        final String lowerCaseName = fileName.toLowerCase(Locale.ROOT);
+        final String suffix = Arrays.stream(suffixes)//
+            .filter(s -> lowerCaseName.endsWith(s) && lowerCaseName.length() > s.length())//
+            .max(Comparator.comparingInt(String::length))//
+            .orElse(null);
+        if (suffix != null) {
+            final int split = fileName.length() - suffix.length();
+            return new String[]{fileName.substring(0, split), fileName.substring(split)};
+        }
+        final int dot = fileName.lastIndexOf('.');
+        if (dot > 0) {
+            return new String[]{fileName.substring(0, dot), fileName.substring(dot)};
+        }
+        return new String[]{fileName, ""};
+    }
+
+    @Override
+    public void accept(final long rowIdx, final String partitionValue, final CharSequence lines, final int start,
+        final int end) throws IOException {
+        checkFailure();
+        getPart(partitionValue, end - start).append(lines, start, end);
+    }
+
+    private Part getPart(final String partitionValue, final int lineLength) throws IOException {
+        final PartitionMode mode = m_partitionConfig.getPartitionMode();
+        if (mode == PartitionMode.COLUMN) {
+            Part part = m_partsByValue.get(partitionValue);
+            if (part == null) {
+                if (m_parts.size() == MAX_COLUMN_PARTS) {
+                    throw new IOException("The column '" + m_partitionConfig.getPartitionColumn()
+                        + "' has more than " + MAX_COLUMN_PARTS + " distinct values.");
+                }
+                part = createPart(partitionValue);
+                m_partsByValue.put(partitionValue, part);
+            }
+            return part;
+        }
+        if (m_currentPart == null || (mode == PartitionMode.ROW_COUNT
+            && m_currentPart.m_rows == m_partitionConfig.getRowsPerPart())
+            || (mode == PartitionMode.FILE_SIZE && m_currentPart.m_rows > 0
+                && m_currentPart.m_size + lineLength > m_charsPerPart)) {
+            if (m_currentPart != null) {
+                // the part is complete, let it be closed while the next one is filled
+                m_currentPart.finish();
+            }
+            m_currentPart = createPart(null);
+        }
+        return m_currentPart;
+    }
+
+    private Part createPart(final String partitionValue) {
+        final int index = m_parts.size();
+        final String name = String.format("%s_part-%05d%s", m_baseName, index, m_extension);
+        final Part part = new Part(m_outputPath.resolveSibling(name), partitionValue);
+        m_parts.add(part);
+        return part;
+    }
+
+    /**
+     * Completes all parts and writes the manifest. A table without rows is written as a single part holding only the
+     * header.
+     *
+     * @throws IOException if a part or the manifest can't be written
+     */
+    void finish() throws IOException {
+        if (m_parts.isEmpty()) {
+            createPart(null);
+        }
+        for (final Part part : m_parts) {
+            part.finish();
+        }
+        awaitPendingChunks();
+        checkFailure();
+        writeManifest();
+        m_finished = true;
+    }
+
+    private void writeManifest() throws IOException {
+        final String lineBreak = m_config.getLineBreak().getLineBreak();
+        final boolean writeValues = m_partitionConfig.getPartitionMode() == PartitionMode.COLUMN;
+        final Path manifestPath = m_outputPath.resolveSibling(m_baseName + "_manifest.csv");
+        try (final Writer writer = new BufferedWriter(
+            new OutputStreamWriter(newOutputStream(manifestPath), m_config.getCharSet()))) {
+            writer.write(writeValues ? "file,rows,value" : "file,rows");
+            writer.write(lineBreak);
+            for (final Part part : m_parts) {
+                writer.write(quote(part.m_path.getFileName().toString()));
+                writer.write(',');
+                writer.write(Long.toString(part.m_rows));
+                if (writeValues) {
+                    writer.write(',');
+                    // missing values are written as empty field, empty strings as quoted empty field
+                    writer.write(part.m_value == null ? "" : quote(part.m_value));
+                }
+                writer.write(lineBreak);
+            }
+        }
+    }
+
+    private static String quote(final String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private OutputStream newOutputStream(final Path path) throws IOException {
+        try {
+            return FSFiles.newOutputStream(path, m_openOptions);
+        } catch (final FileAlreadyExistsException e) {
+            throw new IOException(
+                "Output file '" + e.getFile() + "' exists and must not be overwritten due to user settings.", e);
+        }
+    }
+
+    /**
+     * Deletes the part files and the manifest created by this writer, used after the execution was canceled.
+     */
+    void deleteCreatedFiles() {
+        for (final Part part : m_parts) {
+            if (!part.m_opened) {
+                continue;
+            }
+            if (part.m_existed) {
+                LOGGER.warn(
+                    "Node exection was canceled. The file '" + part.m_path + "' could have partial modifications.");
+                continue;
+            }
+            try {
+                Files.deleteIfExists(part.m_path);
+                LOGGER.debug("File created '" + part.m_path + "' deleted after node execution was canceled.");
+            } catch (final IOException ex) {
+                LOGGER.warn("Unable to delete created file '" + part.m_path
+                    + "' after node execution was canceled. " + ex.getMessage(), ex);
+            }
+        }
+    }
+
+    /**
+     * Closes all part files. If {@link #finish()} didn't complete, the pending chunks are dropped and no manifest is
+     * written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (m_finished) {
+            return;
+        }
+        m_failure.compareAndSet(null, new IOException("Writing the part files was aborted."));
+        for (final Part part : m_parts) {
+            part.finish();
+        }
+        awaitPendingChunks();
+    }
+
+    private void awaitPendingChunks() throws IOException {
+        acquire(m_maxPendingChunks);
+        m_pendingChunks.release(m_maxPendingChunks);
+    }
+
+    private void acquire(final int permits) throws IOException {
+        if (m_pendingChunks.tryAcquire(permits)) {
+            return;
+        }
+        try {
+            m_pool.runInvisible(() -> {
+                m_pendingChunks.acquire(permits);
+                return null;
+            });
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the part files to be written.", ex.getCause());
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        final Throwable failure = m_failure.get();
+        if (failure instanceof IOException) {
+            throw new IOException(failure.getMessage(), failure);
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException)failure;
+        } else if (failure != null) {
+            throw new IllegalStateException(failure);
+        }
+    }
+
+    /**
+     * A part file. The thread filling the parts appends lines to the chunk under construction, complete chunks are
+     * queued and written by at most one pool thread at a time.
+     */
+    private final class Part {
+
+        private final Path m_path;
+
+        private final String m_value;
+
+        private final StringBuilder m_chunk = new StringBuilder();
+
+        private final Deque<String> m_chunks = new ArrayDeque<>();
+
+        private long m_rows;
+
+        private long m_size;
+
+        private boolean m_finishing;
+
+        /** Guarded by this part, as are {@link #m_chunks} and {@link #m_closeRequested}. */
+        private boolean m_drainScheduled;
+
+        private boolean m_closeRequested;
+
+        private volatile boolean m_opened;
+
+        private volatile boolean m_existed;
+
+        private Writer m_writer;
+
+        Part(final Path path, final String value) {
+            m_path = path;
+            m_value = value;
+            m_size = m_header.length();
+        }
+
+        void append(final CharSequence lines, final int start, final int end) throws IOException {
+            m_chunk.append(lines, start, end);
+            m_rows++;
+            m_size += end - start;
+            if (m_chunk.length() >= CHUNK_SIZE) {
+                submitChunk();
+            }
+        }
+
+        private void submitChunk() throws IOException {
+            acquire(1);
+            synchronized (this) {
+                m_chunks.add(m_chunk.toString());
+                scheduleDrain();
+            }
+            m_chunk.setLength(0);
+        }
+
+        /** Hands over the remaining lines and requests the file to be closed once they are written. */
+        void finish() throws IOException {
+            if (m_finishing) {
+                return;
+            }
+            m_finishing = true;
+            if (m_chunk.length() > 0) {
+                submitChunk();
+            }
+            acquire(1);
+            synchronized (this) {
+                m_closeRequested = true;
+                scheduleDrain();
+            }
+        }
+
+        private void scheduleDrain() {
+            if (!m_drainScheduled) {
+                m_drainScheduled = true;
+                m_pool.enqueue(this::drain);
+            }
+        }
+
+        private Void drain() {
+            while (true) {
+                final String chunk;
+                final boolean close;
+                final boolean idle;
+                synchronized (this) {
+                    chunk = m_chunks.poll();
+                    close = chunk == null && m_closeRequested;
+                    idle = chunk == null && !close;
+                    // the writer is only accessed by the single drain of this part
+                    if (idle && (m_writer == null || !m_closeIdleParts)) {
+                        m_drainScheduled = false;
+                        return null;
+                    }
+                    if (close) {
+                        m_closeRequested = false;
+                    }
+                }
+                if (idle) {
+                    // release the file until further chunks arrive, they are appended by the next drain
+                    closeWriter();
+                    continue;
+                }
+                try {
+                    if (close) {
+                        closeFile();
+                    } else if (m_failure.get() == null) {
+                        openFileIfRequired();
+                        m_writer.write(chunk);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    m_failure.compareAndSet(null, e);
+                } finally {
+                    m_pendingChunks.release();
+                }
+            }
+        }
+
+        private void openFileIfRequired() throws IOException {
+            if (m_writer != null) {
+                return;
+            }
+            final boolean isNewFile = !m_opened;
+            final OutputStream outStream;
+            if (isNewFile) {
+                m_existed = Files.exists(m_path);
+                outStream = newOutputStream(m_path);
+                m_opened = true;
+            } else {
+                outStream = FSFiles.newOutputStream(m_path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            // the parts are compressed concurrently, each of them on a single thread
+            final OutputStream stream = m_config.getAdvancedConfig().compressWithGzip()
+                ? new GZIPOutputStream(outStream, 1 << 16) : new BufferedOutputStream(outStream);
+            m_writer = new OutputStreamWriter(stream, m_config.getCharSet());
+            if (isNewFile) {
+                m_writer.write(m_header);
+            }
+        }
+
+        private void closeFile() throws IOException {
+            if (m_failure.get() == null && !m_opened) {
+                // a part without rows still holds the header
+                openFileIfRequired();
+            }
+            closeWriter();
+        }
+
+        private void closeWriter() {
+            if (m_writer == null) {
+                return;
+            }
+            try {
+                m_writer.close();
+            } catch (IOException | RuntimeException e) {
+                m_failure.compareAndSet(null, e);
+            } finally {
+                m_writer = null;
+            }
+        }
+    }
+}
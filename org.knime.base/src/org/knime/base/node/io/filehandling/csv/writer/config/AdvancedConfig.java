@@ -90,6 +90,8 @@ public enum QuoteMode {
 
     private static final String CFGKEY_KEEP_TRAILING_ZERO = "keep_trailing_zero_in_decimals";
 
+    private static final String CFGKEY_WRITE_IN_PARALLEL = "write_in_parallel";
+
     private String m_missingValuePattern;
 
     private String m_quoteModeName;
@@ -104,6 +106,8 @@ public enum QuoteMode {
 
     private boolean m_compressWithGzip;
 
+    private boolean m_writeInParallel;
+
     /**
      * Default constructor
      */
@@ -115,6 +119,7 @@ public AdvancedConfig() {
         m_decimalSeparator = '.';
         m_useScientificFormat = false;
         m_keepTrailingZero = false;
+        m_writeInParallel = true;
     }
 
     @Override
@@ -128,6 +133,9 @@ public void loadInDialog(final NodeSettingsRO settings) {
         m_decimalSeparator = settings.getChar(CFGKEY_DEC_SEPARATOR, '.');
         m_useScientificFormat = settings.getBoolean(CFGKEY_SCIENTIFIC_FORMAT, false);
         m_keepTrailingZero = settings.getBoolean(CFGKEY_KEEP_TRAILING_ZERO, false);
+
+        // added in 5.1, older nodes write on a single thread
+        m_writeInParallel = settings.getBoolean(CFGKEY_WRITE_IN_PARALLEL, false);
     }
 
     @Override
@@ -141,6 +149,13 @@ public void loadInModel(final NodeSettingsRO settings) throws InvalidSettingsExc
         m_decimalSeparator = settings.getChar(CFGKEY_DEC_SEPARATOR);
         m_useScientificFormat = settings.getBoolean(CFGKEY_SCIENTIFIC_FORMAT);
         m_keepTrailingZero = settings.getBoolean(CFGKEY_KEEP_TRAILING_ZERO);
+
+        // added in 5.1, older nodes write on a single thread
+        if (settings.containsKey(CFGKEY_WRITE_IN_PARALLEL)) {
+            m_writeInParallel = settings.getBoolean(CFGKEY_WRITE_IN_PARALLEL);
+        } else {
+            m_writeInParallel = false;
+        }
     }
 
     @Override
@@ -154,6 +169,11 @@ public void validate(final NodeSettingsRO settings) throws InvalidSettingsExcept
         settings.getChar(CFGKEY_DEC_SEPARATOR);
         settings.getBoolean(CFGKEY_SCIENTIFIC_FORMAT);
         settings.getBoolean(CFGKEY_KEEP_TRAILING_ZERO);
+
+        // added in 5.1
+        if (settings.containsKey(CFGKEY_WRITE_IN_PARALLEL)) {
+            settings.getBoolean(CFGKEY_WRITE_IN_PARALLEL);
+        }
     }
 
     @Override
@@ -167,6 +187,8 @@ public void save(final NodeSettingsWO settings) {
         settings.addChar(CFGKEY_DEC_SEPARATOR, m_decimalSeparator);
         settings.addBoolean(CFGKEY_SCIENTIFIC_FORMAT, m_useScientificFormat);
         settings.addBoolean(CFGKEY_KEEP_TRAILING_ZERO, m_keepTrailingZero);
+
+        settings.addBoolean(CFGKEY_WRITE_IN_PARALLEL, m_writeInParallel);
     }
 
     /**
@@ -282,6 +304,22 @@ public void setKeepTrailingZero(final boolean keepTrailingZero) {
         m_keepTrailingZero = keepTrailingZero;
     }
 
+    /**
+     * @return {@code true} if the rows are formatted and compressed on several threads
+     * @since 5.1
+     */
+    public boolean writeInParallel() {
+        return m_writeInParallel;
+    }
+
+    /**
+     * @param writeInParallel a flag deciding if the rows are formatted and compressed on several threads
+     * @since 5.1
+     */
+    public void setWriteInParallel(final boolean writeInParallel) {
+        m_writeInParallel = writeInParallel;
+    }
+
     /**
      * After removing non-visible white space characters line '\0', it returns the first character from a string. If the
      * provided string is empty it returns '\0'. If the provided string has more than 2 chars, an error will be
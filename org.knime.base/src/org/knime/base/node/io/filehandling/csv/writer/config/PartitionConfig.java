@@ -0,0 +1,222 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.csv.writer.config;
+
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.util.CheckUtils;
+
+/**
+ * Configuration deciding whether and how the CSV writer node splits its output into several part files.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 5.1
+ */
+public final class PartitionConfig implements SimpleConfig {
+
+    /**
+     * Different modes of splitting the output into part files
+     */
+    public enum PartitionMode {
+            /** write a single file. */
+            NONE,
+            /** start a new part file after a fixed number of rows. */
+            ROW_COUNT,
+            /** start a new part file once a part reaches a size limit. */
+            FILE_SIZE,
+            /** write one part file per distinct value of a column. */
+            COLUMN
+    }
+
+    private static final String CFGKEY_PARTITION_MODE = "partition_mode";
+
+    private static final String CFGKEY_ROWS_PER_PART = "rows_per_part";
+
+    private static final String CFGKEY_MEGABYTES_PER_PART = "megabytes_per_part";
+
+    private static final String CFGKEY_PARTITION_COLUMN = "partition_column";
+
+    private static final long DEFAULT_ROWS_PER_PART = 1_000_000;
+
+    private static final int DEFAULT_MEGABYTES_PER_PART = 128;
+
+    private PartitionMode m_partitionMode;
+
+    private long m_rowsPerPart;
+
+    private int m_megabytesPerPart;
+
+    private String m_partitionColumn;
+
+    /**
+     * Default constructor
+     */
+    public PartitionConfig() {
+        m_partitionMode = PartitionMode.NONE;
+        m_rowsPerPart = DEFAULT_ROWS_PER_PART;
+        m_megabytesPerPart = DEFAULT_MEGABYTES_PER_PART;
+        m_partitionColumn = "";
+    }
+
+    @Override
+    public void loadInDialog(final NodeSettingsRO settings) {
+        try {
+            m_partitionMode =
+                PartitionMode.valueOf(settings.getString(CFGKEY_PARTITION_MODE, PartitionMode.NONE.name()));
+        } catch (IllegalArgumentException e) { //NOSONAR
+            m_partitionMode = PartitionMode.NONE;
+        }
+        m_rowsPerPart = settings.getLong(CFGKEY_ROWS_PER_PART, DEFAULT_ROWS_PER_PART);
+        m_megabytesPerPart = settings.getInt(CFGKEY_MEGABYTES_PER_PART, DEFAULT_MEGABYTES_PER_PART);
+        m_partitionColumn = settings.getString(CFGKEY_PARTITION_COLUMN, "");
+    }
+
+    @Override
+    public void loadInModel(final NodeSettingsRO settings) throws InvalidSettingsException {
+        m_partitionMode = loadPartitionMode(settings);
+        m_rowsPerPart = settings.getLong(CFGKEY_ROWS_PER_PART);
+        m_megabytesPerPart = settings.getInt(CFGKEY_MEGABYTES_PER_PART);
+        m_partitionColumn = settings.getString(CFGKEY_PARTITION_COLUMN);
+    }
+
+    @Override
+    public void validate(final NodeSettingsRO settings) throws InvalidSettingsException {
+        final PartitionMode mode = loadPartitionMode(settings);
+        final long rowsPerPart = settings.getLong(CFGKEY_ROWS_PER_PART);
+        CheckUtils.checkSetting(mode != PartitionMode.ROW_COUNT || rowsPerPart > 0,
+            "The number of rows per file must be positive.");
+        final int megabytesPerPart = settings.getInt(CFGKEY_MEGABYTES_PER_PART);
+        CheckUtils.checkSetting(mode != PartitionMode.FILE_SIZE || megabytesPerPart > 0,
+            "The size per file must be positive.");
+        final String partitionColumn = settings.getString(CFGKEY_PARTITION_COLUMN);
+        CheckUtils.checkSetting(mode != PartitionMode.COLUMN || (partitionColumn != null && !partitionColumn.isEmpty()),
+            "Please select the column whose values partition the output.");
+    }
+
+    private static PartitionMode loadPartitionMode(final NodeSettingsRO settings) throws InvalidSettingsException {
+        final String modeName = settings.getString(CFGKEY_PARTITION_MODE);
+        try {
+            return PartitionMode.valueOf(modeName);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSettingsException("Unknown partition mode '" + modeName + "'.", e);
+        }
+    }
+
+    @Override
+    public void save(final NodeSettingsWO settings) {
+        settings.addString(CFGKEY_PARTITION_MODE, m_partitionMode.name());
+        settings.addLong(CFGKEY_ROWS_PER_PART, m_rowsPerPart);
+        settings.addInt(CFGKEY_MEGABYTES_PER_PART, m_megabytesPerPart);
+        settings.addString(CFGKEY_PARTITION_COLUMN, m_partitionColumn);
+    }
+
+    /**
+     * @return {@code true} if the output is split into several part files
+     */
+    public boolean isPartitioned() {
+        return m_partitionMode != PartitionMode.NONE;
+    }
+
+    /**
+     * @return the {@link PartitionMode} deciding how the output is split into part files
+     */
+    public PartitionMode getPartitionMode() {
+        return m_partitionMode;
+    }
+
+    /**
+     * @param partitionMode the {@link PartitionMode} deciding how the output is split into part files
+     */
+    public void setPartitionMode(final PartitionMode partitionMode) {
+        m_partitionMode = CheckUtils.checkArgumentNotNull(partitionMode, "The partition mode must not be null.");
+    }
+
+    /**
+     * @return the maximum number of rows written to a part file
+     */
+    public long getRowsPerPart() {
+        return m_rowsPerPart;
+    }
+
+    /**
+     * @param rowsPerPart the maximum number of rows written to a part file
+     */
+    public void setRowsPerPart(final long rowsPerPart) {
+        CheckUtils.checkArgument(rowsPerPart > 0, "The number of rows per file must be positive.");
+        m_rowsPerPart = rowsPerPart;
+    }
+
+    /**
+     * @return the size in megabytes after which a new part file is started
+     */
+    public int getMegabytesPerPart() {
+        return m_megabytesPerPart;
+    }
+
+    /**
+     * @param megabytesPerPart the size in megabytes after which a new part file is started
+     */
+    public void setMegabytesPerPart(final int megabytesPerPart) {
+        CheckUtils.checkArgument(megabytesPerPart > 0, "The size per file must be positive.");
+        m_megabytesPerPart = megabytesPerPart;
+    }
+
+    /**
+     * @return the name of the column whose values decide the part file of a row
+     */
+    public String getPartitionColumn() {
+        return m_partitionColumn;
+    }
+
+    /**
+     * @param partitionColumn the name of the column whose values decide the part file of a row
+     */
+    public void setPartitionColumn(final String partitionColumn) {
+        m_partitionColumn = partitionColumn == null ? "" : partitionColumn;
+    }
+
+}
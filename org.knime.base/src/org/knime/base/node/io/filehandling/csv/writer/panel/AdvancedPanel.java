@@ -81,6 +81,8 @@ public final class AdvancedPanel extends JPanel {
 
     private JCheckBox m_compressWithGzipChecker;
 
+    private JCheckBox m_writeInParallelChecker;
+
     private final JRadioButton m_quoteIfNeededButton;
 
     private final JRadioButton m_quoteStringsButton;
@@ -105,6 +107,7 @@ public AdvancedPanel() {
 
         m_missingValuePatternField = new JTextField("", TEXT_FIELD_WIDTH);
         m_compressWithGzipChecker = new JCheckBox("Compress output file (gzip)");
+        m_writeInParallelChecker = new JCheckBox("Format and compress in parallel");
 
         ButtonGroup bg = new ButtonGroup();
         m_quoteIfNeededButton = new JRadioButton("If needed");
@@ -235,6 +238,9 @@ private JPanel createMiscAdvancedOptionsPanel() {
         gbc.gridwidth = 2;
         advancedOptionsPanel.add(m_compressWithGzipChecker, gbc);
 
+        gbc.gridy++;
+        advancedOptionsPanel.add(m_writeInParallelChecker, gbc);
+
         gbc.gridx++;
         gbc.weightx = 1;
         advancedOptionsPanel.add(Box.createHorizontalBox(), gbc);
@@ -307,6 +313,7 @@ public void setQuoteMode(final QuoteMode mode) throws NotConfigurableException {
     public void readFromConfig(final AdvancedConfig config) throws NotConfigurableException {
         m_missingValuePatternField.setText(config.getMissingValuePattern());
         m_compressWithGzipChecker.setSelected(config.compressWithGzip());
+        m_writeInParallelChecker.setSelected(config.writeInParallel());
 
         m_useScientificFormatChecker.setSelected(config.useScientificFormat());
         m_keepTrailingZeroChecker.setSelected(config.keepTrailingZero());
@@ -325,6 +332,7 @@ public void readFromConfig(final AdvancedConfig config) throws NotConfigurableEx
     public void writeToConfig(final AdvancedConfig config) throws InvalidSettingsException {
         config.setMissingValuePattern(m_missingValuePatternField.getText());
         config.setCompressWithGzip(m_compressWithGzipChecker.isSelected());
+        config.setWriteInParallel(m_writeInParallelChecker.isSelected());
 
         config.setUseScientificFormat(m_useScientificFormatChecker.isSelected());
         config.setKeepTrailingZero(m_keepTrailingZeroChecker.isSelected());
@@ -0,0 +1,271 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.csv.writer.panel;
+
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.Insets;
+
+import javax.swing.BorderFactory;
+import javax.swing.Box;
+import javax.swing.ButtonGroup;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JRadioButton;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
+import javax.swing.border.Border;
+
+import org.knime.base.node.io.filehandling.csv.writer.config.PartitionConfig;
+import org.knime.base.node.io.filehandling.csv.writer.config.PartitionConfig.PartitionMode;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataValue;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NotConfigurableException;
+import org.knime.core.node.util.ColumnSelectionComboxBox;
+
+/**
+ * A dialog panel for the settings splitting the output of the CSV writer node into several files.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 5.1
+ */
+public final class PartitionPanel extends JPanel {
+
+    private static final long serialVersionUID = 7316270893582341093L;
+
+    private final JRadioButton m_singleFileButton;
+
+    private final JRadioButton m_rowCountButton;
+
+    private final JRadioButton m_fileSizeButton;
+
+    private final JRadioButton m_columnButton;
+
+    private final JSpinner m_rowsPerPartSpinner;
+
+    private final JSpinner m_megabytesPerPartSpinner;
+
+    private final ColumnSelectionComboxBox m_partitionColumnSelection;
+
+    /**
+     * Default constructor
+     */
+    public PartitionPanel() {
+        super(new GridBagLayout());
+
+        final ButtonGroup bg = new ButtonGroup();
+        m_singleFileButton = new JRadioButton("Write a single file");
+        bg.add(m_singleFileButton);
+        m_rowCountButton = new JRadioButton("Start a new file after");
+        bg.add(m_rowCountButton);
+        m_fileSizeButton = new JRadioButton("Start a new file after");
+        bg.add(m_fileSizeButton);
+        m_columnButton = new JRadioButton("Write one file per value of");
+        bg.add(m_columnButton);
+
+        m_rowsPerPartSpinner = new JSpinner(new SpinnerNumberModel(1_000_000L, 1L, Long.MAX_VALUE, 100_000L));
+        m_megabytesPerPartSpinner = new JSpinner(new SpinnerNumberModel(128, 1, Integer.MAX_VALUE, 16));
+        m_partitionColumnSelection = new ColumnSelectionComboxBox((Border)null, DataValue.class);
+
+        m_singleFileButton.addChangeListener(e -> selectionChanged());
+        m_rowCountButton.addChangeListener(e -> selectionChanged());
+        m_fileSizeButton.addChangeListener(e -> selectionChanged());
+        m_columnButton.addChangeListener(e -> selectionChanged());
+
+        initLayout();
+        selectionChanged();
+    }
+
+    /**
+     * Helper method to create and initialize {@link GridBagConstraints}.
+     *
+     * @return initialized {@link GridBagConstraints}
+     */
+    private static final GridBagConstraints createAndInitGBC() {
+        final GridBagConstraints gbc = new GridBagConstraints();
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        gbc.weightx = 0;
+        gbc.weighty = 0;
+        gbc.fill = GridBagConstraints.NONE;
+        gbc.anchor = GridBagConstraints.FIRST_LINE_START;
+        return gbc;
+    }
+
+    private void initLayout() {
+        final GridBagConstraints gbc = createAndInitGBC();
+        gbc.insets = new Insets(5, 0, 5, 0);
+        gbc.fill = GridBagConstraints.BOTH;
+        gbc.weightx = 1;
+        add(createPartitionOptionsPanel(), gbc);
+        gbc.gridy++;
+        gbc.weighty = 1;
+        add(Box.createVerticalBox(), gbc);
+    }
+
+    private JPanel createPartitionOptionsPanel() {
+        final JPanel partitionPanel = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = createAndInitGBC();
+        partitionPanel.setBorder(BorderFactory.createTitledBorder(BorderFactory.createEtchedBorder(), "Output files"));
+
+        gbc.insets = new Insets(5, 5, 5, 5);
+        gbc.gridwidth = 3;
+        partitionPanel.add(m_singleFileButton, gbc);
+
+        gbc.gridwidth = 1;
+        gbc.gridy++;
+        partitionPanel.add(m_rowCountButton, gbc);
+        gbc.gridx++;
+        partitionPanel.add(m_rowsPerPartSpinner, gbc);
+        gbc.gridx++;
+        partitionPanel.add(new JLabel("rows"), gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy++;
+        partitionPanel.add(m_fileSizeButton, gbc);
+        gbc.gridx++;
+        partitionPanel.add(m_megabytesPerPartSpinner, gbc);
+        gbc.gridx++;
+        partitionPanel.add(new JLabel("MB (uncompressed)"), gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy++;
+        partitionPanel.add(m_columnButton, gbc);
+        gbc.gridx++;
+        gbc.gridwidth = 2;
+        partitionPanel.add(m_partitionColumnSelection, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.gridwidth = 3;
+        gbc.insets = new Insets(10, 5, 5, 5);
+        partitionPanel.add(new JLabel("Part files and a manifest listing them are written next to the selected "
+            + "file and named after it."), gbc);
+
+        gbc.gridx = 3;
+        gbc.gridwidth = 1;
+        gbc.weightx = 1;
+        partitionPanel.add(Box.createHorizontalBox(), gbc);
+        return partitionPanel;
+    }
+
+    /**
+     * Enables or disables the inputs belonging to the partition modes depending on the selected mode.
+     */
+    private void selectionChanged() {
+        m_rowsPerPartSpinner.setEnabled(m_rowCountButton.isSelected());
+        m_megabytesPerPartSpinner.setEnabled(m_fileSizeButton.isSelected());
+        m_partitionColumnSelection.setEnabled(m_columnButton.isSelected());
+    }
+
+    private PartitionMode getPartitionMode() {
+        if (m_rowCountButton.isSelected()) {
+            return PartitionMode.ROW_COUNT;
+        } else if (m_fileSizeButton.isSelected()) {
+            return PartitionMode.FILE_SIZE;
+        } else if (m_columnButton.isSelected()) {
+            return PartitionMode.COLUMN;
+        } else {
+            return PartitionMode.NONE;
+        }
+    }
+
+    private void setPartitionMode(final PartitionMode mode) {
+        switch (mode) {
+            case ROW_COUNT:
+                m_rowCountButton.setSelected(true);
+                break;
+            case FILE_SIZE:
+                m_fileSizeButton.setSelected(true);
+                break;
+            case COLUMN:
+                m_columnButton.setSelected(true);
+                break;
+            default:
+                m_singleFileButton.setSelected(true);
+        }
+    }
+
+    /**
+     * Loads dialog components with values from the provided configuration
+     *
+     * @param config the configuration to read values from
+     * @param spec the spec of the input table, can be {@code null}
+     */
+    public void readFromConfig(final PartitionConfig config, final DataTableSpec spec) {
+        m_rowsPerPartSpinner.setValue(config.getRowsPerPart());
+        m_megabytesPerPartSpinner.setValue(config.getMegabytesPerPart());
+        try {
+            m_partitionColumnSelection.update(spec == null ? new DataTableSpec() : spec,
+                config.getPartitionColumn());
+            m_columnButton.setEnabled(true);
+        } catch (NotConfigurableException e) { //NOSONAR
+            // without columns there is nothing to partition by
+            m_columnButton.setEnabled(false);
+        }
+        setPartitionMode(config.getPartitionMode());
+        selectionChanged();
+    }
+
+    /**
+     * Reads values from dialog and updates the provided configuration.
+     *
+     * @param config the configuration to write the values to
+     * @throws InvalidSettingsException if no partition column is selected although required
+     */
+    public void writeToConfig(final PartitionConfig config) throws InvalidSettingsException {
+        final PartitionMode mode = getPartitionMode();
+        final String partitionColumn = m_partitionColumnSelection.getSelectedColumn();
+        if (mode == PartitionMode.COLUMN && partitionColumn == null) {
+            throw new InvalidSettingsException("Please select the column whose values partition the output.");
+        }
+        config.setPartitionMode(mode);
+        config.setRowsPerPart((Long)m_rowsPerPartSpinner.getValue());
+        config.setMegabytesPerPart((Integer)m_megabytesPerPartSpinner.getValue());
+        config.setPartitionColumn(partitionColumn);
+    }
+}
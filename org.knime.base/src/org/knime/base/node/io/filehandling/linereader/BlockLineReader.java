@@ -0,0 +1,310 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.linereader;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+import org.knime.filehandling.core.util.ThreadPoolUtils;
+
+/**
+ * Reads the lines of an uncompressed local file block by block. The blocks end at line breaks and are read and decoded
+ * in bulk by several threads, while the lines are returned in the order of the file.</br>
+ * The blocks are read with positional reads into reused direct buffers rather than being memory-mapped, because mapped
+ * buffers are only released by the garbage collector and keep the file locked on Windows until then.</br>
+ * Only charsets that encode line breaks as single bytes which never occur within the encoding of another character
+ * are supported, see {@link #supports(Charset)}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class BlockLineReader implements LineRead.LineSource {
+
+    /** The approximate number of bytes of a block. */
+    static final int BLOCK_SIZE = 8 << 20;
+
+    private static final int SCAN_BUFFER_SIZE = 8 << 10;
+
+    private static final byte[] UTF8_BOM = {(byte)0xEF, (byte)0xBB, (byte)0xBF};
+
+    private static final String[] NO_LINES = new String[0];
+
+    private final FileChannel m_channel;
+
+    private final Charset m_charset;
+
+    private final long m_size;
+
+    private final int m_blockSize;
+
+    private final ThreadPool m_pool;
+
+    private final int m_maxPendingBlocks;
+
+    private final Deque<Block> m_pendingBlocks = new ArrayDeque<>();
+
+    private final ByteBuffer m_scanBuffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+
+    /** the buffers of the blocks that are currently not read, there is at most one per thread */
+    private final Queue<ByteBuffer> m_blockBuffers = new ConcurrentLinkedQueue<>();
+
+    private long m_nextBlockStart;
+
+    private long m_progress;
+
+    private String[] m_lines = NO_LINES;
+
+    private int m_lineIdx;
+
+    /**
+     * Constructor.
+     *
+     * @param file the file to read, must be on the default file system
+     * @param charset the {@link Charset} of the file, must be {@link #supports(Charset) supported}
+     * @param nrThreads the number of threads decoding blocks
+     * @throws IOException if the file can't be opened
+     */
+    BlockLineReader(final Path file, final Charset charset, final int nrThreads) throws IOException {
+        this(file, charset, nrThreads, BLOCK_SIZE);
+    }
+
+    BlockLineReader(final Path file, final Charset charset, final int nrThreads, final int blockSize)
+        throws IOException {
+        m_channel = FileChannel.open(file, StandardOpenOption.READ);
+        m_size = m_channel.size();
+        m_charset = charset;
+        m_blockSize = blockSize;
+        m_pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(nrThreads);
+        m_maxPendingBlocks = 2 * nrThreads;
+        m_nextBlockStart = startsWithUtf8Bom() ? UTF8_BOM.length : 0;
+    }
+
+    /**
+     * Checks if the provided {@link Charset} can be read by this class, i.e. if line breaks can be found without
+     * decoding the bytes.
+     *
+     * @param charset the {@link Charset} to check
+     * @return {@code true} if files with the {@link Charset} can be read
+     */
+    static boolean supports(final Charset charset) {
+        final String name = charset.name();
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII)
+            || name.startsWith("ISO-8859-") || name.startsWith("windows-125");
+    }
+
+    private boolean startsWithUtf8Bom() throws IOException {
+        if (!m_charset.equals(StandardCharsets.UTF_8)) {
+            return false;
+        }
+        final ByteBuffer start = ByteBuffer.allocate(UTF8_BOM.length);
+        while (start.hasRemaining() && m_channel.read(start, start.position()) > 0) {
+            // all the action happens in the header
+        }
+        return !start.hasRemaining() && Arrays.equals(start.array(), UTF8_BOM);
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        while (m_lineIdx == m_lines.length) {
+            enqueueBlocks();
+            final Block block = m_pendingBlocks.poll();
+            if (block == null) {
+                return null;
+            }
+            m_lines = block.getLines();
+            m_lineIdx = 0;
+            m_progress = block.m_end;
+        }
+        return m_lines[m_lineIdx++];
+    }
+
+    private void enqueueBlocks() throws IOException {
+        while (m_pendingBlocks.size() < m_maxPendingBlocks && m_nextBlockStart < m_size) {
+            final long start = m_nextBlockStart;
+            final long end = findBlockEnd(start);
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("The file contains a line that is longer than 2 GB.");
+            }
+            final int length = (int)(end - start);
+            m_pendingBlocks.add(new Block(m_pool.enqueue(() -> readLines(start, length)), end));
+            m_nextBlockStart = end;
+        }
+    }
+
+    /**
+     * Reads the block with the provided start and length into a free buffer and decodes its lines.
+     */
+    private String[] readLines(final long start, final int length) throws IOException {
+        ByteBuffer buffer = m_blockBuffers.poll();
+        if (buffer == null || buffer.capacity() < length) {
+            // blocks are a bit longer than the block size, the headroom avoids reallocations for the next blocks
+            buffer = ByteBuffer.allocateDirect((int)Math.min(Integer.MAX_VALUE, length + (long)(length >> 3)));
+        }
+        try {
+            buffer.clear().limit(length);
+            while (buffer.hasRemaining()) {
+                if (m_channel.read(buffer, start + buffer.position()) < 0) {
+                    throw new EOFException("The file has been truncated while reading it.");
+                }
+            }
+            buffer.flip();
+            return decodeLines(buffer, m_charset);
+        } finally {
+            m_blockBuffers.add(buffer);
+        }
+    }
+
+    /**
+     * Finds the end of the block starting at the provided position, i.e. the position after the first line break that
+     * follows the nominal end of the block.
+     */
+    private long findBlockEnd(final long start) throws IOException {
+        long pos = start + m_blockSize;
+        while (pos < m_size) {
+            m_scanBuffer.clear();
+            final int read = m_channel.read(m_scanBuffer, pos);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                final byte b = m_scanBuffer.get(i);
+                if (b == '\n') {
+                    return pos + i + 1;
+                } else if (b == '\r') {
+                    // \r\n is a single line break and must not be split
+                    return isLineFeed(pos + i + 1) ? (pos + i + 2) : (pos + i + 1);
+                }
+            }
+            pos += read;
+        }
+        return m_size;
+    }
+
+    private boolean isLineFeed(final long pos) throws IOException {
+        if (pos >= m_size) {
+            return false;
+        }
+        final ByteBuffer next = ByteBuffer.allocate(1);
+        return m_channel.read(next, pos) == 1 && next.get(0) == '\n';
+    }
+
+    /**
+     * Decodes the provided bytes and splits them into lines the same way {@link java.io.BufferedReader#readLine()}
+     * does, i.e. \n, \r and \r\n terminate a line.
+     *
+     * @param bytes the bytes to decode, must not end within a line break
+     * @param charset the {@link Charset} of the bytes
+     * @return the lines without line breaks
+     */
+    static String[] decodeLines(final ByteBuffer bytes, final Charset charset) {
+        // malformed input is replaced just like by the InputStreamReader used for all other files
+        final CharBuffer chars = charset.decode(bytes);
+        final char[] array = chars.array();
+        final int offset = chars.arrayOffset() + chars.position();
+        final int length = chars.remaining();
+        final List<String> lines = new ArrayList<>();
+        int lineStart = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = array[offset + i];
+            if (c == '\n' || c == '\r') {
+                lines.add(new String(array, offset + lineStart, i - lineStart));
+                if (c == '\r' && i + 1 < length && array[offset + i + 1] == '\n') {
+                    i++;
+                }
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < length) {
+            lines.add(new String(array, offset + lineStart, length - lineStart));
+        }
+        return lines.toArray(NO_LINES);
+    }
+
+    @Override
+    public long getProgress() {
+        return m_progress;
+    }
+
+    @Override
+    public void close() throws IOException {
+        m_pendingBlocks.forEach(b -> b.m_lines.cancel(true));
+        m_pendingBlocks.clear();
+        m_blockBuffers.clear();
+        m_channel.close();
+    }
+
+    private final class Block {
+
+        private final Future<String[]> m_lines;
+
+        private final long m_end;
+
+        Block(final Future<String[]> lines, final long end) {
+            m_lines = lines;
+            m_end = end;
+        }
+
+        String[] getLines() throws IOException {
+            return ThreadPoolUtils.waitFor(m_pool, m_lines, IOException.class);
+        }
+    }
+}
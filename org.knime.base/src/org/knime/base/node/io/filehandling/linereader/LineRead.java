@@ -49,6 +49,7 @@
 package org.knime.base.node.io.filehandling.linereader;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
@@ -58,12 +59,14 @@
 
 import org.knime.core.node.NodeLogger;
 import org.knime.filehandling.core.connections.FSPath;
+import org.knime.filehandling.core.connections.meta.FSType;
 import org.knime.filehandling.core.node.table.reader.config.TableReadConfig;
 import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
 import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessibleUtils;
 import org.knime.filehandling.core.node.table.reader.read.Read;
 import org.knime.filehandling.core.util.BomEncodingUtils;
 import org.knime.filehandling.core.util.CompressionAwareCountingInputStream;
+import org.knime.filehandling.core.util.FileCompressionUtils;
 
 /**
  * Class for the line reader which implements {@link Read}.
@@ -74,9 +77,7 @@ final class LineRead implements Read<String> {
 
     private static final NodeLogger LOGGER = NodeLogger.getLogger(LineRead.class);
 
-    private final BufferedReader m_reader;
-
-    private final CompressionAwareCountingInputStream m_compressionAwareStream;
+    private final LineSource m_reader;
 
     private final long m_size;
 
@@ -109,11 +110,9 @@ final class LineRead implements Read<String> {
 
         m_size = Files.size(path);
 
-        m_compressionAwareStream = new CompressionAwareCountingInputStream(path);
-
         final String charSetName = config.getReaderSpecificConfig().getCharSetName();
         final Charset charset = charSetName == null ? Charset.defaultCharset() : Charset.forName(charSetName);
-        m_reader = BomEncodingUtils.createBufferedReader(m_compressionAwareStream, charset);
+        m_reader = createLineSource(path, charset, m_size);
         m_regexPattern = Pattern.compile(config.getReaderSpecificConfig().getRegex());
         m_linesRead = m_config.useColumnHeaderIdx() ? -1 : 0;
         m_limitRows = m_config.limitRows();
@@ -122,6 +121,18 @@ final class LineRead implements Read<String> {
         m_emptyLineReplacement = m_lineReaderConfig.getEmptyLineReplacement();
     }
 
+    @SuppressWarnings("resource") // the file system is owned by the path
+    private static LineSource createLineSource(final FSPath path, final Charset charset, final long size)
+        throws IOException {
+        // large local files are read block by block and decoded in parallel, everything else is streamed
+        if (size > BlockLineReader.BLOCK_SIZE && path.getFileSystem().getFSType() == FSType.LOCAL_FS
+            && !FileCompressionUtils.mightBeCompressed(path) && BlockLineReader.supports(charset)) {
+            return new BlockLineReader(path.toAbsolutePath().toFile().toPath(), charset,
+                Runtime.getRuntime().availableProcessors());
+        }
+        return new StreamLineSource(path, charset);
+    }
+
     @Override
     public RandomAccessible<String> next() throws IOException {
         RandomAccessible<String> nextRow;
@@ -201,13 +212,7 @@ private static RandomAccessible<String> createRandomAccessible(final String line
 
     @Override
     public void close() throws IOException {
-        try {
-            m_reader.close();
-        } catch (IOException e) {
-            LOGGER.error("Something went wrong while closing the BufferedReader. "
-                + "For further details please have a look into the log.", e);
-        }
-        m_compressionAwareStream.close();
+        m_reader.close();
     }
 
     @Override
@@ -217,6 +222,61 @@ public OptionalLong getMaxProgress() {
 
     @Override
     public long getProgress() {
-        return m_compressionAwareStream.getCount();
+        return m_reader.getProgress();
+    }
+
+    /**
+     * Provides the lines of a file.
+     */
+    interface LineSource extends Closeable {
+
+        /**
+         * Reads the next line.
+         *
+         * @return the next line without line break or {@code null} if the end of the file is reached
+         * @throws IOException if reading fails
+         */
+        String readLine() throws IOException;
+
+        /**
+         * @return the number of bytes of the file that have been processed
+         */
+        long getProgress();
+    }
+
+    /**
+     * Reads the lines of a possibly compressed file via a {@link BufferedReader}.
+     */
+    private static final class StreamLineSource implements LineSource {
+
+        private final CompressionAwareCountingInputStream m_compressionAwareStream;
+
+        private final BufferedReader m_reader;
+
+        StreamLineSource(final FSPath path, final Charset charset) throws IOException {
+            m_compressionAwareStream = new CompressionAwareCountingInputStream(path);
+            m_reader = BomEncodingUtils.createBufferedReader(m_compressionAwareStream, charset);
+        }
+
+        @Override
+        public String readLine() throws IOException {
+            return m_reader.readLine();
+        }
+
+        @Override
+        public long getProgress() {
+            return m_compressionAwareStream.getCount();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                m_reader.close();
+            } catch (IOException e) {
+                LOGGER.error("Something went wrong while closing the BufferedReader. "
+                    + "For further details please have a look into the log.", e);
+            }
+            m_compressionAwareStream.close();
+        }
     }
 }
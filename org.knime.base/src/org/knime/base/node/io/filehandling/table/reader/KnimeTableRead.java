@@ -51,6 +51,7 @@
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.OptionalLong;
+import java.util.stream.IntStream;
 
 import org.knime.base.node.preproc.manipulator.TableManipulatorConfig;
 import org.knime.base.node.preproc.manipulator.framework.TableRead;
@@ -67,6 +68,8 @@
  */
 final class KnimeTableRead implements Read<DataValue> {
 
+    private final PathBackedBoundedTable m_table;
+
     private final TableRead m_tableRead;
 
     /**
@@ -78,8 +81,27 @@ final class KnimeTableRead implements Read<DataValue> {
      * @throws InvalidSettingsException
      */
     KnimeTableRead(final Path path, final TableReadConfig<TableManipulatorConfig> config) throws IOException {
-        final PathBackedBoundedTable table = new PathBackedBoundedTable(path);
-        m_tableRead = new TableRead(table, config);
+        m_table = new PathBackedBoundedTable(path);
+        m_tableRead = new TableRead(m_table, config);
+    }
+
+    /**
+     * Constructor for a read that only decodes the cells of the provided columns.
+     *
+     * @param path the {@link Path} to the file
+     * @param config the {@link TableReadConfig} of the node
+     * @param columnIndices the indices of the required columns, the row ID is at index 0 if it is used
+     * @throws IOException if the file can't be read
+     */
+    KnimeTableRead(final Path path, final TableReadConfig<TableManipulatorConfig> config, final int[] columnIndices)
+        throws IOException {
+        // the read prepends the row ID to the cells of a row
+        final int offset = config.useRowIDIdx() ? 1 : 0;
+        m_table = new PathBackedBoundedTable(path, IntStream.of(columnIndices)//
+            .map(i -> i - offset)//
+            .filter(i -> i >= 0)//
+            .toArray());
+        m_tableRead = new TableRead(m_table, config);
     }
 
     @Override
@@ -90,6 +112,7 @@ public RandomAccessible<DataValue> next() throws IOException {
     @Override
     public void close() throws IOException {
         m_tableRead.close();
+        m_table.close();
     }
 
     @Override
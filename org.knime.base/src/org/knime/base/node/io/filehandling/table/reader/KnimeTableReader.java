@@ -95,6 +95,13 @@ public Read<DataValue> read(final FSPath path, final TableReadConfig<TableManipu
         return decorateForReading(new KnimeTableRead(path, config), config);
     }
 
+    @SuppressWarnings("resource") // closing the read is the responsibility of the caller
+    @Override
+    public Read<DataValue> read(final FSPath path, final TableReadConfig<TableManipulatorConfig> config,
+        final int[] columnIndices) throws IOException {
+        return decorateForReading(new KnimeTableRead(path, config, columnIndices), config);
+    }
+
     @Override
     public TypedReaderTableSpec<DataType> readSpec(final FSPath path,
         final TableReadConfig<TableManipulatorConfig> config, final ExecutionMonitor exec) throws IOException {
@@ -141,7 +148,7 @@ private static Optional<DataTableSpec> getTableSpec(final Path path) throws IOEx
     private static DataTableSpec getTableSpecForOldFiles(final Path path) throws IOException {
         DataTableSpec spec;
         LOGGER.debug("Table spec is not first entry in input file, need to deflate entire file");
-        try (InputStream in = openInputStream(path); ContainerTable outTable = DataContainer.readFromStream(in)) {
+        try (ContainerTable outTable = PathBackedBoundedTable.readTable(path)) {
             spec = outTable.getDataTableSpec();
         }
         return spec;
@@ -45,15 +45,23 @@
 
 package org.knime.base.node.io.filehandling.table.reader;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
 
 import org.knime.base.node.preproc.manipulator.table.BoundedTable;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.container.CloseableRowIterator;
 import org.knime.core.data.container.ContainerTable;
 import org.knime.core.data.container.DataContainer;
+import org.knime.core.data.container.filter.TableFilter;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.filehandling.core.connections.FSPath;
+import org.knime.filehandling.core.connections.meta.FSType;
 import org.knime.filehandling.core.util.CompressionAwareCountingInputStream;
 
 /**
@@ -68,10 +76,15 @@ final class PathBackedBoundedTable implements BoundedTable {
 
     private static final String DATA_BIN_EXCEPTION = "No entry data.bin in file";
 
+    /** The local file header signature a zip file starts with. */
+    private static final byte[] ZIP_SIGNATURE = {0x50, 0x4b, 0x03, 0x04};
+
     private final Path m_path;
 
     private final ContainerTable m_table;
 
+    private final TableFilter m_filter;
+
     /**
      * @param path
      * @throws IOException
@@ -79,23 +92,70 @@ final class PathBackedBoundedTable implements BoundedTable {
     PathBackedBoundedTable(final Path path) throws IOException {
         m_path = path;
         m_table = extractTable();
+        m_filter = null;
     }
 
-    private InputStream openInputStream() throws IOException {
-        return new CompressionAwareCountingInputStream(m_path);
+    /**
+     * Creates a table whose {@link #cursor()} only has to materialize the cells of the provided columns.
+     *
+     * @param path the path of the table file
+     * @param columnIndices the indices of the columns to materialize
+     * @throws IOException if the file can't be read
+     */
+    PathBackedBoundedTable(final Path path, final int[] columnIndices) throws IOException {
+        m_path = path;
+        m_table = extractTable();
+        m_filter = TableFilter.materializeCols(columnIndices);
     }
 
     private ContainerTable extractTable() throws IOException {
-        try (InputStream inputStream = openInputStream()) {
-            return DataContainer.readFromStream(inputStream);
+        try {
+            return readTable(m_path);
         } catch (IOException e) {
-            if (e.getMessage().equals(DATA_BIN_EXCEPTION)) {
+            if (DATA_BIN_EXCEPTION.equals(e.getMessage())) {
                 throw new IOException(ERROR_MSG_DATA_BIN_EXCEPTION, e);
             }
             throw e;
         }
     }
 
+    /**
+     * Reads the table stored at the given path. Uncompressed files on the local file system are opened as zip file
+     * directly, all other files are copied from their (decompressing) stream to a temporary zip file first. In both
+     * cases the table's data is extracted from the zip file to a temporary file once it is accessed.
+     *
+     * @param path the path of the table file
+     * @return the table
+     * @throws IOException if the file can't be read
+     */
+    static ContainerTable readTable(final Path path) throws IOException {
+        final Optional<File> localZipFile = getLocalZipFile(path);
+        if (localZipFile.isPresent()) {
+            return DataContainer.readFromZip(localZipFile.get());
+        }
+        try (InputStream inputStream = new CompressionAwareCountingInputStream(path)) {
+            return DataContainer.readFromStream(inputStream);
+        }
+    }
+
+    /**
+     * @param path the path of the table file
+     * @return the file of the path, if it is an uncompressed table on the local file system
+     * @throws IOException if the file can't be read
+     */
+    @SuppressWarnings("resource") // the file system is owned by the path
+    static Optional<File> getLocalZipFile(final Path path) throws IOException {
+        if (!(path instanceof FSPath) || ((FSPath)path).getFileSystem().getFSType() != FSType.LOCAL_FS) {
+            return Optional.empty();
+        }
+        final File file = path.toAbsolutePath().toFile();
+        // gzip compressed tables have to be decompressed by the stream
+        try (InputStream in = new FileInputStream(file)) {
+            final byte[] signature = in.readNBytes(ZIP_SIGNATURE.length);
+            return Arrays.equals(signature, ZIP_SIGNATURE) ? Optional.of(file) : Optional.empty();
+        }
+    }
+
     @Override
     public DataTableSpec getDataTableSpec() {
         return m_table.getDataTableSpec();
@@ -106,11 +166,22 @@ public DataTableSpec getDataTableSpec() {
      */
     @Override
     public CloseableRowIterator cursor() {
-        return m_table.iterator();
+        if (m_filter == null) {
+            return m_table.iterator();
+        }
+        // the rows still contain all cells but the ones of columns that are not materialized may be missing
+        return m_table.iteratorWithFilter(m_filter, new ExecutionMonitor());
     }
 
     @Override
     public long size() {
         return m_table.size();
     }
+
+    /**
+     * Releases the resources held by the table, e.g. temporary files.
+     */
+    void close() {
+        m_table.clear();
+    }
 }
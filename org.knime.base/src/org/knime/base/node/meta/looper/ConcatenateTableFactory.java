@@ -50,6 +50,7 @@
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -65,6 +66,7 @@
 import org.knime.core.data.container.BlobSupportDataRow;
 import org.knime.core.data.container.ConcatenateTable;
 import org.knime.core.data.container.RowFlushable;
+import org.knime.core.data.def.DefaultRow;
 import org.knime.core.data.def.IntCell;
 import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
@@ -88,6 +90,9 @@ class ConcatenateTableFactory implements RowFlushable {
      * tables are copied into an entire new one.*/
     private static final int MAX_NUM_TABLES = 50;
 
+    /** Maximum number of rows that are buffered in consolidated mode before they are written to a new container. */
+    static final int MAX_BUFFERED_ROWS = 10000;
+
     private ArrayList<BufferedDataContainer> m_tables;
 
     private BufferedDataContainer m_emptyTable;
@@ -100,6 +105,19 @@ class ConcatenateTableFactory implements RowFlushable {
 
     private boolean m_tolerateChangingSpecs;
 
+    private final boolean m_consolidate;
+
+    /** iterations whose rows don't fit into the last container, only used in consolidated mode */
+    private final List<BufferedIteration> m_bufferedIterations = new ArrayList<>();
+
+    /** the spec of the container the buffered iterations will be written to */
+    private DataTableSpec m_bufferedSpec;
+
+    private int m_bufferedRowCount;
+
+    /** the execution context of the last added table, used to write the buffered iterations when flushing rows */
+    private ExecutionContext m_exec;
+
     private Function<RowKey, RowKey> m_rowKeyCreator;
 
     private DuplicateChecker m_duplicateChecker;
@@ -115,11 +133,36 @@ class ConcatenateTableFactory implements RowFlushable {
      * @param tolerateColumnTypes if the change of a column type should be tolerated (common supertype is determined)
      * @param addIterationColumn  if an iteration column should be appended
      * @param rowKeyCreator an optional row key creator. If not provided, the row keys remain unmodified.
-     * @param exec execution context mainly in order to create the new data containers
      */
     ConcatenateTableFactory(final boolean ignoreEmptyTables, final boolean tolerateColumnTypes,
         final boolean addIterationColumn, final boolean tolerateChangingSpecs, final Optional<Function<RowKey, RowKey>> rowKeyCreator) {
+        this(ignoreEmptyTables, tolerateColumnTypes, addIterationColumn, tolerateChangingSpecs, rowKeyCreator, false);
+    }
+
+    /**
+     * Creates a new factory that allows to create a {@link ConcatenateTable}.
+     *
+     * <p>
+     * In consolidated mode, a new data container is not created for each table whose spec differs from the previous
+     * one. Instead, the rows are written to the last container as long as its spec is a super type of the table's
+     * spec. Otherwise the rows are buffered (at most {@link #MAX_BUFFERED_ROWS}) and written to a new container whose
+     * spec is the union of the last container's spec and the specs of the buffered tables, with common super types
+     * for shared columns. This keeps the number of containers small, e.g., if the column types alternate between
+     * iterations or a new column appears in each iteration. The created table is the same as without consolidation.
+     * </p>
+     *
+     * @param ignoreEmptyTables if empty tables should entirely be skipped
+     * @param tolerateColumnTypes if the change of a column type should be tolerated (common supertype is determined)
+     * @param addIterationColumn  if an iteration column should be appended
+     * @param tolerateChangingSpecs if changing table specs should be tolerated (missing values are inserted)
+     * @param rowKeyCreator an optional row key creator. If not provided, the row keys remain unmodified.
+     * @param consolidate whether the rows of the tables should be consolidated in as few containers as possible
+     */
+    ConcatenateTableFactory(final boolean ignoreEmptyTables, final boolean tolerateColumnTypes,
+        final boolean addIterationColumn, final boolean tolerateChangingSpecs,
+        final Optional<Function<RowKey, RowKey>> rowKeyCreator, final boolean consolidate) {
 
+        m_consolidate = consolidate;
         m_ignoreEmptyTables = ignoreEmptyTables;
         m_tolerateColumnTypes = tolerateColumnTypes;
         m_addIterationColumn = addIterationColumn;
@@ -165,6 +208,7 @@ void addTable(final BufferedDataTable table, final ExecutionContext exec)
      * @throws CanceledExecutionException
      */
     void addTable(final RowInput table, final ExecutionContext exec) throws InterruptedException, DuplicateKeyException, IOException, CanceledExecutionException {
+        m_exec = exec;
 
         //check if last container has been closed (i.e. createTable was called)
         if (m_tables.size() > 0) {
@@ -222,6 +266,17 @@ void addTable(final RowInput table, final ExecutionContext exec) throws Interrup
         //end up with quite many data containers
         BufferedDataContainer con;
         DataTableSpec newTableSpec = createSpec(table.getDataTableSpec(), m_addIterationColumn, false);
+        if (m_consolidate && m_tables.size() > 0) {
+            try {
+                addRowsConsolidated(row, table, newTableSpec, exec);
+                m_iterationCount++;
+            } catch (CanceledExecutionException e) {
+                // clean-up all ressources
+                clear(true);
+                throw e;
+            }
+            return;
+        }
         if (m_tables.size() == 0) {
             con = exec.createDataContainer(newTableSpec);
             m_tables.add(con);
@@ -238,19 +293,7 @@ void addTable(final RowInput table, final ExecutionContext exec) throws Interrup
         try {
             do {
                 exec.checkCanceled();
-                //change row key if desired
-                if (m_rowKeyCreator != null) {
-                    //change row key
-                    row = new BlobSupportDataRow(m_rowKeyCreator.apply(row.getKey()), row);
-                }
-                m_duplicateChecker.addKey(row.getKey().toString());
-
-                //add additional iteration column if desired
-                if (m_addIterationColumn) {
-                    IntCell currIterCell = new IntCell(m_iterationCount);
-                    row = new org.knime.core.data.append.AppendedColumnRow(row, currIterCell);
-                }
-                con.addRowToTable(row);
+                con.addRowToTable(prepareRow(row));
             } while ((row = table.poll()) != null);
             m_iterationCount++;
         } catch (CanceledExecutionException e) {
@@ -260,6 +303,150 @@ void addTable(final RowInput table, final ExecutionContext exec) throws Interrup
         }
     }
 
+    /**
+     * Changes the row key, checks for duplicates and appends the iteration column, depending on the settings.
+     */
+    private DataRow prepareRow(final DataRow row) throws DuplicateKeyException, IOException {
+        DataRow result = row;
+        //change row key if desired
+        if (m_rowKeyCreator != null) {
+            //change row key
+            result = new BlobSupportDataRow(m_rowKeyCreator.apply(result.getKey()), result);
+        }
+        m_duplicateChecker.addKey(result.getKey().toString());
+
+        //add additional iteration column if desired
+        if (m_addIterationColumn) {
+            IntCell currIterCell = new IntCell(m_iterationCount);
+            result = new org.knime.core.data.append.AppendedColumnRow(result, currIterCell);
+        }
+        return result;
+    }
+
+    /**
+     * Adds the rows of a table in consolidated mode, i.e., either to the last container, if no rows are buffered and
+     * its spec is a super type of the table's spec, or to the buffer.
+     */
+    private void addRowsConsolidated(final DataRow firstRow, final RowInput table, final DataTableSpec spec,
+        final ExecutionContext exec)
+        throws InterruptedException, DuplicateKeyException, IOException, CanceledExecutionException {
+        BufferedDataContainer con = m_tables.get(m_tables.size() - 1);
+        BufferedIteration iteration = null;
+        if (!m_bufferedIterations.isEmpty() || !isSuperSpec(con.getTableSpec(), spec)) {
+            iteration = new BufferedIteration(spec);
+            m_bufferedIterations.add(iteration);
+            m_bufferedSpec = mergeSpecs(m_bufferedSpec == null ? con.getTableSpec() : m_bufferedSpec, spec);
+        }
+        int[] mapping = null;
+        DataRow row = firstRow;
+        do {
+            exec.checkCanceled();
+            final DataRow preparedRow = prepareRow(row);
+            if (iteration != null) {
+                iteration.m_rows.add(preparedRow);
+                if (++m_bufferedRowCount >= MAX_BUFFERED_ROWS) {
+                    // the remaining rows fit into the new container
+                    flushBufferedIterations(exec);
+                    iteration = null;
+                    con = m_tables.get(m_tables.size() - 1);
+                }
+            } else {
+                if (mapping == null) {
+                    mapping = createColumnMapping(con.getTableSpec(), spec);
+                }
+                con.addRowToTable(mapRow(preparedRow, mapping));
+            }
+        } while ((row = table.poll()) != null);
+    }
+
+    /** Writes all buffered rows to a new container whose spec fits all of them. */
+    private void flushBufferedIterations(final ExecutionContext exec) throws CanceledExecutionException {
+        exec.checkCanceled();
+        writeBufferedIterations(exec);
+    }
+
+    /**
+     * Writes all buffered rows to a new container whose spec fits all of them. The rows are written at once, there are
+     * at most {@link #MAX_BUFFERED_ROWS} of them.
+     */
+    private void writeBufferedIterations(final ExecutionContext exec) {
+        if (m_bufferedIterations.isEmpty()) {
+            return;
+        }
+        m_tables.get(m_tables.size() - 1).close();
+        final BufferedDataContainer con = exec.createDataContainer(m_bufferedSpec);
+        m_tables.add(con);
+        for (final BufferedIteration iteration : m_bufferedIterations) {
+            final int[] mapping = createColumnMapping(m_bufferedSpec, iteration.m_spec);
+            for (final DataRow row : iteration.m_rows) {
+                con.addRowToTable(mapRow(row, mapping));
+            }
+        }
+        m_bufferedIterations.clear();
+        m_bufferedSpec = null;
+        m_bufferedRowCount = 0;
+    }
+
+    /**
+     * @return whether each column of the given spec is contained in the container's spec with a super type
+     */
+    private static boolean isSuperSpec(final DataTableSpec containerSpec, final DataTableSpec spec) {
+        for (final DataColumnSpec colSpec : spec) {
+            final DataColumnSpec containerColSpec = containerSpec.getColumnSpec(colSpec.getName());
+            if (containerColSpec == null || !containerColSpec.getType().isASuperTypeOf(colSpec.getType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the union of both specs, shared columns get the common super type of both columns
+     */
+    private static DataTableSpec mergeSpecs(final DataTableSpec spec1, final DataTableSpec spec2) {
+        final List<DataColumnSpec> colSpecs = new ArrayList<>();
+        for (final DataColumnSpec colSpec : spec1) {
+            final DataColumnSpec other = spec2.getColumnSpec(colSpec.getName());
+            if (other == null || colSpec.getType().isASuperTypeOf(other.getType())) {
+                colSpecs.add(colSpec);
+            } else {
+                colSpecs.add(new DataColumnSpecCreator(colSpec.getName(),
+                    DataType.getCommonSuperType(colSpec.getType(), other.getType())).createSpec());
+            }
+        }
+        for (final DataColumnSpec colSpec : spec2) {
+            if (!spec1.containsName(colSpec.getName())) {
+                colSpecs.add(colSpec);
+            }
+        }
+        return new DataTableSpec(colSpecs.toArray(new DataColumnSpec[0]));
+    }
+
+    /**
+     * @return for each column of the container spec the index of the column in the given spec (-1 if it doesn't
+     *         exist), or <code>null</code> if the rows don't need to be mapped at all
+     */
+    private static int[] createColumnMapping(final DataTableSpec containerSpec, final DataTableSpec spec) {
+        final int[] mapping = new int[containerSpec.getNumColumns()];
+        boolean identity = containerSpec.getNumColumns() == spec.getNumColumns();
+        for (int i = 0; i < mapping.length; i++) {
+            mapping[i] = spec.findColumnIndex(containerSpec.getColumnSpec(i).getName());
+            identity &= mapping[i] == i;
+        }
+        return identity ? null : mapping;
+    }
+
+    private static DataRow mapRow(final DataRow row, final int[] mapping) {
+        if (mapping == null) {
+            return row;
+        }
+        final DataCell[] cells = new DataCell[mapping.length];
+        for (int i = 0; i < mapping.length; i++) {
+            cells[i] = mapping[i] < 0 ? DataType.getMissingCell() : row.getCell(mapping[i]);
+        }
+        return new DefaultRow(row.getKey(), cells);
+    }
+
     /**
      * Finally creates the {@link ConcatenateTable}. All data containers will be closed and no more tables can be added
      * to the factory after this method call.
@@ -280,6 +467,7 @@ BufferedDataTable createTable(final ExecutionContext exec)
             m_emptyTable = null;
         } else {
             m_duplicateChecker.checkForDuplicates();
+            flushBufferedIterations(exec);
 
             //close last used table
             m_tables.get(m_tables.size() - 1).close();
@@ -393,6 +581,10 @@ void clear(final boolean clearData) {
             }
         }
         m_tables.clear();
+        m_bufferedIterations.clear();
+        m_bufferedSpec = null;
+        m_bufferedRowCount = 0;
+        m_exec = null;
         if (m_emptyTable != null) {
             // remove all temporary data.
             m_emptyTable.close();
@@ -401,8 +593,24 @@ void clear(final boolean clearData) {
         m_duplicateChecker.clear();
     }
 
+    /** The rows of a table that are buffered in consolidated mode. */
+    private static final class BufferedIteration {
+
+        private final DataTableSpec m_spec;
+
+        private final List<DataRow> m_rows = new ArrayList<>();
+
+        BufferedIteration(final DataTableSpec spec) {
+            m_spec = spec;
+        }
+    }
+
     @Override
     public void flushRows() {
+        if (m_exec != null) {
+            // the buffered rows have to end up in a container to be flushed
+            writeBufferedIterations(m_exec);
+        }
         if (!m_tables.isEmpty()) {
             m_tables.get(m_tables.size() - 1).flushRows();
         }
@@ -67,6 +67,8 @@ final class LoopEndDynamicNodeDialog extends AbstractLoopEndNodeDialog<LoopEndDy
 
     private final JCheckBox[] m_tolerateChangingSpecs;
 
+    private final JCheckBox m_consolidateContainers = new JCheckBox("Consolidate rows into few tables");
+
     /** Create a new dialog. */
     LoopEndDynamicNodeDialog(final int numberOfTables) {
         super(new LoopEndDynamicNodeSettings(numberOfTables));
@@ -89,6 +91,7 @@ final class LoopEndDynamicNodeDialog extends AbstractLoopEndNodeDialog<LoopEndDy
             panel.setBorder(createBorder.apply(i));
             addComponent(panel);
         }
+        addComponent(m_consolidateContainers);
     }
 
     @Override
@@ -98,6 +101,7 @@ protected void addToSettings(final LoopEndDynamicNodeSettings settings) {
             settings.tolerateColumnTypes(i, m_tolerateColumnTypes[i].isSelected());
             settings.tolerateChangingTableSpecs(i, m_tolerateChangingSpecs[i].isSelected());
         }
+        settings.consolidateContainers(m_consolidateContainers.isSelected());
     }
 
     @Override
@@ -107,6 +111,7 @@ protected void loadFromSettings(final LoopEndDynamicNodeSettings settings) {
             m_tolerateColumnTypes[i].setSelected(settings.tolerateColumnTypes(i));
             m_tolerateChangingSpecs[i].setSelected(settings.tolerateChangingTableSpecs(i));
         }
+        m_consolidateContainers.setSelected(settings.consolidateContainers());
     }
 
 }
@@ -138,7 +138,8 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final Ex
             m_tableFactories = IntStream.range(0, inData.length)//
                 .mapToObj(i -> new ConcatenateTableFactory(m_settings.ignoreEmptyTables(i),
                     m_settings.tolerateColumnTypes(i), m_settings.addIterationColumn(),
-                    m_settings.tolerateChangingTableSpecs(i), getRowKeyFunction(i)))//
+                    m_settings.tolerateChangingTableSpecs(i), getRowKeyFunction(i),
+                    m_settings.consolidateContainers()))//
                 .toArray(ConcatenateTableFactory[]::new);
 
             m_startTime = System.currentTimeMillis();
@@ -68,6 +68,8 @@ final class LoopEndDynamicNodeSettings extends AbstractLoopEndNodeSettings {
 
     private boolean[] m_tolerateChangingSpecs;
 
+    private boolean m_consolidateContainers = true;
+
     private final int m_numberOfPorts;
 
 
@@ -147,6 +149,26 @@ boolean tolerateChangingTableSpecs(final int index) {
         return m_tolerateChangingSpecs[index];
     }
 
+    /**
+     * Sets if the rows of all iterations are collected in as few data containers as possible.
+     *
+     * @param consolidate <code>true</code> if the rows should be consolidated, <code>false</code> if a new container
+     *            is created whenever the table specification changes
+     */
+    void consolidateContainers(final boolean consolidate) {
+        m_consolidateContainers = consolidate;
+    }
+
+    /**
+     * Returns if the rows of all iterations are collected in as few data containers as possible.
+     *
+     * @return <code>true</code> if the rows should be consolidated, <code>false</code> if a new container is created
+     *         whenever the table specification changes
+     */
+    boolean consolidateContainers() {
+        return m_consolidateContainers;
+    }
+
     /**
      * Writes the settings into the node settings object.
      *
@@ -158,6 +180,7 @@ public void saveSettings(final NodeSettingsWO settings) {
         settings.addBooleanArray("ignoreEmptyTables", m_ignoreEmptyTables);
         settings.addBooleanArray("tolerateColumnTypes", m_tolerateColumnTypes);
         settings.addBooleanArray("tolerateChangingSpecs", m_tolerateChangingSpecs);
+        settings.addBoolean("consolidateContainers", m_consolidateContainers);
     }
 
     /**
@@ -171,6 +194,8 @@ public void loadSettings(final NodeSettingsRO settings) {
         m_ignoreEmptyTables = readWithDefaults(settings, "ignoreEmptyTables");
         m_tolerateColumnTypes = readWithDefaults(settings, "tolerateColumnTypes");
         m_tolerateChangingSpecs = readWithDefaults(settings, "tolerateChangingSpecs");
+        // added in 5.1, workflows created before keep creating a container per table specification change
+        m_consolidateContainers = settings.getBoolean("consolidateContainers", false);
     }
 
     private boolean[] readWithDefaults(final NodeSettingsRO settings, final String key) {
@@ -0,0 +1,315 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.mine.bfn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DoubleValue;
+
+/**
+ * Index over the basis functions of a {@link BasisFunctionLearnerTable} that
+ * finds the basis functions which may cover a row or be shrunk by it.
+ *
+ * <p>
+ * The basis functions are arranged in a k-d tree over their centers, each node
+ * keeping the union of the bounds (see
+ * {@link BasisFunctionLearnerRow#computeBounds(double[], double[])}) of its
+ * basis functions. As the bounds only shrink during training, bounds computed
+ * when the tree was built remain valid. Basis functions added later are
+ * returned for every row until the tree is rebuilt, which happens when their
+ * number exceeds the number of indexed basis functions or when
+ * {@link #rebuild()} is called. The returned candidates are sorted in the order
+ * of the table's {@link BasisFunctionIterator}, so that the learner visits
+ * them in the same order as without index.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class BasisFunctionIndex {
+
+    /** Maximum number of basis functions in a leaf. */
+    private static final int LEAF_SIZE = 8;
+
+    /** Minimum number of added basis functions before the tree is rebuilt. */
+    private static final int MIN_REBUILD_SIZE = 64;
+
+    private final BasisFunctionLearnerTable m_table;
+
+    private final int m_dimension;
+
+    /** Position of each class in the table's map of basis functions. */
+    private final Map<DataCell, Integer> m_classOrder = new HashMap<>();
+
+    /** Basis functions added since the tree was built. */
+    private final List<Entry> m_added = new ArrayList<>();
+
+    /** Indexed basis functions, arranged such that each node covers a range. */
+    private Entry[] m_entries = new Entry[0];
+
+    private Node m_root;
+
+    /**
+     * Creates an index over the current basis functions of the given table.
+     *
+     * @param table the table containing the basis functions
+     * @param dimension the number of data columns
+     */
+    BasisFunctionIndex(final BasisFunctionLearnerTable table,
+            final int dimension) {
+        m_table = table;
+        m_dimension = dimension;
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the tree over all basis functions using their current bounds.
+     */
+    void rebuild() {
+        m_classOrder.clear();
+        m_added.clear();
+        final List<Entry> entries = new ArrayList<>();
+        for (Map.Entry<DataCell, List<BasisFunctionLearnerRow>> e
+                : m_table.getBasisFunctions().entrySet()) {
+            final int classIndex = m_classOrder.size();
+            m_classOrder.put(e.getKey(), classIndex);
+            final List<BasisFunctionLearnerRow> bfs = e.getValue();
+            for (int i = 0; i < bfs.size(); i++) {
+                final Entry entry = new Entry(bfs.get(i), classIndex, i);
+                entry.computeBounds(m_dimension);
+                entries.add(entry);
+            }
+        }
+        m_entries = entries.toArray(new Entry[0]);
+        m_root = m_entries.length == 0 ? null : build(0, m_entries.length);
+    }
+
+    /**
+     * Adds a basis function that has just been added to the table.
+     *
+     * @param bf the new basis function
+     */
+    void add(final BasisFunctionLearnerRow bf) {
+        final DataCell classLabel = bf.getClassLabel();
+        Integer classIndex = m_classOrder.get(classLabel);
+        if (classIndex == null) {
+            // new classes are appended to the table's map
+            classIndex = m_classOrder.size();
+            m_classOrder.put(classLabel, classIndex);
+        }
+        m_added.add(new Entry(bf, classIndex,
+                m_table.getNumBasisFunctions(classLabel) - 1));
+        if (m_added.size() > Math.max(MIN_REBUILD_SIZE, m_entries.length)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Returns all basis functions that may cover the given row or be shrunk
+     * by it, in the order of the table's iterator.
+     *
+     * @param row the row, missing values are not checked against the bounds
+     * @return the candidate basis functions
+     */
+    List<BasisFunctionLearnerRow> getCandidates(final DataRow row) {
+        final double[] point = new double[m_dimension];
+        for (int i = 0; i < point.length; i++) {
+            final DataCell cell = row.getCell(i);
+            point[i] = cell.isMissing() ? Double.NaN
+                    : ((DoubleValue)cell).getDoubleValue();
+        }
+        final List<Entry> hits = new ArrayList<>(m_added);
+        if (m_root != null) {
+            search(m_root, point, hits);
+        }
+        hits.sort(Comparator.comparingLong(e -> e.m_order));
+        final List<BasisFunctionLearnerRow> candidates =
+            new ArrayList<>(hits.size());
+        for (Entry e : hits) {
+            candidates.add(e.m_bf);
+        }
+        return candidates;
+    }
+
+    private void search(final Node node, final double[] point,
+            final List<Entry> hits) {
+        if (!contains(node.m_lower, node.m_upper, point)) {
+            return;
+        }
+        if (node.m_left == null) {
+            for (int i = node.m_from; i < node.m_to; i++) {
+                final Entry e = m_entries[i];
+                if (contains(e.m_lower, e.m_upper, point)) {
+                    hits.add(e);
+                }
+            }
+        } else {
+            search(node.m_left, point, hits);
+            search(node.m_right, point, hits);
+        }
+    }
+
+    /* NaN values of the point are ignored. */
+    private static boolean contains(final double[] lower,
+            final double[] upper, final double[] point) {
+        for (int i = 0; i < point.length; i++) {
+            final double x = point[i];
+            if (x < lower[i] || x > upper[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Node build(final int from, final int to) {
+        final double[] lower = new double[m_dimension];
+        final double[] upper = new double[m_dimension];
+        Arrays.fill(lower, Double.POSITIVE_INFINITY);
+        Arrays.fill(upper, Double.NEGATIVE_INFINITY);
+        for (int i = from; i < to; i++) {
+            final Entry e = m_entries[i];
+            for (int d = 0; d < m_dimension; d++) {
+                lower[d] = Math.min(lower[d], e.m_lower[d]);
+                upper[d] = Math.max(upper[d], e.m_upper[d]);
+            }
+        }
+        if (to - from <= LEAF_SIZE) {
+            return new Node(lower, upper, from, to, null, null);
+        }
+        // split at the median center of the dimension with the largest spread
+        int splitDim = -1;
+        double maxSpread = 0;
+        for (int d = 0; d < m_dimension; d++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = from; i < to; i++) {
+                final double c = m_entries[i].m_center[d];
+                if (!Double.isNaN(c)) {
+                    min = Math.min(min, c);
+                    max = Math.max(max, c);
+                }
+            }
+            if (max - min > maxSpread) {
+                maxSpread = max - min;
+                splitDim = d;
+            }
+        }
+        if (splitDim < 0) {
+            // all centers are equal
+            return new Node(lower, upper, from, to, null, null);
+        }
+        final int dim = splitDim;
+        // NaN centers are sorted to the end
+        Arrays.sort(m_entries, from, to,
+            (a, b) -> Double.compare(a.m_center[dim], b.m_center[dim]));
+        final int mid = (from + to) >>> 1;
+        return new Node(lower, upper, from, to, build(from, mid),
+            build(mid, to));
+    }
+
+    private static final class Node {
+
+        private final double[] m_lower;
+
+        private final double[] m_upper;
+
+        private final int m_from;
+
+        private final int m_to;
+
+        private final Node m_left;
+
+        private final Node m_right;
+
+        Node(final double[] lower, final double[] upper, final int from,
+                final int to, final Node left, final Node right) {
+            m_lower = lower;
+            m_upper = upper;
+            m_from = from;
+            m_to = to;
+            m_left = left;
+            m_right = right;
+        }
+    }
+
+    private static final class Entry {
+
+        private final BasisFunctionLearnerRow m_bf;
+
+        /** Position in the table's iteration order, class before index. */
+        private final long m_order;
+
+        private double[] m_center;
+
+        private double[] m_lower;
+
+        private double[] m_upper;
+
+        Entry(final BasisFunctionLearnerRow bf, final int classIndex,
+                final int index) {
+            m_bf = bf;
+            m_order = ((long)classIndex << 32) | index;
+        }
+
+        void computeBounds(final int dimension) {
+            m_lower = new double[dimension];
+            m_upper = new double[dimension];
+            m_bf.computeBounds(m_lower, m_upper);
+            m_center = new double[dimension];
+            final DataRow anchor = m_bf.getAnchor();
+            for (int i = 0; i < dimension; i++) {
+                final DataCell cell = anchor.getCell(i);
+                m_center[i] = cell.isMissing() ? Double.NaN
+                        : ((DoubleValue)cell).getDoubleValue();
+            }
+        }
+    }
+}
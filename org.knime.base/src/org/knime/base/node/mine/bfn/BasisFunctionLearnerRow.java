@@ -45,6 +45,7 @@
 package org.knime.base.node.mine.bfn;
 
 import java.io.PrintStream;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
@@ -374,6 +375,23 @@ public String toString() {
      */
     public abstract void cover(final DataRow row);
 
+    /**
+     * Computes the bounds of the region outside of which rows are neither
+     * covered by this basis function nor cause it to shrink. Missing values
+     * of a row are not checked against the bounds. The region must not grow
+     * during training; the learner uses it to skip basis functions that can't
+     * be affected by a row. The default implementation returns an unbounded
+     * region.
+     * 
+     * @param lower array to store the lower bound of each dimension in
+     * @param upper array to store the upper bound of each dimension in
+     * @since 5.1
+     */
+    protected void computeBounds(final double[] lower, final double[] upper) {
+        Arrays.fill(lower, Double.NEGATIVE_INFINITY);
+        Arrays.fill(upper, Double.POSITIVE_INFINITY);
+    }
+
     /**
      * Check if two BasisFunctionLearnerRow objects are equal if their 
      * centroids and class labels are equal.
@@ -52,6 +52,7 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnDomainCreator;
@@ -61,6 +62,7 @@
 import org.knime.core.data.DataTable;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataType;
+import org.knime.core.data.DoubleValue;
 import org.knime.core.data.RowIterator;
 import org.knime.core.data.RowKey;
 import org.knime.core.data.container.ColumnRearranger;
@@ -69,9 +71,13 @@
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.KNIMEConstants;
 import org.knime.core.node.ModelContentWO;
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.property.hilite.DefaultHiLiteMapper;
+import org.knime.core.util.MutableDouble;
+import org.knime.core.util.ThreadPool;
+import org.knime.filehandling.core.util.ThreadPoolUtils;
 
 /**
  * This class implements the DDA-algorithm published by <i>Berthold&amp;Huber</i>
@@ -123,6 +129,15 @@ public final class BasisFunctionLearnerTable implements DataTable {
     /** if max. class coverage should be used (for numeric tragets only). */
     private final boolean m_maxClassCoverage;
 
+    /** Number of conflicting bfs from which on they are shrunk in parallel. */
+    private static final int MIN_PARALLEL_SHRINKS = 1024;
+
+    /** Minimum number of bfs shrunk by one thread. */
+    private static final int MIN_SHRINKS_PER_THREAD = 256;
+
+    /** Pool for shrinking conflicting bfs, created when first needed. */
+    private transient ThreadPool m_pool;
+
     /**
      * Creates a new basis function learner and starts the training algorithm.
      * The given data (only double columns) is used for training. Its assigned
@@ -196,6 +211,54 @@ public BasisFunctionLearnerTable(
             final int maxEpochs,
             final int[] startRuleCount,
             final ExecutionMonitor exec) throws CanceledExecutionException {
+        this(data, dataColumns, targetColumns, factory, missing,
+                shrinkAfterCommit, maxClassCoverage, maxEpochs, startRuleCount,
+                true, exec);
+    }
+
+    /**
+     * Creates a new basisfunction learner and starts the training algorithm.
+     * The given data (only double columns) is used for training. Its assigned
+     * class label is used to determine the class info for each row.
+     * Furthermore, we provide a name for the new model column. The factory is
+     * used to automatically generate new prototypes of a certain basisfunction
+     * type.
+     * <p>
+     * If <code>useIndex</code> is set, the basis functions are kept in a
+     * spatial index, so that only nearby basis functions are checked for
+     * coverage and conflicts with a row. The learned model is the same with
+     * and without index.
+     *
+     * @param data The training data from which are all {@link DoubleCell}
+     *            columns are used for training and the last the specified
+     *            <code>target</code> column for classification
+     * @param dataColumns used for training
+     * @param targetColumns name of the classification column
+     * @param factory the factory used to generate
+     *            {@link BasisFunctionLearnerRow}s
+     * @param missing the missing values replacement function
+     * @param shrinkAfterCommit if <code>true</code> do it
+     * @param maxClassCoverage use only maximum class coverage to check
+     * @param maxEpochs maximum number of epochs to train
+     * @param startRuleCount at this point
+     * @param useIndex if a spatial index over the basis functions is used
+     * @param exec the execution monitor
+     * @throws CanceledExecutionException always tested when a new run over data
+     *             is started
+     * @since 5.1
+     */
+    public BasisFunctionLearnerTable(
+            final BufferedDataTable data,
+            final String[] dataColumns,
+            final String[] targetColumns,
+            final BasisFunctionFactory factory,
+            final MissingValueReplacementFunction missing,
+            final boolean shrinkAfterCommit,
+            final boolean maxClassCoverage,
+            final int maxEpochs,
+            final int[] startRuleCount,
+            final boolean useIndex,
+            final ExecutionMonitor exec) throws CanceledExecutionException {
         // keep bfs by class label
         m_bfs = new LinkedHashMap<DataCell, List<BasisFunctionLearnerRow>>();
         // keep factory
@@ -221,6 +284,10 @@ public BasisFunctionLearnerTable(
         // number of training pattern per class, count from table
         m_numPatPerClass = new LinkedHashMap<DataCell, int[]>();
 
+        // optional index to find the bfs affected by a row
+        final BasisFunctionIndex index = useIndex
+            ? new BasisFunctionIndex(this, dataColumnsIdx.length) : null;
+
         // true if shrink or a new prototype was created otherwise false
         boolean goon = false;
         LOGGER.info("Start Learning... #rules [#epoch]");
@@ -243,6 +310,10 @@ public BasisFunctionLearnerTable(
                 exec.checkCanceled();
                 it.nextBasisFunction().resetIntern();
             }
+            if (index != null) {
+                // bounds have been shrunk during the last epoch
+                index.rebuild();
+            }
 
             // overall training rows
             for (RowIterator rowIt = data.iterator(); rowIt.hasNext();) {
@@ -269,8 +340,13 @@ public BasisFunctionLearnerTable(
 
                 /* --- C O V E R S --- */
 
+                // bfs that may cover or conflict with the current row
+                Iterable<BasisFunctionLearnerRow> candidates =
+                    getCandidates(index, row);
+
                 // find best covering bf of correct class, if exist
-                BasisFunctionLearnerRow bestBF = bestBasisFunction(row);
+                BasisFunctionLearnerRow bestBF =
+                    bestBasisFunction(row, candidates);
 
                 // we didn't find any covering prototype
                 if (bestBF == null
@@ -286,6 +362,9 @@ public BasisFunctionLearnerTable(
                             new RowKey(bfRowPrefix), row.getBestClass(), row);
                     // add new prototype to the collection
                     addBasisFunction(newBF);
+                    if (index != null) {
+                        index.add(newBF);
+                    }
 
                     /* --- S H R I N K --- */
 
@@ -310,6 +389,8 @@ public BasisFunctionLearnerTable(
                     // after commit all other conflicting bfs have to be
                     // adjusted in a new run overall input pattern
                     goon = true;
+                    // the new bf is a candidate as well
+                    candidates = getCandidates(index, row);
                 } else {
                     /* --- C O V E R --- */
 
@@ -320,20 +401,7 @@ public BasisFunctionLearnerTable(
                 /* --- S H R I N K --- */
 
                 // overall basisfunctions of conflicting classes
-                for (BasisFunctionIterator it = getBasisFunctionIterator(); it
-                        .hasNext();) {
-                    // get current basisfunction
-                    final BasisFunctionLearnerRow bf = it.nextBasisFunction();
-                    // if class indices don't match
-                    if (row.getMatch(bf.getClassLabel())
-                            <= bf.getPredictorRow().getDontKnowClassDegree()) {
-                        // shrink the bf on the current input pattern
-                        goon |= bf.shrink(row); // true if changed
-                    } else {
-                        // skip current class
-                        it.skipClass();
-                    }
-                }
+                goon |= shrink(candidates, row); // true if changed
             }
             // increase loop counter
             m_cycles++;
@@ -344,14 +412,136 @@ public BasisFunctionLearnerTable(
         prune(0, m_cycles); // prune all rules with zero coverage
     }
 
+    /*
+     * Returns all bfs in the order of the iterator, if there is no index,
+     * otherwise only those which may cover or conflict with the given row.
+     * Without index the bfs are iterated directly, i.e. bfs must not be
+     * added or removed while iterating the candidates.
+     */
+    private Iterable<BasisFunctionLearnerRow> getCandidates(
+            final BasisFunctionIndex index, final BasisFunctionFilterRow row) {
+        if (index != null) {
+            return index.getCandidates(row);
+        }
+        return () -> m_bfs.values().stream().flatMap(List::stream).iterator();
+    }
+
+    /*
+     * Shrinks all bfs of conflicting classes among the given candidates on
+     * the given row; returns true if any bf has changed. The candidates must
+     * be in the order of the iterator.
+     */
+    private boolean shrink(final Iterable<BasisFunctionLearnerRow> candidates,
+            final BasisFunctionFilterRow row) {
+        List<BasisFunctionLearnerRow> conflicting =
+            new ArrayList<BasisFunctionLearnerRow>();
+        DataCell skipClass = null;
+        for (BasisFunctionLearnerRow bf : candidates) {
+            DataCell classLabel = bf.getClassLabel();
+            if (classLabel.equals(skipClass)) {
+                continue;
+            }
+            // if class indices don't match
+            if (row.getMatch(classLabel)
+                    <= bf.getPredictorRow().getDontKnowClassDegree()) {
+                conflicting.add(bf);
+            } else {
+                // skip current class
+                skipClass = classLabel;
+            }
+        }
+        if (conflicting.size() >= MIN_PARALLEL_SHRINKS
+                && isWithinDomain(row)) {
+            return shrinkInParallel(conflicting, row);
+        }
+        boolean changed = false;
+        for (BasisFunctionLearnerRow bf : conflicting) {
+            // shrink the bf on the current input pattern
+            changed |= bf.shrink(row);
+        }
+        return changed;
+    }
+
+    /*
+     * Shrinking a bf only changes the bf itself and possibly the minimum and
+     * maximum of the factory, which are shared by all bfs. The latter are
+     * only updated with values of the row, so if the row lies within, the
+     * bfs can be shrunk independently of each other.
+     */
+    private boolean isWithinDomain(final BasisFunctionFilterRow row) {
+        MutableDouble[] mins = m_factory.getMinimums();
+        MutableDouble[] maxs = m_factory.getMaximums();
+        if (mins.length != row.getNumCells()) {
+            return false;
+        }
+        for (int i = 0; i < row.getNumCells(); i++) {
+            DataCell cell = row.getCell(i);
+            if (cell.isMissing()) {
+                continue;
+            }
+            double value = ((DoubleValue)cell).getDoubleValue();
+            // false for NaN
+            if (!(mins[i].doubleValue() <= value
+                    && value <= maxs[i].doubleValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean shrinkInParallel(
+            final List<BasisFunctionLearnerRow> conflicting,
+            final BasisFunctionFilterRow row) {
+        final int nrChunks = Math.min(
+            Runtime.getRuntime().availableProcessors(),
+            conflicting.size() / MIN_SHRINKS_PER_THREAD);
+        if (nrChunks <= 1) {
+            boolean changed = false;
+            for (BasisFunctionLearnerRow bf : conflicting) {
+                changed |= bf.shrink(row);
+            }
+            return changed;
+        }
+        if (m_pool == null) {
+            m_pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(
+                Runtime.getRuntime().availableProcessors());
+        }
+        final int chunkSize = (conflicting.size() + nrChunks - 1) / nrChunks;
+        final List<Callable<Boolean>> tasks =
+            new ArrayList<Callable<Boolean>>(nrChunks);
+        for (int from = 0; from < conflicting.size(); from += chunkSize) {
+            final List<BasisFunctionLearnerRow> chunk = conflicting.subList(
+                from, Math.min(from + chunkSize, conflicting.size()));
+            tasks.add(() -> {
+                boolean changed = false;
+                for (BasisFunctionLearnerRow bf : chunk) {
+                    changed |= bf.shrink(row);
+                }
+                return changed;
+            });
+        }
+        return ThreadPoolUtils.invokeAll(m_pool, tasks).contains(Boolean.TRUE);
+    }
+
     private BasisFunctionLearnerRow bestBasisFunction(
             final BasisFunctionFilterRow row) {
+        return bestBasisFunction(row, getCandidates(null, row));
+    }
+
+    /*
+     * Finds the best covering bf among the given candidates, which must be in
+     * the order of the iterator.
+     */
+    private BasisFunctionLearnerRow bestBasisFunction(
+            final BasisFunctionFilterRow row,
+            final Iterable<BasisFunctionLearnerRow> candidates) {
         BasisFunctionLearnerRow bestBF = null;
+        DataCell skipClass = null;
         // overall bfs within the model
-        for (BasisFunctionIterator it = getBasisFunctionIterator();
-                it.hasNext();) {
-            // get next basisfunction
-            BasisFunctionLearnerRow nextBF = it.nextBasisFunction();
+        for (BasisFunctionLearnerRow nextBF : candidates) {
+            if (nextBF.getClassLabel().equals(skipClass)) {
+                continue;
+            }
             // check if classes match
             boolean classMatch = false;
             // if max class coverage
@@ -384,7 +574,7 @@ private BasisFunctionLearnerRow bestBasisFunction(
                     }
                 }
             } else { // skip current class
-                it.skipClass();
+                skipClass = nextBF.getClassLabel();
             }
         }
         return bestBF;
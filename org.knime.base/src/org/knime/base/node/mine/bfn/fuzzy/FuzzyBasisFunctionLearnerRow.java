@@ -358,6 +358,30 @@ private double shrinkIt(final DataRow row, final boolean shrinkIt) {
         }
     }
 
+    /**
+     * Rows that are covered or cause a shrink lie within the support region
+     * of all membership functions; unconstrained sides and missing
+     * membership functions are unbounded.
+     * 
+     * {@inheritDoc}
+     */
+    @Override
+    protected void computeBounds(final double[] lower, final double[] upper) {
+        super.computeBounds(lower, upper);
+        for (int i = 0; i < m_predRow.getNrMemships(); i++) {
+            MembershipFunction mem = m_predRow.getMemship(i);
+            if (mem.isMissingIntern()) {
+                continue;
+            }
+            if (!mem.isSuppLeftMax()) {
+                lower[i] = mem.getMinSupport();
+            }
+            if (!mem.isSuppRightMax()) {
+                upper[i] = mem.getMaxSupport();
+            }
+        }
+    }
+
     /**
      * Resets core value of all dimensions to the initial anchor value.
      */
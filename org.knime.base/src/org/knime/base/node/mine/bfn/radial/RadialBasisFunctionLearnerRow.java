@@ -77,6 +77,12 @@ public class RadialBasisFunctionLearnerRow extends BasisFunctionLearnerRow {
     /** Row used to predict unknown instances. */
     private final RadialBasisFunctionPredictorRow m_predRow;
 
+    /**
+     * Relative tolerance added to the radius of the bounds, so that rounding
+     * errors of the distance computation can't exclude any row.
+     */
+    private static final double BOUNDS_TOLERANCE = 1E-9;
+
     /**
      * Creates a new radial basisfunction using the center vector as the anchor
      * of the Gaussian function and also assigns class label for this prototype.
@@ -270,6 +276,36 @@ final void cover(final DataRow row) {
 
     }
 
+    /**
+     * Rows that are covered or cause a shrink are within the larger of the
+     * theta minus and theta plus radius around the center; this box bounds
+     * that sphere for the Euclidean distance.
+     * 
+     * {@inheritDoc}
+     */
+    @Override
+    protected void computeBounds(final double[] lower, final double[] upper) {
+        super.computeBounds(lower, upper);
+        if (m_predRow.isNotShrunk()) {
+            return;
+        }
+        final double radius = m_predRow.getStdDev()
+            * Math.max(m_thetaMinusSqrtMinusLog, m_thetaPlusSqrtMinusLog)
+            * (1.0 + BOUNDS_TOLERANCE);
+        final DataRow center = getAnchor();
+        for (int i = 0; i < lower.length; i++) {
+            final DataCell cell = center.getCell(i);
+            if (!cell.isMissing()) {
+                final double value = ((DoubleValue)cell).getDoubleValue();
+                // NaN values are ignored by the distance
+                if (!Double.isNaN(value)) {
+                    lower[i] = value - radius;
+                    upper[i] = value + radius;
+                }
+            }
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
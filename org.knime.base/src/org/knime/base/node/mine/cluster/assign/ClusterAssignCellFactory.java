@@ -0,0 +1,162 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.mine.cluster.assign;
+
+import java.util.List;
+
+import org.knime.base.node.mine.cluster.PMMLClusterTranslator.ComparisonMeasure;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataType;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.container.SingleCellFactory;
+
+/**
+ * Cell factory that appends the label of the nearest cluster prototype to each row.
+ *
+ * <p>
+ * The values of all prototypes are packed into one contiguous array and the values of a row are extracted into a
+ * buffer that is reused for all rows of a thread, so no objects are created per row and prototype. The rows are
+ * processed concurrently in chunks by the {@link org.knime.core.data.container.ColumnRearranger}. The assignment is
+ * the same as with {@link Prototype#getDistance(DataRow, int[])} and
+ * {@link Prototype#getSquaredEuclideanDistance(DataRow, int[])}: rows with a missing value in one of the used columns
+ * are not assigned, incompatible cells count as 0 and NaN values are ignored.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ClusterAssignCellFactory extends SingleCellFactory {
+
+    private final boolean m_squared;
+
+    private final int[] m_colIndices;
+
+    /** The values of all prototypes, prototype after prototype. */
+    private final double[] m_prototypes;
+
+    private final DataCell[] m_labels;
+
+    private final ThreadLocal<double[]> m_buffer;
+
+    /**
+     * Constructor.
+     *
+     * @param measure comparison measure, may be <code>null</code> if the factory is only used to create the spec
+     * @param prototypes list of prototypes, may be <code>null</code> if the factory is only used to create the spec
+     * @param newColspec the DataColumnSpec of the appended column
+     * @param learnedCols columns used for training
+     */
+    ClusterAssignCellFactory(final ComparisonMeasure measure, final List<Prototype> prototypes,
+        final DataColumnSpec newColspec, final int[] learnedCols) {
+        super(true, newColspec);
+        m_squared = ComparisonMeasure.squaredEuclidean.equals(measure);
+        m_colIndices = learnedCols;
+        final int dimension = learnedCols.length;
+        final int nrPrototypes = prototypes == null ? 0 : prototypes.size();
+        m_prototypes = new double[nrPrototypes * dimension];
+        m_labels = new DataCell[nrPrototypes];
+        for (int p = 0; p < nrPrototypes; p++) {
+            final Prototype proto = prototypes.get(p);
+            final double[] values = proto.getValues();
+            if (values.length != dimension) {
+                throw new IllegalArgumentException("Prototype " + proto.getLabel() + " has " + values.length
+                    + " values but " + dimension + " columns are used for the assignment.");
+            }
+            System.arraycopy(values, 0, m_prototypes, p * dimension, dimension);
+            m_labels[p] = proto.getLabel();
+        }
+        m_buffer = ThreadLocal.withInitial(() -> new double[dimension]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DataCell getCell(final DataRow row) {
+        final double[] values = m_buffer.get();
+        for (int i = 0; i < values.length; i++) {
+            final DataCell cell = row.getCell(m_colIndices[i]);
+            if (cell.isMissing()) {
+                return DataType.getMissingCell();
+            }
+            values[i] = cell instanceof DoubleValue ? ((DoubleValue)cell).getDoubleValue() : 0;
+        }
+        final int winner = findNearest(values);
+        return winner < 0 ? DataType.getMissingCell() : m_labels[winner];
+    }
+
+    /**
+     * Finds the nearest prototype, the first one in case of ties.
+     *
+     * @param values the values of the row
+     * @return the index of the nearest prototype or -1 if no prototype is closer than {@link Double#MAX_VALUE}
+     */
+    int findNearest(final double[] values) {
+        final int dimension = values.length;
+        double minDistance = Double.MAX_VALUE;
+        int winner = -1;
+        for (int p = 0, offset = 0; p < m_labels.length; p++, offset += dimension) {
+            double dist = 0;
+            for (int i = 0; i < dimension; i++) {
+                final double x = m_prototypes[offset + i];
+                final double y = values[i];
+                // NaN values on either side are ignored
+                if (!Double.isNaN(x) && !Double.isNaN(y)) {
+                    final double diff = x - y;
+                    dist += diff * diff;
+                }
+            }
+            if (!m_squared) {
+                dist = Math.sqrt(dist);
+            }
+            if (dist < minDistance) {
+                minDistance = dist;
+                winner = p;
+            }
+        }
+        return winner;
+    }
+}
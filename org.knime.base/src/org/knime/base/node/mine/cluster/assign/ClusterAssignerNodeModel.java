@@ -56,14 +56,10 @@
 
 import org.knime.base.node.mine.cluster.PMMLClusterTranslator;
 import org.knime.base.node.mine.cluster.PMMLClusterTranslator.ComparisonMeasure;
-import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataColumnSpecCreator;
-import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
-import org.knime.core.data.DataType;
 import org.knime.core.data.container.ColumnRearranger;
-import org.knime.core.data.container.SingleCellFactory;
 import org.knime.core.data.def.StringCell;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
@@ -122,7 +118,7 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs)
         DataTableSpec dataSpec = (DataTableSpec) inSpecs[DATA_PORT];
         ColumnRearranger colre = new ColumnRearranger(dataSpec);
 
-        colre.append(new ClusterAssignFactory(
+        colre.append(new ClusterAssignCellFactory(
                 null, null, createNewOutSpec(dataSpec),
                 findLearnedColumnIndices(dataSpec,
                         new HashSet<String>(spec.getLearningFields()))));
@@ -190,7 +186,7 @@ private ColumnRearranger createColumnRearranger(final PMMLPortObject port, final
             prototypes.add(new Prototype(prototype, new StringCell(labels[i])));
         }
         ColumnRearranger colre = new ColumnRearranger(inSpec);
-        colre.append(new ClusterAssignFactory(measure, prototypes, createNewOutSpec(inSpec),
+        colre.append(new ClusterAssignCellFactory(measure, prototypes, createNewOutSpec(inSpec),
             findLearnedColumnIndices(inSpec, trans.getUsedColumns())));
         return colre;
     }
@@ -280,53 +276,4 @@ protected void validateSettings(final NodeSettingsRO settings)
             throws InvalidSettingsException {
     }
 
-    private static class ClusterAssignFactory extends SingleCellFactory {
-        private final ComparisonMeasure m_measure;
-        private final List<Prototype> m_prototypes;
-        private final int[] m_colIndices;
-
-        /**
-         * Constructor.
-         * @param measure comparison measure
-         * @param prototypes list of prototypes
-         * @param newColspec the DataColumnSpec of the appended column
-         * @param learnedCols columns used for training
-         */
-        ClusterAssignFactory(final ComparisonMeasure measure,
-                final List<Prototype> prototypes,
-                final DataColumnSpec newColspec,
-                final int[] learnedCols) {
-            super(newColspec);
-            m_measure = measure;
-            m_prototypes = prototypes;
-            m_colIndices = learnedCols;
-        }
-
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public DataCell getCell(final DataRow row) {
-            double mindistance = Double.MAX_VALUE;
-            DataCell winnercell = DataType.getMissingCell();
-            for (Prototype proto : m_prototypes) {
-                double dist;
-                // TODO: if prototypes are normalized
-                // we have to normalize input data here
-                if (m_measure.equals(ComparisonMeasure.squaredEuclidean)) {
-                    dist = proto.getSquaredEuclideanDistance(row, m_colIndices);
-                } else {
-                    dist = proto.getDistance(row, m_colIndices);
-                }
-                if (dist < mindistance) {
-                    mindistance = dist;
-                    if (mindistance >= 0.0) {
-                        winnercell = proto.getLabel();
-                    }
-                }
-            }
-            return winnercell;
-        }
-
-    }
 }
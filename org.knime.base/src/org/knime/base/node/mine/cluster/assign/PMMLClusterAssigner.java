@@ -57,14 +57,10 @@
 import org.knime.base.node.mine.cluster.PMMLClusterTranslator.ComparisonMeasure;
 import org.knime.base.predict.PMMLTablePredictor;
 import org.knime.base.predict.PredictorContext;
-import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataColumnSpecCreator;
-import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
-import org.knime.core.data.DataType;
 import org.knime.core.data.container.ColumnRearranger;
-import org.knime.core.data.container.SingleCellFactory;
 import org.knime.core.data.def.StringCell;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.InvalidSettingsException;
@@ -117,7 +113,7 @@ private ColumnRearranger createColumnRearranger(final PMMLPortObject port,
             prototypes.add(new Prototype(prototype, new StringCell(labels[i])));
         }
         ColumnRearranger colre = new ColumnRearranger(inSpec);
-        colre.append(new ClusterAssignFactory(measure, prototypes, createOutColumnSpec(inSpec, m_options),
+        colre.append(new ClusterAssignCellFactory(measure, prototypes, createOutColumnSpec(inSpec, m_options),
             findLearnedColumnIndices(inSpec, trans.getUsedColumns())));
         return colre;
     }
@@ -143,54 +139,6 @@ private static DataColumnSpec createOutColumnSpec(
             .createSpec();
     }
 
-    private static class ClusterAssignFactory extends SingleCellFactory {
-        private final ComparisonMeasure m_measure;
-        private final List<Prototype> m_prototypes;
-        private final int[] m_colIndices;
-
-        /**
-         * Constructor.
-         * @param measure comparison measure
-         * @param prototypes list of prototypes
-         * @param newColspec the DataColumnSpec of the appended column
-         * @param learnedCols columns used for training
-         */
-        ClusterAssignFactory(final ComparisonMeasure measure,
-                final List<Prototype> prototypes,
-                final DataColumnSpec newColspec,
-                final int[] learnedCols) {
-            super(newColspec);
-            m_measure = measure;
-            m_prototypes = prototypes;
-            m_colIndices = learnedCols;
-        }
-
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public DataCell getCell(final DataRow row) {
-            double mindistance = Double.MAX_VALUE;
-            DataCell winnercell = DataType.getMissingCell();
-            for (Prototype proto : m_prototypes) {
-                double dist;
-                // TODO: if prototypes are normalized
-                // we have to normalize input data here
-                if (m_measure.equals(ComparisonMeasure.squaredEuclidean)) {
-                    dist = proto.getSquaredEuclideanDistance(row, m_colIndices);
-                } else {
-                    dist = proto.getDistance(row, m_colIndices);
-                }
-                if (dist < mindistance) {
-                    mindistance = dist;
-                    if (mindistance >= 0.0) {
-                        winnercell = proto.getLabel();
-                    }
-                }
-            }
-            return winnercell;
-        }
-    }
 
     /**
      * {@inheritDoc}
@@ -214,7 +162,7 @@ public DataTableSpec getOutputSpec(final DataTableSpec inputSpec, final PMMLPort
                 m_options.getClusterColumnName());
         ColumnRearranger colre = new ColumnRearranger(inputSpec);
 
-        colre.append(new ClusterAssignFactory(
+        colre.append(new ClusterAssignCellFactory(
                 null, null,
                 new DataColumnSpecCreator(newColName, StringCell.TYPE).createSpec(),
                 findLearnedColumnIndices(inputSpec,
@@ -0,0 +1,307 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.mine.cluster.fuzzycmeans;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+import org.knime.filehandling.core.util.ThreadPoolUtils;
+
+/**
+ * The Fuzzy c-means algorithm working on the in-memory data of {@link FCMAlgorithmMemory}, using several threads.
+ *
+ * <p>
+ * The rows are split into partitions of consecutive rows. In each iteration every partition updates the memberships of
+ * its rows and sums up its share of the numerators and denominators of the new cluster prototypes. The partial sums
+ * are then added up in the order of the partitions, so the result only depends on the number of rows and not on the
+ * number of threads or their scheduling. The memberships, the convergence criterion and the handling of the noise
+ * cluster are the same as in the sequential implementation.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 5.1
+ */
+public class FCMAlgorithmParallel extends FCMAlgorithmMemory {
+
+    /** Minimum number of rows handled by a single partition. */
+    private static final int MIN_ROWS_PER_PARTITION = 1024;
+
+    /** Maximum number of partitions, independent of the number of processors to keep the result reproducible. */
+    private static final int MAX_PARTITIONS = 64;
+
+    /** Number of rows after which a partition checks for cancellation. */
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+    private Partition[] m_partitions;
+
+    /**
+     * Constructor for a Fuzzy c-means algorithm (with no noise detection).
+     *
+     * @param nrClusters the number of cluster prototypes to use
+     * @param fuzzifier allows the clusters to overlap
+     */
+    public FCMAlgorithmParallel(final int nrClusters, final double fuzzifier) {
+        super(nrClusters, fuzzifier);
+    }
+
+    /**
+     * Constructor for a Fuzzy c-means algorithm with noise detection. It can be indicated, whether the delta value of
+     * the noise cluster should be updated automatically or if it should be calculated automatically. The last
+     * parameter specifies either the delta value or the lambda value, depending on the boolean flag in the parameter
+     * before.
+     *
+     * @param nrClusters the number of clusters to use
+     * @param fuzzifier the fuzzifier, controls how much the clusters can overlap
+     * @param calculateDelta indicate whether delta should be calculated automatically
+     * @param deltalambda the delta value, if the previous parameter is <code>false</code>, the lambda value otherwise
+     */
+    public FCMAlgorithmParallel(final int nrClusters, final double fuzzifier, final boolean calculateDelta,
+        final double deltalambda) {
+        super(nrClusters, fuzzifier, calculateDelta, deltalambda);
+    }
+
+    /**
+     * Does one iteration in the Fuzzy c-means algorithm. First, the weight matrix is updated and then the cluster
+     * prototypes are recalculated. Both steps are done in a single pass over the data.
+     *
+     * @param exec execution context to cancel the execution, may be <code>null</code>
+     * @return the total change in the cluster prototypes. Allows to decide whether the algorithm can be stopped.
+     * @throws CanceledExecutionException if the operation is canceled
+     */
+    @Override
+    public double doOneIteration(final ExecutionContext exec) throws CanceledExecutionException {
+        final double[][] data = getConvertedData();
+        if (exec != null) {
+            exec.checkCanceled();
+        }
+        final Partition[] partitions = getPartitions();
+        process(partitions, data, exec);
+
+        final double[][] clusters = getClusters();
+        final int nrRealClusters = partitions[0].m_denominators.length;
+        final int dimension = getDimension();
+        setTotalChange(0.0);
+        for (int c = 0; c < nrRealClusters; c++) {
+            double denominator = 0;
+            for (Partition p : partitions) {
+                denominator += p.m_denominators[c];
+            }
+            for (int j = 0; j < dimension; j++) {
+                double numerator = 0;
+                for (Partition p : partitions) {
+                    numerator += p.m_numerators[c][j];
+                }
+                final double newValue = numerator / denominator;
+                addTotalChange(Math.abs(clusters[c][j] - newValue));
+                setClusterValue(c, j, newValue);
+            }
+        }
+
+        // update the delta-value automatically if chosen
+        if (isNoise() && isCalculateDelta()) {
+            double sumupdate = 0;
+            for (Partition p : partitions) {
+                sumupdate += p.m_sumUpdate;
+            }
+            setDelta(Math.sqrt(getLambda() * (sumupdate / (getNrRows() * (clusters.length - 1)))));
+        }
+        return getTotalChange();
+    }
+
+    /* The partitions only depend on the number of rows. */
+    private Partition[] getPartitions() {
+        if (m_partitions == null) {
+            final int nrRows = getNrRows();
+            final int nrRealClusters = isNoise() ? getNrClusters() - 1 : getNrClusters();
+            final int nrPartitions = Math.max(1, Math.min(MAX_PARTITIONS, nrRows / MIN_ROWS_PER_PARTITION));
+            final int size = (nrRows + nrPartitions - 1) / nrPartitions;
+            final List<Partition> partitions = new ArrayList<>(nrPartitions);
+            for (int from = 0; from < nrRows || partitions.isEmpty(); from += size) {
+                partitions.add(new Partition(from, Math.min(from + size, nrRows), nrRealClusters, getDimension()));
+            }
+            m_partitions = partitions.toArray(new Partition[0]);
+        }
+        return m_partitions;
+    }
+
+    private void process(final Partition[] partitions, final double[][] data, final ExecutionContext exec)
+        throws CanceledExecutionException {
+        if (partitions.length == 1) {
+            partitions[0].process(data, exec);
+            return;
+        }
+        final int nrThreads = Math.min(partitions.length, Runtime.getRuntime().availableProcessors());
+        final ThreadPool pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(nrThreads);
+        final List<Callable<Void>> tasks = new ArrayList<>(partitions.length);
+        for (Partition p : partitions) {
+            tasks.add(() -> {
+                p.process(data, exec);
+                return null;
+            });
+        }
+        ThreadPoolUtils.invokeAll(pool, tasks, exec);
+    }
+
+    /*
+     * Helper method for the quadratic distance between two double-arrays.
+     */
+    private static double getDistance(final double[] vector1, final double[] vector2) {
+        double distance = 0.0;
+        for (int i = 0; i < vector1.length; i++) {
+            final double diff = vector1[i] - vector2[i];
+            distance += diff * diff;
+        }
+        return distance;
+    }
+
+    /** A range of consecutive rows together with its partial sums for the cluster prototypes. */
+    private final class Partition {
+
+        private final int m_from;
+
+        private final int m_to;
+
+        private final double[][] m_numerators;
+
+        private final double[] m_denominators;
+
+        private double m_sumUpdate;
+
+        Partition(final int from, final int to, final int nrRealClusters, final int dimension) {
+            m_from = from;
+            m_to = to;
+            m_numerators = new double[nrRealClusters][dimension];
+            m_denominators = new double[nrRealClusters];
+        }
+
+        void process(final double[][] data, final ExecutionContext exec) throws CanceledExecutionException {
+            final double[][] clusters = getClusters();
+            final double[][] weightMatrix = getWeightMatrix();
+            final boolean noise = isNoise();
+            final boolean calculateDelta = noise && isCalculateDelta();
+            final double fuzzifier = getFuzzifier();
+            final double exponent = 1.0 / (fuzzifier - 1.0);
+            final double noiseDistance = Math.pow(getDelta(), 2.0);
+            final int nrRealClusters = m_denominators.length;
+            final double[] distances = new double[clusters.length];
+
+            for (double[] numerator : m_numerators) {
+                Arrays.fill(numerator, 0.0);
+            }
+            Arrays.fill(m_denominators, 0.0);
+            m_sumUpdate = 0;
+
+            for (int r = m_from; r < m_to; r++) {
+                if (exec != null && (r - m_from) % CANCEL_CHECK_INTERVAL == 0) {
+                    exec.checkCanceled();
+                }
+                final double[] row = data[r];
+                final double[] weights = weightMatrix[r];
+                updateWeights(row, weights, clusters, distances, noise, noiseDistance, exponent);
+
+                for (int c = 0; c < nrRealClusters; c++) {
+                    final double w = Math.pow(weights[c], fuzzifier);
+                    final double[] numerator = m_numerators[c];
+                    for (int j = 0; j < numerator.length; j++) {
+                        numerator[j] += w * row[j];
+                    }
+                    m_denominators[c] += w;
+                    if (calculateDelta) {
+                        // the prototypes are only changed after all partitions are done
+                        m_sumUpdate += distances[c] >= 0 ? distances[c] : getDistance(clusters[c], row);
+                    }
+                }
+            }
+        }
+
+        /*
+         * Computes the memberships of a single row. The distances to the prototypes are stored in the given array,
+         * entries are set to -1 if the row coincides with a prototype and the distances haven't been computed.
+         */
+        private void updateWeights(final double[] row, final double[] weights, final double[][] clusters,
+            final double[] distances, final boolean noise, final double noiseDistance, final double exponent) {
+            // first check if the actual row is equal to a cluster center
+            final int nrRealClusters = noise ? clusters.length - 1 : clusters.length;
+            int sameCluster = -1;
+            for (int i = 0; sameCluster < 0 && i < nrRealClusters; i++) {
+                for (int j = 0; j < row.length; j++) {
+                    if (row[j] == clusters[i][j]) {
+                        sameCluster = i;
+                    } else {
+                        sameCluster = -1;
+                        break;
+                    }
+                }
+            }
+
+            // the weight of a data point is 1 if it is exactly on the position of the cluster, 0 for the others
+            if (sameCluster >= 0) {
+                for (int i = 0; i < weights.length; i++) {
+                    weights[i] = i == sameCluster ? 1 : 0;
+                }
+                Arrays.fill(distances, -1);
+                return;
+            }
+
+            // calculate the fuzzy membership to each cluster
+            for (int k = 0; k < clusters.length; k++) {
+                distances[k] = noise && k == clusters.length - 1 ? noiseDistance : getDistance(clusters[k], row);
+            }
+            for (int j = 0; j < clusters.length; j++) {
+                double sum = 0;
+                for (int k = 0; k < clusters.length; k++) {
+                    sum += Math.pow(distances[j] / distances[k], exponent);
+                }
+                weights[j] = 1 / sum;
+            }
+        }
+    }
+}
@@ -309,7 +309,7 @@ protected PortObject[] execute(final PortObject[] inData,
         if (m_noise) {
             if (m_calculateDelta) {
                 if (m_memory) {
-                    m_fcmAlgo = new FCMAlgorithmMemory(m_nrClusters,
+                    m_fcmAlgo = new FCMAlgorithmParallel(m_nrClusters,
                             m_fuzzifier, m_calculateDelta, m_lambda);
                 } else {
                     m_fcmAlgo = new FCMAlgorithm(m_nrClusters, m_fuzzifier,
@@ -317,7 +317,7 @@ protected PortObject[] execute(final PortObject[] inData,
                 }
             } else {
                 if (m_memory) {
-                    m_fcmAlgo = new FCMAlgorithmMemory(m_nrClusters,
+                    m_fcmAlgo = new FCMAlgorithmParallel(m_nrClusters,
                             m_fuzzifier, m_calculateDelta, m_delta);
                 } else {
                     m_fcmAlgo = new FCMAlgorithm(m_nrClusters, m_fuzzifier,
@@ -326,7 +326,7 @@ protected PortObject[] execute(final PortObject[] inData,
             }
         } else {
             if (m_memory) {
-                m_fcmAlgo = new FCMAlgorithmMemory(m_nrClusters, m_fuzzifier);
+                m_fcmAlgo = new FCMAlgorithmParallel(m_nrClusters, m_fuzzifier);
             } else {
                 m_fcmAlgo = new FCMAlgorithm(m_nrClusters, m_fuzzifier);
             }
@@ -93,4 +93,16 @@ public class MDSConfigKeys {
      * The configuration key for columns to use.
      */
     public static final String CFGKEY_SEED = "Seed";    
+
+    /**
+     * The configuration key for the usage of landmarks.
+     * @since 5.1
+     */
+    public static final String CFGKEY_USE_LANDMARKS = "UseLandmarks";
+
+    /**
+     * The configuration key for the number of landmarks.
+     * @since 5.1
+     */
+    public static final String CFGKEY_LANDMARKS = "Landmarks";
 }
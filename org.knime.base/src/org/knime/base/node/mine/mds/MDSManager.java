@@ -47,8 +47,14 @@
  */
 package org.knime.base.node.mine.mds;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.List;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.knime.base.node.mine.mds.distances.DistanceManager;
 import org.knime.base.node.mine.mds.distances.DistanceManagerFactory;
@@ -64,6 +70,9 @@
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+import org.knime.filehandling.core.util.ThreadPoolUtils;
 
 /**
  * The <code>MDSManager</code> handling the MDS algorithmic. For each row
@@ -74,6 +83,12 @@
  * dimensional points. The rearrangement is an iterative process running as
  * many epochs as specified. The learn rate, specifying the step size is
  * reduced after each epoch, so that the process converges at the end.
+ * <p>
+ * As each epoch compares all pairs of points, the training is quadratic in the
+ * number of rows. If a number of landmarks is set (see
+ * {@link #setNumberOfLandmarks(int)}), only a random sample of landmark points
+ * is arranged that way. All other points are afterwards placed according to
+ * the fixed landmarks, concurrently and independent of each other.
  *
  * @author Kilian Thiel, University of Konstanz
  */
@@ -99,6 +114,21 @@ public class MDSManager {
      */
     public static final double DEF_MINDIST_THRESHOLD = 0.0001;
 
+    /**
+     * The default number of landmarks.
+     * @since 5.1
+     */
+    public static final int DEF_LANDMARKS = 1000;
+
+    /** Number of rows projected onto the landmarks at a time. */
+    private static final int BATCH_SIZE = 4096;
+
+    /**
+     * Maximum number of landmark pairs whose distances are computed once
+     * upfront (128 MB), instead of in each epoch.
+     */
+    private static final long MAX_CACHED_DISPARITIES = 1 << 24;
+
     private int m_dimension;
 
     private RowDistanceManager m_distMan;
@@ -121,6 +151,10 @@ public class MDSManager {
 
     private ExecutionMonitor m_exec;
 
+    private int m_nrLandmarks = 0;
+
+    private Set<RowKey> m_landmarkKeys;
+
     /**
      * Creates a new instance of <code>MDSManager</code> with the given
      * dimension, type of distance metric, fuzzy flag and in data to use. If the
@@ -215,6 +249,7 @@ public void init(final long seed) throws CanceledExecutionException {
         ExecutionMonitor exec = m_exec.createSubProgress(0.1);
 
         // init all data points
+        final List<RowKey> keys = new ArrayList<RowKey>();
         RowIterator it = m_inData.iterator();
         while (it.hasNext()) {
             exec.checkCanceled();
@@ -225,9 +260,19 @@ public void init(final long seed) throws CanceledExecutionException {
                 p.setElementAt(j, rand.nextDouble());
             }
             m_points.put(row.getKey(), p);
+            keys.add(row.getKey());
 
             exec.setProgress("Initialising data points.");
         }
+
+        // draw the landmarks, if they are fewer than the points
+        m_landmarkKeys = null;
+        if (m_nrLandmarks > 0 && m_nrLandmarks < keys.size()) {
+            for (int i = 0; i < m_nrLandmarks; i++) {
+                Collections.swap(keys, i, i + rand.nextInt(keys.size() - i));
+            }
+            m_landmarkKeys = new HashSet<RowKey>(keys.subList(0, m_nrLandmarks));
+        }
     }
 
     /**
@@ -250,6 +295,10 @@ public void train(final int epochs, final double learningrate)
         m_learningrate = learningrate;
         m_initialLearningrate = learningrate;
         m_epochs = epochs;
+        if (m_landmarkKeys != null) {
+            trainLandmarks(epochs, exec);
+            return;
+        }
         for (int e = 1; e <= epochs; e++) {
             exec.setMessage("Start training");
             exec.checkCanceled();
@@ -260,6 +309,142 @@ public void train(final int epochs, final double learningrate)
         }
     }
 
+    /**
+     * Arranges the landmarks according to each other and places all other
+     * points according to the landmarks afterwards.
+     */
+    private void trainLandmarks(final int epochs, final ExecutionMonitor exec)
+    throws CanceledExecutionException {
+        final List<DataRow> landmarks = new ArrayList<DataRow>(m_landmarkKeys.size());
+        RowIterator it = m_inData.iterator();
+        while (it.hasNext()) {
+            DataRow row = it.next();
+            if (m_landmarkKeys.contains(row.getKey())) {
+                landmarks.add(row);
+            }
+        }
+
+        final DataPoint[] landmarkPoints = new DataPoint[landmarks.size()];
+        for (int i = 0; i < landmarkPoints.length; i++) {
+            landmarkPoints[i] = m_points.get(landmarks.get(i).getKey());
+        }
+        final int nrThreads = Runtime.getRuntime().availableProcessors();
+        final ThreadPool pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(nrThreads);
+
+        // each adjustment reads the positions changed by the previous ones,
+        // hence the epochs are run sequentially; only the distances in the
+        // original space, which don't change, are computed concurrently
+        ExecutionMonitor landmarkExec = exec.createSubProgress(0.5);
+        final double[][] disparities = (long)landmarks.size() * landmarks.size() <= MAX_CACHED_DISPARITIES
+            ? computeDisparities(pool, nrThreads, landmarks, landmarkExec.createSubProgress(0.2)) : null;
+        ExecutionMonitor epochExec = landmarkExec.createSubProgress(0.8);
+        // the learning rates of the epochs, the same for every point
+        final double[] learningRates = new double[epochs];
+        for (int e = 1; e <= epochs; e++) {
+            epochExec.setMessage("Start training landmarks");
+            epochExec.checkCanceled();
+            learningRates[e - 1] = m_learningrate;
+            for (int i = 0; i < landmarkPoints.length; i++) {
+                final DataPoint p1 = landmarkPoints[i];
+                for (int j = 0; j < landmarkPoints.length; j++) {
+                    epochExec.checkCanceled();
+                    if (disparities == null) {
+                        adjustDataPoint(p1, landmarkPoints[j], landmarks.get(i), landmarks.get(j));
+                    } else if (p1 != landmarkPoints[j]) {
+                        adjustDataPoint(p1, landmarkPoints[j], disparities[i][j], m_learningrate);
+                    }
+                }
+            }
+            adjustLearningRate(e);
+
+            double prog = (double)e / (double)epochs;
+            epochExec.setProgress(prog, "Training landmarks, epoch " + e + " of " + epochs);
+        }
+
+        ExecutionMonitor projectExec = exec.createSubProgress(0.5);
+        projectExec.setMessage("Placing points according to landmarks");
+        final double nrPoints = m_points.size() - landmarks.size();
+        final List<DataRow> batch = new ArrayList<DataRow>(BATCH_SIZE);
+        long done = 0;
+        it = m_inData.iterator();
+        while (it.hasNext()) {
+            DataRow row = it.next();
+            if (!m_landmarkKeys.contains(row.getKey())) {
+                batch.add(row);
+            }
+            if (batch.size() == BATCH_SIZE || (!it.hasNext() && !batch.isEmpty())) {
+                projectExec.checkCanceled();
+                projectBatch(pool, nrThreads, batch, landmarks, landmarkPoints, learningRates, projectExec);
+                done += batch.size();
+                projectExec.setProgress(done / nrPoints);
+                batch.clear();
+            }
+        }
+    }
+
+    /* Computes the disparities of all pairs of landmarks in (about) equally sized chunks of rows, one per thread. */
+    private double[][] computeDisparities(final ThreadPool pool, final int nrThreads, final List<DataRow> landmarks,
+        final ExecutionMonitor exec) throws CanceledExecutionException {
+        exec.setMessage("Computing distances of landmarks");
+        final double[][] disparities = new double[landmarks.size()][landmarks.size()];
+        final int chunkSize = (landmarks.size() + nrThreads - 1) / nrThreads;
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(nrThreads);
+        for (int from = 0; from < landmarks.size(); from += chunkSize) {
+            final int start = from;
+            final int end = Math.min(from + chunkSize, landmarks.size());
+            tasks.add(() -> {
+                for (int i = start; i < end; i++) {
+                    exec.checkCanceled();
+                    for (int j = 0; j < disparities[i].length; j++) {
+                        disparities[i][j] =
+                            disparityTransformation(m_distMan.getDistance(landmarks.get(i), landmarks.get(j)));
+                    }
+                }
+                return null;
+            });
+        }
+        ThreadPoolUtils.invokeAll(pool, tasks, exec);
+        exec.setProgress(1.0);
+        return disparities;
+    }
+
+    /* Projects the points of the batch in (about) equally sized chunks, one per thread. */
+    private void projectBatch(final ThreadPool pool, final int nrThreads, final List<DataRow> batch,
+        final List<DataRow> landmarks, final DataPoint[] landmarkPoints, final double[] learningRates,
+        final ExecutionMonitor exec) throws CanceledExecutionException {
+        final int chunkSize = (batch.size() + nrThreads - 1) / nrThreads;
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(nrThreads);
+        for (int from = 0; from < batch.size(); from += chunkSize) {
+            final List<DataRow> chunk = batch.subList(from, Math.min(from + chunkSize, batch.size()));
+            tasks.add(() -> {
+                final double[] disparities = new double[landmarks.size()];
+                for (DataRow row : chunk) {
+                    exec.checkCanceled();
+                    projectDataPoint(m_points.get(row.getKey()), row, landmarks, landmarkPoints,
+                        disparities, learningRates);
+                }
+                return null;
+            });
+        }
+        ThreadPoolUtils.invokeAll(pool, tasks, exec);
+    }
+
+    /**
+     * Runs all epochs for a single point against the fixed landmarks. The
+     * distances to the landmarks in the original space are computed only once.
+     */
+    private void projectDataPoint(final DataPoint p, final DataRow row, final List<DataRow> landmarks,
+        final DataPoint[] landmarkPoints, final double[] disparities, final double[] learningRates) {
+        for (int l = 0; l < disparities.length; l++) {
+            disparities[l] = disparityTransformation(m_distMan.getDistance(row, landmarks.get(l)));
+        }
+        for (double learningRate : learningRates) {
+            for (int l = 0; l < landmarkPoints.length; l++) {
+                adjustDataPoint(p, landmarkPoints[l], disparities[l], learningRate);
+            }
+        }
+    }
+
     private void doEpoch(final int epoch, final ExecutionMonitor exec)
     throws CanceledExecutionException {
         // through all data points
@@ -288,21 +473,25 @@ private void adjustDataPoint(final DataPoint p1, final DataPoint p2,
         if (!p1.equals(p2)) {
             double disparity =
                     disparityTransformation(m_distMan.getDistance(r1, r2));
+            adjustDataPoint(p1, p2, disparity, m_learningrate);
+        }
+    }
 
-            // double distance = m_distMan.getDistance(p1, p2);
-            // use only the Euclidean distance for low
-            // dimensional data.
-            double distance = m_euclideanDistMan.getDistance(p1, p2);
-
-            // through all dimensions
-            for (int d = 0; d < m_dimension; d++) {
-                double value = p1.getElementAt(d);
-                if (distance != 0) {
-                    double delta =
-                            m_learningrate * (1 - (disparity / distance))
-                                    * (p2.getElementAt(d) - value);
-                    p1.setElementAt(d, value + delta);
-                }
+    private void adjustDataPoint(final DataPoint p1, final DataPoint p2,
+            final double disparity, final double learningrate) {
+        // double distance = m_distMan.getDistance(p1, p2);
+        // use only the Euclidean distance for low
+        // dimensional data.
+        double distance = m_euclideanDistMan.getDistance(p1, p2);
+
+        // through all dimensions
+        for (int d = 0; d < m_dimension; d++) {
+            double value = p1.getElementAt(d);
+            if (distance != 0) {
+                double delta =
+                        learningrate * (1 - (disparity / distance))
+                                * (p2.getElementAt(d) - value);
+                p1.setElementAt(d, value + delta);
             }
         }
     }
@@ -333,9 +522,34 @@ public Hashtable<RowKey, DataPoint> getDataPoints() {
      */
     public void reset() {
         m_points.clear();
+        m_landmarkKeys = null;
         m_isInit = false;
     }
 
+    /**
+     * Sets the number of landmarks. If it is greater than zero and less than
+     * the number of rows, only the landmarks are arranged according to each
+     * other and all other points according to the landmarks. Has to be set
+     * before the points are initialized. The row distance manager must be
+     * thread-safe in this case.
+     *
+     * @param nrLandmarks the number of landmarks, zero or less to arrange all
+     * points according to each other
+     * @since 5.1
+     */
+    public void setNumberOfLandmarks(final int nrLandmarks) {
+        m_nrLandmarks = nrLandmarks;
+    }
+
+    /**
+     * @return the number of landmarks, zero or less if all points are
+     * arranged according to each other
+     * @since 5.1
+     */
+    public int getNumberOfLandmarks() {
+        return m_nrLandmarks;
+    }
+
     /**
      * @return the dimension The dimension of the low dimensionl data points.
      */
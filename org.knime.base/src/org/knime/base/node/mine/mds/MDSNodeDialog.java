@@ -158,9 +158,36 @@ public static SettingsModelIntegerBounded getSeedModel() {
     }
     
     
+    /**
+     * @return Creates and returns a new instance of
+     * <code>SettingsModelBoolean</code> specifying if only landmarks are
+     * arranged according to each other.
+     * @since 5.1
+     */
+    public static SettingsModelBoolean getUseLandmarksModel() {
+        return new SettingsModelBoolean(MDSConfigKeys.CFGKEY_USE_LANDMARKS,
+                MDSNodeModel.DEF_USE_LANDMARKS);
+    }
+
+    /**
+     * @return Creates and returns a new instance of
+     * <code>SettingsModelIntegerBounded</code> containing the number of
+     * landmarks.
+     * @since 5.1
+     */
+    public static SettingsModelIntegerBounded getLandmarksModel() {
+        return new SettingsModelIntegerBounded(MDSConfigKeys.CFGKEY_LANDMARKS,
+                MDSManager.DEF_LANDMARKS, MDSNodeModel.MIN_LANDMARKS,
+                MDSNodeModel.MAX_LANDMARKS);
+    }
+
     private SettingsModelIntegerBounded m_rowsModel;
     
     private SettingsModelBoolean m_useRowsModel;
+
+    private SettingsModelIntegerBounded m_landmarksModel;
+
+    private SettingsModelBoolean m_useLandmarksModel;
     
     /**
      * Creates a new instance of <code>MDSNodeDialog</code>.
@@ -207,6 +234,20 @@ public MDSNodeDialog() {
         
         closeCurrentGroup();
 
+        createNewGroup("Landmarks");
+
+        m_useLandmarksModel = getUseLandmarksModel();
+        addDialogComponent(new DialogComponentBoolean(m_useLandmarksModel,
+                "Arrange only landmarks according to each other"));
+
+        m_landmarksModel = getLandmarksModel();
+        addDialogComponent(new DialogComponentNumber(m_landmarksModel,
+                "Number of landmarks: ", 100));
+
+        m_useLandmarksModel.addChangeListener(new CheckBoxChangeListener());
+
+        closeCurrentGroup();
+
         createNewTab("Input data");
         
         createNewGroup("Data to project");
@@ -240,5 +281,6 @@ private void checkUncheck() {
         } else {
             m_rowsModel.setEnabled(true);
         }
+        m_landmarksModel.setEnabled(m_useLandmarksModel.getBooleanValue());
     }
 }
@@ -156,6 +156,24 @@ public class MDSNodeModel extends NodeModel {
     public static final String DEF_DISTANCE =
         DistanceManagerFactory.EUCLIDEAN_DIST;
 
+    /**
+     * The default settings of the usage of landmarks.
+     * @since 5.1
+     */
+    public static final boolean DEF_USE_LANDMARKS = false;
+
+    /**
+     * The minimum number of landmarks.
+     * @since 5.1
+     */
+    public static final int MIN_LANDMARKS = 2;
+
+    /**
+     * The maximum number of landmarks.
+     * @since 5.1
+     */
+    public static final int MAX_LANDMARKS = Integer.MAX_VALUE;
+
 
 
     private SettingsModelIntegerBounded m_rowsModel =
@@ -181,6 +199,12 @@ public class MDSNodeModel extends NodeModel {
     private SettingsModelIntegerBounded m_seedModel =
         MDSNodeDialog.getSeedModel();
 
+    private SettingsModelBoolean m_useLandmarksModel =
+        MDSNodeDialog.getUseLandmarksModel();
+
+    private SettingsModelIntegerBounded m_landmarksModel =
+        MDSNodeDialog.getLandmarksModel();
+
     private MDSManager m_manager;
 
     private List<String> m_includeList;
@@ -193,6 +217,7 @@ public class MDSNodeModel extends NodeModel {
     public MDSNodeModel() {
         super(1, 1);
         m_useRowsModel.addChangeListener(new CheckBoxChangeListener());
+        m_useLandmarksModel.addChangeListener(new CheckBoxChangeListener());
         checkUncheck();
     }
 
@@ -290,6 +315,9 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData,
         // create MDS manager, init and train stuff
         m_manager = new MDSManager(m_outputDimModel.getIntValue(),
                 m_distModel.getStringValue(), m_fuzzy, rowCutDataTable, exec);
+        if (m_useLandmarksModel.getBooleanValue()) {
+            m_manager.setNumberOfLandmarks(m_landmarksModel.getIntValue());
+        }
         m_manager.init(m_seedModel.getIntValue());
         m_manager.train(m_epochsModel.getIntValue(),
                 m_learnrateModel.getDoubleValue());
@@ -368,6 +396,13 @@ protected void loadValidatedSettingsFrom(final NodeSettingsRO settings)
         m_rowsModel.loadSettingsFrom(settings);
         m_seedModel.loadSettingsFrom(settings);
         m_useRowsModel.loadSettingsFrom(settings);
+        // added in 5.1
+        if (settings.containsKey(MDSConfigKeys.CFGKEY_USE_LANDMARKS)) {
+            m_useLandmarksModel.loadSettingsFrom(settings);
+            m_landmarksModel.loadSettingsFrom(settings);
+        } else {
+            m_useLandmarksModel.setBooleanValue(DEF_USE_LANDMARKS);
+        }
         checkUncheck();
     }
 
@@ -394,6 +429,8 @@ protected void saveSettingsTo(final NodeSettingsWO settings) {
         m_rowsModel.saveSettingsTo(settings);
         m_seedModel.saveSettingsTo(settings);
         m_useRowsModel.saveSettingsTo(settings);
+        m_useLandmarksModel.saveSettingsTo(settings);
+        m_landmarksModel.saveSettingsTo(settings);
     }
 
     /**
@@ -410,6 +447,11 @@ protected void validateSettings(final NodeSettingsRO settings)
         m_rowsModel.validateSettings(settings);
         m_seedModel.validateSettings(settings);
         m_useRowsModel.validateSettings(settings);
+        // added in 5.1
+        if (settings.containsKey(MDSConfigKeys.CFGKEY_USE_LANDMARKS)) {
+            m_useLandmarksModel.validateSettings(settings);
+            m_landmarksModel.validateSettings(settings);
+        }
     }
 
 
@@ -455,5 +497,6 @@ private void checkUncheck() {
         } else {
             m_rowsModel.setEnabled(true);
         }
+        m_landmarksModel.setEnabled(m_useLandmarksModel.getBooleanValue());
     }
 }
@@ -47,11 +47,14 @@
  */
 package org.knime.base.node.mine.mds.mdsprojection;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.knime.base.data.filter.column.FilterColumnTable;
 import org.knime.base.node.mine.mds.DataPoint;
@@ -72,6 +75,9 @@
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+import org.knime.filehandling.core.util.ThreadPoolUtils;
 
 /**
  * The <code>MDSProjectionManager</code> handling the MDS algorithmic.
@@ -82,6 +88,10 @@
  * The rearrangement is an iterative process running as
  * many epochs as specified. The learn rate, specifying the step size is
  * reduced after each epoch, so that the process converges at the end.
+ * <p>
+ * If the points are only projected according to the fixed points (see
+ * {@link #setProjectOnly(boolean)}), they are independent of each other and
+ * hence projected concurrently, running all epochs for one point at a time.
  *
  * @author Kilian Thiel, University of Konstanz
  */
@@ -110,7 +120,7 @@ public class MDSProjectionManager {
     /**
      * The set of unmodifyable data points.
      */
-    protected Set<DataPoint> m_unmodifiablePoints = new HashSet<DataPoint>();
+    protected Set<DataPoint> m_unmodifiablePoints = ConcurrentHashMap.newKeySet();
 
     /**
      * The dimension of the target space.
@@ -187,6 +197,9 @@ public class MDSProjectionManager {
      */
     protected boolean m_projectOnly = true;
 
+    /** Number of rows projected concurrently at a time. */
+    private static final int BATCH_SIZE = 4096;
+
     /**
      * Creates a new instance of <code>MDSProjectionManager</code> with the
      * given dimension, distance metric, fuzzy flag, in data and fixed data to
@@ -365,6 +378,9 @@ public void init(final long seed) throws CanceledExecutionException {
     /**
      * Does the training by adjusting the lower dimensional data points
      * according to their distances and the distances of the original data.
+     * If the points are only projected according to the fixed points, they are
+     * projected concurrently without calling
+     * {@link #doEpoch(int, ExecutionMonitor)}.
      *
      * @param epochs The number of epochs to train.
      * @param learningrate The learn rate, specifying the step size of
@@ -383,6 +399,10 @@ public void train(final int epochs, final double learningrate)
         m_initialLearningrate = learningrate;
         m_epochs = epochs;
         exec.setMessage("Start training");
+        if (m_projectOnly) {
+            project(epochs, exec);
+            return;
+        }
         for (int e = 1; e <= epochs; e++) {
             exec.checkCanceled();
             doEpoch(e, exec);
@@ -392,6 +412,111 @@ public void train(final int epochs, final double learningrate)
         }
     }
 
+    /**
+     * Projects all points according to the fixed points only. As the points
+     * do not depend on each other, all epochs are run for one point at a time,
+     * the distances to the fixed points in the original space are computed only
+     * once per point and the points are projected concurrently. The result is
+     * the same as running the epochs one after another.
+     */
+    private void project(final int epochs, final ExecutionMonitor exec)
+            throws CanceledExecutionException {
+        final List<DataRow> fixedRows = new ArrayList<DataRow>();
+        final List<DataPoint> fixedPoints = new ArrayList<DataPoint>();
+        RowIterator fit = m_fixedDataPoints.iterator();
+        while (fit.hasNext()) {
+            DataRow fixedRow = fit.next();
+            fixedRows.add(fixedRow);
+            fixedPoints.add(m_fixedPoints.get(fixedRow.getKey()));
+        }
+
+        // the learning rates of the epochs, the same for every point
+        final double[] learningRates = new double[epochs];
+        for (int e = 1; e <= epochs; e++) {
+            learningRates[e - 1] = m_learningrate;
+            adjustLearningRate(e);
+        }
+
+        final int nrThreads = Runtime.getRuntime().availableProcessors();
+        final ThreadPool pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(nrThreads);
+        final double nrPoints = m_points.size();
+        final List<DataRow> batch = new ArrayList<DataRow>(BATCH_SIZE);
+        long done = 0;
+        RowIterator it = m_inData.iterator();
+        while (it.hasNext()) {
+            batch.add(it.next());
+            if (batch.size() == BATCH_SIZE || !it.hasNext()) {
+                exec.checkCanceled();
+                projectBatch(pool, nrThreads, batch, fixedRows, fixedPoints, learningRates, exec);
+                done += batch.size();
+                exec.setProgress(done / nrPoints, "Projected " + done + " of " + (long)nrPoints + " points");
+                batch.clear();
+            }
+        }
+    }
+
+    /* Projects the points of the batch in (about) equally sized chunks, one per thread. */
+    private void projectBatch(final ThreadPool pool, final int nrThreads, final List<DataRow> batch,
+        final List<DataRow> fixedRows, final List<DataPoint> fixedPoints, final double[] learningRates,
+        final ExecutionMonitor exec) throws CanceledExecutionException {
+        final int chunkSize = (batch.size() + nrThreads - 1) / nrThreads;
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(nrThreads);
+        for (int from = 0; from < batch.size(); from += chunkSize) {
+            final List<DataRow> chunk = batch.subList(from, Math.min(from + chunkSize, batch.size()));
+            tasks.add(() -> {
+                final double[] disparities = new double[fixedRows.size()];
+                for (DataRow row : chunk) {
+                    exec.checkCanceled();
+                    projectDataPoint(m_points.get(row.getKey()), row, fixedRows, fixedPoints, disparities,
+                        learningRates);
+                }
+                return null;
+            });
+        }
+        ThreadPoolUtils.invokeAll(pool, tasks, exec);
+    }
+
+    /**
+     * Runs all epochs for a single point against the fixed points, the same as
+     * {@link #adjustDataPoint(DataPoint, DataPoint, DataRow, DataRow)} does
+     * epoch by epoch.
+     */
+    private void projectDataPoint(final DataPoint p1, final DataRow r1, final List<DataRow> fixedRows,
+        final List<DataPoint> fixedPoints, final double[] disparities, final double[] learningRates) {
+        if (m_unmodifiablePoints.contains(p1)) {
+            return;
+        }
+        for (int f = 0; f < disparities.length; f++) {
+            disparities[f] = disparityTransformation(m_distMan.getDistance(r1, fixedRows.get(f)));
+        }
+        for (double learningRate : learningRates) {
+            for (int f = 0; f < disparities.length; f++) {
+                final DataPoint p2 = fixedPoints.get(f);
+                if (p1.equals(p2)) {
+                    continue;
+                }
+                if (disparities[f] <= m_minDistThreshold) {
+                    // if r1 is equal r2 (or nearly equal, set p1 equal p2
+                    for (int d = 0; d < m_dimension; d++) {
+                        p1.setElementAt(d, p2.getElementAt(d));
+                    }
+                    m_unmodifiablePoints.add(p1);
+                    return;
+                }
+                // use only the Euclidean distance for low dimensional data.
+                double distance = m_euclideanDistMan.getDistance(p1, p2);
+                if (distance != 0) {
+                    // through all dimensions
+                    for (int d = 0; d < m_dimension; d++) {
+                        double value = p1.getElementAt(d);
+                        double delta = learningRate * (1 - (disparities[f] / distance)) * (p2.getElementAt(d) - value);
+                        p1.setElementAt(d, value + delta);
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Computing one epoch if the iterative mds. In one epoch all points are
      * adjusted according to all fixed points and if <code>projectOnly</code>
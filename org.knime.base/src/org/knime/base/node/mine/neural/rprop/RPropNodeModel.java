@@ -62,7 +62,7 @@
 
 import org.knime.base.data.neural.Architecture;
 import org.knime.base.data.neural.MultiLayerPerceptron;
-import org.knime.base.data.neural.methods.RProp;
+import org.knime.base.data.neural.methods.FlatRProp;
 import org.knime.base.node.mine.neural.mlp2.PMMLNeuralNetworkTranslator;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnDomain;
@@ -508,35 +508,33 @@ protected PortObject[] execute(final PortObject[] inData,
                 rowcounter++;
             }
         }
-        Double[][] samplesarr = new Double[rowcounter][nrInputs];
-        Double[][] outputsarr = new Double[rowcounter][nrInputs];
+        double[][] samplesarr = new double[rowcounter][];
+        double[][] outputsarr = new double[rowcounter][];
         for (int i = 0; i < samplesarr.length; i++) {
-            samplesarr[i] = samples.get(i);
-            outputsarr[i] = outputs.get(i);
+            samplesarr[i] = toPrimitive(samples.get(i));
+            outputsarr[i] = toPrimitive(outputs.get(i));
         }
         // Now finally train the network.
         m_mlp.setClassMapping(classMap);
         m_mlp.setInputMapping(inputmap);
-        RProp myrprop = new RProp();
+        FlatRProp myrprop = new FlatRProp(m_mlp);
         m_errors = new double[m_nrIterations.getIntValue()];
         for (int iteration = 0; iteration < m_nrIterations.getIntValue();
                 iteration++) {
             exec.setProgress((double)iteration
                     / (double)m_nrIterations.getIntValue(), "Iteration "
                     + iteration);
-            myrprop.train(m_mlp, samplesarr, outputsarr);
-            double error = 0;
-            for (int j = 0; j < outputsarr.length; j++) {
-                double[] myoutput = m_mlp.output(samplesarr[j]);
-                for (int o = 0; o < outputsarr[0].length; o++) {
-                    error +=
-                            (myoutput[o] - outputsarr[j][o])
-                                    * (myoutput[o] - outputsarr[j][o]);
-                }
+            // the error of the previous iteration is computed with the
+            // forward wave of this one
+            double error = myrprop.train(samplesarr, outputsarr);
+            if (iteration > 0) {
+                m_errors[iteration - 1] = error;
             }
-            m_errors[iteration] = error;
             exec.checkCanceled();
         }
+        m_errors[m_errors.length - 1] =
+            myrprop.getError(samplesarr, outputsarr);
+        myrprop.writeTo(m_mlp);
 
         // handle the optional PMML input
         PMMLPortObject inPMMLPort = m_pmmlInEnabled ? (PMMLPortObject)inData[INMODEL] : null;
@@ -553,6 +551,14 @@ protected PortObject[] execute(final PortObject[] inData,
         return new PortObject[]{outPMMLPort};
     }
 
+    private static double[] toPrimitive(final Double[] values) {
+        double[] result = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i];
+        }
+        return result;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -47,11 +47,14 @@
  */
 package org.knime.base.node.mine.regression.logistic.learner4;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.linear.DecompositionSolver;
 import org.apache.commons.math3.linear.MatrixUtils;
 import org.apache.commons.math3.linear.QRDecomposition;
@@ -65,9 +68,11 @@
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.KNIMEConstants;
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.port.pmml.PMMLPortObjectSpec;
 import org.knime.core.util.ThreadPool;
+import org.knime.filehandling.core.util.ThreadPoolUtils;
 
 
 
@@ -81,6 +86,9 @@ final class IrlsLearner implements LogRegLearner {
     /** Logger to print debug info to. */
     private static final NodeLogger LOGGER = NodeLogger.getLogger(IrlsLearner.class);
 
+    /** Number of rows that are handed to a worker at once. */
+    private static final int BATCH_SIZE = 1024;
+
     private final int m_maxIter;
 
     private final double m_eps;
@@ -117,6 +125,12 @@ final class IrlsLearner implements LogRegLearner {
     /**
      * Do an irls step. The result is stored in beta.
      *
+     * <p>
+     * The rows are handed out in batches to worker threads. Each worker accumulates the hessian (packed upper
+     * triangle) and the gradient of its batches in flat arrays, the partial results are summed up before the
+     * system is solved. Batch <code>i</code> is always processed by worker <code>i % #workers</code> and the partial
+     * results are summed in a fixed order, hence the result does not depend on the thread scheduling.
+     *
      * @param data over trainings data.
      * @param beta parameter vector
      * @param rC regressors count
@@ -126,88 +140,61 @@ final class IrlsLearner implements LogRegLearner {
     private void irlsRls(final TrainingData<ClassificationTrainingRow> data, final RealMatrix beta,
         final int rC, final int tcC, final ExecutionMonitor exec)
                 throws CanceledExecutionException {
-        long rowCount = 0;
-        int dim = (rC + 1) * (tcC - 1);
-        RealMatrix xTwx = MatrixUtils.createRealMatrix(dim, dim);
-        RealMatrix xTyu = MatrixUtils.createRealMatrix(dim, 1);
-
-        double[] eBetaTx = new double[tcC - 1];
-        double[] pi = new double[tcC - 1];
+        final int dim = (rC + 1) * (tcC - 1);
+        final double[] betaValues = beta.getRow(0);
         final long totalRowCount = data.getRowCount();
-        for(ClassificationTrainingRow row : data) {
-            rowCount++;
-            exec.checkCanceled();
-            final long finalRowCount = rowCount;
-            exec.setProgress(rowCount / (double)totalRowCount, () -> String.format(
-                "Row %s/%s", finalRowCount, totalRowCount));
-
-            for (int k = 0; k < tcC - 1; k++) {
-                double z = 0.0;
-                for (FeatureIterator iter = row.getFeatureIterator(); iter.next();) {
-                    double featureVal = iter.getFeatureValue();
-                    int featureIdx = iter.getFeatureIndex();
-                    z += featureVal * beta.getEntry(0, k * (rC + 1) + featureIdx);
+        final int nrWorkers = getNumberOfWorkers(dim, totalRowCount);
+        final Accumulator[] accumulators = new Accumulator[nrWorkers];
+        for (int w = 0; w < nrWorkers; w++) {
+            accumulators[w] = new Accumulator(rC, tcC);
+        }
+        @SuppressWarnings("unchecked")
+        final Future<Void>[] futures = new Future[nrWorkers];
+        final ThreadPool pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(nrWorkers);
+        long rowCount = 0;
+        try {
+            final Iterator<ClassificationTrainingRow> iter = data.iterator();
+            for (int batchIdx = 0; iter.hasNext(); batchIdx++) {
+                final List<ClassificationTrainingRow> batch = new ArrayList<>(BATCH_SIZE);
+                while (iter.hasNext() && batch.size() < BATCH_SIZE) {
+                    batch.add(iter.next());
                 }
-                eBetaTx[k] = Math.exp(z);
-            }
-
-            double sumEBetaTx = 0;
-            for (int k = 0; k < tcC - 1; k++) {
-                sumEBetaTx += eBetaTx[k];
+                rowCount += batch.size();
+                final int w = batchIdx % nrWorkers;
+                // the worker must be done with its previous batch
+                waitFor(pool, futures[w]);
+                exec.checkCanceled();
+                final Accumulator accumulator = accumulators[w];
+                futures[w] = pool.enqueue(() -> {
+                    accumulator.add(batch, betaValues);
+                    return null;
+                });
+                final long finalRowCount = rowCount;
+                exec.setProgress(rowCount / (double)totalRowCount, () -> String.format(
+                    "Row %s/%s", finalRowCount, totalRowCount));
             }
-
-            for (int k = 0; k < tcC - 1; k++) {
-                double pik = eBetaTx[k] / (1 + sumEBetaTx);
-                pi[k] = pik;
+            for (Future<Void> future : futures) {
+                waitFor(pool, future);
             }
-
-            // fill xTwx (aka the hessian of the loglikelihood)
-            for (FeatureIterator outer = row.getFeatureIterator(); outer.next();) {
-                int i = outer.getFeatureIndex();
-                double outerVal = outer.getFeatureValue();
-                for (FeatureIterator inner = outer.spawn(); inner.next();) {
-                    int ii = inner.getFeatureIndex();
-                    double innerVal = inner.getFeatureValue();
-                    for (int k = 0; k < tcC - 1; k++) {
-                        for (int kk = k; kk < tcC - 1; kk++) {
-                            int o1 = k * (rC + 1);
-                            int o2 = kk * (rC + 1);
-                            double v = xTwx.getEntry(o1 + i, o2 + ii);
-                            if (k == kk) {
-                                double w = pi[k] * (1 - pi[k]);
-                                v += outerVal * w * innerVal;
-                                assert o1 == o2;
-                            } else {
-                                double w = -pi[k] * pi[kk];
-                                v += outerVal * w * innerVal;
-                            }
-                            xTwx.setEntry(o1 + i, o2 + ii, v);
-                            xTwx.setEntry(o1 + ii, o2 + i, v);
-                            if (k != kk) {
-                                xTwx.setEntry(o2 + ii, o1 + i, v);
-                                xTwx.setEntry(o2 + i, o1 + ii, v);
-                            }
-                        }
-                    }
-                }
-            }
-
-
-            // fill matrix xTyu
-            for (FeatureIterator iter = row.getFeatureIterator(); iter.next();) {
-                int idx = iter.getFeatureIndex();
-                double val = iter.getFeatureValue();
-                for (int k = 0; k < tcC - 1; k++) {
-                    int o = k * (rC + 1);
-                    double v = xTyu.getEntry(o + idx, 0);
-                    double y = row.getProbability(k);
-                    v += (y - pi[k]) * val;
-                    xTyu.setEntry(o + idx, 0, v);
+        } catch (RuntimeException e) {
+            // a failure of a worker is likely a consequence of the cancellation
+            exec.checkCanceled();
+            throw e;
+        } finally {
+            for (Future<Void> future : futures) {
+                if (future != null) {
+                    future.cancel(true);
                 }
             }
+        }
 
-
+        // reduce the partial results
+        final Accumulator total = accumulators[0];
+        for (int w = 1; w < nrWorkers; w++) {
+            total.add(accumulators[w]);
         }
+        RealMatrix xTwx = new Array2DRowRealMatrix(total.getHessian(), false);
+        RealMatrix xTyu = MatrixUtils.createColumnRealMatrix(total.getGradient());
 
         // currently not used but could become interesting in the future
 //        if (m_penaltyTerm > 0.0) {
@@ -234,6 +221,202 @@ private void irlsRls(final TrainingData<ClassificationTrainingRow> data, final R
         beta.setSubMatrix(betaNew.transpose().getData(), 0, 0);
     }
 
+    /**
+     * Waits for the given future without blocking a thread of the pool.
+     *
+     * @param pool the pool the future has been submitted to
+     * @param future the future to wait for, may be <code>null</code>
+     */
+    private static void waitFor(final ThreadPool pool, final Future<Void> future) {
+        if (future != null) {
+            ThreadPoolUtils.waitFor(pool, future, RuntimeException.class);
+        }
+    }
+
+    /**
+     * Determines the number of workers for the accumulation. Each worker needs its own hessian, hence the number is
+     * bounded by the available memory as well as by the number of processors and batches.
+     *
+     * @param dim the dimension of the hessian
+     * @param rowCount the number of rows
+     * @return the number of workers, at least 1
+     */
+    private static int getNumberOfWorkers(final int dim, final long rowCount) {
+        final long bytesPerWorker = 8 * (Accumulator.packedSize(dim) + dim);
+        final Runtime runtime = Runtime.getRuntime();
+        final long freeMemory = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        final long byMemory = freeMemory / 2 / Math.max(1, bytesPerWorker);
+        final long byBatches = (rowCount + BATCH_SIZE - 1) / BATCH_SIZE;
+        return (int)Math.max(1, Math.min(runtime.availableProcessors(), Math.min(byMemory, byBatches)));
+    }
+
+    /**
+     * Accumulates the hessian and the gradient of the log likelihood over the rows of the batches passed to
+     * {@link #add(List, double[])}. As the hessian is symmetric only its upper triangle is stored, row by row, and
+     * within the triangle only one of the mirrored entries of each symmetric block is accumulated.
+     */
+    static final class Accumulator {
+
+        private final int m_rC;
+
+        private final int m_tcC;
+
+        private final int m_dim;
+
+        private final double[] m_hessian;
+
+        private final double[] m_gradient;
+
+        // buffers reused for every row
+        private final int[] m_featureIndices;
+
+        private final double[] m_featureValues;
+
+        private final double[] m_pi;
+
+        private final double[] m_weights;
+
+        /**
+         * @param rC regressors count
+         * @param tcC target category count
+         */
+        Accumulator(final int rC, final int tcC) {
+            m_rC = rC;
+            m_tcC = tcC;
+            m_dim = (rC + 1) * (tcC - 1);
+            m_hessian = new double[(int)packedSize(m_dim)];
+            m_gradient = new double[m_dim];
+            m_featureIndices = new int[rC + 1];
+            m_featureValues = new double[rC + 1];
+            m_pi = new double[tcC - 1];
+            m_weights = new double[(tcC - 1) * (tcC - 1)];
+        }
+
+        /**
+         * @param dim the dimension of a symmetric matrix
+         * @return the number of entries in the upper triangle of the matrix
+         */
+        static long packedSize(final int dim) {
+            return dim * (dim + 1L) / 2;
+        }
+
+        /** Position of the first entry of the given row (which is on the diagonal) in the packed hessian. */
+        private int rowOffset(final int row) {
+            return (int)(row * (2L * m_dim - row + 1) / 2);
+        }
+
+        /**
+         * Adds the rows to the hessian and the gradient.
+         *
+         * @param rows the rows to add
+         * @param beta parameter vector
+         */
+        void add(final List<ClassificationTrainingRow> rows, final double[] beta) {
+            final int nrCats = m_tcC - 1;
+            for (ClassificationTrainingRow row : rows) {
+                int nrFeatures = 0;
+                for (FeatureIterator iter = row.getFeatureIterator(); iter.next();) {
+                    m_featureIndices[nrFeatures] = iter.getFeatureIndex();
+                    m_featureValues[nrFeatures] = iter.getFeatureValue();
+                    nrFeatures++;
+                }
+
+                double sumEBetaTx = 0;
+                for (int k = 0; k < nrCats; k++) {
+                    final int o = k * (m_rC + 1);
+                    double z = 0.0;
+                    for (int f = 0; f < nrFeatures; f++) {
+                        z += m_featureValues[f] * beta[o + m_featureIndices[f]];
+                    }
+                    m_pi[k] = Math.exp(z);
+                    sumEBetaTx += m_pi[k];
+                }
+                for (int k = 0; k < nrCats; k++) {
+                    m_pi[k] /= 1 + sumEBetaTx;
+                }
+                for (int k = 0; k < nrCats; k++) {
+                    m_weights[k * nrCats + k] = m_pi[k] * (1 - m_pi[k]);
+                    for (int kk = k + 1; kk < nrCats; kk++) {
+                        m_weights[k * nrCats + kk] = -m_pi[k] * m_pi[kk];
+                    }
+                }
+
+                // fill xTwx (aka the hessian of the loglikelihood), the blocks are symmetric
+                // hence the entry (o1 + i, o2 + ii) equals the entry (o1 + ii, o2 + i)
+                for (int f = 0; f < nrFeatures; f++) {
+                    final int i = m_featureIndices[f];
+                    final double outerVal = m_featureValues[f];
+                    for (int ff = f; ff < nrFeatures; ff++) {
+                        final int ii = m_featureIndices[ff];
+                        final double v = outerVal * m_featureValues[ff];
+                        final int lo = Math.min(i, ii);
+                        final int hi = Math.max(i, ii);
+                        for (int k = 0; k < nrCats; k++) {
+                            final int r = k * (m_rC + 1) + lo;
+                            final int offset = rowOffset(r) - r + hi;
+                            for (int kk = k; kk < nrCats; kk++) {
+                                m_hessian[offset + kk * (m_rC + 1)] += v * m_weights[k * nrCats + kk];
+                            }
+                        }
+                    }
+                }
+
+                // fill matrix xTyu
+                for (int k = 0; k < nrCats; k++) {
+                    final int o = k * (m_rC + 1);
+                    final double residual = row.getProbability(k) - m_pi[k];
+                    for (int f = 0; f < nrFeatures; f++) {
+                        m_gradient[o + m_featureIndices[f]] += residual * m_featureValues[f];
+                    }
+                }
+            }
+        }
+
+        /** Adds the partial results of another accumulator to the ones of this accumulator. */
+        void add(final Accumulator other) {
+            for (int i = 0; i < m_hessian.length; i++) {
+                m_hessian[i] += other.m_hessian[i];
+            }
+            for (int i = 0; i < m_gradient.length; i++) {
+                m_gradient[i] += other.m_gradient[i];
+            }
+        }
+
+        /**
+         * @return the gradient
+         */
+        double[] getGradient() {
+            return m_gradient;
+        }
+
+        /**
+         * Creates the full hessian. Only the entries (o1 + i, o2 + ii) with o1 &lt;= o2 and i &lt;= ii have been
+         * accumulated, the others are determined by the symmetry of the matrix and of its blocks.
+         *
+         * @return the full hessian
+         */
+        double[][] getHessian() {
+            final double[][] hessian = new double[m_dim][m_dim];
+            for (int k = 0; k < m_tcC - 1; k++) {
+                final int o1 = k * (m_rC + 1);
+                for (int kk = k; kk < m_tcC - 1; kk++) {
+                    final int o2 = kk * (m_rC + 1);
+                    for (int i = 0; i <= m_rC; i++) {
+                        final int offset = rowOffset(o1 + i) - (o1 + i) + o2;
+                        for (int ii = i; ii <= m_rC; ii++) {
+                            final double v = m_hessian[offset + ii];
+                            hessian[o1 + i][o2 + ii] = v;
+                            hessian[o1 + ii][o2 + i] = v;
+                            hessian[o2 + ii][o1 + i] = v;
+                            hessian[o2 + i][o1 + ii] = v;
+                        }
+                    }
+                }
+            }
+            return hessian;
+        }
+    }
+
 //    private RealMatrix getStdErrorMatrix(final RealMatrix xTwx) {
 //        RealMatrix covMat = new QRDecomposition(xTwx).getSolver().getInverse().scalarMultiply(-1);
 //        // the standard error estimate
@@ -0,0 +1,212 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.mine.smote;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.knime.base.util.kdtree.KDTree;
+import org.knime.base.util.kdtree.KDTreeBuilder;
+import org.knime.base.util.kdtree.NearestNeighbour;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+
+/**
+ * Holds the numeric features of all rows of one class in primitive arrays and answers the nearest neighbor queries
+ * of the {@link Smoter}. The index is immutable once created, i.e. it can be queried concurrently.
+ *
+ * <p>
+ * If none of the rows contains a missing or NaN value, the queries are answered by a {@link KDTree}. Otherwise a
+ * linear scan is used which ignores all dimensions in which one of the two rows is missing, as the distance
+ * computation of the Smoter always did.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class SmoteNeighborIndex {
+
+    private final double[][] m_features;
+
+    /** Per row the missing dimensions, <code>null</code> for rows without missing values. */
+    private final boolean[][] m_missing;
+
+    /** The tree if no row contains missing values, <code>null</code> otherwise. */
+    private final KDTree<Integer> m_tree;
+
+    /**
+     * Creates a new index.
+     *
+     * @param features the features of all rows of the class, the arrays are not copied
+     * @param missing per row the missing dimensions or <code>null</code> if the row does not contain any missing
+     *            value, the arrays are not copied
+     * @param exec monitor to report progress to and to check for cancellation, may be <code>null</code>
+     * @throws CanceledExecutionException if execution is canceled while building the tree
+     */
+    SmoteNeighborIndex(final double[][] features, final boolean[][] missing, final ExecutionMonitor exec)
+        throws CanceledExecutionException {
+        if (features.length != missing.length) {
+            throw new IllegalArgumentException("Number of feature vectors and missing masks differ");
+        }
+        m_features = features;
+        m_missing = missing;
+        if (features.length > 0 && Arrays.stream(missing).allMatch(m -> m == null)
+            && Arrays.stream(features).flatMapToDouble(Arrays::stream).noneMatch(Double::isNaN)) {
+            final KDTreeBuilder<Integer> builder = new KDTreeBuilder<>(features[0].length);
+            for (int i = 0; i < features.length; i++) {
+                builder.addPattern(features[i], i);
+            }
+            m_tree = builder.buildTree(exec);
+        } else {
+            m_tree = null;
+        }
+    }
+
+    /**
+     * @return the number of indexed rows
+     */
+    int size() {
+        return m_features.length;
+    }
+
+    /**
+     * @param row the index of the row
+     * @return the features of the row, must not be modified
+     */
+    double[] getFeatures(final int row) {
+        return m_features[row];
+    }
+
+    /**
+     * @param row the index of the row
+     * @param dim the dimension
+     * @return whether the value of the row in the given dimension is missing
+     */
+    boolean isMissing(final int row, final int dim) {
+        return m_missing[row] != null && m_missing[row][dim];
+    }
+
+    /**
+     * Determines the <code>kNN</code> nearest neighbors of an indexed row, excluding the row itself. Neighbors
+     * having the same distance as the k-th nearest neighbor are also included, hence the result may contain more
+     * than <code>kNN</code> rows.
+     *
+     * @param row the index of the reference row
+     * @param kNN the number of neighbors
+     * @return the indices of the neighbors in ascending order
+     */
+    int[] getNeighbors(final int row, final int kNN) {
+        final int[] neighbors = m_tree != null ? searchTree(row, kNN) : scan(row, kNN);
+        Arrays.sort(neighbors);
+        return neighbors;
+    }
+
+    private int[] searchTree(final int row, final int kNN) {
+        // the row itself is contained in the tree and has distance 0
+        final List<NearestNeighbour<Integer>> nearest =
+            m_tree.getKNearestNeighbours(m_features[row], Math.min(kNN + 1, m_tree.size()), true);
+        final int[] neighbors = new int[nearest.size()];
+        int nrNeighbors = 0;
+        for (final NearestNeighbour<Integer> n : nearest) {
+            final int index = n.getData();
+            if (index != row) {
+                neighbors[nrNeighbors++] = index;
+            }
+        }
+        return Arrays.copyOf(neighbors, nrNeighbors);
+    }
+
+    private int[] scan(final int row, final int kNN) {
+        final int n = m_features.length;
+        final double[] distances = new double[n];
+        // the kNN smallest distances seen so far, in ascending order
+        final double[] smallest = new double[Math.max(0, Math.min(kNN, n - 1))];
+        int nrSmallest = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == row) {
+                continue;
+            }
+            final double d = distance(row, i);
+            distances[i] = d;
+            if (nrSmallest < smallest.length) {
+                nrSmallest++;
+            } else if (!(d < smallest[nrSmallest - 1])) {
+                continue;
+            }
+            int pos = nrSmallest - 1;
+            for (; pos > 0 && smallest[pos - 1] > d; pos--) {
+                smallest[pos] = smallest[pos - 1];
+            }
+            smallest[pos] = d;
+        }
+        if (nrSmallest == 0) {
+            return new int[0];
+        }
+        final double threshold = smallest[nrSmallest - 1];
+        final int[] neighbors = new int[n];
+        int nrNeighbors = 0;
+        for (int i = 0; i < n; i++) {
+            if (i != row && distances[i] <= threshold) {
+                neighbors[nrNeighbors++] = i;
+            }
+        }
+        return Arrays.copyOf(neighbors, nrNeighbors);
+    }
+
+    /* Squared Euclidean distance, dimensions with a missing value don't contribute. */
+    private double distance(final int row1, final int row2) {
+        final double[] f1 = m_features[row1];
+        final double[] f2 = m_features[row2];
+        final boolean[] m1 = m_missing[row1];
+        final boolean[] m2 = m_missing[row2];
+        double d = 0.0;
+        for (int i = 0; i < f1.length; i++) {
+            if ((m1 == null || !m1[i]) && (m2 == null || !m2[i])) {
+                final double diff = f1[i] - f2[i];
+                d += diff * diff;
+            }
+        }
+        return d;
+    }
+}
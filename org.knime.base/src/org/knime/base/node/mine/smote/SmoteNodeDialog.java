@@ -107,6 +107,8 @@ public class SmoteNodeDialog extends NodeDialogPane {
     private final JButton m_drawNewSeedButton;
     private final JCheckBox m_enableStaticSeedChecker;
 
+    private final JCheckBox m_multiThreadedChecker;
+
     /**
      * Builds up the dialog.
      */
@@ -181,6 +183,10 @@ public void itemStateChanged(final ItemEvent e) {
             }
         });
 
+        m_multiThreadedChecker = new JCheckBox("Use multiple threads");
+        m_multiThreadedChecker.setToolTipText("Creates different rows than "
+                + "the single-threaded execution for the same seed");
+
         JPanel tab = new JPanel(new GridLayout(0, 2));
         tab.add(getInFlowLayout(new JLabel("Class column: ")));
         tab.add(getInFlowLayout(m_selectionPanel));
@@ -192,6 +198,8 @@ public void itemStateChanged(final ItemEvent e) {
         tab.add(getInFlowLayout(new JLabel()));
         tab.add(getInFlowLayout(m_enableStaticSeedChecker));
         tab.add(getInFlowLayout(m_seedField, m_drawNewSeedButton));
+        tab.add(getInFlowLayout(m_multiThreadedChecker));
+        tab.add(getInFlowLayout(new JLabel()));
         addTab("Settings", tab);
     }
 
@@ -233,6 +241,10 @@ protected void loadSettingsFrom(final NodeSettingsRO settings,
         if (lSeed != null) {
             m_seedField.setText(Long.toString(lSeed));
         }
+        // new nodes use multiple threads, existing ones keep their output
+        m_multiThreadedChecker.setSelected(settings.getBoolean(
+                SmoteNodeModel.CFG_MULTI_THREADED,
+                !settings.containsKey(SmoteNodeModel.CFG_CLASS)));
         checkEnableState();
     }
 
@@ -265,6 +277,8 @@ protected void saveSettingsTo(final NodeSettingsWO settings)
         settings.addDouble(SmoteNodeModel.CFG_RATE, rate);
         settings.addString(SmoteNodeModel.CFG_CLASS, clas);
         settings.addString(SmoteNodeModel.CFG_SEED, seed);
+        settings.addBoolean(SmoteNodeModel.CFG_MULTI_THREADED,
+                m_multiThreadedChecker.isSelected());
     }
 
     private static JPanel getInFlowLayout(final JComponent... comps) {
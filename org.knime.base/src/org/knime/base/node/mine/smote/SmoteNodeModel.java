@@ -84,6 +84,13 @@ public class SmoteNodeModel extends NodeModel {
     /** NodeSettings key for random seed string. */
     public static final String CFG_SEED = "seed";
 
+    /**
+     * NodeSettings key for the multi-threaded execution.
+     *
+     * @since 5.1
+     */
+    public static final String CFG_MULTI_THREADED = "multiThreaded";
+
     /** Method: oversample all classes equally to a given rate. */
     public static final String METHOD_ALL = "oversample_all";
 
@@ -100,6 +107,8 @@ public class SmoteNodeModel extends NodeModel {
 
     private Long m_seed;
 
+    private boolean m_multiThreaded;
+
     /**
      * Default constructor which sets one input, one output port.
      */
@@ -118,6 +127,7 @@ protected void saveSettingsTo(final NodeSettingsWO settings) {
             settings.addString(CFG_CLASS, m_class);
             settings.addInt(CFG_KNN, m_kNN);
             settings.addString(CFG_SEED, m_seed != null ? Long.toString(m_seed) : null);
+            settings.addBoolean(CFG_MULTI_THREADED, m_multiThreaded);
         }
     }
 
@@ -145,6 +155,8 @@ private void loadSettings(final NodeSettingsRO settings, final boolean write) th
         String seedString = settings.getString(CFG_SEED, null);
         Long seed;
         int kNN = settings.getInt(CFG_KNN);
+        // added in 5.1, creates different rows for the same seed, hence off for existing workflows
+        boolean multiThreaded = settings.getBoolean(CFG_MULTI_THREADED, false);
         if (METHOD_ALL.equals(method)) {
             // must be in there
             rate = settings.getDouble(CFG_RATE);
@@ -171,6 +183,7 @@ private void loadSettings(final NodeSettingsRO settings, final boolean write) th
             m_class = clas;
             m_kNN = kNN;
             m_seed = seed;
+            m_multiThreaded = multiThreaded;
         }
     }
 
@@ -187,7 +200,7 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final Ex
         } else {
             rand = new Random();
         }
-        Smoter smoter = new Smoter(in, m_class, exec, rand);
+        Smoter smoter = new Smoter(in, m_class, exec, rand, m_multiThreaded);
         if (m_method.equals(METHOD_ALL)) {
             // count number of rows to add
             int nrRowsToAdd = 0;
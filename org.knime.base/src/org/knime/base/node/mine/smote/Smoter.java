@@ -45,13 +45,17 @@
  */
 package org.knime.base.node.mine.smote;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.stream.IntStream;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
@@ -71,6 +75,9 @@
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+import org.knime.filehandling.core.util.ThreadPoolUtils;
 
 /**
  * Implementation of the <a
@@ -90,10 +97,19 @@
  */
 class Smoter {
 
+    /** Number of reference rows a thread handles per chunk. */
+    private static final int CHUNK_SIZE_PER_THREAD = 256;
+
+    /** Spreads the seeds of the per reference row random generators. */
+    private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+
     private final BufferedDataTable m_inTable;
 
     private final int m_targetCol;
 
+    /** Indices of the {@link DoubleValue} columns, the features. */
+    private final int[] m_numericCols;
+
     private final BufferedDataContainer m_container;
 
     private final LinkedHashMap<DataCell, MutableInt> m_inStats;
@@ -102,6 +118,9 @@ class Smoter {
 
     private final Random m_random;
 
+    /** Whether the neighbor index and multiple threads are used. */
+    private final boolean m_multiThreaded;
+
     /**
      * Creates a new instance given the input table <code>in</code> and the
      * target column <code>colName</code>.
@@ -116,14 +135,41 @@ class Smoter {
     public Smoter(final BufferedDataTable in, final String colName,
             final ExecutionContext exec, final Random rand)
         throws CanceledExecutionException {
+        this(in, colName, exec, rand, false);
+    }
+
+    /**
+     * Creates a new instance given the input table <code>in</code> and the
+     * target column <code>colName</code>.
+     *
+     * @param in the input table
+     * @param colName the target column with class information
+     * @param exec monitor to get canceled status from
+     *  (may be <code>null</code>)
+     * @param rand The random generator, may be <code>null</code>.
+     * @param multiThreaded whether the neighbors are looked up in an index
+     *  and the new rows are created by multiple threads, which produces
+     *  different rows than the sequential variant for the same seed
+     * @throws CanceledExecutionException if execution is canceled
+     */
+    public Smoter(final BufferedDataTable in, final String colName,
+            final ExecutionContext exec, final Random rand,
+            final boolean multiThreaded)
+        throws CanceledExecutionException {
         final int col = in.getDataTableSpec().findColumnIndex(colName);
         if (col < 0) {
             throw new IllegalArgumentException("Table doesn't contain column: "
                     + colName);
         }
         m_random =  (rand == null ? new Random() : rand);
+        m_multiThreaded = multiThreaded;
         m_inTable = in;
         m_targetCol = col;
+        DataTableSpec inSpec = in.getDataTableSpec();
+        m_numericCols = IntStream.range(0, inSpec.getNumColumns())
+            .filter(i -> inSpec.getColumnSpec(i).getType()
+                .isCompatible(DoubleValue.class))
+            .toArray();
         DataTableSpec outSpec = createFinalSpec(in.getDataTableSpec());
         m_container = exec.createDataContainer(outSpec);
         m_inStats = new LinkedHashMap<DataCell, MutableInt>();
@@ -189,6 +235,14 @@ public DataCell getMajorityClass() {
      * new rows are inserted. The <code>kNN</code> nearest neighbors are
      * chosen as reference.
      *
+     * <p>
+     * If multi-threaded, the neighbors are looked up in a
+     * {@link SmoteNeighborIndex} that is built once for the class. The new
+     * rows are created by multiple threads,
+     * each reference row using its own random generator that is derived from
+     * the generator passed in the constructor, i.e. the result doesn't depend
+     * on the number of threads.
+     *
      * @param name the class name
      * @param count add this amount of new rows
      * @param kNN k nearest neighbor parameter
@@ -222,6 +276,69 @@ public void smote(final DataCell name, final int count, final int kNN,
         // reference
         int lucky = count - fixedPart.length;
         System.arraycopy(shuffleMe, 0, indexesToUse, fixedPart.length, lucky);
+        if (!m_multiThreaded) {
+            smoteSequentially(name, indexesToUse, kNN, exec);
+            return;
+        }
+        // how often each record of the class serves as reference
+        int[] uses = new int[origCount];
+        for (int index : indexesToUse) {
+            uses[index]++;
+        }
+        if (count == 0) {
+            return;
+        }
+
+        ExecutionMonitor indexExec =
+            exec == null ? null : exec.createSubProgress(0.2);
+        ExecutionMonitor populateExec =
+            exec == null ? null : exec.createSubProgress(0.8);
+        SmoteNeighborIndex index = createIndex(name, origCount, indexExec);
+        final long seed = m_random.nextLong();
+        final int nrThreads = Math.max(1,
+            Math.min(Runtime.getRuntime().availableProcessors(), origCount));
+        ThreadPool pool =
+            KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(nrThreads);
+        List<Reference> chunk = new ArrayList<Reference>();
+        // the counter in the input table for this particular class value
+        int classCounter = -1;
+        int pointer = 0;
+        RowIterator it = m_inTable.iterator();
+        while (pointer < count) {
+            checkCanceled(populateExec);
+            assert it.hasNext();
+            DataRow next = it.next();
+            if (!next.getCell(m_targetCol).equals(name)) {
+                continue;
+            }
+            classCounter++;
+            if (uses[classCounter] > 0) {
+                chunk.add(new Reference(next, classCounter,
+                    uses[classCounter], m_appendCounter));
+                m_appendCounter += uses[classCounter];
+                pointer += uses[classCounter];
+            }
+            if (chunk.size() >= nrThreads * CHUNK_SIZE_PER_THREAD
+                    || (pointer == count && !chunk.isEmpty())) {
+                populate(chunk, index, kNN, seed, pool, nrThreads,
+                    populateExec);
+                chunk.clear();
+                if (populateExec != null) {
+                    populateExec.setProgress(pointer / (double)count);
+                }
+            }
+        }
+    }
+
+    /*
+     * Creates the new rows on the calling thread, scanning the whole input
+     * table for the neighbors of each reference row. This is the behavior of
+     * earlier versions, kept for existing workflows.
+     */
+    private void smoteSequentially(final DataCell name,
+            final int[] indexesToUse, final int kNN,
+            final ExecutionMonitor exec) throws CanceledExecutionException {
+        final int count = indexesToUse.length;
         Arrays.sort(indexesToUse);
 
         // the counter in the input table for this particular class value
@@ -370,6 +487,115 @@ private DataRow populate(final DataRow ref, final DataRow[] neighbors) {
         return new DefaultRow(key, newCells);
     }
 
+    /*
+     * Collects the numeric features of all rows of class name into a
+     * neighbor index.
+     */
+    private SmoteNeighborIndex createIndex(final DataCell name,
+            final int origCount, final ExecutionMonitor exec)
+            throws CanceledExecutionException {
+        double[][] features = new double[origCount][];
+        boolean[][] missing = new boolean[origCount][];
+        int classCounter = 0;
+        for (DataRow next : m_inTable) {
+            checkCanceled(exec);
+            if (!next.getCell(m_targetCol).equals(name)) {
+                continue;
+            }
+            double[] f = new double[m_numericCols.length];
+            for (int i = 0; i < m_numericCols.length; i++) {
+                DataCell cell = next.getCell(m_numericCols[i]);
+                if (cell.isMissing()) {
+                    if (missing[classCounter] == null) {
+                        missing[classCounter] =
+                            new boolean[m_numericCols.length];
+                    }
+                    missing[classCounter][i] = true;
+                } else {
+                    f[i] = ((DoubleValue)cell).getDoubleValue();
+                }
+            }
+            features[classCounter] = f;
+            classCounter++;
+        }
+        assert classCounter == origCount;
+        return new SmoteNeighborIndex(features, missing, exec);
+    }
+
+    /*
+     * Creates the new rows for all references in the chunk on multiple
+     * threads and adds them to the output in the order of the chunk.
+     */
+    private void populate(final List<Reference> chunk,
+            final SmoteNeighborIndex index, final int kNN, final long seed,
+            final ThreadPool pool, final int nrThreads,
+            final ExecutionMonitor exec) throws CanceledExecutionException {
+        final int sliceSize = (chunk.size() + nrThreads - 1) / nrThreads;
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int start = 0; start < chunk.size(); start += sliceSize) {
+            final List<Reference> slice = chunk.subList(start,
+                Math.min(start + sliceSize, chunk.size()));
+            tasks.add(() -> {
+                for (Reference ref : slice) {
+                    populate(ref, index, kNN, seed);
+                }
+                return null;
+            });
+        }
+        try {
+            ThreadPoolUtils.invokeAll(pool, tasks);
+        } catch (RuntimeException ex) {
+            checkCanceled(exec);
+            throw ex;
+        }
+        for (Reference ref : chunk) {
+            for (DataRow newRow : ref.m_newRows) {
+                m_container.addRowToTable(newRow);
+            }
+        }
+    }
+
+    /*
+     * populates the reference row <code>ref</code> as often as requested,
+     * choosing any of its neighbors.
+     */
+    private void populate(final Reference ref, final SmoteNeighborIndex index,
+            final int kNN, final long seed) {
+        // a generator per reference row keeps the output deterministic,
+        // independent of which thread handles the row
+        Random random = new Random(seed + ref.m_index * SEED_INCREMENT);
+        int[] neighbors = index.getNeighbors(ref.m_index, kNN);
+        DataRow row = ref.m_row;
+        double[] from = index.getFeatures(ref.m_index);
+        ref.m_newRows = new DataRow[ref.m_uses];
+        for (int n = 0; n < ref.m_uses; n++) {
+            final double fraction = random.nextDouble();
+            final int neigh;
+            if (neighbors.length > 0) {
+                neigh = neighbors[random.nextInt(neighbors.length)];
+            } else {
+                neigh = ref.m_index;
+            }
+            double[] to = index.getFeatures(neigh);
+            DataCell[] newCells = new DataCell[row.getNumCells()];
+            for (int i = 0; i < newCells.length; i++) {
+                newCells[i] = row.getCell(i);
+            }
+            for (int i = 0; i < m_numericCols.length; i++) {
+                if (index.isMissing(ref.m_index, i)
+                        || index.isMissing(neigh, i)) {
+                    newCells[m_numericCols[i]] = DataType.getMissingCell();
+                } else {
+                    double newVal = from[i] + fraction * (to[i] - from[i]);
+                    newCells[m_numericCols[i]] = new DoubleCell(newVal);
+                }
+            }
+            String newName = row.getKey().getString() + "dupl_"
+                    + (ref.m_firstAppendCounter + n);
+            ref.m_newRows[n] = new DefaultRow(new RowKey(newName), newCells);
+        }
+    }
+
     /**
      * Closes this controller. The table can be retrieved now by invoking
      * {@link #getSmotedTable()}. Subsequent calls of
@@ -491,6 +717,36 @@ public String toString() {
         }
     }
 
+    /** A reference row together with the new rows created from it. */
+    private static class Reference {
+        private final DataRow m_row;
+
+        /** Index of the row within its class. */
+        private final int m_index;
+
+        /** How many new rows are created from the row. */
+        private final int m_uses;
+
+        private final int m_firstAppendCounter;
+
+        private DataRow[] m_newRows;
+
+        /**
+         * @param row the reference row
+         * @param index index of the row within its class
+         * @param uses number of new rows to create from the row
+         * @param firstAppendCounter counter used for the key of the first
+         *            new row
+         */
+        Reference(final DataRow row, final int index, final int uses,
+                final int firstAppendCounter) {
+            m_row = row;
+            m_index = index;
+            m_uses = uses;
+            m_firstAppendCounter = firstAppendCounter;
+        }
+    }
+
     /** Helper that bind row to a distance. */
     private static class RowAndDistance {
         private final DataRow m_row;
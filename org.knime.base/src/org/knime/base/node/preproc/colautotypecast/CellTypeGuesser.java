@@ -0,0 +1,252 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.colautotypecast;
+
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.regex.Pattern;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataType;
+import org.knime.core.data.date.DateAndTimeCell;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+
+/**
+ * Guesses the type of string cells without relying on exceptions. The result is the same as trying
+ * {@link SimpleDateFormat#parse(String)}, {@link Integer#parseInt(String)}, {@link Long#parseLong(String)} and
+ * {@link Double#parseDouble(String)} in turn: the numbers are checked by scanning their characters following the
+ * grammar of the respective parse method and the date is parsed with a {@link ParsePosition}.
+ *
+ * <p>
+ * Instances are not thread-safe as they hold a date format, the static methods are.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class CellTypeGuesser {
+
+    /** The hexadecimal floating point format accepted by {@link Double#parseDouble(String)}. */
+    private static final Pattern HEX_FLOAT_PATTERN = Pattern.compile(
+        "([-+])?0[xX](((\\p{XDigit}+)\\.?)|((\\p{XDigit}*)\\.(\\p{XDigit}+)))[pP]([-+])?(\\p{Digit}+)[fFdD]?");
+
+    private final SimpleDateFormat m_dateFormat;
+
+    /**
+     * @param dateFormat the pattern of dates
+     */
+    CellTypeGuesser(final String dateFormat) {
+        m_dateFormat = new SimpleDateFormat(dateFormat);
+    }
+
+    /**
+     * Guesses the type of the given cell: a date, int, long or double cell type if the string representation can be
+     * parsed as such, otherwise the type of the cell.
+     *
+     * @param cell the cell
+     * @return the guessed type
+     */
+    DataType guessType(final DataCell cell) {
+        if (!cell.isMissing()) {
+            final String str = cell.toString();
+            // same as DateFormat#parse(String), which fails if nothing could be parsed
+            final ParsePosition pos = new ParsePosition(0);
+            m_dateFormat.parse(str, pos);
+            if (pos.getIndex() != 0) {
+                return DateAndTimeCell.TYPE;
+            }
+            if (isInt(str)) {
+                return IntCell.TYPE;
+            }
+            if (isLong(str)) {
+                return LongCell.TYPE;
+            }
+            if (isDouble(str)) {
+                if (isBits(str) && Double.isInfinite(Double.parseDouble(str))) {
+                    // if every cell above matched [01]+ and this cell matches to, we assume this column (until now) is
+                    // a bit-vector column. Bit-Vectors are stored in string representation.
+                    return StringCell.TYPE;
+                }
+                return DoubleCell.TYPE;
+            }
+        }
+        return cell.getType();
+    }
+
+    /**
+     * @param str a string
+     * @return whether {@link Integer#parseInt(String)} accepts the string
+     */
+    static boolean isInt(final String str) {
+        return isInteger(str, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param str a string
+     * @return whether {@link Long#parseLong(String)} accepts the string
+     */
+    static boolean isLong(final String str) {
+        return isInteger(str, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /* Follows the implementation of Long#parseLong, accumulating negatively to detect overflows. */
+    private static boolean isInteger(final String str, final long min, final long max) {
+        final int len = str.length();
+        if (len == 0) {
+            return false;
+        }
+        int i = 0;
+        boolean negative = false;
+        final char first = str.charAt(0);
+        if (first < '0') {
+            if (first == '-') {
+                negative = true;
+            } else if (first != '+') {
+                return false;
+            }
+            if (len == 1) {
+                return false;
+            }
+            i++;
+        }
+        final long limit = negative ? min : -max;
+        final long multmin = limit / 10;
+        long result = 0;
+        while (i < len) {
+            // Character#digit also accepts non-ASCII digits, as the parse methods do
+            final int digit = Character.digit(str.charAt(i++), 10);
+            if (digit < 0 || result < multmin) {
+                return false;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return false;
+            }
+            result -= digit;
+        }
+        return true;
+    }
+
+    /**
+     * @param str a string
+     * @return whether {@link Double#parseDouble(String)} accepts the string
+     */
+    static boolean isDouble(final String str) {
+        final String in = str.trim();
+        final int len = in.length();
+        int i = 0;
+        if (len > 0 && (in.charAt(0) == '-' || in.charAt(0) == '+')) {
+            i++;
+        }
+        if (i >= len) {
+            return false;
+        }
+        final char c = in.charAt(i);
+        if (c == 'N') {
+            return in.startsWith("NaN", i) && len - i == 3;
+        }
+        if (c == 'I') {
+            return in.startsWith("Infinity", i) && len - i == 8;
+        }
+        if (c == '0' && i + 1 < len && (in.charAt(i + 1) == 'x' || in.charAt(i + 1) == 'X')) {
+            return HEX_FLOAT_PATTERN.matcher(in).matches();
+        }
+        // mantissa: ASCII digits with at most one decimal point
+        boolean digitSeen = false;
+        boolean pointSeen = false;
+        for (; i < len; i++) {
+            final char d = in.charAt(i);
+            if (d >= '0' && d <= '9') {
+                digitSeen = true;
+            } else if (d == '.') {
+                if (pointSeen) {
+                    return false;
+                }
+                pointSeen = true;
+            } else {
+                break;
+            }
+        }
+        if (!digitSeen) {
+            return false;
+        }
+        // optional exponent with at least one digit
+        if (i < len && (in.charAt(i) == 'e' || in.charAt(i) == 'E')) {
+            i++;
+            if (i < len && (in.charAt(i) == '-' || in.charAt(i) == '+')) {
+                i++;
+            }
+            final int expStart = i;
+            while (i < len && in.charAt(i) >= '0' && in.charAt(i) <= '9') {
+                i++;
+            }
+            if (i == expStart) {
+                return false;
+            }
+        }
+        // optional type suffix
+        if (i == len - 1) {
+            final char suffix = in.charAt(i);
+            return suffix == 'f' || suffix == 'F' || suffix == 'd' || suffix == 'D';
+        }
+        return i == len;
+    }
+
+    /* Same as str.matches("[01]+"). */
+    private static boolean isBits(final String str) {
+        if (str.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < str.length(); i++) {
+            final char c = str.charAt(i);
+            if (c != '0' && c != '1') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
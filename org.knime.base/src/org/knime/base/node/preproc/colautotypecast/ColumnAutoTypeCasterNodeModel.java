@@ -46,13 +46,15 @@
 
 import java.io.File;
 import java.io.IOException;
-import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.HashSet;
+import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
 
 import org.knime.base.node.io.filereader.DataCellFactory;
 import org.knime.core.data.DataCell;
@@ -63,12 +65,11 @@
 import org.knime.core.data.DataType;
 import org.knime.core.data.RowKey;
 import org.knime.core.data.StringValue;
+import org.knime.core.data.container.AbstractCellFactory;
+import org.knime.core.data.container.CloseableRowIterator;
 import org.knime.core.data.container.ColumnRearranger;
-import org.knime.core.data.container.SingleCellFactory;
 import org.knime.core.data.date.DateAndTimeCell;
 import org.knime.core.data.def.DefaultRow;
-import org.knime.core.data.def.DoubleCell;
-import org.knime.core.data.def.IntCell;
 import org.knime.core.data.def.LongCell;
 import org.knime.core.data.def.StringCell;
 import org.knime.core.node.BufferedDataContainer;
@@ -77,6 +78,7 @@
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.KNIMEConstants;
 import org.knime.core.node.NodeModel;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
@@ -84,6 +86,8 @@
 import org.knime.core.node.util.filter.InputFilter;
 import org.knime.core.node.util.filter.NameFilterConfiguration;
 import org.knime.core.node.util.filter.column.DataColumnSpecFilterConfiguration;
+import org.knime.core.util.ThreadPool;
+import org.knime.filehandling.core.util.ThreadPoolUtils;
 
 /**
  * The column type changer node model which converts a string column to a numeric or date-type column iff all
@@ -117,6 +121,9 @@ public class ColumnAutoTypeCasterNodeModel extends NodeModel {
 
     private String m_missValPat = null;
 
+    /** Number of rows whose columns are analyzed concurrently at a time. */
+    private static final int BATCH_SIZE = 1024;
+
     /**
      * Creates a new node model with one in- and outport.
      */
@@ -155,42 +162,30 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final Ex
 
         if (data.size() > 0) {
             // empty table check
-            SimpleDateFormat dateFormat = new SimpleDateFormat(m_dateFormat);
+            final DataTableSpec spec = data.getDataTableSpec();
+            final int[] colIndices = new int[incls.length];
+            final CellTypeGuesser[] guessers = new CellTypeGuesser[incls.length];
+            for (int i = 0; i < incls.length; i++) {
+                colIndices[i] = spec.findColumnIndex(incls[i]);
+                // date formats are not thread-safe, hence one guesser per column
+                guessers[i] = new CellTypeGuesser(m_dateFormat);
+            }
 
             long numberOfRows = m_quickScan ? Math.min(m_numberOfRows, data.size()) : data.size();
-            for (DataRow row : data) {
-                if (!(0 < numberOfRows--)) {
-                    data.iterator().close();
-                    break;
-                }
-                for (int i = 0; i < incls.length; i++) {
-                    // guess for each cell in each column the best matching datatype
-                    DataCell c = row.getCell(data.getDataTableSpec().findColumnIndex(incls[i]));
-                    if (!c.isMissing() && c.toString().equals(m_missValPat)) {
-                        continue;
-                    }
-                    DataType newType = typeGuesser(c, dateFormat);
-                    if (types[i] != null) {
-                        DataType toSet = setType(types[i], newType);
-                        if (!toSet.equals(types[i])) {
-                            m_reasons[i][2] = row.getKey().getString();
-                            m_reasons[i][1] = toSet.toString();
-                            m_reasons[i][0] = incls[i];
-                        }
-                        types[i] = toSet;
-                    } else {
-                        types[i] = newType;
-                        String r = row.getKey().toString();
-                        r += m_quickScan ? (" based on a quickscan.") : "";
-                        m_reasons[i][2] = r;
-                        m_reasons[i][1] = newType.toString();
-                        m_reasons[i][0] = incls[i];
+            final DataRow[] batch = new DataRow[(int)Math.min(BATCH_SIZE, numberOfRows)];
+            try (CloseableRowIterator it = data.iterator()) {
+                // once all columns are strings no further row can change the result
+                while (numberOfRows > 0 && it.hasNext() && !allStrings(types)) {
+                    int batchSize = 0;
+                    while (batchSize < batch.length && numberOfRows > 0 && it.hasNext()) {
+                        batch[batchSize++] = it.next();
+                        numberOfRows--;
                     }
+                    guessTypes(batch, batchSize, incls, colIndices, guessers, types);
                     exec.checkCanceled();
+                    progress += batchSize;
+                    exec.setProgress(progress / max);
                 }
-                exec.checkCanceled();
-                progress++;
-                exec.setProgress(progress / max);
             }
 
             for (int i = 0; i < types.length; i++) {
@@ -203,20 +198,20 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final Ex
                 }
             }
 
-            ColumnRearranger arrange = new ColumnRearranger(data.getDataTableSpec());
+            // all columns are converted by one concurrent factory
+            final DataColumnSpec[] colSpecs = new DataColumnSpec[incls.length];
+            final CellConverter[] converters = new CellConverter[incls.length];
             for (int i = 0; i < incls.length; i++) {
-                final int colIdx = data.getDataTableSpec().findColumnIndex(incls[i]);
+                final int colIdx = colIndices[i];
                 final DataType type = types[i];
-
-                DataColumnSpecCreator colSpecCreator = new DataColumnSpecCreator(incls[i], types[i]);
-                DataColumnSpec colSpec = colSpecCreator.createSpec();
+                colSpecs[i] = new DataColumnSpecCreator(incls[i], types[i]).createSpec();
 
                 if (type.equals(DateAndTimeCell.TYPE)) {
-                    arrange.replace(createDateAndTimeConverter(colIdx, colSpec), colIdx);
+                    converters[i] = createDateAndTimeConverter(colIdx);
                 } else if (type.equals(LongCell.TYPE)) {
-                    arrange.replace(createLongConverter(colIdx, colSpec), colIdx);
+                    converters[i] = createLongConverter(colIdx);
                 } else {
-                    arrange.replace(createNumberConverter(colIdx, type, colSpec), colIdx);
+                    converters[i] = createNumberConverter(colIdx, type);
                 }
 
                 progress++;
@@ -224,9 +219,23 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final Ex
                 exec.checkCanceled();
             }
 
+            ColumnRearranger arrange = new ColumnRearranger(data.getDataTableSpec());
+            if (incls.length > 0) {
+                arrange.replace(new AbstractCellFactory(true, colSpecs) {
+                    @Override
+                    public DataCell[] getCells(final DataRow row) {
+                        final DataCell[] cells = new DataCell[converters.length];
+                        for (int i = 0; i < converters.length; i++) {
+                            cells[i] = converters[i].convert(row);
+                        }
+                        return cells;
+                    }
+                }, colIndices);
+            }
+
             outTable = exec.createColumnRearrangeTable(data, arrange, exec);
 
-             for (int i = 0; i < m_reasons.length; i++) {
+            for (int i = 0; i < m_reasons.length; i++) {
                 DataCell[] row = new DataCell[m_reasons[i].length];
                 for (int j = 0; j < m_reasons[i].length; j++) {
                     row[j] = new StringCell(m_reasons[i][j]);
@@ -242,112 +251,184 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final Ex
 
     }
 
-    private SingleCellFactory
-        createNumberConverter(final int colIdx, final DataType type, final DataColumnSpec colSpec) {
-        return new SingleCellFactory(colSpec) {
-            private final DataCellFactory m_fac = new DataCellFactory();
-
-            @Override
-            public DataCell getCell(final DataRow row) {
-                m_fac.setMissingValuePattern(m_missValPat);
-                DataCell cell = row.getCell(colIdx);
-                if (!cell.isMissing()) {
-
-                    String str = cell.toString();
-                    if (str == null) {
-                        return DataType.getMissingCell();
-                    }
+    /**
+     * Guesses the types of the included columns for a batch of rows. The columns are independent of each other and
+     * hence analyzed concurrently; columns already resolved as strings are skipped.
+     */
+    private void guessTypes(final DataRow[] batch, final int batchSize, final String[] incls, final int[] colIndices,
+        final CellTypeGuesser[] guessers, final DataType[] types) {
+        final List<Integer> cols = new ArrayList<>(incls.length);
+        for (int i = 0; i < incls.length; i++) {
+            if (!StringCell.TYPE.equals(types[i])) {
+                cols.add(i);
+            }
+        }
+        if (cols.size() <= 1) {
+            for (final int i : cols) {
+                guessColumnType(batch, batchSize, incls[i], colIndices[i], guessers[i], types, i);
+            }
+            return;
+        }
+        final int nrThreads = Math.min(cols.size(), Runtime.getRuntime().availableProcessors());
+        final ThreadPool pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(nrThreads);
+        final List<Callable<Void>> tasks = new ArrayList<>(cols.size());
+        for (final int i : cols) {
+            tasks.add(() -> {
+                guessColumnType(batch, batchSize, incls[i], colIndices[i], guessers[i], types, i);
+                return null;
+            });
+        }
+        ThreadPoolUtils.invokeAll(pool, tasks);
+    }
 
-                    // create String-, Int- or DoubleCell
+    /**
+     * Guesses for each cell of the column the best matching datatype and merges it into the column's type. Only
+     * writes the column's entries of the types and reasons.
+     */
+    private void guessColumnType(final DataRow[] batch, final int batchSize, final String colName, final int colIdx,
+        final CellTypeGuesser guesser, final DataType[] types, final int i) {
+        for (int j = 0; j < batchSize; j++) {
+            final DataRow row = batch[j];
+            DataCell c = row.getCell(colIdx);
+            if (!c.isMissing() && c.toString().equals(m_missValPat)) {
+                continue;
+            }
+            DataType newType = guesser.guessType(c);
+            if (types[i] != null) {
+                DataType toSet = setType(types[i], newType);
+                if (!toSet.equals(types[i])) {
+                    m_reasons[i][2] = row.getKey().getString();
+                    m_reasons[i][1] = toSet.toString();
+                    m_reasons[i][0] = colName;
+                }
+                types[i] = toSet;
+                if (StringCell.TYPE.equals(toSet)) {
+                    // strings absorb every other type
+                    return;
+                }
+            } else {
+                types[i] = newType;
+                String r = row.getKey().toString();
+                r += m_quickScan ? (" based on a quickscan.") : "";
+                m_reasons[i][2] = r;
+                m_reasons[i][1] = newType.toString();
+                m_reasons[i][0] = colName;
+            }
+        }
+    }
 
-                    DataCell c = m_fac.createDataCellOfType(type, str);
-                    if (c == null) {
-                        throw new NumberFormatException("Can't convert '" + str + "' to " + type.toString() + ". In "
-                            + row.getKey() + " Column" + colIdx + ". Disable " + "quickscan and try again.");
-                    }
+    private static boolean allStrings(final DataType[] types) {
+        for (DataType type : types) {
+            if (!StringCell.TYPE.equals(type)) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-                    return c;
+    /** Converts the cell of one column; implementations must be thread-safe. */
+    @FunctionalInterface
+    private interface CellConverter {
+        DataCell convert(DataRow row);
+    }
 
-                } else {
-                    // create MissingCell
+    private CellConverter createNumberConverter(final int colIdx, final DataType type) {
+        final String missValPat = m_missValPat;
+        final ThreadLocal<DataCellFactory> fac = ThreadLocal.withInitial(() -> {
+            final DataCellFactory f = new DataCellFactory();
+            f.setMissingValuePattern(missValPat);
+            return f;
+        });
+        return row -> {
+            DataCell cell = row.getCell(colIdx);
+            if (!cell.isMissing()) {
+
+                String str = cell.toString();
+                if (str == null) {
                     return DataType.getMissingCell();
                 }
+
+                // create String-, Int- or DoubleCell
+
+                DataCell c = fac.get().createDataCellOfType(type, str);
+                if (c == null) {
+                    throw new NumberFormatException("Can't convert '" + str + "' to " + type.toString() + ". In "
+                        + row.getKey() + " Column" + colIdx + ". Disable " + "quickscan and try again.");
+                }
+
+                return c;
+
+            } else {
+                // create MissingCell
+                return DataType.getMissingCell();
             }
         };
     }
 
-    private SingleCellFactory createLongConverter(final int colIdx, final DataColumnSpec colSpec) {
-        return new SingleCellFactory(colSpec) {
-            @Override
-            public DataCell getCell(final DataRow row) {
-
-                DataCell cell = row.getCell(colIdx);
-                if (!cell.isMissing()) {
-                    String str = ((StringValue)cell).getStringValue();
-                    if (!str.equals(m_missValPat)) {
-                        // create LongCell
-                        try {
-                            return new LongCell(Long.parseLong(str));
-                        } catch (NumberFormatException nfe) {
-                            throw new NumberFormatException("Can't convert '" + str + "' to "
-                                + LongCell.TYPE.toString() + ". In " + row.getKey() + " Column" + colIdx + ". Disable "
-                                + "quickscan and try again.");
-                        }
-                    } else {
-                        return DataType.getMissingCell();
+    private CellConverter createLongConverter(final int colIdx) {
+        final String missValPat = m_missValPat;
+        return row -> {
+
+            DataCell cell = row.getCell(colIdx);
+            if (!cell.isMissing()) {
+                String str = ((StringValue)cell).getStringValue();
+                if (!str.equals(missValPat)) {
+                    // create LongCell
+                    if (!CellTypeGuesser.isLong(str)) {
+                        throw new NumberFormatException("Can't convert '" + str + "' to "
+                            + LongCell.TYPE.toString() + ". In " + row.getKey() + " Column" + colIdx + ". Disable "
+                            + "quickscan and try again.");
                     }
+                    return new LongCell(Long.parseLong(str));
                 } else {
-                    // create MissingCell
                     return DataType.getMissingCell();
                 }
+            } else {
+                // create MissingCell
+                return DataType.getMissingCell();
             }
         };
     }
 
-    private SingleCellFactory createDateAndTimeConverter(final int colIdx, final DataColumnSpec colSpec) {
-        return new SingleCellFactory(colSpec) {
-            private final Calendar m_cal = Calendar.getInstance(TimeZone.getDefault());
-
-            private final SimpleDateFormat m_format = new SimpleDateFormat(m_dateFormat);
-
-            private final boolean m_hasDate;
-
-            private final boolean m_hasTime;
-
-            private final boolean m_hasMillis;
-
-            {
-                TimeZone timeZone = TimeZone.getTimeZone("UTC");
-                m_format.setTimeZone(timeZone);
-                m_cal.setTimeZone(timeZone);
-                m_hasDate = m_dateFormat.contains("d");
-                m_hasTime = m_dateFormat.contains("H");
-                m_hasMillis = m_dateFormat.contains("S");
-            }
-
-            @Override
-            public DataCell getCell(final DataRow row) {
-
-                DataCell cell = row.getCell(colIdx);
-                if (!cell.isMissing()) {
-                    String str = ((StringValue)cell).getStringValue();
-                    if (!str.equals(m_missValPat)) {
-                        try {
-                            m_cal.setTime(m_format.parse(str));
-                            return new DateAndTimeCell(m_cal.getTimeInMillis(), m_hasDate, m_hasTime, m_hasMillis);
-                        } catch (ParseException e) {
-                            throw new IllegalArgumentException("Can't convert '" + str + "' to "
-                                + DateAndTimeCell.TYPE.toString() + ". In " + row.getKey() + " Column" + colIdx
-                                + ". Disable quickscan and try again.", e);
-                        }
-                    } else {
-                        return DataType.getMissingCell();
+    private CellConverter createDateAndTimeConverter(final int colIdx) {
+        final String missValPat = m_missValPat;
+        final String dateFormat = m_dateFormat;
+        final boolean hasDate = dateFormat.contains("d");
+        final boolean hasTime = dateFormat.contains("H");
+        final boolean hasMillis = dateFormat.contains("S");
+        // calendars and date formats are not thread-safe
+        final ThreadLocal<Calendar> cals = ThreadLocal.withInitial(() -> {
+            final Calendar cal = Calendar.getInstance(TimeZone.getDefault());
+            cal.setTimeZone(TimeZone.getTimeZone("UTC"));
+            return cal;
+        });
+        final ThreadLocal<SimpleDateFormat> formats = ThreadLocal.withInitial(() -> {
+            final SimpleDateFormat format = new SimpleDateFormat(dateFormat);
+            format.setTimeZone(TimeZone.getTimeZone("UTC"));
+            return format;
+        });
+        return row -> {
+
+            DataCell cell = row.getCell(colIdx);
+            if (!cell.isMissing()) {
+                String str = ((StringValue)cell).getStringValue();
+                if (!str.equals(missValPat)) {
+                    try {
+                        final Calendar cal = cals.get();
+                        cal.setTime(formats.get().parse(str));
+                        return new DateAndTimeCell(cal.getTimeInMillis(), hasDate, hasTime, hasMillis);
+                    } catch (ParseException e) {
+                        throw new IllegalArgumentException("Can't convert '" + str + "' to "
+                            + DateAndTimeCell.TYPE.toString() + ". In " + row.getKey() + " Column" + colIdx
+                            + ". Disable quickscan and try again.", e);
                     }
-
                 } else {
-                    // create MissingCell
                     return DataType.getMissingCell();
                 }
+
+            } else {
+                // create MissingCell
+                return DataType.getMissingCell();
             }
         };
     }
@@ -379,52 +460,6 @@ private DataType setType(final DataType curType, final DataType newType) {
 
     }
 
-    /**
-     * try to parse all different numeric types and the date type based on the given format-pattern.
-     *
-     * @param cell
-     * @return new DataType if string could be parsed else return old DataType
-     */
-    private DataType typeGuesser(final DataCell cell, final DateFormat dateFormat) {
-        if (!cell.isMissing()) {
-            String str = cell.toString();
-
-            try {
-                dateFormat.parse(str);
-                return DateAndTimeCell.TYPE;
-            } catch (ParseException e1) {
-                // try another one
-            }
-
-            try {
-                Integer.parseInt(str);
-                return IntCell.TYPE;
-            } catch (NumberFormatException eInt) {
-                // try another one
-            }
-
-            try {
-                Long.parseLong(str);
-                return LongCell.TYPE;
-            } catch (NumberFormatException eLong) {
-                // try another one
-            }
-
-            try {
-                double d = Double.parseDouble(str);
-                if (Double.isInfinite(d) && str.matches("[01]+")) {
-                    // if every cell above matched [01]+ and this cell matches to, we assume this column (until now) is
-                    // a bit-vector column. Bit-Vectors are stored in string representation.
-                    return StringCell.TYPE;
-                }
-                return DoubleCell.TYPE;
-            } catch (NumberFormatException e) {
-                // too bad
-            }
-        }
-        return cell.getType();
-    }
-
     /**
      * {@inheritDoc}
      * @throws InvalidSettingsException thrown if some input columns are not available during execution.
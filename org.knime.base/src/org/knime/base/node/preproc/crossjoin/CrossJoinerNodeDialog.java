@@ -69,6 +69,8 @@ final class CrossJoinerNodeDialog extends DefaultNodeSettingsPane {
                             CrossJoinerNodeModel.createRowKeySeparatorSettingsModel(), "Separator for new RowIds"));
         addDialogComponent(new DialogComponentNumber(
                             CrossJoinerNodeModel.createCacheSizeSettingsModel(), "Chunk size: ", 10));
+        addDialogComponent(new DialogComponentBoolean(CrossJoinerNodeModel.createParallelSettingsModel(),
+            "Join chunks in parallel"));
 
         final SettingsModelBoolean showFirstRowIdsModel = CrossJoinerNodeModel.createshowFirstRowIdsSettingsModel();
         addDialogComponent(new DialogComponentBoolean(showFirstRowIdsModel, "Append top data tables RowIds"));
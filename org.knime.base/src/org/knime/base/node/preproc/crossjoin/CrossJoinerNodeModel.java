@@ -112,6 +112,8 @@ final class CrossJoinerNodeModel extends NodeModel {
 
     private final SettingsModelString m_nameRight = createSecondRowIdsNameSettingsModel(m_showRight);
 
+    private final SettingsModelBoolean m_parallel = createParallelSettingsModel();
+
     /**
      * Constructor for the node model.
      */
@@ -181,6 +183,12 @@ public void runFinal(final PortInput[] inputs, final PortOutput[] outputs, final
      */
     private void crossJoin(final RowInput lData, final BufferedDataTable rData, final RowOutput output,
         final long totalNumRows, final ExecutionContext exec) throws Exception {
+        if (m_parallel.getBooleanValue()) {
+            new TiledCrossJoiner(this::joinRows, m_cacheSize.getIntValue(),
+                Math.max(1, Runtime.getRuntime().availableProcessors())).join(lData, rData, output, totalNumRows,
+                    exec);
+            return;
+        }
         int chunksize = m_cacheSize.getIntValue();
         double rowCounter = 0;
         final List<DataRow> lDataChunk = new ArrayList<DataRow>();
@@ -369,6 +377,8 @@ protected void saveSettingsTo(final NodeSettingsWO settings) {
         m_showRight.saveSettingsTo(settings);
         m_nameLeft.saveSettingsTo(settings);
         m_nameRight.saveSettingsTo(settings);
+        // new since 5.1
+        m_parallel.saveSettingsTo(settings);
     }
 
     /**
@@ -387,6 +397,12 @@ protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws I
             m_nameLeft.loadSettingsFrom(settings);
             m_nameRight.loadSettingsFrom(settings);
         }
+        // new since 5.1
+        if (settings.containsKey(m_parallel.getKey())) {
+            m_parallel.loadSettingsFrom(settings);
+        } else {
+            m_parallel.setBooleanValue(false);
+        }
     }
 
     /**
@@ -417,6 +433,10 @@ protected void validateSettings(final NodeSettingsRO settings) throws InvalidSet
             m_nameLeft.validateSettings(settings);
             m_nameRight.validateSettings(settings);
         }
+        // new since 5.1
+        if (settings.containsKey(m_parallel.getKey())) {
+            m_parallel.validateSettings(settings);
+        }
     }
 
     /**
@@ -497,6 +517,13 @@ public void stateChanged(final ChangeEvent e) {
         return settingsModel;
     }
 
+    /**
+     * @return the SM for joining tiles of the two tables in parallel
+     */
+    static SettingsModelBoolean createParallelSettingsModel() {
+        return new SettingsModelBoolean("CFG_PARALLEL", false);
+    }
+
     /**
      * Creates a settings model for the suffix of duplicate column names in the right table.
      *
@@ -0,0 +1,269 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.crossjoin;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.function.BinaryOperator;
+
+import org.knime.core.data.DataRow;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.util.memory.MemoryAlertSystem;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.streamable.RowInput;
+import org.knime.core.node.streamable.RowOutput;
+import org.knime.core.node.util.CheckUtils;
+import org.knime.core.util.ThreadPool;
+import org.knime.filehandling.core.util.ThreadPoolUtils;
+
+/**
+ * Tiled cross join engine. The product of a chunk of (at most) <code>chunkSize</code> left rows and a chunk of (at
+ * most) <code>chunkSize</code> right rows is split into tiles of at most {@link #DEFAULT_TILE_SIZE} consecutive output
+ * rows. The tiles are joined concurrently on a sub pool of the global KNIME thread pool and written to the output in
+ * the very same order as the sequential block nested loop would produce them, i.e. the output is deterministic and
+ * independent of the number of threads.
+ *
+ * <p>
+ * The right table is held in memory for the whole join as long as the {@link MemoryAlertSystem} doesn't report low
+ * memory while it is read. Otherwise the right table is rescanned for each chunk of left rows.
+ * </p>
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class TiledCrossJoiner {
+
+    /** The default number of output rows per tile. */
+    static final int DEFAULT_TILE_SIZE = 4096;
+
+    private final BinaryOperator<DataRow> m_rowJoiner;
+
+    private final int m_chunkSize;
+
+    private final int m_tileSize;
+
+    private final int m_maxThreads;
+
+    /**
+     * @param rowJoiner creates the output row for a pair of left and right rows, must be thread-safe
+     * @param chunkSize the number of left and right rows that are joined block-wise
+     * @param maxThreads the maximum number of threads used to join the tiles
+     */
+    TiledCrossJoiner(final BinaryOperator<DataRow> rowJoiner, final int chunkSize, final int maxThreads) {
+        this(rowJoiner, chunkSize, DEFAULT_TILE_SIZE, maxThreads);
+    }
+
+    /**
+     * @param rowJoiner creates the output row for a pair of left and right rows, must be thread-safe
+     * @param chunkSize the number of left and right rows that are joined block-wise
+     * @param tileSize the maximum number of output rows per tile
+     * @param maxThreads the maximum number of threads used to join the tiles
+     */
+    TiledCrossJoiner(final BinaryOperator<DataRow> rowJoiner, final int chunkSize, final int tileSize,
+        final int maxThreads) {
+        CheckUtils.checkArgument(chunkSize > 0, "The chunk size must be positive.");
+        CheckUtils.checkArgument(tileSize > 0, "The tile size must be positive.");
+        CheckUtils.checkArgument(maxThreads > 0, "The number of threads must be positive.");
+        m_rowJoiner = rowJoiner;
+        m_chunkSize = chunkSize;
+        m_tileSize = tileSize;
+        m_maxThreads = maxThreads;
+    }
+
+    /**
+     * Cross joins the left and right data input and writes the result to the output.
+     *
+     * @param lData the left data input
+     * @param rData the right data input
+     * @param output the output, i.e., the joined table
+     * @param totalNumRows the row count of the resulting table. Use 0 if it's not known in advance
+     * @param exec the execution context
+     * @throws Exception - If the execution was, e.g., interrupted or canceled
+     */
+    void join(final RowInput lData, final BufferedDataTable rData, final RowOutput output,
+        final long totalNumRows, final ExecutionContext exec) throws Exception {
+        final List<DataRow> cachedRight = cacheRightTable(rData, exec);
+        final ThreadPool pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(m_maxThreads);
+        final Deque<Future<DataRow[]>> pendingTiles = new ArrayDeque<>();
+        try {
+            final long[] rowCounter = new long[1];
+            boolean finished = false;
+            while (!finished) {
+                final List<DataRow> lDataChunk = readChunk(lData, exec);
+                finished = lDataChunk.size() < m_chunkSize;
+                if (lDataChunk.isEmpty()) {
+                    break;
+                }
+                if (cachedRight != null) {
+                    for (int from = 0; from < cachedRight.size(); from += m_chunkSize) {
+                        final List<DataRow> rDataChunk =
+                            cachedRight.subList(from, Math.min(from + m_chunkSize, cachedRight.size()));
+                        enqueueTiles(pool, pendingTiles, lDataChunk, rDataChunk, output, rowCounter, totalNumRows,
+                            exec);
+                    }
+                } else {
+                    try (CloseableRowIterator rRowIt = rData.iterator()) {
+                        while (rRowIt.hasNext()) {
+                            enqueueTiles(pool, pendingTiles, lDataChunk, readChunk(rRowIt, exec), output,
+                                rowCounter, totalNumRows, exec);
+                        }
+                    }
+                }
+            }
+            writeFinishedTiles(pool, pendingTiles, 0, output, rowCounter, totalNumRows, exec);
+        } finally {
+            pendingTiles.forEach(f -> f.cancel(true));
+        }
+        output.close();
+    }
+
+    /**
+     * Splits the product of the two chunks, in left-major order, into tiles of at most <code>m_tileSize</code> rows,
+     * enqueues them and writes the finished ones.
+     */
+    private void enqueueTiles(final ThreadPool pool, final Deque<Future<DataRow[]>> pendingTiles,
+        final List<DataRow> lDataChunk, final List<DataRow> rDataChunk, final RowOutput output,
+        final long[] rowCounter, final long totalNumRows, final ExecutionContext exec) throws Exception {
+        final long numRows = (long)lDataChunk.size() * rDataChunk.size();
+        for (long from = 0; from < numRows; from += m_tileSize) {
+            final long tileStart = from;
+            final int tileSize = (int)Math.min(m_tileSize, numRows - from);
+            pendingTiles.add(pool.enqueue(() -> joinTile(lDataChunk, rDataChunk, tileStart, tileSize)));
+            writeFinishedTiles(pool, pendingTiles, 2 * m_maxThreads, output, rowCounter, totalNumRows, exec);
+        }
+    }
+
+    /**
+     * Joins the <code>tileSize</code> rows of the chunks' product starting at the (left-major) index
+     * <code>tileStart</code>.
+     */
+    private DataRow[] joinTile(final List<DataRow> lDataChunk, final List<DataRow> rDataChunk, final long tileStart,
+        final int tileSize) {
+        final int rSize = rDataChunk.size();
+        int l = (int)(tileStart / rSize);
+        int r = (int)(tileStart % rSize);
+        final DataRow[] rows = new DataRow[tileSize];
+        for (int i = 0; i < tileSize; i++) {
+            rows[i] = m_rowJoiner.apply(lDataChunk.get(l), rDataChunk.get(r));
+            if (++r == rSize) {
+                r = 0;
+                l++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Writes the finished tiles, in the order they have been enqueued, until at most <code>maxPending</code> tiles are
+     * still pending. The calling thread doesn't occupy a slot of the pool while waiting for a tile.
+     */
+    private static void writeFinishedTiles(final ThreadPool pool, final Deque<Future<DataRow[]>> pendingTiles,
+        final int maxPending, final RowOutput output, final long[] rowCounter, final long totalNumRows,
+        final ExecutionContext exec) throws Exception {
+        while (pendingTiles.size() > maxPending) {
+            final DataRow[] rows = ThreadPoolUtils.waitFor(pool, pendingTiles.poll(), RuntimeException.class);
+            for (final DataRow row : rows) {
+                exec.checkCanceled();
+                output.push(row);
+                exec.setProgress(++rowCounter[0] / (double)totalNumRows,
+                    () -> "Generating Row " + row.getKey().toString());
+            }
+        }
+    }
+
+    private List<DataRow> readChunk(final RowInput data, final ExecutionContext exec)
+        throws InterruptedException, CanceledExecutionException {
+        final List<DataRow> chunk = new ArrayList<>();
+        for (int i = 0; i < m_chunkSize; i++) {
+            exec.checkCanceled();
+            final DataRow row = data.poll();
+            if (row == null) {
+                break;
+            }
+            chunk.add(row);
+        }
+        return chunk;
+    }
+
+    private List<DataRow> readChunk(final CloseableRowIterator rowIt, final ExecutionContext exec)
+        throws CanceledExecutionException {
+        final List<DataRow> chunk = new ArrayList<>();
+        for (int i = 0; i < m_chunkSize && rowIt.hasNext(); i++) {
+            exec.checkCanceled();
+            chunk.add(rowIt.next());
+        }
+        return chunk;
+    }
+
+    /**
+     * Reads the right table into memory.
+     *
+     * @return the rows of the right table or <code>null</code> if the memory became low while reading them
+     */
+    private static List<DataRow> cacheRightTable(final BufferedDataTable rData, final ExecutionContext exec)
+        throws CanceledExecutionException {
+        if (rData.size() > Integer.MAX_VALUE - 8) {
+            return null;
+        }
+        final MemoryAlertSystem memSys = MemoryAlertSystem.getInstance();
+        final List<DataRow> rows = new ArrayList<>((int)rData.size());
+        try (CloseableRowIterator rRowIt = rData.iterator()) {
+            while (rRowIt.hasNext()) {
+                exec.checkCanceled();
+                if (memSys.isMemoryLow()) {
+                    return null;
+                }
+                rows.add(rRowIt.next());
+            }
+        }
+        return rows;
+    }
+}
@@ -132,7 +132,8 @@ final class DuplicateRowFilterDialogSettings implements DefaultNodeSettings {
     @Persist(configKey = DuplicateRowFilterSettings.RETAIN_ROW_ORDER_KEY)
     @Schema(title = "Retain row order",
         description = "If selected, the rows in the output table are guaranteed to have the same "
-            + "order as in the input table.")
+            + "order as in the input table. If duplicate rows are removed and the first row is chosen, the "
+            + "duplicates are detected without sorting the table, which is considerably faster for large tables.")
     boolean m_retainOrder = true;
 
     @Persist(configKey = DuplicateRowFilterSettings.UPDATE_DOMAINS_KEY, optional = true)
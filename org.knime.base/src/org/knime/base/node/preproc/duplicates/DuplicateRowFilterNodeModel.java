@@ -53,6 +53,7 @@
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.BooleanSupplier;
 
 import org.knime.base.node.preproc.duplicates.DuplicateRowFilterSettings.RowSelectionType;
 import org.knime.core.data.DataCell;
@@ -69,6 +70,7 @@
 import org.knime.core.data.def.LongCell;
 import org.knime.core.data.def.StringCell;
 import org.knime.core.data.sort.BufferedDataTableSorter;
+import org.knime.core.data.util.memory.MemoryAlertSystem;
 import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
@@ -126,11 +128,22 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final Ex
             return new BufferedDataTable[]{cont.getTable()};
         }
 
+        final String[] grpCols = m_settings.getGroupCols(data.getDataTableSpec()).getIncludes();
+
+        // keeping the first row of each group in input order does not require any sorting
+        if (supportsHashing()) {
+            final ExecutionContext hashContext =
+                m_settings.updateDomains() ? exec.createSubExecutionContext(0.7) : exec;
+            data = removeDuplicatesByHash(hashContext, grpCols, data);
+            if (m_settings.updateDomains()) {
+                data = updateDomain(data, exec.createSubExecutionContext(0.3));
+            }
+            return new BufferedDataTable[]{data};
+        }
+
         // create a unique name for the columns used to retain the row order
         final String orderColName =
             DataTableSpec.getUniqueColumnName(data.getDataTableSpec(), ORDER_COL_NAME_SUGGESTION);
-        // sort the table according to the selected group columns
-        final String[] grpCols = m_settings.getGroupCols(data.getDataTableSpec()).getIncludes();
 
         // append the row order column if required
         final boolean hasOrderCol;
@@ -184,6 +197,27 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final Ex
         return new BufferedDataTable[]{data};
     }
 
+    /**
+     * The sort based approach groups the rows by sorting the table and, if the row order has to be retained, sorts
+     * the result a second time. If the duplicates are removed and the first row of each group is kept in input order,
+     * the rows can instead be streamed through a hash set of the already seen keys.
+     *
+     * @return {@code true} if the duplicates can be removed without sorting the table
+     */
+    private boolean supportsHashing() {
+        return m_settings.removeDuplicates() && m_settings.getRowSelectionType() == RowSelectionType.FIRST
+            && m_settings.retainOrder();
+    }
+
+    private BufferedDataTable removeDuplicatesByHash(final ExecutionContext exec, final String[] grpCols,
+        final BufferedDataTable data) throws CanceledExecutionException {
+        final int[] grpIndices = data.getDataTableSpec().columnsToIndices(grpCols);
+        // only partition the rows if the in-memory computation is not enforced
+        final BooleanSupplier isMemoryLow =
+            m_settings.inMemory() ? () -> false : MemoryAlertSystem.getInstance()::isMemoryLow;
+        return new HashDuplicateRowFilter(grpIndices, isMemoryLow).removeDuplicates(data, exec);
+    }
+
     /**
      * Adds a column used to later on retain the original row order.
      *
@@ -0,0 +1,392 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.duplicates;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.BooleanSupplier;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.LongValue;
+import org.knime.core.data.append.AppendedColumnRow;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+
+/**
+ * Removes duplicate rows while keeping the first occurrence of each group, without sorting the input table. The rows
+ * are streamed in input order and checked against a set of 64-bit fingerprints of the already seen group keys; a
+ * matching fingerprint is always verified against the stored key cells, hence hash collisions never drop a row.
+ *
+ * <p>
+ * If memory runs low, or the set reaches its maximum capacity, the set stops growing. Rows whose key has already been
+ * seen are still dropped, all other rows are written to partitions selected by their fingerprint. Each partition is
+ * filtered on its own (recursively, if necessary) and the results are merged by their original row index, so the
+ * output is always in input order.
+ * </p>
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class HashDuplicateRowFilter {
+
+    /** The number of fingerprint bits used to select the partition on each level. */
+    private static final int PARTITION_BITS = 4;
+
+    private static final int NUM_PARTITIONS = 1 << PARTITION_BITS;
+
+    /** The maximum partitioning depth, deeper levels are processed in memory regardless of the memory state. */
+    private static final int MAX_DEPTH = 3;
+
+    /** The memory state is checked every 4096 rows. */
+    private static final int MEMORY_CHECK_MASK = (1 << 12) - 1;
+
+    /** The suggested name of the column storing the original row index in the partitions. */
+    private static final String INDEX_COL_NAME_SUGGESTION = "orig-index";
+
+    private final int[] m_grpIndices;
+
+    private final BooleanSupplier m_isMemoryLow;
+
+    private DataTableSpec m_indexedSpec;
+
+    /**
+     * Constructor.
+     *
+     * @param grpIndices the indices of the columns identifying the duplicates
+     * @param isMemoryLow tells whether the rows have to be partitioned as memory is running low
+     */
+    HashDuplicateRowFilter(final int[] grpIndices, final BooleanSupplier isMemoryLow) {
+        m_grpIndices = grpIndices;
+        m_isMemoryLow = isMemoryLow;
+    }
+
+    /**
+     * Removes all duplicate rows, i.e., keeps the first row of each group, retaining the input order.
+     *
+     * @param data the table to filter
+     * @param exec the execution context
+     * @return the table without duplicates
+     * @throws CanceledExecutionException - If the execution has been canceled
+     */
+    BufferedDataTable removeDuplicates(final BufferedDataTable data, final ExecutionContext exec)
+        throws CanceledExecutionException {
+        final DataTableSpec spec = data.getDataTableSpec();
+        m_indexedSpec = new DataTableSpec(spec, new DataTableSpec(new DataColumnSpecCreator(
+            DataTableSpec.getUniqueColumnName(spec, INDEX_COL_NAME_SUGGESTION), LongCell.TYPE).createSpec()));
+        final BufferedDataContainer cont = exec.createDataContainer(spec);
+        try (final CloseableRowIterator iterator = data.iterator()) {
+            filter(iterator, 0, data.size(), (row, index) -> cont.addRowToTable(row), exec);
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    private void filter(final Iterator<DataRow> rows, final int depth, final long nRows,
+        final IndexedRowConsumer sink, final ExecutionContext exec) throws CanceledExecutionException {
+        FingerprintSet seen = new FingerprintSet(m_grpIndices);
+        BufferedDataContainer[] partitions = null;
+        long rowCnt = 0;
+        while (rows.hasNext()) {
+            exec.checkCanceled();
+            if (partitions == null && depth < MAX_DEPTH
+                && (seen.isFull() || ((rowCnt & MEMORY_CHECK_MASK) == 0 && m_isMemoryLow.getAsBoolean()))) {
+                partitions = new BufferedDataContainer[NUM_PARTITIONS];
+            }
+            final DataRow row = rows.next();
+            // on the first level the rows don't have an index column yet
+            final long index = depth == 0 ? rowCnt : getIndex(row);
+            final long fingerprint = fingerprint(row);
+            if (partitions == null) {
+                if (seen.add(fingerprint, row)) {
+                    sink.accept(row, index);
+                }
+            } else if (!seen.contains(fingerprint, row)) {
+                final int partition = (int)(fingerprint >>> (depth * PARTITION_BITS)) & (NUM_PARTITIONS - 1);
+                if (partitions[partition] == null) {
+                    partitions[partition] = exec.createDataContainer(m_indexedSpec);
+                }
+                partitions[partition]
+                    .addRowToTable(depth == 0 ? new AppendedColumnRow(row, new LongCell(index)) : row);
+            }
+            rowCnt++;
+            if (depth == 0) {
+                exec.setProgress(rowCnt / (double)nRows);
+            }
+        }
+        if (partitions != null) {
+            // release the seen keys, the partitions' keys are disjoint from them and are processed independently
+            seen = null; // NOSONAR the set would otherwise stay reachable during the recursion
+            filterPartitions(partitions, depth, sink, exec);
+        }
+    }
+
+    private void filterPartitions(final BufferedDataContainer[] partitions, final int depth,
+        final IndexedRowConsumer sink, final ExecutionContext exec) throws CanceledExecutionException {
+        final List<BufferedDataTable> filtered = new ArrayList<>();
+        for (int i = 0; i < partitions.length; i++) {
+            if (partitions[i] == null) {
+                continue;
+            }
+            exec.setMessage("Processing partition " + (filtered.size() + 1) + " (level " + (depth + 1) + ")");
+            partitions[i].close();
+            final BufferedDataTable partition = partitions[i].getTable();
+            partitions[i] = null;
+            final BufferedDataContainer cont = exec.createDataContainer(m_indexedSpec);
+            try (final CloseableRowIterator iterator = partition.iterator()) {
+                filter(iterator, depth + 1, partition.size(), (row, index) -> cont.addRowToTable(row), exec);
+            }
+            cont.close();
+            exec.clearTable(partition);
+            filtered.add(cont.getTable());
+        }
+        exec.setMessage("Merging partitions");
+        mergeByIndex(filtered, depth, sink, exec);
+        filtered.forEach(exec::clearTable);
+    }
+
+    /**
+     * Merges the filtered partitions, each of them sorted by the original row index, into the sink.
+     */
+    private static void mergeByIndex(final List<BufferedDataTable> filtered, final int depth,
+        final IndexedRowConsumer sink, final ExecutionContext exec) throws CanceledExecutionException {
+        final PriorityQueue<PartitionCursor> queue =
+            new PriorityQueue<>(Math.max(1, filtered.size()), Comparator.comparingLong(c -> c.m_index));
+        try {
+            for (final BufferedDataTable table : filtered) {
+                final PartitionCursor cursor = new PartitionCursor(table.iterator());
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                } else {
+                    cursor.close();
+                }
+            }
+            while (!queue.isEmpty()) {
+                exec.checkCanceled();
+                final PartitionCursor cursor = queue.poll();
+                sink.accept(depth == 0 ? removeIndex(cursor.m_row) : cursor.m_row, cursor.m_index);
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                } else {
+                    cursor.close();
+                }
+            }
+        } finally {
+            queue.forEach(PartitionCursor::close);
+        }
+    }
+
+    private long fingerprint(final DataRow row) {
+        long hash = 0x9E3779B97F4A7C15L;
+        for (final int i : m_grpIndices) {
+            hash = (hash + row.getCell(i).hashCode()) * 0xC2B2AE3D27D4EB4FL;
+            hash ^= hash >>> 29;
+        }
+        // final avalanche step of MurmurHash3
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static long getIndex(final DataRow indexedRow) {
+        return ((LongValue)indexedRow.getCell(indexedRow.getNumCells() - 1)).getLongValue();
+    }
+
+    private static DataRow removeIndex(final DataRow indexedRow) {
+        final DataCell[] cells = new DataCell[indexedRow.getNumCells() - 1];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = indexedRow.getCell(i);
+        }
+        return new DefaultRow(indexedRow.getKey(), cells);
+    }
+
+    @FunctionalInterface
+    private interface IndexedRowConsumer {
+        void accept(DataRow row, long index);
+    }
+
+    /** Iterates over a filtered partition, exposing the original index of the current row. */
+    private static final class PartitionCursor {
+
+        private final CloseableRowIterator m_iterator;
+
+        private DataRow m_row;
+
+        private long m_index;
+
+        PartitionCursor(final CloseableRowIterator iterator) {
+            m_iterator = iterator;
+        }
+
+        boolean advance() {
+            if (!m_iterator.hasNext()) {
+                return false;
+            }
+            m_row = m_iterator.next();
+            m_index = getIndex(m_row);
+            return true;
+        }
+
+        void close() {
+            m_iterator.close();
+        }
+    }
+
+    /**
+     * Open addressing hash set of group keys. The fingerprints are stored in a primitive array and compared first, the
+     * key cells are only compared if the fingerprints match.
+     */
+    private static final class FingerprintSet {
+
+        private static final int INITIAL_CAPACITY = 1 << 10;
+
+        private static final int MAX_CAPACITY = 1 << 30;
+
+        private final int[] m_grpIndices;
+
+        private long[] m_fingerprints = new long[INITIAL_CAPACITY];
+
+        private DataCell[][] m_keys = new DataCell[INITIAL_CAPACITY][];
+
+        /** The slot is given by the upper bits, the lower bits select the partitions. */
+        private int m_shift = Long.SIZE - Integer.numberOfTrailingZeros(INITIAL_CAPACITY);
+
+        private int m_size;
+
+        FingerprintSet(final int[] grpIndices) {
+            m_grpIndices = grpIndices;
+        }
+
+        /**
+         * @return {@code true} if no more keys can be added as the set has reached its maximum capacity
+         */
+        boolean isFull() {
+            return m_keys.length == MAX_CAPACITY && 2 * m_size >= MAX_CAPACITY;
+        }
+
+        /**
+         * @return {@code true} if the key of the row has not been seen before
+         * @throws IllegalStateException if the key has not been seen before and the set is full
+         */
+        boolean add(final long fingerprint, final DataRow row) {
+            final int slot = find(fingerprint, row);
+            if (m_keys[slot] != null) {
+                return false;
+            }
+            if (isFull()) {
+                // inserting would eventually leave no empty slot to terminate the probing
+                throw new IllegalStateException("Too many distinct groups, the maximum is " + MAX_CAPACITY / 2 + ".");
+            }
+            final DataCell[] key = new DataCell[m_grpIndices.length];
+            for (int i = 0; i < key.length; i++) {
+                key[i] = row.getCell(m_grpIndices[i]);
+            }
+            m_fingerprints[slot] = fingerprint;
+            m_keys[slot] = key;
+            m_size++;
+            if (2 * m_size > m_keys.length && m_keys.length < MAX_CAPACITY) {
+                grow();
+            }
+            return true;
+        }
+
+        boolean contains(final long fingerprint, final DataRow row) {
+            return m_keys[find(fingerprint, row)] != null;
+        }
+
+        private int find(final long fingerprint, final DataRow row) {
+            final int mask = m_keys.length - 1;
+            int slot = (int)(fingerprint >>> m_shift);
+            while (m_keys[slot] != null) {
+                if (m_fingerprints[slot] == fingerprint && isSameKey(m_keys[slot], row)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private boolean isSameKey(final DataCell[] key, final DataRow row) {
+            for (int i = 0; i < key.length; i++) {
+                if (!key[i].equals(row.getCell(m_grpIndices[i]))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void grow() {
+            final long[] fingerprints = m_fingerprints;
+            final DataCell[][] keys = m_keys;
+            m_fingerprints = new long[keys.length << 1];
+            m_keys = new DataCell[keys.length << 1][];
+            m_shift--;
+            final int mask = m_keys.length - 1;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null) {
+                    int slot = (int)(fingerprints[i] >>> m_shift);
+                    while (m_keys[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    m_fingerprints[slot] = fingerprints[i];
+                    m_keys[slot] = keys[i];
+                }
+            }
+        }
+    }
+}
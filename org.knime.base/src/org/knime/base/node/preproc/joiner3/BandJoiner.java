@@ -0,0 +1,379 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.joiner3;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.knime.base.node.preproc.joiner3.Joiner3Settings.ColumnNameDisambiguationButtonGroup;
+import org.knime.base.node.preproc.joiner3.Joiner3Settings.RowKeyFactoryButtonGroup;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.sort.BufferedDataTableSorter;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.InvalidSettingsException;
+
+/**
+ * Joins each row of the left table with all rows of the right table whose interval, given by a lower and an upper
+ * bound column, contains the value of the left row.
+ *
+ * <p>
+ * Instead of comparing all pairs of rows, both tables are sorted, the left table by its value column and the right
+ * table by its lower bound column. The sorted tables are then swept in parallel while the intervals that contain the
+ * current left value are kept in a priority queue ordered by their upper bound. Only these active intervals are held
+ * in memory. The runtime is dominated by the two sorts plus the size of the output.
+ * </p>
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class BandJoiner {
+
+    private final BandJoinerSettings m_settings;
+
+    private final Comparator<DataCell> m_valueComparator;
+
+    private final int m_valueIdx;
+
+    private final int m_lowerIdx;
+
+    private final int m_upperIdx;
+
+    private final int[] m_leftIncludes;
+
+    private final int[] m_rightIncludes;
+
+    private final DataTableSpec m_matchSpec;
+
+    private final DataTableSpec m_leftUnmatchedSpec;
+
+    private final DataTableSpec m_rightUnmatchedSpec;
+
+    private long m_rowIndex;
+
+    /**
+     * @param settings the node settings
+     * @param left the spec of the left (top) table
+     * @param right the spec of the right (bottom) table
+     * @throws InvalidSettingsException if the settings don't fit the input specs
+     */
+    BandJoiner(final BandJoinerSettings settings, final DataTableSpec left, final DataTableSpec right)
+        throws InvalidSettingsException {
+        m_settings = settings;
+        m_valueComparator = settings.createValueComparator(left, right);
+        m_valueIdx = left.findColumnIndex(settings.getLeftValueColumn());
+        m_lowerIdx = right.findColumnIndex(settings.getRightLowerBoundColumn());
+        m_upperIdx = right.findColumnIndex(settings.getRightUpperBoundColumn());
+        m_leftIncludes = left.columnsToIndices(settings.getLeftIncludes(left));
+        m_rightIncludes = right.columnsToIndices(settings.getRightIncludes(right));
+        m_leftUnmatchedSpec = createSpec(left, m_leftIncludes);
+        m_rightUnmatchedSpec = createSpec(right, m_rightIncludes);
+        m_matchSpec = createMatchSpec(m_leftUnmatchedSpec, m_rightUnmatchedSpec);
+    }
+
+    private static DataTableSpec createSpec(final DataTableSpec spec, final int[] includes) {
+        final var colSpecs = new DataColumnSpec[includes.length];
+        for (var i = 0; i < includes.length; i++) {
+            colSpecs[i] = spec.getColumnSpec(includes[i]);
+        }
+        return new DataTableSpec(colSpecs);
+    }
+
+    private DataTableSpec createMatchSpec(final DataTableSpec left, final DataTableSpec right)
+        throws InvalidSettingsException {
+        final Set<String> names = new HashSet<>();
+        final List<DataColumnSpec> colSpecs = new ArrayList<>();
+        for (DataColumnSpec colSpec : left) {
+            names.add(colSpec.getName());
+            colSpecs.add(colSpec);
+        }
+        for (DataColumnSpec colSpec : right) {
+            String name = colSpec.getName();
+            if (names.contains(name)) {
+                if (m_settings.getColumnNameDisambiguation() == ColumnNameDisambiguationButtonGroup.DO_NOT_EXECUTE) {
+                    throw new InvalidSettingsException(
+                        String.format("Do not execute with ambiguous column names is selected: "
+                            + "Column %s appears both in left and right table.", name));
+                }
+                while (names.contains(name)) {
+                    name = name.concat(m_settings.getDuplicateColumnSuffix());
+                }
+                final var creator = new DataColumnSpecCreator(colSpec);
+                creator.setName(name);
+                colSpecs.add(creator.createSpec());
+            } else {
+                colSpecs.add(colSpec);
+            }
+            names.add(name);
+        }
+        return new DataTableSpec(colSpecs.toArray(new DataColumnSpec[0]));
+    }
+
+    /**
+     * @return the spec of the table containing the matches, also used for the single table output
+     */
+    DataTableSpec getMatchSpec() {
+        return m_matchSpec;
+    }
+
+    /**
+     * @return the spec of the left unmatched rows if they are output to a separate port
+     */
+    DataTableSpec getLeftUnmatchedSpec() {
+        return m_leftUnmatchedSpec;
+    }
+
+    /**
+     * @return the spec of the right unmatched rows if they are output to a separate port
+     */
+    DataTableSpec getRightUnmatchedSpec() {
+        return m_rightUnmatchedSpec;
+    }
+
+    /**
+     * Joins the two tables.
+     *
+     * @param left the left (top) table
+     * @param right the right (bottom) table
+     * @param exec the execution context
+     * @return the matches, left unmatched and right unmatched rows or, if the unmatched rows are not output to
+     *         separate ports, a single table holding all of them
+     * @throws CanceledExecutionException if the execution was canceled
+     */
+    BufferedDataTable[] join(final BufferedDataTable left, final BufferedDataTable right,
+        final ExecutionContext exec) throws CanceledExecutionException {
+        exec.setMessage("Sorting left table");
+        final BufferedDataTable sortedLeft =
+            new BufferedDataTableSorter(left, rowComparator(m_valueIdx)).sort(exec.createSubExecutionContext(0.4));
+        exec.setMessage("Sorting right table");
+        final BufferedDataTable sortedRight =
+            new BufferedDataTableSorter(right, rowComparator(m_lowerIdx)).sort(exec.createSubExecutionContext(0.4));
+
+        exec.setMessage("Joining");
+        m_rowIndex = 0;
+        final boolean split = m_settings.isOutputUnmatchedRowsToSeparateOutputPort();
+        final BufferedDataContainer matches = exec.createDataContainer(m_matchSpec);
+        final BufferedDataContainer leftUnmatched =
+            split ? exec.createDataContainer(m_leftUnmatchedSpec) : matches;
+        final BufferedDataContainer rightUnmatched =
+            split ? exec.createDataContainer(m_rightUnmatchedSpec) : matches;
+
+        final var sweepExec = exec.createSubExecutionContext(0.2);
+        final PriorityQueue<ActiveInterval> active =
+            new PriorityQueue<>((a, b) -> m_valueComparator.compare(a.m_upper, b.m_upper));
+        final double leftSize = sortedLeft.size();
+        long leftCounter = 0;
+        try (CloseableRowIterator leftIt = sortedLeft.iterator();
+                CloseableRowIterator rightIt = sortedRight.iterator()) {
+            DataRow nextRight = rightIt.hasNext() ? rightIt.next() : null;
+            while (leftIt.hasNext()) {
+                sweepExec.checkCanceled();
+                sweepExec.setProgress(leftCounter++ / leftSize);
+                final DataRow leftRow = leftIt.next();
+                final DataCell value = leftRow.getCell(m_valueIdx);
+                if (value.isMissing()) {
+                    // missing values are sorted to the end, none of them can match
+                    addLeftUnmatched(leftRow, leftUnmatched, split);
+                    continue;
+                }
+                // activate all intervals that start before (or at) the value
+                while (nextRight != null && startsBefore(nextRight, value)) {
+                    final DataCell upper = nextRight.getCell(m_upperIdx);
+                    if (upper.isMissing() || m_valueComparator.compare(nextRight.getCell(m_lowerIdx), upper) > 0) {
+                        addRightUnmatched(nextRight, rightUnmatched, split);
+                    } else {
+                        active.add(new ActiveInterval(nextRight, upper));
+                    }
+                    nextRight = rightIt.hasNext() ? rightIt.next() : null;
+                }
+                // retire all intervals that end before the value, they can't match any of the following values
+                while (!active.isEmpty() && endsBefore(active.peek().m_upper, value)) {
+                    final ActiveInterval retired = active.poll();
+                    if (!retired.m_matched) {
+                        addRightUnmatched(retired.m_row, rightUnmatched, split);
+                    }
+                }
+                if (active.isEmpty()) {
+                    addLeftUnmatched(leftRow, leftUnmatched, split);
+                } else {
+                    for (ActiveInterval interval : active) {
+                        interval.m_matched = true;
+                        if (m_settings.isIncludeMatches()) {
+                            matches.addRowToTable(joinRows(leftRow, interval.m_row));
+                        }
+                    }
+                }
+            }
+            for (ActiveInterval interval : active) {
+                if (!interval.m_matched) {
+                    addRightUnmatched(interval.m_row, rightUnmatched, split);
+                }
+            }
+            while (nextRight != null) {
+                sweepExec.checkCanceled();
+                addRightUnmatched(nextRight, rightUnmatched, split);
+                nextRight = rightIt.hasNext() ? rightIt.next() : null;
+            }
+        }
+
+        matches.close();
+        if (!split) {
+            return new BufferedDataTable[]{matches.getTable()};
+        }
+        leftUnmatched.close();
+        rightUnmatched.close();
+        return new BufferedDataTable[]{matches.getTable(), leftUnmatched.getTable(), rightUnmatched.getTable()};
+    }
+
+    /** Sorts by the cells in the given column, missing cells last. */
+    private Comparator<DataRow> rowComparator(final int colIdx) {
+        return (r1, r2) -> {
+            final DataCell c1 = r1.getCell(colIdx);
+            final DataCell c2 = r2.getCell(colIdx);
+            if (c1.isMissing() || c2.isMissing()) {
+                return Boolean.compare(c1.isMissing(), c2.isMissing());
+            }
+            return m_valueComparator.compare(c1, c2);
+        };
+    }
+
+    private boolean startsBefore(final DataRow rightRow, final DataCell value) {
+        final DataCell lower = rightRow.getCell(m_lowerIdx);
+        if (lower.isMissing()) {
+            // missing lower bounds are sorted to the end and never match
+            return false;
+        }
+        final int cmp = m_valueComparator.compare(lower, value);
+        return m_settings.isLowerBoundInclusive() ? cmp <= 0 : cmp < 0;
+    }
+
+    private boolean endsBefore(final DataCell upper, final DataCell value) {
+        final int cmp = m_valueComparator.compare(upper, value);
+        return m_settings.isUpperBoundInclusive() ? cmp < 0 : cmp <= 0;
+    }
+
+    private void addLeftUnmatched(final DataRow leftRow, final BufferedDataContainer container,
+        final boolean split) {
+        if (!m_settings.isIncludeLeftUnmatched()) {
+            return;
+        }
+        if (split) {
+            container.addRowToTable(new DefaultRow(leftRow.getKey(),
+                extractCells(leftRow, m_leftIncludes, 0, new DataCell[m_leftIncludes.length])));
+        } else {
+            container.addRowToTable(joinRows(leftRow, null));
+        }
+    }
+
+    private void addRightUnmatched(final DataRow rightRow, final BufferedDataContainer container,
+        final boolean split) {
+        if (!m_settings.isIncludeRightUnmatched()) {
+            return;
+        }
+        if (split) {
+            container.addRowToTable(new DefaultRow(rightRow.getKey(),
+                extractCells(rightRow, m_rightIncludes, 0, new DataCell[m_rightIncludes.length])));
+        } else {
+            container.addRowToTable(joinRows(null, rightRow));
+        }
+    }
+
+    /**
+     * @param leftRow the left row or <code>null</code> if an unmatched right row is output
+     * @param rightRow the right row or <code>null</code> if an unmatched left row is output
+     */
+    private DataRow joinRows(final DataRow leftRow, final DataRow rightRow) {
+        final var cells = new DataCell[m_leftIncludes.length + m_rightIncludes.length];
+        extractCells(leftRow, m_leftIncludes, 0, cells);
+        extractCells(rightRow, m_rightIncludes, m_leftIncludes.length, cells);
+        return new DefaultRow(createRowKey(leftRow, rightRow), cells);
+    }
+
+    private static DataCell[] extractCells(final DataRow row, final int[] includes, final int offset,
+        final DataCell[] cells) {
+        for (var i = 0; i < includes.length; i++) {
+            cells[offset + i] = row == null ? DataType.getMissingCell() : row.getCell(includes[i]);
+        }
+        return cells;
+    }
+
+    private RowKey createRowKey(final DataRow leftRow, final DataRow rightRow) {
+        if (m_settings.getRowKeyFactory() == RowKeyFactoryButtonGroup.SEQUENTIAL) {
+            return RowKey.createRowKey(m_rowIndex++);
+        }
+        final String leftKey = leftRow == null ? "?" : leftRow.getKey().getString();
+        final String rightKey = rightRow == null ? "?" : rightRow.getKey().getString();
+        return new RowKey(leftKey + m_settings.getRowKeySeparator() + rightKey);
+    }
+
+    /** A row of the right table whose lower bound has been passed by the sweep. */
+    private static final class ActiveInterval {
+
+        private final DataRow m_row;
+
+        private final DataCell m_upper;
+
+        private boolean m_matched;
+
+        ActiveInterval(final DataRow row, final DataCell upper) {
+            m_row = row;
+            m_upper = upper;
+        }
+    }
+}
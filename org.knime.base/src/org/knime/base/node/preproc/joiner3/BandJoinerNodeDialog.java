@@ -0,0 +1,104 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.joiner3;
+
+import org.knime.base.node.preproc.joiner3.Joiner3Settings.ColumnNameDisambiguationButtonGroup;
+import org.knime.base.node.preproc.joiner3.Joiner3Settings.RowKeyFactoryButtonGroup;
+import org.knime.core.data.DataValue;
+import org.knime.core.node.defaultnodesettings.DefaultNodeSettingsPane;
+import org.knime.core.node.defaultnodesettings.DialogComponentBoolean;
+import org.knime.core.node.defaultnodesettings.DialogComponentButtonGroup;
+import org.knime.core.node.defaultnodesettings.DialogComponentColumnFilter2;
+import org.knime.core.node.defaultnodesettings.DialogComponentColumnNameSelection;
+import org.knime.core.node.defaultnodesettings.DialogComponentString;
+
+/**
+ * Dialog of the band joiner node.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class BandJoinerNodeDialog extends DefaultNodeSettingsPane {
+
+    @SuppressWarnings("unchecked")
+    BandJoinerNodeDialog() {
+        final var settings = new BandJoinerSettings();
+
+        createNewGroup("Band condition");
+        addDialogComponent(new DialogComponentColumnNameSelection(settings.m_leftValueColumnModel,
+            "Value (left table)", 0, DataValue.class));
+        addDialogComponent(new DialogComponentColumnNameSelection(settings.m_rightLowerBoundColumnModel,
+            "Lower bound (right table)", 1, DataValue.class));
+        addDialogComponent(new DialogComponentBoolean(settings.m_lowerBoundInclusiveModel, "Include lower bound"));
+        addDialogComponent(new DialogComponentColumnNameSelection(settings.m_rightUpperBoundColumnModel,
+            "Upper bound (right table)", 1, DataValue.class));
+        addDialogComponent(new DialogComponentBoolean(settings.m_upperBoundInclusiveModel, "Include upper bound"));
+        closeCurrentGroup();
+
+        createNewGroup("Include in output");
+        addDialogComponent(new DialogComponentBoolean(settings.m_includeMatchesModel, "Matching rows"));
+        addDialogComponent(new DialogComponentBoolean(settings.m_includeLeftUnmatchedModel, "Left unmatched rows"));
+        addDialogComponent(new DialogComponentBoolean(settings.m_includeRightUnmatchedModel, "Right unmatched rows"));
+        addDialogComponent(new DialogComponentBoolean(settings.m_outputUnmatchedRowsToSeparatePortsModel,
+            "Output unmatched rows to separate ports"));
+        closeCurrentGroup();
+
+        createNewGroup("Row keys");
+        addDialogComponent(new DialogComponentButtonGroup(settings.m_rowKeyFactoryModel, null, true,
+            new RowKeyFactoryButtonGroup[]{RowKeyFactoryButtonGroup.CONCATENATE,
+                RowKeyFactoryButtonGroup.SEQUENTIAL}));
+        addDialogComponent(new DialogComponentString(settings.m_rowKeySeparatorModel, "Separator"));
+        closeCurrentGroup();
+
+        createNewTab("Column selection");
+        addDialogComponent(new DialogComponentColumnFilter2(settings.m_leftColumnSelectionModel, 0));
+        addDialogComponent(new DialogComponentColumnFilter2(settings.m_rightColumnSelectionModel, 1));
+        createNewGroup("Duplicate column names");
+        addDialogComponent(new DialogComponentButtonGroup(settings.m_columnDisambiguationModel, null, false,
+            ColumnNameDisambiguationButtonGroup.values()));
+        addDialogComponent(new DialogComponentString(settings.m_columnNameSuffixModel, "Suffix"));
+        closeCurrentGroup();
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.joiner3;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.knime.base.node.preproc.joiner3.Joiner3Settings.ColumnNameDisambiguationButtonGroup;
+import org.knime.base.node.preproc.joiner3.Joiner3Settings.RowKeyFactoryButtonGroup;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.defaultnodesettings.SettingsModel;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelColumnFilter2;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
+import org.knime.core.node.util.CheckUtils;
+
+/**
+ * Settings of the band joiner node. The output and column name disambiguation options use the same configuration
+ * keys and options as the {@link Joiner3Settings}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class BandJoinerSettings {
+
+    // band condition: lower <= value <= upper
+    final SettingsModelString m_leftValueColumnModel = new SettingsModelString("leftValueColumn", null);
+
+    final SettingsModelString m_rightLowerBoundColumnModel = new SettingsModelString("rightLowerBoundColumn", null);
+
+    final SettingsModelString m_rightUpperBoundColumnModel = new SettingsModelString("rightUpperBoundColumn", null);
+
+    final SettingsModelBoolean m_lowerBoundInclusiveModel = new SettingsModelBoolean("lowerBoundInclusive", true);
+
+    final SettingsModelBoolean m_upperBoundInclusiveModel = new SettingsModelBoolean("upperBoundInclusive", true);
+
+    // include in output: matches, left unmatched, right unmatched
+    final SettingsModelBoolean m_includeMatchesModel = new SettingsModelBoolean("includeMatchesInOutput", true);
+
+    final SettingsModelBoolean m_includeLeftUnmatchedModel =
+        new SettingsModelBoolean("includeLeftUnmatchedInOutput", false);
+
+    final SettingsModelBoolean m_includeRightUnmatchedModel =
+        new SettingsModelBoolean("includeRightUnmatchedInOutput", false);
+
+    final SettingsModelBoolean m_outputUnmatchedRowsToSeparatePortsModel =
+        new SettingsModelBoolean("outputUnmatchedRowsToSeparatePorts", false);
+
+    // row keys
+    final SettingsModelString m_rowKeyFactoryModel =
+        new SettingsModelString("rowKeyFactory", RowKeyFactoryButtonGroup.CONCATENATE.name());
+
+    final SettingsModelString m_rowKeySeparatorModel = new SettingsModelString("rowKeySeparator", "_");
+
+    // include columns and column name disambiguation
+    final SettingsModelString m_columnDisambiguationModel =
+        new SettingsModelString("duplicateHandling", ColumnNameDisambiguationButtonGroup.APPEND_SUFFIX.name());
+
+    final SettingsModelString m_columnNameSuffixModel = new SettingsModelString("suffix", " (right)");
+
+    final SettingsModelColumnFilter2 m_leftColumnSelectionModel =
+        new SettingsModelColumnFilter2("leftColumnSelectionConfig");
+
+    final SettingsModelColumnFilter2 m_rightColumnSelectionModel =
+        new SettingsModelColumnFilter2("rightColumnSelectionConfig");
+
+    private final List<SettingsModel> m_settings = Arrays.asList(m_leftValueColumnModel,
+        m_rightLowerBoundColumnModel, m_rightUpperBoundColumnModel, m_lowerBoundInclusiveModel,
+        m_upperBoundInclusiveModel, m_includeMatchesModel, m_includeLeftUnmatchedModel, m_includeRightUnmatchedModel,
+        m_outputUnmatchedRowsToSeparatePortsModel, m_rowKeyFactoryModel, m_rowKeySeparatorModel,
+        m_columnDisambiguationModel, m_columnNameSuffixModel, m_leftColumnSelectionModel,
+        m_rightColumnSelectionModel);
+
+    /**
+     * Loads the settings from the node settings object.
+     *
+     * @param settings a node settings object
+     * @throws InvalidSettingsException if some settings are missing
+     */
+    void loadSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+        for (SettingsModel model : m_settings) {
+            model.loadSettingsFrom(settings);
+        }
+    }
+
+    /**
+     * Saves the settings into the node settings object.
+     *
+     * @param settings a node settings object
+     */
+    void saveSettingsTo(final NodeSettingsWO settings) {
+        m_settings.forEach(m -> m.saveSettingsTo(settings));
+    }
+
+    void validateSettings() throws InvalidSettingsException {
+        CheckUtils.checkSetting(getRowKeyFactory() != RowKeyFactoryButtonGroup.KEEP_ROWID,
+            "Row keys can't be kept in a band join, matching rows don't have the same row keys.");
+        if (getColumnNameDisambiguation() == ColumnNameDisambiguationButtonGroup.APPEND_SUFFIX
+            && getDuplicateColumnSuffix().trim().isEmpty()) {
+            throw new InvalidSettingsException("No suffix for duplicate columns provided");
+        }
+    }
+
+    /**
+     * Checks that the band columns exist and returns the comparator used to compare their values.
+     *
+     * @param left the spec of the left (top) table
+     * @param right the spec of the right (bottom) table
+     * @return comparator for the cells of the value and bound columns
+     * @throws InvalidSettingsException if a column is missing or the column types are not comparable
+     */
+    Comparator<DataCell> createValueComparator(final DataTableSpec left, final DataTableSpec right)
+        throws InvalidSettingsException {
+        final DataType valueType = getColumnType(left, getLeftValueColumn(), "value column of the left table");
+        final DataType lowerType =
+            getColumnType(right, getRightLowerBoundColumn(), "lower bound column of the right table");
+        final DataType upperType =
+            getColumnType(right, getRightUpperBoundColumn(), "upper bound column of the right table");
+        if (valueType.isCompatible(DoubleValue.class) && lowerType.isCompatible(DoubleValue.class)
+            && upperType.isCompatible(DoubleValue.class)) {
+            return (a, b) -> Double.compare(((DoubleValue)a).getDoubleValue(), ((DoubleValue)b).getDoubleValue());
+        }
+        CheckUtils.checkSetting(valueType.equals(lowerType) && valueType.equals(upperType),
+            "The value and bound columns must either all be numeric or all be of the same type, but are %s, %s and %s.",
+            valueType, lowerType, upperType);
+        return valueType.getComparator();
+    }
+
+    private static DataType getColumnType(final DataTableSpec spec, final String column, final String description)
+        throws InvalidSettingsException {
+        CheckUtils.checkSetting(column != null, "Please select the %s.", description);
+        final var colSpec = spec.getColumnSpec(column);
+        CheckUtils.checkSetting(colSpec != null, "The %s (\"%s\") does not exist.", description, column);
+        return colSpec.getType();
+    }
+
+    String getLeftValueColumn() {
+        return m_leftValueColumnModel.getStringValue();
+    }
+
+    String getRightLowerBoundColumn() {
+        return m_rightLowerBoundColumnModel.getStringValue();
+    }
+
+    String getRightUpperBoundColumn() {
+        return m_rightUpperBoundColumnModel.getStringValue();
+    }
+
+    boolean isLowerBoundInclusive() {
+        return m_lowerBoundInclusiveModel.getBooleanValue();
+    }
+
+    boolean isUpperBoundInclusive() {
+        return m_upperBoundInclusiveModel.getBooleanValue();
+    }
+
+    boolean isIncludeMatches() {
+        return m_includeMatchesModel.getBooleanValue();
+    }
+
+    boolean isIncludeLeftUnmatched() {
+        return m_includeLeftUnmatchedModel.getBooleanValue();
+    }
+
+    boolean isIncludeRightUnmatched() {
+        return m_includeRightUnmatchedModel.getBooleanValue();
+    }
+
+    boolean isOutputUnmatchedRowsToSeparateOutputPort() {
+        return m_outputUnmatchedRowsToSeparatePortsModel.getBooleanValue();
+    }
+
+    RowKeyFactoryButtonGroup getRowKeyFactory() {
+        return RowKeyFactoryButtonGroup.valueOf(m_rowKeyFactoryModel.getStringValue());
+    }
+
+    String getRowKeySeparator() {
+        return m_rowKeySeparatorModel.getStringValue();
+    }
+
+    ColumnNameDisambiguationButtonGroup getColumnNameDisambiguation() {
+        return ColumnNameDisambiguationButtonGroup.valueOf(m_columnDisambiguationModel.getStringValue());
+    }
+
+    String getDuplicateColumnSuffix() {
+        return m_columnNameSuffixModel.getStringValue();
+    }
+
+    String[] getLeftIncludes(final DataTableSpec left) {
+        return m_leftColumnSelectionModel.applyTo(left).getIncludes();
+    }
+
+    String[] getRightIncludes(final DataTableSpec right) {
+        return m_rightColumnSelectionModel.applyTo(right).getIncludes();
+    }
+}
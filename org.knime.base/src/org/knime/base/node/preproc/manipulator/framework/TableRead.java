@@ -161,6 +161,6 @@ public long getProgress() {
 
     @Override
     public void close() throws IOException {
-        // nothing to close
+        m_rowCursor.close();
     }
 }
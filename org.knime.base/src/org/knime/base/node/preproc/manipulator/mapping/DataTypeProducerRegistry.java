@@ -403,6 +403,15 @@ private DataTypeProducerRegistry() {
         // singleton
     }
 
+    /**
+     * @param productionPath the {@link ProductionPath} to check
+     * @return {@code true} if the path passes the cells through unchanged
+     */
+    static boolean isIdentityPath(final ProductionPath productionPath) {
+        return productionPath.getProducerFactory() instanceof IdentityCellValueProducerFactory
+            && productionPath.getConverterFactory() instanceof IdentityCellConverterFactory;
+    }
+
     @Override
     public List<ProductionPath> getAvailableProductionPaths(final DataType dataType) {
         final List<ProductionPath> availableProductionPaths = super.getAvailableProductionPaths(dataType);
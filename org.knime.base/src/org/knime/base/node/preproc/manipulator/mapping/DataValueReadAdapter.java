@@ -50,6 +50,7 @@
 
 import org.knime.core.data.DataType;
 import org.knime.core.data.DataValue;
+import org.knime.core.data.convert.map.ProductionPath;
 import org.knime.filehandling.core.node.table.reader.ReadAdapter;
 
 /**
@@ -59,5 +60,10 @@
  * @author Adrian Nembach, KNIME GmbH, Konstanz, Germany
  */
 final class DataValueReadAdapter extends ReadAdapter<DataType, DataValue> {
-    // yes this class needs to be empty
+
+    @Override
+    public boolean passesThrough(final ProductionPath productionPath) {
+        // the values are the cells of the input table, which the identity path doesn't touch
+        return DataTypeProducerRegistry.isIdentityPath(productionPath);
+    }
 }
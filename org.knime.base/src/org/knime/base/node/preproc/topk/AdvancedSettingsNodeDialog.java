@@ -71,6 +71,8 @@ final class AdvancedSettingsNodeDialog {
 
     private final DialogComponentButtonGroup m_outputOrder;
 
+    private final DialogComponentBoolean m_parallel;
+
     /**
      * Creates a new Panel with a checkBox for "Move missing cells to end of the list" and a GroupBox for choosing the
      * output order
@@ -83,6 +85,7 @@ public AdvancedSettingsNodeDialog(final TopKSelectorSettings settings) {
             new DialogComponentBoolean(m_settings.getMissingToEndModel(), "Move missing cells to end of sorted list");
         m_outputOrder = new DialogComponentButtonGroup(m_settings.getOutputOrderModel(), "Output order", true,
             OutputOrder.values());
+        m_parallel = new DialogComponentBoolean(m_settings.getParallelModel(), "Select rows in parallel");
     }
 
     /**
@@ -102,6 +105,9 @@ public JPanel getPanel() {
         panel.add(m_outputOrder.getComponentPanel(), gbc);
         ++gbc.gridy;
         panel.add(m_missingsToEnd.getComponentPanel(), gbc);
+        ++gbc.gridy;
+        panel.add(m_parallel.getComponentPanel(), gbc);
+        ++gbc.gridy;
         gbc.weightx = 1;
         gbc.weighty = 1;
         gbc.fill = GridBagConstraints.BOTH;
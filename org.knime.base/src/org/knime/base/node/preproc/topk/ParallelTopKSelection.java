@@ -0,0 +1,196 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.topk;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.filter.TableFilter;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+import org.knime.filehandling.core.util.ThreadPoolUtils;
+
+/**
+ * Selects the top k rows of a table on multiple threads. The table is partitioned into consecutive row ranges, each of
+ * which is consumed by its own {@link TopKSelector} on a separate thread. The partial selections are finally merged by
+ * presenting them, in the order of the row ranges, to a fresh {@link TopKSelector}.
+ *
+ * <p>
+ * For the selection of unique values, all rows of a value that is among the top k values of the table are also part of
+ * the selection of each row range containing that value. Hence merging the partial selections selects the same rows as
+ * a sequential selection.
+ * </p>
+ * <p>
+ * For the selection of the top k rows, ties with the k-th row are broken by the row index, i.e., the earliest rows are
+ * selected. The top k rows of the table are then always among the top k rows of their row range, and the selection is
+ * independent of the partitioning. Note that the sequential {@link HeapTopKSelector} doesn't specify which of the tied
+ * rows it selects, hence the two may select different but equally ranked rows.
+ * </p>
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ParallelTopKSelection {
+
+    /** Tables with fewer rows per partition are not worth partitioning. */
+    private static final long MIN_ROWS_PER_PARTITION = 10000;
+
+    private ParallelTopKSelection() {
+        // static utility class
+    }
+
+    /**
+     * Selects the top k rows of the given table.
+     *
+     * @param table the table to select the rows from
+     * @param selectorFactory creates the selectors for the row ranges and the final merge from a row comparator
+     * @param comparator the row comparator
+     * @param breakTiesByRowIndex whether rows that are equal according to the comparator are ranked by their index,
+     *            must be <code>false</code> for the selection of unique values
+     * @param maxThreads the maximum number of threads, i.e., row ranges
+     * @param exec used for progress reporting and cancellation
+     * @return the top k rows
+     * @throws Exception if the execution was canceled or a worker failed
+     */
+    static Collection<DataRow> select(final BufferedDataTable table,
+        final Function<Comparator<DataRow>, TopKSelector> selectorFactory, final Comparator<DataRow> comparator,
+        final boolean breakTiesByRowIndex, final int maxThreads, final ExecutionContext exec) throws Exception {
+        if (!breakTiesByRowIndex) {
+            return select(table, () -> selectorFactory.apply(comparator), maxThreads, exec, false);
+        }
+        final Comparator<DataRow> indexComparator =
+            (r1, r2) -> Long.compare(((IndexedRow)r1).m_index, ((IndexedRow)r2).m_index);
+        final Collection<DataRow> selection = select(table,
+            () -> selectorFactory.apply(OrderPostprocessors.chain(comparator, indexComparator)), maxThreads, exec,
+            true);
+        return selection.stream().map(r -> ((IndexedRow)r).m_row).collect(Collectors.toList());
+    }
+
+    private static Collection<DataRow> select(final BufferedDataTable table,
+        final Supplier<TopKSelector> selectorFactory, final int maxThreads, final ExecutionContext exec,
+        final boolean indexRows) throws CanceledExecutionException {
+        final long nrRows = table.size();
+        final int nrPartitions = (int)Math.max(1, Math.min(maxThreads, nrRows / MIN_ROWS_PER_PARTITION));
+        final long partitionSize = (nrRows + nrPartitions - 1) / Math.max(1, nrPartitions);
+        final ThreadPool pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(nrPartitions);
+        final List<Callable<TopKSelector>> tasks = new ArrayList<>(nrPartitions);
+        for (long start = 0; start < nrRows; start += partitionSize) {
+            final long from = start;
+            final long to = Math.min(from + partitionSize, nrRows) - 1;
+            final ExecutionMonitor partitionExec = exec.createSubProgress((to - from + 1) / (double)nrRows);
+            tasks.add(() -> selectInRange(table, from, to, selectorFactory.get(), indexRows, partitionExec));
+        }
+        final TopKSelector merged = selectorFactory.get();
+        for (final TopKSelector selector : ThreadPoolUtils.invokeAll(pool, tasks, exec)) {
+            for (final DataRow row : selector.getTopK()) {
+                merged.consume(row);
+            }
+        }
+        return merged.getTopK();
+    }
+
+    private static TopKSelector selectInRange(final BufferedDataTable table, final long from, final long to,
+        final TopKSelector selector, final boolean indexRows, final ExecutionMonitor exec)
+        throws CanceledExecutionException {
+        final double nrRows = to - from + 1d;
+        try (CloseableRowIterator iterator = table.filter(TableFilter.filterRangeOfRows(from, to)).iterator()) {
+            for (long i = 1; iterator.hasNext(); i++) {
+                exec.checkCanceled();
+                final DataRow row = iterator.next();
+                selector.consume(indexRows ? new IndexedRow(row, from + i - 1) : row);
+                exec.setProgress(i / nrRows);
+            }
+        }
+        return selector;
+    }
+
+    /** A row together with its index in the input table. */
+    private static final class IndexedRow implements DataRow {
+
+        private final DataRow m_row;
+
+        private final long m_index;
+
+        IndexedRow(final DataRow row, final long index) {
+            m_row = row;
+            m_index = index;
+        }
+
+        @Override
+        public int getNumCells() {
+            return m_row.getNumCells();
+        }
+
+        @Override
+        public RowKey getKey() {
+            return m_row.getKey();
+        }
+
+        @Override
+        public DataCell getCell(final int index) {
+            return m_row.getCell(index);
+        }
+
+        @Override
+        public Iterator<DataCell> iterator() {
+            return m_row.iterator();
+        }
+    }
+}
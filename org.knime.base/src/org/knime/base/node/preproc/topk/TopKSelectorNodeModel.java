@@ -131,15 +131,23 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final Ex
         final boolean missingsLast = m_settings.isMissingToEnd();
         final var dts = table.getDataTableSpec();
         final var rc = SortKeyItem.toRowComparator(dts, sortKey, missingsLast, TopKSelectorNodeModel::isRowKey);
-        final TopKSelector elementSelector = createElementSelector(rc);
         final var outputOrder = m_settings.getOutputOrder();
         final OrderPreprocessor preprocessor = outputOrder.getPreprocessor();
         final BufferedDataTable execTable = preprocessor.preprocessSelectionTable(table,
             exec.createSubExecutionContext(preprocessor.getProgressRequired()));
-        fillElementSelector(exec.createSubExecutionContext(0.9 - preprocessor.getProgressRequired()), execTable,
-            elementSelector);
-        final Collection<DataRow> topK =
-            outputOrder.getPostprocessor().postprocessSelection(elementSelector.getTopK(), rc);
+        final ExecutionContext selectionExec = exec.createSubExecutionContext(0.9 - preprocessor.getProgressRequired());
+        final Collection<DataRow> selection;
+        if (m_settings.isParallel()) {
+            final boolean uniqueValues =
+                TopKMode.getTopKModeByText(m_settings.getTopKMode()) == TopKMode.TOP_K_ALL_ROWS_W_UNIQUE;
+            selection = ParallelTopKSelection.select(execTable, this::createElementSelector, rc, !uniqueValues,
+                Runtime.getRuntime().availableProcessors(), selectionExec);
+        } else {
+            final TopKSelector elementSelector = createElementSelector(rc);
+            fillElementSelector(selectionExec, execTable, elementSelector);
+            selection = elementSelector.getTopK();
+        }
+        final Collection<DataRow> topK = outputOrder.getPostprocessor().postprocessSelection(selection, rc);
         final BufferedDataTable outputTable = createOutputTable(topK, dts, exec.createSubExecutionContext(0.1));
         return new BufferedDataTable[]{outputTable};
     }
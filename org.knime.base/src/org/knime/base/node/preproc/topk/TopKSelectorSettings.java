@@ -83,11 +83,15 @@ final class TopKSelectorSettings {
 
     private final SettingsModelIntegerBounded m_k = new SettingsModelIntegerBounded("k", 5, 1, Integer.MAX_VALUE);
 
+    // added in 5.1
+    private final SettingsModelBoolean m_parallel = new SettingsModelBoolean("parallelSelection", false);
+
     void saveSettingsTo(final NodeSettingsWO settings) {
         m_k.saveSettingsTo(settings);
         m_missingToEnd.saveSettingsTo(settings);
         m_outputOrder.saveSettingsTo(settings);
         m_topKMode.saveSettingsTo(settings);
+        m_parallel.saveSettingsTo(settings);
         SortKeyItem.saveTo(m_sortKey, TopKSelectorNodeModel.INCLUDELIST_KEY, TopKSelectorNodeModel.SORTORDER_KEY,
             TopKSelectorNodeModel.ALPHANUMCOMP_KEY, settings);
     }
@@ -97,6 +101,9 @@ void validateSettings(final NodeSettingsRO settings) throws InvalidSettingsExcep
         m_missingToEnd.validateSettings(settings);
         m_outputOrder.validateSettings(settings);
         m_topKMode.validateSettings(settings);
+        if (settings.containsKey(m_parallel.getKey())) {
+            m_parallel.validateSettings(settings);
+        }
         SortKeyItem.validate(TopKSelectorNodeModel.INCLUDELIST_KEY, TopKSelectorNodeModel.SORTORDER_KEY,
             TopKSelectorNodeModel.ALPHANUMCOMP_KEY, settings);
     }
@@ -106,6 +113,11 @@ void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws InvalidSett
         m_missingToEnd.loadSettingsFrom(settings);
         m_outputOrder.loadSettingsFrom(settings);
         m_topKMode.loadSettingsFrom(settings);
+        if (settings.containsKey(m_parallel.getKey())) {
+            m_parallel.loadSettingsFrom(settings);
+        } else {
+            m_parallel.setBooleanValue(false);
+        }
         m_sortKey = SortKeyItem.loadFrom(TopKSelectorNodeModel.INCLUDELIST_KEY, TopKSelectorNodeModel.SORTORDER_KEY,
             TopKSelectorNodeModel.ALPHANUMCOMP_KEY, settings);
     }
@@ -127,6 +139,10 @@ SettingsModelBoolean getMissingToEndModel() {
         return m_missingToEnd;
     }
 
+    SettingsModelBoolean getParallelModel() {
+        return m_parallel;
+    }
+
     public List<SortKeyItem> getSortKey() {
         return m_sortKey;
     }
@@ -139,6 +155,10 @@ boolean isMissingToEnd() {
         return m_missingToEnd.getBooleanValue();
     }
 
+    boolean isParallel() {
+        return m_parallel.getBooleanValue();
+    }
+
     OutputOrder getOutputOrder() {
         return OutputOrder.valueOf(m_outputOrder.getStringValue());
     }
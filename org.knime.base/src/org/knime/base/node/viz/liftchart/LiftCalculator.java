@@ -51,6 +51,7 @@
 import java.util.LinkedList;
 import java.util.List;
 
+import org.knime.base.data.sort.ScoreSorter;
 import org.knime.base.data.sort.SortedTable;
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataColumnSpecCreator;
@@ -79,10 +80,20 @@ public class LiftCalculator {
 
     private boolean m_ignoreMissingValues;
 
+    private boolean m_provideSortedInput = true;
+
     private BufferedDataTable m_lift;
     private BufferedDataTable m_response;
     private SortedTable m_sorted;
 
+    private String m_warning;
+
+    /** The number of rows considered for the lift, i.e., without the ignored ones. */
+    private int m_numRows;
+
+    /** The number of positive responses. */
+    private long m_totalResponses;
+
     /**
      * @return the lift
      */
@@ -99,8 +110,12 @@ public BufferedDataTable getResponseTable() {
 
     /**
      * @return the sorted input table
+     * @throws IllegalStateException if the calculator has been created without providing the sorted input
      */
     public BufferedDataTable getSortedInput() {
+        if (m_sorted == null) {
+            throw new IllegalStateException("The sorted input table has not been created.");
+        }
         return m_sorted.getBufferedDataTable();
     }
 
@@ -134,6 +149,24 @@ public LiftCalculator(final String responseColumn, final String probabilityColum
         m_ignoreMissingValues = ignoreMissingValues;
     }
 
+    /**
+     * Creates a new instance of LiftCalculator. If the sorted input table is not needed, the lift is calculated
+     * without sorting the whole table, which is considerably faster for large tables.
+     * @param responseColumn the response column
+     * @param probabilityColumn the probability column
+     * @param responseLabel the response label
+     * @param intervalWidth the interval width
+     * @param ignoreMissingValues whether ignore missing values
+     * @param provideSortedInput whether the sorted input table is provided by {@link #getSortedInput()}
+     * @since 5.1
+     */
+    public LiftCalculator(final String responseColumn, final String probabilityColumn,
+                            final String responseLabel, final double intervalWidth, final boolean ignoreMissingValues,
+                            final boolean provideSortedInput) {
+        this(responseColumn, probabilityColumn, responseLabel, intervalWidth, ignoreMissingValues);
+        m_provideSortedInput = provideSortedInput;
+    }
+
     /**
      * Calculates the tables necessary for displaying a lift chart.
      * @param table the data table
@@ -144,59 +177,23 @@ public LiftCalculator(final String responseColumn, final String probabilityColum
     public String calculateLiftTables(final BufferedDataTable table, final ExecutionContext exec)
             throws CanceledExecutionException {
         int predColIndex = table.getDataTableSpec().findColumnIndex(m_responseColumn);
-        String warning = null;
-        List<String> inclList = new LinkedList<String>();
-
-        inclList.add(m_probabilityColumn);
         int probColInd = table.getDataTableSpec().findColumnIndex(m_probabilityColumn);
-
-        boolean[] order = new boolean[]{false};
-
-        m_sorted = new SortedTable(table, inclList, order, exec);
-
-        long totalResponses = 0;
+        m_sorted = null;
+        m_warning = null;
 
         double partWidth = m_intervalWidth;
 
         int nrParts = (int)Math.ceil(100.0 / partWidth);
 
-        List<Integer> positiveResponses = new LinkedList<Integer>();
-
-        int rowIndex = 0;
-        for (DataRow row : m_sorted) {
-            if (row.getCell(predColIndex).isMissing() || row.getCell(probColInd).isMissing()) {
-                if (row.getCell(predColIndex).isMissing()) {
-                    // miss. values in class column we always ignore
-                    continue;
-                }
-                if (m_ignoreMissingValues) {
-                    continue;
-                } else {
-                    warning = "Table contains missing values.";
-                }
-            }
-
-            String response =
-                    ((StringValue)row.getCell(predColIndex)).getStringValue()
-                            .trim();
-
-            if (response.equalsIgnoreCase(m_responseLabel)) {
-                totalResponses++;
-                positiveResponses.add(rowIndex);
-            }
-
-            rowIndex++;
-        }
-
         int[] counter = new int[nrParts];
-        int partWidthAbsolute = (int)Math.ceil(rowIndex / (double)nrParts);
-
-        double avgResponse = (double)positiveResponses.size() / rowIndex;
-
-        for (int rIndex : positiveResponses) {
-            int index = rIndex / partWidthAbsolute;
-            counter[index]++;
+        if (m_provideSortedInput || !countResponsesOfSortedScores(table, predColIndex, probColInd, counter, exec)) {
+            countResponsesBySorting(table, predColIndex, probColInd, counter, exec);
         }
+        final int rowIndex = m_numRows;
+        final long totalResponses = m_totalResponses;
+        final int partWidthAbsolute = (int)Math.ceil(rowIndex / (double)nrParts);
+
+        double avgResponse = (double)totalResponses / rowIndex;
 
         DataColumnSpec[] colSpec = new DataColumnSpec[3];
 
@@ -272,6 +269,83 @@ public String calculateLiftTables(final BufferedDataTable table, final Execution
 
         m_lift = (BufferedDataTable)cont.getTable();
         m_response = (BufferedDataTable)responseCont.getTable();
-        return warning;
+        return m_warning;
+    }
+
+    /**
+     * Sorts the scores and labels in primitive arrays instead of sorting the whole table.
+     *
+     * @return {@code false} if the scores don't fit into memory
+     */
+    private boolean countResponsesOfSortedScores(final BufferedDataTable table, final int predColIndex,
+        final int probColInd, final int[] counter, final ExecutionContext exec) throws CanceledExecutionException {
+        final ScoreSorter sorter = new ScoreSorter(
+            c -> ((StringValue)c).getStringValue().trim().equalsIgnoreCase(m_responseLabel), true,
+            m_ignoreMissingValues);
+        return sorter.sort(table, predColIndex, new int[]{probColInd}, Runtime.getRuntime().availableProcessors(),
+            exec, (i, scores) -> {
+                if (scores.containsMissingValues()) {
+                    m_warning = "Table contains missing values.";
+                }
+                m_numRows = scores.size();
+                m_totalResponses = 0;
+                final int partWidthAbsolute = (int)Math.ceil(m_numRows / (double)counter.length);
+                for (int rIndex = 0; rIndex < m_numRows; rIndex++) {
+                    if (scores.isPositive(rIndex)) {
+                        m_totalResponses++;
+                        counter[rIndex / partWidthAbsolute]++;
+                    }
+                }
+            });
+    }
+
+    private void countResponsesBySorting(final BufferedDataTable table, final int predColIndex, final int probColInd,
+        final int[] counter, final ExecutionContext exec) throws CanceledExecutionException {
+        List<String> inclList = new LinkedList<String>();
+
+        inclList.add(m_probabilityColumn);
+
+        boolean[] order = new boolean[]{false};
+
+        m_sorted = new SortedTable(table, inclList, order, exec);
+
+        long totalResponses = 0;
+
+        List<Integer> positiveResponses = new LinkedList<Integer>();
+
+        int rowIndex = 0;
+        for (DataRow row : m_sorted) {
+            if (row.getCell(predColIndex).isMissing() || row.getCell(probColInd).isMissing()) {
+                if (row.getCell(predColIndex).isMissing()) {
+                    // miss. values in class column we always ignore
+                    continue;
+                }
+                if (m_ignoreMissingValues) {
+                    continue;
+                } else {
+                    m_warning = "Table contains missing values.";
+                }
+            }
+
+            String response =
+                    ((StringValue)row.getCell(predColIndex)).getStringValue()
+                            .trim();
+
+            if (response.equalsIgnoreCase(m_responseLabel)) {
+                totalResponses++;
+                positiveResponses.add(rowIndex);
+            }
+
+            rowIndex++;
+        }
+
+        int partWidthAbsolute = (int)Math.ceil(rowIndex / (double)counter.length);
+
+        for (int rIndex : positiveResponses) {
+            int index = rIndex / partWidthAbsolute;
+            counter[index]++;
+        }
+        m_numRows = rowIndex;
+        m_totalResponses = totalResponses;
     }
 }
@@ -57,6 +57,8 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
 
 import org.knime.base.data.sort.SortedTable;
 import org.knime.base.node.util.DataArray;
@@ -195,8 +197,200 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData,
             = new LinkedHashMap<String, Map<Double, Set<RowKey>>>();
         m_extremeOutliers
             = new LinkedHashMap<String, Map<Double, Set<RowKey>>>();
-        int colIdx = 0;
         List<DataColumnSpec> outputColSpecs = new ArrayList<DataColumnSpec>();
+        for (DataColumnSpec colSpec : table.getDataTableSpec()) {
+            if (colSpec.getType().isCompatible(DoubleValue.class)) {
+                outputColSpecs.add(colSpec);
+            }
+        }
+        if (!computeStatisticsFromBuffers(table, outputColSpecs, exec)) {
+            computeStatisticsBySorting(table, exec);
+        }
+        DataContainer container = createOutputTable(exec, outputColSpecs);
+        // return a data array with just one row but with the data table spec
+        // for the column selection panel
+        m_array = new DefaultDataArray(table, 1, 2);
+        return new BufferedDataTable[]{exec.createBufferedDataTable(
+                container.getTable(), exec)};
+    }
+
+
+
+    /**
+     * Extracts all numeric columns in a single pass into primitive buffers and determines the quartiles by selection
+     * instead of sorting the table once per column. The columns are processed in parallel, the outliers are collected
+     * in a second pass over the table.
+     *
+     * @return {@code false} if the values don't fit into memory
+     */
+    private boolean computeStatisticsFromBuffers(final BufferedDataTable table,
+            final List<DataColumnSpec> numericCols, final ExecutionContext exec)
+            throws CanceledExecutionException {
+        final long nrOfRows = table.size();
+        if (!DoubleValueBuffer.fitIntoMemory(nrOfRows * numericCols.size())) {
+            return false;
+        }
+        final DataTableSpec spec = table.getDataTableSpec();
+        final int[] colIndices = new int[numericCols.size()];
+        final DoubleValueBuffer[] buffers = new DoubleValueBuffer[colIndices.length];
+        for (int i = 0; i < colIndices.length; i++) {
+            colIndices[i] = spec.findColumnIndex(numericCols.get(i).getName());
+            buffers[i] = new DoubleValueBuffer();
+        }
+        final ExecutionMonitor scanExec = exec.createSubProgress(0.5);
+        long currRow = 0;
+        for (DataRow row : table) {
+            exec.checkCanceled();
+            scanExec.setProgress(currRow++ / (double)nrOfRows, "extracting values");
+            for (int i = 0; i < colIndices.length; i++) {
+                final DataCell cell = row.getCell(colIndices[i]);
+                if (!cell.isMissing()) {
+                    buffers[i].add(((DoubleValue)cell).getDoubleValue());
+                }
+            }
+        }
+
+        final double[][] statistics = new double[colIndices.length][];
+        final double[][] whiskers = new double[colIndices.length][];
+        final List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < colIndices.length; i++) {
+            final int col = i;
+            tasks.add(() -> {
+                statistics[col] = computeStatistics(buffers[col]);
+                whiskers[col] = computeWhiskers(buffers[col], statistics[col]);
+                // release the values as soon as possible
+                buffers[col] = null;
+                return null;
+            });
+        }
+        exec.setMessage("determining statistics");
+        DoubleValueBuffer.runInParallel(tasks, exec);
+
+        final List<Map<Double, Set<RowKey>>> mild = new ArrayList<>();
+        final List<Map<Double, Set<RowKey>>> extreme = new ArrayList<>();
+        boolean hasOutliers = false;
+        for (int i = 0; i < colIndices.length; i++) {
+            mild.add(new LinkedHashMap<Double, Set<RowKey>>());
+            extreme.add(new LinkedHashMap<Double, Set<RowKey>>());
+            hasOutliers |= whiskers[i] != null;
+        }
+        if (hasOutliers) {
+            final ExecutionMonitor outlierExec = exec.createSubProgress(0.5);
+            currRow = 0;
+            for (DataRow row : table) {
+                exec.checkCanceled();
+                outlierExec.setProgress(currRow++ / (double)nrOfRows, "detecting outliers");
+                for (int i = 0; i < colIndices.length; i++) {
+                    final DataCell cell = row.getCell(colIndices[i]);
+                    if (whiskers[i] != null && !cell.isMissing()) {
+                        addOutlier(((DoubleValue)cell).getDoubleValue(), row.getKey(), statistics[i], mild.get(i),
+                            extreme.get(i));
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < colIndices.length; i++) {
+            final double[] statistic = statistics[i];
+            final double[] whisker = whiskers[i] != null ? whiskers[i] : new double[]{statistic[MIN], statistic[MAX]};
+            statistic[LOWER_WHISKER] = whisker[0];
+            statistic[UPPER_WHISKER] = whisker[1];
+            final String colName = numericCols.get(i).getName();
+            // the outliers are expected in ascending order of their values
+            m_mildOutliers.put(colName, new LinkedHashMap<>(new TreeMap<>(mild.get(i))));
+            m_extremeOutliers.put(colName, new LinkedHashMap<>(new TreeMap<>(extreme.get(i))));
+            m_statistics.put(numericCols.get(i), statistic);
+        }
+        return true;
+    }
+
+    /**
+     * Determines the minimum, the quartiles and the maximum the same way as the sorting based computation does.
+     */
+    private static double[] computeStatistics(final DoubleValueBuffer values) {
+        final double[] statistic = new double[SIZE];
+        final int nrOfValues = values.size();
+        if (nrOfValues == 0) {
+            return statistic;
+        }
+        statistic[MIN] = values.min();
+        statistic[MAX] = values.max();
+        statistic[LOWER_QUARTILE] = selectQuantile(values, nrOfValues * 0.25f, statistic[MIN]);
+        statistic[MEDIAN] = selectQuantile(values, nrOfValues * 0.5f, statistic[MIN]);
+        statistic[UPPER_QUARTILE] = selectQuantile(values, nrOfValues * 0.75f, statistic[MIN]);
+        return statistic;
+    }
+
+    private static double selectQuantile(final DoubleValueBuffer values, final float pos, final double min) {
+        final int idx = (int)Math.floor(pos);
+        if (idx >= values.size()) {
+            return min;
+        }
+        if (pos % 1 != 0) {
+            return values.select(idx);
+        }
+        // calculate the mean between the value and its predecessor
+        final double lastValue = idx > 0 ? values.select(idx - 1) : 1;
+        return (values.select(idx) + lastValue) / 2;
+    }
+
+    /**
+     * @return the lower and upper whisker or {@code null} if there are no outliers
+     */
+    private static double[] computeWhiskers(final DoubleValueBuffer values, final double[] statistic) {
+        final double iqr = statistic[UPPER_QUARTILE] - statistic[LOWER_QUARTILE];
+        final double lowerWhiskerFence = statistic[LOWER_QUARTILE] - (1.5 * iqr);
+        final double upperWhiskerFence = statistic[UPPER_QUARTILE] + (1.5 * iqr);
+        if (!(statistic[MIN] < lowerWhiskerFence || statistic[MAX] > upperWhiskerFence)) {
+            return null;
+        }
+        // the smallest non-outlier and the largest value that is no upper outlier
+        final double[] whiskers = new double[]{statistic[MIN], statistic[MAX]};
+        boolean foundLower = false;
+        boolean foundUpper = false;
+        for (int i = 0; i < values.size(); i++) {
+            final double value = values.get(i);
+            if (value > upperWhiskerFence) {
+                continue;
+            }
+            if (!foundUpper || value > whiskers[1]) {
+                whiskers[1] = value;
+                foundUpper = true;
+            }
+            if (!(value < lowerWhiskerFence) && (!foundLower || value < whiskers[0])) {
+                whiskers[0] = value;
+                foundLower = true;
+            }
+        }
+        return whiskers;
+    }
+
+    /**
+     * Adds the value to the outliers the same way as {@link #detectOutliers(DataTable, double, double[], Map, Map,
+     * double[], int)} does.
+     */
+    private static void addOutlier(final double value, final RowKey key, final double[] statistic,
+            final Map<Double, Set<RowKey>> mild, final Map<Double, Set<RowKey>> extreme) {
+        final double iqr = statistic[UPPER_QUARTILE] - statistic[LOWER_QUARTILE];
+        final Map<Double, Set<RowKey>> outliers;
+        if (value < statistic[LOWER_QUARTILE] - (1.5 * iqr)) {
+            outliers = value > statistic[LOWER_QUARTILE] - (3.0 * iqr) ? mild : extreme;
+        } else if (value > statistic[UPPER_QUARTILE] + (1.5 * iqr)) {
+            outliers = value < statistic[UPPER_QUARTILE] + (3.0 * iqr) ? mild : extreme;
+        } else {
+            return;
+        }
+        // extreme outliers only keep the last row of each value, see detectOutliers
+        Set<RowKey> keys = outliers == mild ? mild.get(value) : null;
+        if (keys == null) {
+            keys = new HashSet<RowKey>();
+        }
+        keys.add(key);
+        outliers.put(value, keys);
+    }
+
+    private void computeStatisticsBySorting(final BufferedDataTable table,
+            final ExecutionContext exec) throws CanceledExecutionException {
+        int colIdx = 0;
         double subProgress = 1.0 / getNumNumericColumns(
                 table.getDataTableSpec());
         for (DataColumnSpec colSpec : table.getDataTableSpec()) {
@@ -205,7 +399,6 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData,
             exec.checkCanceled();
             if (colSpec.getType().isCompatible(DoubleValue.class)) {
                 double[] statistic = new double[SIZE];
-                outputColSpecs.add(colSpec);
                 List<String> col = new ArrayList<String>();
                 col.add(colSpec.getName());
                 ExecutionContext sortExec = colExec.createSubExecutionContext(
@@ -326,16 +519,8 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData,
             }
             colIdx++;
         }
-        DataContainer container = createOutputTable(exec, outputColSpecs);
-        // return a data array with just one row but with the data table spec
-        // for the column selection panel
-        m_array = new DefaultDataArray(table, 1, 2);
-        return new BufferedDataTable[]{exec.createBufferedDataTable(
-                container.getTable(), exec)};
     }
 
-
-
     private DataContainer createOutputTable(final ExecutionContext exec,
             final List<DataColumnSpec> outputColSpecs) {
         DataTableSpec outSpec = createOutputSpec(outputColSpecs);
@@ -49,6 +49,7 @@
 package org.knime.base.node.viz.plotter.box;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
@@ -56,6 +57,7 @@
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.knime.base.data.sort.SortedTable;
 import org.knime.core.data.DataCell;
@@ -200,6 +202,11 @@ public int compare(final DataCell o1, final DataCell o2) {
             catNames.add(cell.isMissing() ? MISSING_VALUES_CLASS : cell.toString());
         }
 
+        if (DoubleValueBuffer.fitIntoMemory(table.size() * numCol.length)) {
+            return calculateMultipleConditionalFromBuffers(table, catColIdx, numCol, numColIdxs, catNames,
+                failOnSpecialDoubles, exec);
+        }
+
         LinkedHashMap<String, LinkedHashMap<String, DataContainer>> containers = new LinkedHashMap<>();
         m_ignoredMissVals = new LinkedHashMap<>();
 
@@ -421,6 +428,10 @@ public LinkedHashMap<String, BoxplotStatistics> calculateMultiple(final Buffered
             numColIdxs[i] = spec.findColumnIndex(numCol[i]);
         }
 
+        if (DoubleValueBuffer.fitIntoMemory(table.size() * numCol.length)) {
+            return calculateMultipleFromBuffers(table, numCol, numColIdxs, failOnSpecialDoubles, exec);
+        }
+
         LinkedHashMap<String, DataContainer> containers = new LinkedHashMap<String, DataContainer>();
         for (int i = 0; i < numCol.length; i++) {
             containers.put(numCol[i], exec.createDataContainer(new DataTableSpec(new String[] {"col"},
@@ -571,4 +582,304 @@ public int compare(final DataRow o1, final DataRow o2) {
 
         return statsMap;
     }
+
+    /**
+     * Computes the statistics of the conditional box plot from primitive buffers holding the values of each column and
+     * class, instead of sorting a table per column and class.
+     */
+    private LinkedHashMap<String, LinkedHashMap<String, BoxplotStatistics>> calculateMultipleConditionalFromBuffers(
+        final BufferedDataTable table, final int catColIdx, final String[] numCol, final int[] numColIdxs,
+        final List<String> catNames, final boolean failOnSpecialDoubles, final ExecutionContext exec)
+        throws CanceledExecutionException, InvalidSettingsException {
+        final LinkedHashMap<String, Integer> classIdxs = new LinkedHashMap<>();
+        for (String catName : catNames) {
+            classIdxs.putIfAbsent(catName, classIdxs.size());
+        }
+        final int numClasses = classIdxs.size();
+        final DoubleValueBuffer[][] buffers = new DoubleValueBuffer[numCol.length][numClasses];
+        final long[][] ignoredMissVals = new long[numCol.length][numClasses];
+        for (DoubleValueBuffer[] colBuffers : buffers) {
+            for (int c = 0; c < numClasses; c++) {
+                colBuffers[c] = new DoubleValueBuffer();
+            }
+        }
+
+        ExecutionContext subExec = exec.createSubExecutionContext(0.5);
+        long count = 0;
+        final long numOfRows = table.size();
+        for (DataRow row : table) {
+            exec.checkCanceled();
+            subExec.setProgress(count++ / (double)numOfRows);
+            final int classIdx = getClassIndex(classIdxs, row.getCell(catColIdx));
+            for (int i = 0; i < numCol.length; i++) {
+                DataCell cell = row.getCell(numColIdxs[i]);
+                boolean isSpecialDouble = cellContainsSpecialDouble(failOnSpecialDoubles, cell);
+                if (!cell.isMissing() && !isSpecialDouble) {
+                    buffers[i][classIdx].add(((DoubleValue)cell).getDoubleValue());
+                } else {
+                    ignoredMissVals[i][classIdx]++;
+                }
+            }
+        }
+
+        final BufferStatistics[][] stats = new BufferStatistics[numCol.length][numClasses];
+        final List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < numCol.length; i++) {
+            for (int c = 0; c < numClasses; c++) {
+                final int col = i;
+                final int classIdx = c;
+                if (buffers[col][classIdx].size() > 0) {
+                    tasks.add(() -> {
+                        stats[col][classIdx] = new BufferStatistics(buffers[col][classIdx]);
+                        buffers[col][classIdx] = null;
+                        return null;
+                    });
+                }
+            }
+        }
+        DoubleValueBuffer.runInParallel(tasks, exec);
+
+        if (Arrays.stream(stats).flatMap(Arrays::stream).anyMatch(st -> st != null && st.hasOutliers())) {
+            ExecutionContext subExec2 = exec.createSubExecutionContext(0.5);
+            count = 0;
+            for (DataRow row : table) {
+                exec.checkCanceled();
+                subExec2.setProgress(count++ / (double)numOfRows);
+                final int classIdx = getClassIndex(classIdxs, row.getCell(catColIdx));
+                for (int i = 0; i < numCol.length; i++) {
+                    final BufferStatistics st = stats[i][classIdx];
+                    DataCell cell = row.getCell(numColIdxs[i]);
+                    if (st != null && st.hasOutliers() && !cell.isMissing()
+                        && !cellContainsSpecialDouble(failOnSpecialDoubles, cell)) {
+                        st.addOutlier(((DoubleValue)cell).getDoubleValue(), row.getKey().getString());
+                    }
+                }
+            }
+        }
+
+        LinkedHashMap<String, LinkedHashMap<String, BoxplotStatistics>> statsMap = new LinkedHashMap<>();
+        excludedClasses = new LinkedHashMap<>();
+        m_ignoredMissVals = new LinkedHashMap<>();
+        for (int i = 0; i < numCol.length; i++) {
+            LinkedHashMap<String, BoxplotStatistics> colStats = new LinkedHashMap<String, BoxplotStatistics>();
+            LinkedHashMap<String, Long> missValMap = new LinkedHashMap<>();
+            List<String> excludedColClassesList = new ArrayList<>();
+            for (Entry<String, Integer> entry : classIdxs.entrySet()) {
+                final String catName = entry.getKey();
+                final int classIdx = entry.getValue();
+                final long numMissVals = ignoredMissVals[i][classIdx];
+                if (stats[i][classIdx] == null) {
+                    // we should add missing values to this list, only if they were there
+                    if (!(catName.equals(MISSING_VALUES_CLASS) && numMissVals == 0)) {
+                        excludedColClassesList.add(catName);
+                    }
+                    continue;
+                }
+                if (numMissVals > 0) {
+                    missValMap.put(catName, numMissVals);
+                }
+                colStats.put(catName, stats[i][classIdx].toBoxplotStatistics());
+            }
+            statsMap.put(numCol[i], colStats);
+            m_ignoredMissVals.put(numCol[i], missValMap);
+            excludedClasses.put(numCol[i], excludedColClassesList.toArray(new String[0]));
+        }
+        return statsMap;
+    }
+
+    private static int getClassIndex(final LinkedHashMap<String, Integer> classIdxs, final DataCell catCell)
+        throws InvalidSettingsException {
+        String catName = catCell.isMissing() ? MISSING_VALUES_CLASS : catCell.toString();
+        final Integer classIdx = classIdxs.get(catName);
+        if (classIdx == null) {
+            throw new InvalidSettingsException(
+                "The domain of the category column does not contain the value \"" + catName + "\"");
+        }
+        return classIdx;
+    }
+
+    /**
+     * Computes the statistics of the box plot from primitive buffers holding the values of each column, instead of
+     * sorting a table per column.
+     */
+    private LinkedHashMap<String, BoxplotStatistics> calculateMultipleFromBuffers(final BufferedDataTable table,
+        final String[] numCol, final int[] numColIdxs, final boolean failOnSpecialDoubles,
+        final ExecutionContext exec) throws CanceledExecutionException {
+        final DoubleValueBuffer[] buffers = new DoubleValueBuffer[numCol.length];
+        for (int i = 0; i < numCol.length; i++) {
+            buffers[i] = new DoubleValueBuffer();
+        }
+
+        ExecutionContext subExec = exec.createSilentSubExecutionContext(0.5);
+        long[] numMissValPerCol = new long[numCol.length];
+        long count = 0;
+        for (DataRow row : table) {
+            exec.checkCanceled();
+            subExec.setProgress((double)count++ / table.size());
+            for (int i = 0; i < numCol.length; i++) {
+                DataCell cell = row.getCell(numColIdxs[i]);
+                boolean isSpecialDouble = cellContainsSpecialDouble(failOnSpecialDoubles, cell);
+                if (!cell.isMissing() && !isSpecialDouble) {
+                    buffers[i].add(((DoubleValue)cell).getDoubleValue());
+                } else {
+                    numMissValPerCol[i]++;
+                }
+            }
+        }
+
+        final BufferStatistics[] stats = new BufferStatistics[numCol.length];
+        final List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < numCol.length; i++) {
+            final int col = i;
+            if (buffers[col].size() > 0) {
+                tasks.add(() -> {
+                    stats[col] = new BufferStatistics(buffers[col]);
+                    buffers[col] = null;
+                    return null;
+                });
+            }
+        }
+        DoubleValueBuffer.runInParallel(tasks, exec);
+
+        if (Arrays.stream(stats).anyMatch(st -> st != null && st.hasOutliers())) {
+            ExecutionContext subExec2 = exec.createSilentSubExecutionContext(0.5);
+            count = 0;
+            for (DataRow row : table) {
+                exec.checkCanceled();
+                subExec2.setProgress((double)count++ / table.size());
+                for (int i = 0; i < numCol.length; i++) {
+                    DataCell cell = row.getCell(numColIdxs[i]);
+                    if (stats[i] != null && stats[i].hasOutliers() && !cell.isMissing()
+                        && !cellContainsSpecialDouble(failOnSpecialDoubles, cell)) {
+                        stats[i].addOutlier(((DoubleValue)cell).getDoubleValue(), row.getKey().getString());
+                    }
+                }
+            }
+        }
+
+        LinkedHashMap<String, BoxplotStatistics> statsMap = new LinkedHashMap<>();
+        List<String> excludedDataColList = new ArrayList<String>();
+        for (int i = 0; i < numCol.length; i++) {
+            if (stats[i] == null) {
+                excludedDataColList.add(numCol[i]);
+            } else {
+                statsMap.put(numCol[i], stats[i].toBoxplotStatistics());
+            }
+        }
+
+        // missing values part
+        m_excludedDataCols = excludedDataColList.toArray(new String[excludedDataColList.size()]);
+        m_numMissValPerCol = new LinkedHashMap<String, Long>();
+        for (int i = 0; i < numCol.length; i++) {
+            if (numMissValPerCol[i] > 0 && !excludedDataColList.contains(numCol[i])) {
+                m_numMissValPerCol.put(numCol[i], numMissValPerCol[i]);
+            }
+        }
+
+        return statsMap;
+    }
+
+    /**
+     * The statistics of a non-empty buffer, which are the same as the ones determined by scanning the sorted values.
+     * The outliers are added in a second pass over the data.
+     */
+    private static final class BufferStatistics {
+
+        private final double m_min;
+
+        private final double m_max;
+
+        private final double m_q1;
+
+        private final double m_median;
+
+        private final double m_q3;
+
+        private final double m_lowerWhisker;
+
+        private final double m_upperWhisker;
+
+        private final Set<Outlier> m_mildOutliers = new HashSet<Outlier>();
+
+        private final Set<Outlier> m_extremeOutliers = new HashSet<Outlier>();
+
+        BufferStatistics(final DoubleValueBuffer values) {
+            final int size = values.size();
+            m_min = values.min();
+            m_max = values.max();
+            // selecting the quantiles in ascending order only partitions the remaining values
+            m_q1 = selectQuantile(values, size % 4 == 0, size / 4);
+            m_median = selectQuantile(values, size % 2 == 0, size / 2);
+            m_q3 = selectQuantile(values, 3L * size % 4 == 0, (int)(3L * size / 4));
+
+            // the lower whisker is the smallest value that is no lower outlier, the upper whisker is the largest value
+            // that is no upper outlier, except for the one that became the lower whisker
+            final double lowerWhiskerFence = getLowerWhiskerFence();
+            final double upperWhiskerFence = getUpperWhiskerFence();
+            boolean foundSmallest = false;
+            double smallest = m_min;
+            double largest = m_max;
+            int numInRange = 0;
+            for (int i = 0; i < size; i++) {
+                final double value = values.get(i);
+                if (value >= lowerWhiskerFence) {
+                    if (!foundSmallest || value < smallest) {
+                        smallest = value;
+                        foundSmallest = true;
+                    }
+                    if (value <= upperWhiskerFence) {
+                        if (numInRange == 0 || value > largest) {
+                            largest = value;
+                        }
+                        numInRange++;
+                    }
+                }
+            }
+            if (m_min < lowerWhiskerFence) {
+                m_lowerWhisker = smallest;
+                m_upperWhisker = numInRange > 1 ? largest : m_max;
+            } else {
+                m_lowerWhisker = m_min;
+                m_upperWhisker = numInRange > 0 ? largest : m_max;
+            }
+        }
+
+        private static double selectQuantile(final DoubleValueBuffer values, final boolean mean, final int idx) {
+            if (mean) {
+                final double lower = values.select(idx - 1);
+                return (lower + values.select(idx)) / 2.0;
+            }
+            return values.select(idx);
+        }
+
+        private double getLowerWhiskerFence() {
+            return m_q1 - (1.5 * (m_q3 - m_q1));
+        }
+
+        private double getUpperWhiskerFence() {
+            return m_q3 + (1.5 * (m_q3 - m_q1));
+        }
+
+        boolean hasOutliers() {
+            return m_min < getLowerWhiskerFence() || m_max > getUpperWhiskerFence();
+        }
+
+        void addOutlier(final double value, final String rowKey) {
+            final double iqr = m_q3 - m_q1;
+            if (value < m_q1 - (3 * iqr)) {
+                m_extremeOutliers.add(new Outlier(value, rowKey));
+            } else if (value < getLowerWhiskerFence()) {
+                m_mildOutliers.add(new Outlier(value, rowKey));
+            } else if (value > m_q3 + (3 * iqr)) {
+                m_extremeOutliers.add(new Outlier(value, rowKey));
+            } else if (value > getUpperWhiskerFence()) {
+                m_mildOutliers.add(new Outlier(value, rowKey));
+            }
+        }
+
+        BoxplotStatistics toBoxplotStatistics() {
+            return new BoxplotStatistics(m_mildOutliers, m_extremeOutliers, m_min, m_max, m_lowerWhisker, m_q1,
+                m_median, m_q3, m_upperWhisker);
+        }
+    }
 }
@@ -0,0 +1,220 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.viz.plotter.box;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+import org.knime.filehandling.core.util.ThreadPoolUtils;
+
+/**
+ * A growable buffer of primitive double values that allows to select order statistics, e.g., quartiles, without
+ * sorting all values. It replaces sorting a single column table per numeric column (and class) when computing box plot
+ * statistics.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class DoubleValueBuffer {
+
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private double[] m_values = new double[INITIAL_CAPACITY];
+
+    private int m_size;
+
+    /** The index of the last selected value, which is at its sorted position; -1 if nothing was selected yet. */
+    private int m_selected = -1;
+
+    /**
+     * @param value the value to add
+     */
+    void add(final double value) {
+        if (m_size == m_values.length) {
+            m_values = Arrays.copyOf(m_values, (int)Math.min(Integer.MAX_VALUE - 8, 2L * m_size));
+        }
+        m_values[m_size++] = value;
+        m_selected = -1;
+    }
+
+    /**
+     * @return the number of values
+     */
+    int size() {
+        return m_size;
+    }
+
+    /**
+     * @param index the position of a value
+     * @return the value at the given position; only meaningful for selected positions or scans over all values
+     */
+    double get(final int index) {
+        return m_values[index];
+    }
+
+    /**
+     * Returns the value that would be at the given position if the values were sorted in ascending order. The values
+     * are partially reordered, such that all values before the position are less or equal and all values after the
+     * position are greater or equal. Selecting positions in ascending order only scans the not yet partitioned part.
+     *
+     * @param k the position in the sorted order
+     * @return the k-th smallest value
+     */
+    double select(final int k) {
+        final double[] a = m_values;
+        if (m_selected == k) {
+            return a[k];
+        }
+        int from = m_selected >= 0 && m_selected < k ? m_selected + 1 : 0;
+        int to = m_size - 1;
+        // fall back to sorting if the pivots are chosen badly
+        int remainingIterations = 2 * (Integer.SIZE - Integer.numberOfLeadingZeros(to - from + 1)) + 8;
+        while (to > from) {
+            if (remainingIterations-- == 0) {
+                Arrays.sort(a, from, to + 1);
+                break;
+            }
+            final int mid = (from + to) >>> 1;
+            // median of three as pivot
+            if (Double.compare(a[mid], a[from]) < 0) {
+                swap(a, mid, from);
+            }
+            if (Double.compare(a[to], a[from]) < 0) {
+                swap(a, to, from);
+            }
+            if (Double.compare(a[to], a[mid]) < 0) {
+                swap(a, to, mid);
+            }
+            final double pivot = a[mid];
+            int i = from;
+            int j = to;
+            while (i <= j) {
+                while (Double.compare(a[i], pivot) < 0) {
+                    i++;
+                }
+                while (Double.compare(a[j], pivot) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(a, i++, j--);
+                }
+            }
+            // now all values in [from, j] are <= pivot, all in [i, to] are >= pivot and the ones between equal it
+            if (k <= j) {
+                to = j;
+            } else if (k >= i) {
+                from = i;
+            } else {
+                break;
+            }
+        }
+        m_selected = k;
+        return a[k];
+    }
+
+    private static void swap(final double[] a, final int i, final int j) {
+        final double tmp = a[i];
+        a[i] = a[j];
+        a[j] = tmp;
+    }
+
+    /**
+     * @return the smallest value, the buffer must not be empty
+     */
+    double min() {
+        double min = m_values[0];
+        for (int i = 1; i < m_size; i++) {
+            if (Double.compare(m_values[i], min) < 0) {
+                min = m_values[i];
+            }
+        }
+        return min;
+    }
+
+    /**
+     * @return the largest value, the buffer must not be empty
+     */
+    double max() {
+        double max = m_values[0];
+        for (int i = 1; i < m_size; i++) {
+            if (Double.compare(m_values[i], max) > 0) {
+                max = m_values[i];
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Checks whether buffers holding the given number of values fit into memory, leaving half of the free memory to
+     * the rest of the workflow. The buffers may be up to twice as large as their content.
+     *
+     * @param numValues the total number of values of all buffers
+     * @return whether the buffers fit into memory
+     */
+    static boolean fitIntoMemory(final long numValues) {
+        final Runtime runtime = Runtime.getRuntime();
+        final long availableMemory = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        return numValues <= Integer.MAX_VALUE - 8 && 2 * Double.BYTES * numValues < availableMemory / 2;
+    }
+
+    /**
+     * Runs the statistics computations of several buffers on a thread pool.
+     *
+     * @param tasks the computations
+     * @param exec the execution monitor to check for cancellation
+     * @throws CanceledExecutionException if the execution has been canceled
+     */
+    static void runInParallel(final List<Callable<Void>> tasks, final ExecutionMonitor exec)
+        throws CanceledExecutionException {
+        final ThreadPool pool =
+            KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(Runtime.getRuntime().availableProcessors());
+        ThreadPoolUtils.invokeAll(pool, tasks, exec);
+    }
+}
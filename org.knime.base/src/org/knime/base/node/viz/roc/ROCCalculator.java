@@ -53,6 +53,8 @@
 import java.util.Collections;
 import java.util.List;
 
+import org.knime.base.data.sort.ScoreSorter;
+import org.knime.base.data.sort.ScoreSorter.SortedScores;
 import org.knime.base.data.sort.SortedTable;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
@@ -141,96 +143,145 @@ public ROCCalculator(final List<String> curves, final String classCol,
 
     /**
      * Calculates the ROC curve.
-     * @param table the table with the data
+     * @param table the data table
      * @param exec the execution context to use for reporting progress
      * @throws CanceledExecutionException when the user cancels the execution
      */
     public void calculateCurveData(final BufferedDataTable table, final ExecutionContext exec)
             throws CanceledExecutionException {
         m_warningMessage = null;
-        List<ROCCurve> curves = new ArrayList<ROCCurve>();
-        int classIndex = table.getDataTableSpec().findColumnIndex(m_classCol);
+        final DataTableSpec spec = table.getDataTableSpec();
+        int classIndex = spec.findColumnIndex(m_classCol);
         int curvesSize = m_curves.size();
-        int size = table.getRowCount();
-        if (size == 0) {
+        if (table.size() == 0) {
             m_warningMessage = "Input table contains no rows";
         }
-        BufferedDataContainer outCont = exec.createDataContainer(OUT_SPEC);
-        for (int i = 0; i < curvesSize; i++) {
-            exec.checkCanceled();
-            String c = m_curves.get(i);
-
-            ExecutionContext subExec = exec.createSubExecutionContext(
-                    1.0 / curvesSize);
-            SortedTable sortedTable =
-                    new SortedTable(table, Collections.singletonList(c),
-                            new boolean[]{false}, subExec);
-            subExec.setProgress(1.0);
-
-            int tp = 0, fp = 0;
-            // these contain the coordinates for the plot
-            double[] xValues = new double[size + 1];
-            double[] yValues = new double[size + 1];
-            int k = 0;
-            final int scoreColIndex =
-                    sortedTable.getDataTableSpec().findColumnIndex(c);
-            DataCell lastScore = null;
-            for (DataRow row : sortedTable) {
+        final ROCCurve[] curves = new ROCCurve[curvesSize];
+        // sort the scores of all curves in primitive arrays, unless they don't fit into memory
+        final ScoreSorter sorter = new ScoreSorter(c -> c.toString().equals(m_posClass), m_ignoreMissingValues,
+            m_ignoreMissingValues);
+        final boolean sorted = sorter.sort(table, classIndex,
+            m_curves.stream().mapToInt(spec::findColumnIndex).toArray(), Runtime.getRuntime().availableProcessors(),
+            exec, (i, scores) -> curves[i] = calculateCurve(m_curves.get(i), scores));
+        if (!sorted) {
+            for (int i = 0; i < curvesSize; i++) {
                 exec.checkCanceled();
-                DataCell realClass = row.getCell(classIndex);
-                if (realClass.isMissing() || row.getCell(scoreColIndex).isMissing()) {
-                    if (m_ignoreMissingValues) {
-                        continue;
-                    } else {
-                        m_warningMessage = "Table contains missing values.";
-                    }
-                }
-                if (realClass.toString().equals(m_posClass)) {
-                    tp++;
-                } else {
-                    fp++;
-                }
-
-                // Only add a new line point if probability values differ. If they are equal we can't prefer one
-                // value over the other as they are indifferent; for a sequence of equal probabilities, think of what
-                // would happen if we first encounter all TP and then the FP and the other way
-                // around ... the following lines circumvent this.
-                if (!row.getCell(scoreColIndex).equals(lastScore)) {
-                    k++;
-                    lastScore = row.getCell(scoreColIndex);
-                }
-                xValues[k] = fp;
-                yValues[k] = tp;
+                curves[i] = calculateCurveBySorting(table, m_curves.get(i), classIndex,
+                    exec.createSubExecutionContext(1.0 / curvesSize));
             }
+        }
 
-            xValues = Arrays.copyOf(xValues, k + 1);
-            yValues = Arrays.copyOf(yValues, k + 1);
+        BufferedDataContainer outCont = exec.createDataContainer(OUT_SPEC);
+        for (ROCCurve curve : curves) {
+            outCont.addRowToTable(new DefaultRow(new RowKey(curve.getName()),
+                    new DoubleCell(curve.getArea())));
+        }
+        m_outCurves = new ArrayList<>(Arrays.asList(curves));
+        outCont.close();
+        m_outTable = outCont.getTable();
+    }
 
-            for (int j = 0; j <= k; j++) {
-                xValues[j] /= fp;
-                yValues[j] /= tp;
+    private ROCCurve calculateCurve(final String c, final SortedScores scores) {
+        if (scores.containsMissingValues()) {
+            m_warningMessage = "Table contains missing values.";
+        }
+        final int size = scores.size();
+        // only allocate one point per distinct score
+        int numPoints = 1;
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || !scores.isSameScore(i - 1, i)) {
+                numPoints++;
+            }
+        }
+        int tp = 0, fp = 0;
+        double[] xValues = new double[numPoints];
+        double[] yValues = new double[numPoints];
+        int k = 0;
+        for (int i = 0; i < size; i++) {
+            if (scores.isPositive(i)) {
+                tp++;
+            } else {
+                fp++;
+            }
+            // see calculateCurveBySorting for why points are only added if the scores differ
+            if (i == 0 || !scores.isSameScore(i - 1, i)) {
+                k++;
             }
-            xValues[xValues.length - 1] = 1;
-            yValues[yValues.length - 1] = 1;
-
-            double area = 0;
-            for (k = 1; k < xValues.length; k++) {
-                if (xValues[k - 1] < xValues[k]) {
-                    // magical math: the rectangle + the triangle under
-                    // the segment xValues[k] to xValues[k - 1]
-                    area += 0.5 * (xValues[k] - xValues[k - 1])
-                        * (yValues[k] + yValues[k - 1]);
+            xValues[k] = fp;
+            yValues[k] = tp;
+        }
+        return createCurve(c, xValues, yValues, k, tp, fp);
+    }
+
+    private ROCCurve calculateCurveBySorting(final BufferedDataTable table, final String c, final int classIndex,
+        final ExecutionContext subExec) throws CanceledExecutionException {
+        int size = table.getRowCount();
+        SortedTable sortedTable =
+                new SortedTable(table, Collections.singletonList(c),
+                        new boolean[]{false}, subExec);
+        subExec.setProgress(1.0);
+
+        int tp = 0, fp = 0;
+        // these contain the coordinates for the plot
+        double[] xValues = new double[size + 1];
+        double[] yValues = new double[size + 1];
+        int k = 0;
+        final int scoreColIndex =
+                sortedTable.getDataTableSpec().findColumnIndex(c);
+        DataCell lastScore = null;
+        for (DataRow row : sortedTable) {
+            subExec.checkCanceled();
+            DataCell realClass = row.getCell(classIndex);
+            if (realClass.isMissing() || row.getCell(scoreColIndex).isMissing()) {
+                if (m_ignoreMissingValues) {
+                    continue;
+                } else {
+                    m_warningMessage = "Table contains missing values.";
                 }
             }
+            if (realClass.toString().equals(m_posClass)) {
+                tp++;
+            } else {
+                fp++;
+            }
 
-            curves.add(new ROCCurve(c, xValues, yValues, area, m_maxPoints));
-            outCont.addRowToTable(new DefaultRow(new RowKey(c.toString()),
-                    new DoubleCell(area)));
+            // Only add a new line point if probability values differ. If they are equal we can't prefer one
+            // value over the other as they are indifferent; for a sequence of equal probabilities, think of what
+            // would happen if we first encounter all TP and then the FP and the other way
+            // around ... the following lines circumvent this.
+            if (!row.getCell(scoreColIndex).equals(lastScore)) {
+                k++;
+                lastScore = row.getCell(scoreColIndex);
+            }
+            xValues[k] = fp;
+            yValues[k] = tp;
         }
+        return createCurve(c, xValues, yValues, k, tp, fp);
+    }
 
-        m_outCurves = curves;
-        outCont.close();
-        m_outTable = outCont.getTable();
+    private ROCCurve createCurve(final String c, final double[] fpCounts, final double[] tpCounts, final int k,
+        final int tp, final int fp) {
+        double[] xValues = Arrays.copyOf(fpCounts, k + 1);
+        double[] yValues = Arrays.copyOf(tpCounts, k + 1);
+
+        for (int j = 0; j <= k; j++) {
+            xValues[j] /= fp;
+            yValues[j] /= tp;
+        }
+        xValues[xValues.length - 1] = 1;
+        yValues[yValues.length - 1] = 1;
+
+        double area = 0;
+        for (int j = 1; j < xValues.length; j++) {
+            if (xValues[j - 1] < xValues[j]) {
+                // magical math: the rectangle + the triangle under
+                // the segment xValues[j] to xValues[j - 1]
+                area += 0.5 * (xValues[j] - xValues[j - 1])
+                    * (yValues[j] + yValues[j - 1]);
+            }
+        }
+
+        return new ROCCurve(c, xValues, yValues, area, m_maxPoints);
     }
 
     /**
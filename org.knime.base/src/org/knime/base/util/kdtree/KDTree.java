@@ -44,6 +44,7 @@
  */
 package org.knime.base.util.kdtree;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
@@ -107,6 +108,32 @@ public int size() {
      */
     public List<NearestNeighbour<T>> getKNearestNeighbours(
             final double[] query, final int k) {
+        return getKNearestNeighbours(query, k, false);
+    }
+
+    /**
+     * Searches for the <code>k</code> nearest neighbours of the
+     * <code>query</code> pattern. The returned list is sorted by the distance
+     * to the query pattern in increasing order. The returned list may contain
+     * more than <code>k</code> patterns if the patterns from <code>k</code> to
+     * the end have equal distance to the query pattern.
+     *
+     * <p>
+     * Without <code>keepAllTies</code> some of the patterns having the same
+     * distance as the <code>k</code>-th nearest neighbour may be missing from
+     * the result, depending on the order in which the patterns are visited.
+     *
+     * @param query the query pattern, must have the same dimensionality as the
+     *            patterns inside the tree
+     * @param k the number of nearest neighbours to retrieve
+     * @param keepAllTies <code>true</code> if all patterns having the same
+     *            distance as the <code>k</code>-th nearest neighbour must be
+     *            returned
+     * @return a sorted list of the nearest neighbours
+     * @since 5.1
+     */
+    public List<NearestNeighbour<T>> getKNearestNeighbours(
+            final double[] query, final int k, final boolean keepAllTies) {
         if (query.length != m_k) {
             throw new IllegalArgumentException(
                     "The query vector has not length " + m_k);
@@ -131,7 +158,8 @@ public List<NearestNeighbour<T>> getKNearestNeighbours(
         }
 
         m_testedPatterns = 0;
-        search(m_root, query, pq, lowerBounds, upperBounds, false);
+        search(m_root, query, pq, lowerBounds, upperBounds, false,
+                keepAllTies ? k : 0);
         LinkedList<NearestNeighbour<T>> results =
                 new LinkedList<NearestNeighbour<T>>();
 
@@ -200,7 +228,7 @@ public List<NearestNeighbour<T>> getMaxDistanceNeighbours(
         }
 
         m_testedPatterns = 0;
-        search(m_root, query, pq, lowerBounds, upperBounds, true);
+        search(m_root, query, pq, lowerBounds, upperBounds, true, 0);
         LinkedList<NearestNeighbour<T>> results =
                 new LinkedList<NearestNeighbour<T>>();
 
@@ -233,13 +261,16 @@ public List<NearestNeighbour<T>> getMaxDistanceNeighbours(
      * @param maxDistanceMode <code>true</code> if all nodes up to a maximal
      *            distance should be added, <code>false</code> if the k nearest
      *            neighbours should be found
+     * @param k the number of nearest neighbours whose ties must all be kept,
+     *            0 to remove only the single farthest candidate; ignored if
+     *            <code>maxDistanceMode</code> is <code>true</code>
      *
      * @return <code>true</code> if a new nearest neighbour has been found,
      *         <code>false</code> otherwise
      */
     private boolean addNewNearestNeighbour(final TerminalNode<T> tn,
             final PriorityQueue<NearestNeighbour<T>> pq, final double[] query,
-            final boolean maxDistanceMode) {
+            final boolean maxDistanceMode, final int k) {
         m_testedPatterns++;
         double distance = tn.getDistance(query);
 
@@ -250,7 +281,7 @@ private boolean addNewNearestNeighbour(final TerminalNode<T> tn,
                     new NearestNeighbour<T>(tn.getData(), distance);
             pq.offer(qr);
             if (!maxDistanceMode) {
-                pq.poll();
+                removeFarthest(pq, k);
             }
             return true;
         } else if (d == distance) {
@@ -262,6 +293,35 @@ private boolean addNewNearestNeighbour(final TerminalNode<T> tn,
         return false;
     }
 
+    /**
+     * Removes the farthest neighbours from the candidate list after a nearer
+     * one has been added. If <code>k</code> is positive, neighbours having the
+     * same distance are only removed all together, and only if at least
+     * <code>k</code> candidates remain. Otherwise equidistant neighbours would
+     * get lost depending on the order in which the patterns are visited. The
+     * initial placeholders without data are removed one by one.
+     *
+     * @param pq the list of nearest neighbours
+     * @param k the number of nearest neighbours whose ties must all be kept,
+     *            0 to remove only the single farthest candidate
+     */
+    private static <T> void removeFarthest(
+            final PriorityQueue<NearestNeighbour<T>> pq, final int k) {
+        final double farthest = pq.peek().getDistance();
+        if (k == 0 || farthest == Double.MAX_VALUE) {
+            pq.poll();
+            return;
+        }
+        final List<NearestNeighbour<T>> removed =
+                new ArrayList<NearestNeighbour<T>>();
+        while (pq.peek().getDistance() == farthest) {
+            removed.add(pq.poll());
+        }
+        if (pq.size() < k) {
+            pq.addAll(removed);
+        }
+    }
+
     /**
      * Does the recursive search. This method can be used for two purposes:
      * First during the search for the k nearest neighbours of the query
@@ -278,6 +338,9 @@ private boolean addNewNearestNeighbour(final TerminalNode<T> tn,
      * @param maxDistanceMode <code>true</code> if all nodes up to a maximal
      *            distance should be added, <code>false</code> if the k nearest
      *            neighbours should be found
+     * @param k the number of nearest neighbours whose ties must all be kept,
+     *            0 to remove only the single farthest candidate; ignored if
+     *            <code>maxDistanceMode</code> is <code>true</code>
      *
      * @return <code>true</code> if the search can be aborted,
      *         <code>false</code> if it should be continued
@@ -285,7 +348,7 @@ private boolean addNewNearestNeighbour(final TerminalNode<T> tn,
     private boolean search(final Node node, final double[] query,
             final PriorityQueue<NearestNeighbour<T>> pq,
             final double[] lowerBounds, final double[] upperBounds,
-            final boolean maxDistanceMode) {
+            final boolean maxDistanceMode, final int k) {
         if (node == null) {
             return false;
         }
@@ -293,7 +356,8 @@ private boolean search(final Node node, final double[] query,
             boolean newFound = false;
             for (TerminalNode<T> tn : ((TerminalBucket<T>)node)) {
                 newFound |=
-                        addNewNearestNeighbour(tn, pq, query, maxDistanceMode);
+                        addNewNearestNeighbour(tn, pq, query, maxDistanceMode,
+                                k);
             }
             if (newFound
                     && ballWithinBounds(query, pq.peek().getDistance(),
@@ -314,7 +378,7 @@ && ballWithinBounds(query, pq.peek().getDistance(),
             upperBounds[keyIndex] = keyValue;
             boolean finished =
                     search(n.getLeft(), query, pq, lowerBounds, upperBounds,
-                            maxDistanceMode);
+                            maxDistanceMode, k);
             upperBounds[keyIndex] = temp;
             if (finished) {
                 return true;
@@ -324,7 +388,7 @@ && ballWithinBounds(query, pq.peek().getDistance(),
             lowerBounds[keyIndex] = keyValue;
             boolean finished =
                     search(n.getRight(), query, pq, lowerBounds, upperBounds,
-                            maxDistanceMode);
+                            maxDistanceMode, k);
             lowerBounds[keyIndex] = temp;
             if (finished) {
                 return true;
@@ -339,7 +403,7 @@ && ballWithinBounds(query, pq.peek().getDistance(),
             if (boundsOverlapBall(query, pq.peek().getDistance(), lowerBounds,
                     upperBounds)) {
                 search(n.getRight(), query, pq, lowerBounds, upperBounds,
-                        maxDistanceMode);
+                        maxDistanceMode, k);
             }
             lowerBounds[keyIndex] = temp;
         } else {
@@ -349,7 +413,7 @@ && ballWithinBounds(query, pq.peek().getDistance(),
             if (boundsOverlapBall(query, pq.peek().getDistance(), lowerBounds,
                     upperBounds)) {
                 search(n.getLeft(), query, pq, lowerBounds, upperBounds,
-                        maxDistanceMode);
+                        maxDistanceMode, k);
             }
 
             upperBounds[keyIndex] = temp;
@@ -77,10 +77,9 @@ class ExamplePathIterator extends BasePathIterator<ExamplePath> {
             Iterator<ExamplePath> iterator = null;
 
             // FIXME: if fetching file attributes for a path is expensive (e.g. requires
-            // HTTP request) make sure to create and cache BaseFileAttributes for the files
-            // being listed here by calling
-            // path.getFileSystem().addToAttributeCache(listedPath, new
-            // BaseFileAttributes(....));
+            // HTTP request) make sure to create BaseFileAttributes for the files being
+            // listed here and cache them all at once by calling
+            // cacheAttributes(attributesByListedPath);
 
             setFirstPage(iterator); // NOSONAR standard pattern
         } catch (Exception ex) { // FIXME handle custom exceptions
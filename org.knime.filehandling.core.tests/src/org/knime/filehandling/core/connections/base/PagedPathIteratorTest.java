@@ -0,0 +1,216 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.core.connections.base;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream.Filter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.knime.filehandling.core.connections.FSPath;
+import org.mockito.Mockito;
+
+/**
+ * Tests the {@link PagedPathIterator} with and without prefetching of pages.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class PagedPathIteratorTest {
+
+    /**
+     * Tests that the paths of all pages are returned in order, skipping empty pages and filtered paths.
+     *
+     * @throws IOException - If a page cannot be loaded
+     */
+    @Test
+    public void testIteration() throws IOException {
+        for (final boolean prefetch : new boolean[]{false, true}) {
+            final List<List<FSPath>> pages = createPages(1, 0, 3, 0, 0, 2);
+            final List<FSPath> expected = new ArrayList<>();
+            pages.forEach(expected::addAll);
+            final FSPath rejected = pages.get(2).get(1);
+            expected.remove(rejected);
+
+            final TestIterator iterator = new TestIterator(pages, p -> p != rejected, prefetch);
+            final List<FSPath> actual = new ArrayList<>();
+            iterator.forEachRemaining(actual::add);
+            assertEquals(expected, actual);
+            assertEquals(pages.size() - 1, iterator.m_loadedPages.get());
+        }
+    }
+
+    /**
+     * Tests that without prefetching, the pages are loaded by the calling thread when they are needed.
+     *
+     * @throws IOException - If a page cannot be loaded
+     */
+    @Test
+    public void testNoPrefetch() throws IOException {
+        final TestIterator iterator = new TestIterator(createPages(2, 2), p -> true, false);
+        assertTrue(iterator.hasNext());
+        iterator.next();
+        assertEquals(0, iterator.m_loadedPages.get());
+        iterator.next();
+        assertEquals(1, iterator.m_loadedPages.get());
+        assertEquals(Collections.singleton(Thread.currentThread()), iterator.m_loadingThreads);
+    }
+
+    /**
+     * Tests that the next page is only prefetched once a path has been consumed via {@link PagedPathIterator#next()},
+     * i.e., that checking whether a directory is empty doesn't send another request.
+     *
+     * @throws Exception - If a page cannot be loaded
+     */
+    @Test
+    public void testPrefetchStartsWithNext() throws Exception {
+        final TestIterator iterator = new TestIterator(createPages(2, 2), p -> true, true);
+        assertTrue(iterator.hasNext());
+        assertTrue(iterator.hasNext());
+        Thread.sleep(100);
+        assertEquals(0, iterator.m_loadedPages.get());
+        iterator.next();
+        iterator.m_released.await(10, TimeUnit.SECONDS);
+        assertEquals(1, iterator.m_loadedPages.get());
+        assertFalse(iterator.m_loadingThreads.contains(Thread.currentThread()));
+    }
+
+    /**
+     * Tests that closing waits for a page that is being loaded and prevents any further pages from being loaded.
+     *
+     * @throws Exception - If a page cannot be loaded
+     */
+    @Test(timeout = 60_000)
+    public void testCloseStopsPrefetch() throws Exception {
+        final CountDownLatch loadingStarted = new CountDownLatch(1);
+        final CountDownLatch blockLoading = new CountDownLatch(1);
+        final TestIterator iterator = new TestIterator(createPages(2, 2, 2), p -> true, true) {
+            @Override
+            protected Iterator<FSPath> loadNextPage() throws IOException {
+                loadingStarted.countDown();
+                try {
+                    blockLoading.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(ex);
+                }
+                return super.loadNextPage();
+            }
+        };
+        iterator.next();
+        loadingStarted.await();
+        final Thread closing = new Thread(iterator::close);
+        closing.start();
+        closing.join(200);
+        assertTrue("Closing must wait for the page being loaded.", closing.isAlive());
+        blockLoading.countDown();
+        closing.join();
+        assertEquals(1, iterator.m_loadedPages.get());
+
+        // the rest of the current page is still returned, but no further pages are loaded
+        iterator.next();
+        assertFalse(iterator.hasNext());
+        Thread.sleep(100);
+        assertEquals(1, iterator.m_loadedPages.get());
+    }
+
+    private static List<List<FSPath>> createPages(final int... sizes) {
+        final List<List<FSPath>> pages = new ArrayList<>();
+        for (final int size : sizes) {
+            final List<FSPath> page = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                page.add(Mockito.mock(FSPath.class));
+            }
+            pages.add(page);
+        }
+        return pages;
+    }
+
+    private static class TestIterator extends PagedPathIterator<FSPath> {
+
+        private final List<List<FSPath>> m_pages;
+
+        private final AtomicInteger m_loadedPages = new AtomicInteger();
+
+        private final Set<Thread> m_loadingThreads = ConcurrentHashMap.newKeySet();
+
+        private final CountDownLatch m_released = new CountDownLatch(1);
+
+        private int m_nextPage = 1;
+
+        TestIterator(final List<List<FSPath>> pages, final Filter<? super Path> filter, final boolean prefetch)
+            throws IOException {
+            super(Mockito.mock(FSPath.class), filter, prefetch);
+            m_pages = pages;
+            setFirstPage(pages.get(0).iterator());
+        }
+
+        @Override
+        protected boolean hasNextPage() {
+            return m_nextPage < m_pages.size();
+        }
+
+        @Override
+        protected Iterator<FSPath> loadNextPage() throws IOException {
+            m_loadingThreads.add(Thread.currentThread());
+            m_loadedPages.incrementAndGet();
+            m_released.countDown();
+            return m_pages.get(m_nextPage++).iterator();
+        }
+    }
+}
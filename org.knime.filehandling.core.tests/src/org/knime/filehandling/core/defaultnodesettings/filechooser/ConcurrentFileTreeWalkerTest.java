@@ -0,0 +1,203 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.core.defaultnodesettings.filechooser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests that the {@link ConcurrentFileTreeWalker} visits the same paths as {@link Files#walkFileTree(Path,
+ * java.nio.file.FileVisitor)} and, like it, post-visits a directory only after its whole subtree.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class ConcurrentFileTreeWalkerTest {
+
+    /** The folder containing the tree to walk. */
+    @Rule
+    public TemporaryFolder m_tempFolder = new TemporaryFolder();
+
+    private Path m_root;
+
+    /**
+     * Creates a file tree with nested, empty and non-empty folders.
+     *
+     * @throws IOException - If the tree cannot be created
+     */
+    @Before
+    public void createTree() throws IOException {
+        m_root = m_tempFolder.getRoot().toPath();
+        for (int i = 0; i < 5; i++) {
+            final Path folder = Files.createDirectories(m_root.resolve("folder" + i).resolve("sub").resolve("subsub"));
+            Files.createFile(folder.resolve("file.txt"));
+            Files.createFile(folder.getParent().resolve("file.txt"));
+            Files.createDirectory(folder.getParent().resolve("empty"));
+        }
+        Files.createFile(m_root.resolve("file.txt"));
+    }
+
+    /**
+     * Tests that the same paths are visited and that each directory is pre-visited before and post-visited after all
+     * paths below it.
+     *
+     * @throws IOException - If the tree cannot be walked
+     */
+    @Test
+    public void testWalk() throws IOException {
+        final RecordingVisitor concurrent = new RecordingVisitor(null, false);
+        ConcurrentFileTreeWalker.walkFileTree(m_root, false, concurrent);
+        final RecordingVisitor sequential = new RecordingVisitor(null, false);
+        Files.walkFileTree(m_root, EnumSet.noneOf(FileVisitOption.class), Integer.MAX_VALUE, sequential);
+
+        assertEquals(sequential.getSortedEvents(), concurrent.getSortedEvents());
+        assertNested(concurrent.m_events);
+    }
+
+    /**
+     * Tests that skipped subtrees are neither listed nor post-visited.
+     *
+     * @throws IOException - If the tree cannot be walked
+     */
+    @Test
+    public void testSkipSubtree() throws IOException {
+        final Path skipped = m_root.resolve("folder1").resolve("sub");
+        final RecordingVisitor concurrent = new RecordingVisitor(skipped, false);
+        ConcurrentFileTreeWalker.walkFileTree(m_root, false, concurrent);
+        final RecordingVisitor sequential = new RecordingVisitor(skipped, false);
+        Files.walkFileTree(m_root, EnumSet.noneOf(FileVisitOption.class), Integer.MAX_VALUE, sequential);
+
+        assertEquals(sequential.getSortedEvents(), concurrent.getSortedEvents());
+        assertNested(concurrent.m_events);
+    }
+
+    /**
+     * Tests that the walk ends as soon as the visitor terminates it.
+     *
+     * @throws IOException - If the tree cannot be walked
+     */
+    @Test
+    public void testTerminate() throws IOException {
+        final RecordingVisitor visitor = new RecordingVisitor(null, true);
+        ConcurrentFileTreeWalker.walkFileTree(m_root, false, visitor);
+        final String last = visitor.m_events.get(visitor.m_events.size() - 1);
+        assertTrue(last, last.startsWith("file "));
+        assertEquals(1, visitor.m_events.stream().filter(e -> e.startsWith("file ")).count());
+    }
+
+    /**
+     * Checks that the events of each directory enclose the events of all paths below it. Skipped directories are not
+     * post-visited, hence there must not be any events below them.
+     */
+    private static void assertNested(final List<String> events) {
+        for (int i = 0; i < events.size(); i++) {
+            if (!events.get(i).startsWith("pre ")) {
+                continue;
+            }
+            final String dir = events.get(i).substring("pre ".length());
+            final int post = events.indexOf("post " + dir);
+            for (int j = 0; j < events.size(); j++) {
+                final String path = events.get(j).substring(events.get(j).indexOf(' ') + 1);
+                if (!path.equals(dir) && Path.of(path).startsWith(Path.of(dir))) {
+                    assertTrue(events.get(j) + " is not visited between the visits of " + dir, i < j && j < post);
+                }
+            }
+        }
+    }
+
+    private static final class RecordingVisitor extends SimpleFileVisitor<Path> {
+
+        private final List<String> m_events = new ArrayList<>();
+
+        private final Path m_skipped;
+
+        private final boolean m_terminate;
+
+        RecordingVisitor(final Path skipped, final boolean terminate) {
+            m_skipped = skipped;
+            m_terminate = terminate;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) {
+            m_events.add("pre " + dir);
+            return dir.equals(m_skipped) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+            m_events.add("file " + file);
+            return m_terminate ? FileVisitResult.TERMINATE : FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(final Path dir, final IOException exc) throws IOException {
+            m_events.add("post " + dir);
+            return super.postVisitDirectory(dir, exc);
+        }
+
+        List<String> getSortedEvents() {
+            final List<String> events = new ArrayList<>(m_events);
+            events.sort(null);
+            return events;
+        }
+    }
+}
@@ -55,7 +55,9 @@
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -81,6 +83,7 @@
 import org.knime.filehandling.core.node.table.reader.config.tablespec.TableSpecConfig;
 import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
 import org.knime.filehandling.core.node.table.reader.read.Read;
+import org.knime.filehandling.core.node.table.reader.read.RowPushDown;
 import org.knime.filehandling.core.node.table.reader.util.IndividualTableReader;
 import org.knime.filehandling.core.node.table.reader.util.MultiTableRead;
 import org.knime.filehandling.core.util.CheckedExceptionFunction;
@@ -230,6 +233,33 @@ public void testFillRowOutput() throws Exception {
         verify(m_individualTableReader, times(2)).fillOutput(any(), eq(m_rowOutput), any());
     }
 
+    /**
+     * Tests that no further items are opened once the row limit of the {@link RowPushDown} is reached.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testFillRowOutputStopsAtRowLimit() throws Exception {
+        when(m_readFn.apply(PATH1)).thenReturn(mockRead(TEST_TABLE[0], TEST_TABLE[1]));
+        stubIndividualTableReaderFactory();
+        when(m_exec.createSubProgress(anyDouble())).thenReturn(mock(ExecutionMonitor.class));
+        when(m_sourceGroup.iterator()).thenReturn(asList(PATH1, PATH2).iterator());
+        final long[] numRows = new long[1];
+        doAnswer(invocation -> {
+            final Read<String> read = invocation.getArgument(0);
+            while (read.next() != null) {
+                numRows[0]++;
+            }
+            return null;
+        }).when(m_individualTableReader).fillOutput(any(), eq(m_rowOutput), any());
+
+        m_testInstance.fillRowOutput(m_rowOutput, m_exec, m_fsFactory, RowPushDown.NONE.withRowLimit(2));
+
+        assertEquals(2, numRows[0]);
+        verify(m_readFn, never()).apply(PATH2);
+        verify(m_individualTableReaderFactory, never()).apply(PATH2, m_fsFactory);
+    }
+
     /**
      * Tests the {@link MultiTableRead#createPreviewIterator()} implementation.
      *
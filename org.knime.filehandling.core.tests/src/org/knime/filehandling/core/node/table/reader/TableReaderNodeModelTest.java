@@ -0,0 +1,242 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.core.node.table.reader;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.function.BiFunction;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.filestore.FileStoreFactory;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.node.streamable.PartitionInfo;
+import org.knime.core.node.streamable.PortInput;
+import org.knime.core.node.streamable.PortOutput;
+import org.knime.core.node.streamable.RowOutput;
+import org.knime.filehandling.core.node.table.reader.config.StorableMultiTableReadConfig;
+import org.knime.filehandling.core.node.table.reader.config.TableReadConfig;
+import org.knime.filehandling.core.node.table.reader.config.tablespec.TableSpecConfig;
+import org.knime.filehandling.core.node.table.reader.paths.SourceSettings;
+import org.knime.filehandling.core.node.table.reader.preview.dialog.GenericItemAccessor;
+import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
+import org.knime.filehandling.core.node.table.reader.read.Read;
+import org.knime.filehandling.core.node.table.reader.read.RowPushDown;
+import org.knime.filehandling.core.node.table.reader.util.IndividualTableReader;
+import org.knime.filehandling.core.node.table.reader.util.StagedMultiTableRead;
+import org.knime.filehandling.core.util.CheckedExceptionFunction;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Unit tests for the {@link RowPushDown} handling of {@link TableReaderNodeModel}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@SuppressWarnings({"resource", "unchecked"})
+@RunWith(MockitoJUnitRunner.class)
+public class TableReaderNodeModelTest {
+
+    private static final String PATH1 = "path1";
+
+    private static final String PATH2 = "path2";
+
+    @Mock
+    private StorableMultiTableReadConfig<DummyReaderSpecificConfig, String> m_config;
+
+    @Mock
+    private SourceSettings<String> m_sourceSettings;
+
+    @Mock
+    private GenericItemAccessor<String> m_itemAccessor;
+
+    @Mock
+    private MultiTableReadFactory<String, DummyReaderSpecificConfig, String> m_multiTableReadFactory;
+
+    @Mock
+    private StagedMultiTableRead<String, String> m_stagedMultiTableRead;
+
+    @Mock
+    private TableReadConfig<?> m_tableReadConfig;
+
+    @Mock
+    private TableSpecConfig<String> m_tableSpecConfig;
+
+    @Mock
+    private CheckedExceptionFunction<String, Read<String>, IOException> m_readFn;
+
+    @Mock
+    private BiFunction<String, FileStoreFactory, IndividualTableReader<String>> m_individualTableReaderFactory;
+
+    @Mock
+    private IndividualTableReader<String> m_individualTableReader;
+
+    @Mock
+    private ExecutionContext m_exec;
+
+    @Mock
+    private RowOutput m_rowOutput;
+
+    private long m_numRows;
+
+    /**
+     * Stubs a source with two items of two rows each.
+     *
+     * @throws Exception never thrown
+     */
+    @Before
+    public void init() throws Exception {
+        when(m_sourceSettings.getSourceIdentifier()).thenReturn("source");
+        when(m_sourceSettings.createItemAccessor()).thenReturn(m_itemAccessor);
+        when(m_itemAccessor.getItems(any())).thenReturn(asList(PATH1, PATH2));
+        when(m_config.isConfiguredWith(any())).thenReturn(true);
+        when(m_multiTableReadFactory.createFromConfig(any(), eq(m_config))).thenReturn(m_stagedMultiTableRead);
+        when(m_tableSpecConfig.getDataTableSpec())
+            .thenReturn(new DataTableSpec(new String[]{"column"}, new DataType[]{StringCell.TYPE}));
+        when(m_stagedMultiTableRead.withoutTransformation(any()))
+            .thenAnswer(invocation -> new DefaultMultiTableRead<>(invocation.getArgument(0), m_readFn,
+                () -> m_individualTableReaderFactory, m_tableReadConfig, m_tableSpecConfig));
+        when(m_readFn.apply(any())).thenAnswer(invocation -> mockRead(2));
+        when(m_individualTableReaderFactory.apply(any(), any())).thenReturn(m_individualTableReader);
+        doAnswer(invocation -> {
+            final Read<String> read = invocation.getArgument(0);
+            while (read.next() != null) {
+                m_numRows++;
+            }
+            return null;
+        }).when(m_individualTableReader).fillOutput(any(), any(), any());
+        when(m_exec.createSubProgress(anyDouble())).thenReturn(mock(ExecutionMonitor.class));
+    }
+
+    private void stubExecute() {
+        when(m_exec.createSubExecutionContext(anyDouble())).thenReturn(m_exec);
+        when(m_exec.createDataContainer(any())).thenReturn(mock(BufferedDataContainer.class));
+    }
+
+    private static Read<String> mockRead(final int numRows) throws IOException {
+        final Read<String> read = mock(Read.class);
+        final RandomAccessible<String>[] rest = new RandomAccessible[numRows];
+        for (int i = 0; i < numRows - 1; i++) {
+            rest[i] = mock(RandomAccessible.class);
+        }
+        when(read.next()).thenReturn(mock(RandomAccessible.class), rest);
+        return read;
+    }
+
+    private TableReaderNodeModel<String, DummyReaderSpecificConfig, String>
+        createNodeModel(final RowPushDown pushDown) {
+        return new TableReaderNodeModel<String, DummyReaderSpecificConfig, String>(m_config, m_sourceSettings,
+            new MultiTableReader<>(m_multiTableReadFactory)) {
+            @Override
+            protected RowPushDown getRowPushDown() {
+                return pushDown;
+            }
+        };
+    }
+
+    /**
+     * Tests that the node reads all items if it doesn't push down a row limit.
+     *
+     * @throws Exception never thrown
+     */
+    @Test
+    public void testExecuteWithoutPushDown() throws Exception {
+        stubExecute();
+        createNodeModel(RowPushDown.NONE).execute(new PortObject[0], m_exec);
+        assertEquals(4, m_numRows);
+        verify(m_readFn).apply(PATH1);
+        verify(m_readFn).apply(PATH2);
+    }
+
+    /**
+     * Tests that the node doesn't open further items once the row limit pushed down by the node model is reached.
+     *
+     * @throws Exception never thrown
+     */
+    @Test
+    public void testExecuteStopsOpeningItemsAtRowLimit() throws Exception {
+        stubExecute();
+        createNodeModel(RowPushDown.NONE.withRowLimit(2)).execute(new PortObject[0], m_exec);
+        assertEquals(2, m_numRows);
+        verify(m_readFn).apply(PATH1);
+        verify(m_readFn, never()).apply(PATH2);
+        verify(m_individualTableReaderFactory, never()).apply(eq(PATH2), any());
+    }
+
+    /**
+     * Tests that the streamed node doesn't open further items once the row limit pushed down by the node model is
+     * reached.
+     *
+     * @throws Exception never thrown
+     */
+    @Test
+    public void testStreamingStopsOpeningItemsAtRowLimit() throws Exception {
+        createNodeModel(RowPushDown.NONE.withRowLimit(1))//
+            .createStreamableOperator(new PartitionInfo(0, 1), null)//
+            .runFinal(new PortInput[0], new PortOutput[]{m_rowOutput}, m_exec);
+        assertEquals(1, m_numRows);
+        verify(m_readFn).apply(PATH1);
+        verify(m_readFn, never()).apply(PATH2);
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.core.node.table.reader.read;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.knime.filehandling.core.node.table.reader.read.ColumnPredicate.Operator;
+
+/**
+ * Unit tests for ColumnPredicate.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class ColumnPredicateTest {
+
+    private static ColumnPredicate create(final Operator operator, final String value) {
+        return ColumnPredicate.create("col", operator, value);
+    }
+
+    /**
+     * Tests the comparisons with a reference value.
+     */
+    @Test
+    public void testComparisons() {
+        assertTrue(create(Operator.EQUALS, "foo").test("foo"));
+        assertFalse(create(Operator.EQUALS, "foo").test("foobar"));
+        assertTrue(create(Operator.NOT_EQUALS, "foo").test("bar"));
+        assertFalse(create(Operator.NOT_EQUALS, "foo").test("foo"));
+        assertTrue(create(Operator.STARTS_WITH, "foo").test("foobar"));
+        assertFalse(create(Operator.STARTS_WITH, "bar").test("foobar"));
+        assertTrue(create(Operator.ENDS_WITH, "bar").test("foobar"));
+        assertTrue(create(Operator.CONTAINS, "oba").test("foobar"));
+        assertFalse(create(Operator.CONTAINS, "baz").test("foobar"));
+    }
+
+    /**
+     * Tests that raw values are compared by their string representation.
+     */
+    @Test
+    public void testNonStringValues() {
+        assertTrue(create(Operator.EQUALS, "42").test(Integer.valueOf(42)));
+        assertTrue(create(Operator.STARTS_WITH, "4").test(Long.valueOf(42)));
+    }
+
+    /**
+     * Tests that missing values only match {@link Operator#MISSING}.
+     */
+    @Test
+    public void testMissingValues() {
+        assertTrue(create(Operator.MISSING, null).test(null));
+        assertFalse(create(Operator.MISSING, null).test("foo"));
+        assertTrue(create(Operator.NOT_MISSING, null).test("foo"));
+        assertFalse(create(Operator.NOT_MISSING, null).test(null));
+        assertFalse(create(Operator.NOT_EQUALS, "foo").test(null));
+        assertFalse(create(Operator.EQUALS, "foo").test(null));
+    }
+
+    /**
+     * Tests that comparisons require a reference value.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testComparisonWithoutValue() {
+        create(Operator.EQUALS, null);
+    }
+}
@@ -49,13 +49,18 @@
 package org.knime.filehandling.core.node.table.reader.type.mapping;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.when;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.knime.core.data.DataCell;
 import org.knime.core.data.DataRow;
+import org.knime.core.data.DataType;
+import org.knime.core.data.DataValue;
 import org.knime.core.data.RowKey;
+import org.knime.core.data.convert.map.ProductionPath;
 import org.knime.core.data.def.DefaultRow;
 import org.knime.core.data.def.StringCell;
 import org.knime.core.data.filestore.FileStoreFactory;
@@ -64,6 +69,7 @@
 import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
 import org.knime.filehandling.core.node.table.reader.type.mapping.TypeMappingTestUtils.TestReadAdapter;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 
 /**
@@ -112,4 +118,32 @@ public void testMap() throws Exception {
         assertEquals(expected, actual);
     }
 
+    /**
+     * Tests that the cells of a {@link ReadAdapter} that passes its values through are not mapped.
+     *
+     * @throws Exception never thrown
+     */
+    @Test
+    public void testMapPassThrough() throws Exception {
+        final DefaultTypeMapper<DataValue, DummyReaderSpecificConfig> testInstance = new DefaultTypeMapper<>(
+            new PassThroughReadAdapter(), TypeMappingTestUtils.mockProductionPaths("berta", "frieda"), m_fsFactory,
+            m_config);
+        final DataCell cell = new StringCell("hans");
+        @SuppressWarnings("unchecked")
+        final RandomAccessible<DataValue> randomAccessible = Mockito.mock(RandomAccessible.class);
+        when(randomAccessible.get(0)).thenReturn(cell);
+        when(randomAccessible.get(1)).thenReturn(null);
+        final DataRow actual = testInstance.map(m_key, randomAccessible);
+        assertEquals(new DefaultRow(m_key, cell, DataType.getMissingCell()), actual);
+        assertSame(cell, actual.getCell(0));
+    }
+
+    private static final class PassThroughReadAdapter extends ReadAdapter<String, DataValue> {
+
+        @Override
+        public boolean passesThrough(final ProductionPath productionPath) {
+            return true;
+        }
+    }
+
 }
@@ -49,6 +49,7 @@
 package org.knime.filehandling.core.node.table.reader.util;
 
 import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -120,4 +121,27 @@ public void testWithoutRowID() {
         assertEquals(0, idxMapper.map(1));
     }
 
+    /**
+     * Tests that the required columns refer to the read i.e. also contain the row ID column.
+     */
+    @Test
+    public void testRequiredColumnsWithRowID() {
+        when(m_tableReadConfig.useRowIDIdx()).thenReturn(true);
+        when(m_tableReadConfig.getRowIDIdx()).thenReturn(1);
+        final IndexMapperFactory factory = new IndexMapperFactory(asList("foo", "bar", "foobar"), m_tableReadConfig);
+        final TypedReaderTableSpec<String> individualSpec = createIndividualSpec("bar", "notInGlobal", "foo");
+        assertArrayEquals(new int[]{0, 1, 3}, factory.getRequiredColumns(individualSpec).orElseThrow());
+    }
+
+    /**
+     * Tests that no columns are selected if all of them are required.
+     */
+    @Test
+    public void testRequiredColumnsWithoutRowID() {
+        final IndexMapperFactory factory = new IndexMapperFactory(asList("foo", "bar", "foobar"), m_tableReadConfig);
+        assertArrayEquals(new int[]{1},
+            factory.getRequiredColumns(createIndividualSpec("notInGlobal", "foo")).orElseThrow());
+        assertFalse(factory.getRequiredColumns(createIndividualSpec("bar", "foo")).isPresent());
+    }
+
 }
@@ -0,0 +1,149 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.core.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+
+/**
+ * Tests that the {@link ParallelGZIPOutputStream} writes gzip files that decompress to the written data.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class ParallelGZIPOutputStreamTest {
+
+    private static final ThreadPool POOL = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(3);
+
+    /**
+     * Tests streams spanning none, one and several blocks of the default size.
+     *
+     * @throws IOException - If the stream cannot be written or read
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        for (final int size : new int[]{0, 1, 1 << 17, (1 << 17) + 1, 3_000_000}) {
+            final byte[] data = createData(size);
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (OutputStream out = new ParallelGZIPOutputStream(compressed)) {
+                write(data, out);
+            }
+            assertDecompresses(data, compressed.toByteArray());
+        }
+    }
+
+    /**
+     * Tests blocks smaller than the dictionary and more blocks than are deflated at a time.
+     *
+     * @throws IOException - If the stream cannot be written or read
+     */
+    @Test
+    public void testSmallBlocks() throws IOException {
+        for (final int size : new int[]{0, 1000, 1_000_000}) {
+            final byte[] data = createData(size);
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (OutputStream out =
+                new ParallelGZIPOutputStream(compressed, POOL, 2, Deflater.BEST_COMPRESSION, 4096)) {
+                write(data, out);
+            }
+            assertDecompresses(data, compressed.toByteArray());
+        }
+    }
+
+    /**
+     * Tests that a closed stream can't be written.
+     *
+     * @throws IOException - If the stream cannot be created
+     */
+    @Test
+    public void testWriteAfterClose() throws IOException {
+        final OutputStream out = new ParallelGZIPOutputStream(new ByteArrayOutputStream());
+        out.close();
+        out.close();
+        assertThrows(IOException.class, () -> out.write(1));
+        assertThrows(IOException.class, () -> out.write(new byte[1], 0, 1));
+    }
+
+    private static void write(final byte[] data, final OutputStream out) throws IOException {
+        final Random random = new Random(data.length);
+        int pos = 0;
+        while (pos < data.length) {
+            final int length = Math.min(data.length - pos, random.nextInt(200_000));
+            out.write(data, pos, length);
+            pos += length;
+            if (pos < data.length) {
+                out.write(data[pos++]);
+            }
+        }
+    }
+
+    private static void assertDecompresses(final byte[] data, final byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(data, in.readAllBytes());
+        }
+    }
+
+    private static byte[] createData(final int size) {
+        final Random random = new Random(size);
+        final byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte)('a' + random.nextInt(i % 1000 < 500 ? 4 : 26));
+        }
+        return data;
+    }
+}
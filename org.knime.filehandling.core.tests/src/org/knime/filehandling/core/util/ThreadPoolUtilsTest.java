@@ -0,0 +1,165 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+
+/**
+ * Tests the {@link ThreadPoolUtils}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class ThreadPoolUtilsTest {
+
+    private static final ThreadPool POOL = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(3);
+
+    /**
+     * Tests that the results are returned in the order of the tasks.
+     */
+    @Test
+    public void testInvokeAll() {
+        final List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            final int value = i;
+            tasks.add(() -> value);
+        }
+        final List<Integer> results = ThreadPoolUtils.invokeAll(POOL, tasks);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, results.get(i).intValue());
+        }
+    }
+
+    /**
+     * Tests that the exception of a failed task is rethrown without the wrapping execution exceptions.
+     */
+    @Test
+    public void testInvokeAllRethrowsCause() {
+        final IllegalArgumentException failure = new IllegalArgumentException("failure");
+        final List<Callable<Void>> tasks = Arrays.asList(() -> null, () -> {
+            throw failure;
+        });
+        assertSame(failure,
+            assertThrows(IllegalArgumentException.class, () -> ThreadPoolUtils.invokeAll(POOL, tasks)));
+
+        final IOException checked = new IOException("failure");
+        final List<Callable<Void>> checkedTasks = Arrays.asList(() -> {
+            throw checked;
+        });
+        assertSame(checked,
+            assertThrows(IllegalStateException.class, () -> ThreadPoolUtils.invokeAll(POOL, checkedTasks)).getCause());
+    }
+
+    /**
+     * Tests that a cancellation, thrown by a task or signaled by the execution monitor, takes precedence.
+     *
+     * @throws CanceledExecutionException - not thrown
+     */
+    @Test
+    public void testInvokeAllCanceled() throws CanceledExecutionException {
+        final ExecutionMonitor exec = new ExecutionMonitor();
+        final List<Callable<Void>> tasks = Arrays.asList(() -> null, () -> {
+            throw new CanceledExecutionException();
+        });
+        assertThrows(CanceledExecutionException.class, () -> ThreadPoolUtils.invokeAll(POOL, tasks, exec));
+
+        final List<Callable<Void>> failingTasks = Arrays.asList(() -> {
+            throw new IllegalStateException("follow-up failure");
+        });
+        assertThrows(IllegalStateException.class, () -> ThreadPoolUtils.invokeAll(POOL, failingTasks, exec));
+        exec.getProgressMonitor().setExecuteCanceled();
+        assertThrows(CanceledExecutionException.class, () -> ThreadPoolUtils.invokeAll(POOL, failingTasks, exec));
+    }
+
+    /**
+     * Tests that a task waiting for tasks on its own pool doesn't deadlock a pool with a single thread.
+     *
+     * @throws Exception - not thrown
+     */
+    @Test
+    public void testInvokeAllFromSingleThreadPool() throws Exception {
+        final ThreadPool pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(1);
+        final List<Callable<Integer>> tasks = Arrays.asList(() -> 1, () -> 2, () -> 3);
+        assertEquals(Arrays.asList(1, 2, 3),
+            pool.enqueue(() -> ThreadPoolUtils.invokeAll(pool, tasks)).get(1, TimeUnit.MINUTES));
+    }
+
+    /**
+     * Tests waiting for a single future, rethrowing the exception of the given type as is.
+     *
+     * @throws IOException - not thrown
+     */
+    @Test
+    public void testWaitFor() throws IOException {
+        assertEquals("done", ThreadPoolUtils.waitFor(POOL, POOL.enqueue(() -> "done"), IOException.class));
+
+        final IOException failure = new IOException("failure");
+        final Future<Void> failed = POOL.enqueue(() -> {
+            throw failure;
+        });
+        assertSame(failure, assertThrows(IOException.class, () -> ThreadPoolUtils.waitFor(POOL, failed,
+            IOException.class)));
+        final IllegalStateException wrapped =
+            assertThrows(IllegalStateException.class, () -> ThreadPoolUtils.waitFor(POOL, failed,
+                RuntimeException.class));
+        assertSame(failure, wrapped.getCause());
+    }
+}
@@ -68,24 +68,28 @@ final class BaseDirectoryStream implements DirectoryStream<Path> {
 
     private final BaseFileSystem<?> m_fileSystem;
 
+    private final Runnable m_onClose;
+
     /**
      * Constructs a DirectoryStream with the given iterator.
      *
-     * @param originalPath The original path given to the provider method.
      * @param iterator the iterator to use in the directory stream
      * @param fileSystem the file system this stream belongs to
+     * @param onClose called when this stream is closed, e.g. to stop fetching further paths
      */
     BaseDirectoryStream(final Iterator<Path> iterator,
-        final BaseFileSystem<?> fileSystem) {
+        final BaseFileSystem<?> fileSystem, final Runnable onClose) {
         Validate.notNull(iterator, "Iterator must not be null.");
         m_iterator = iterator;
         m_fileSystem = fileSystem;
+        m_onClose = onClose;
         m_fileSystem.registerCloseable(this);
     }
 
     @Override
     public void close() throws IOException {
         m_isClosed = true;
+        m_onClose.run();
         m_fileSystem.unregisterCloseable(this);
     }
 
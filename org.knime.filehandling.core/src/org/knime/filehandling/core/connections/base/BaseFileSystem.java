@@ -55,7 +55,9 @@
 import java.nio.file.WatchService;
 import java.nio.file.attribute.UserPrincipalLookupService;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -209,6 +211,19 @@ public final void addToAttributeCache(final Path path, final BaseFileAttributes
         m_cache.storeAttributes(getCachedAttributesKey(path), attributes);
     }
 
+    /**
+     * Stores the attributes of several paths in the attribute cache at once, e.g. the attributes of all paths that
+     * have been returned by a directory listing.
+     *
+     * @param attributes the attributes objects to store by path
+     * @since 5.1
+     */
+    public final void addToAttributeCache(final Map<? extends Path, BaseFileAttributes> attributes) {
+        final Map<String, BaseFileAttributes> byKey = new HashMap<>(attributes.size() * 2);
+        attributes.forEach((path, attrs) -> byKey.put(getCachedAttributesKey(path), attrs));
+        m_cache.storeAttributes(byKey);
+    }
+
     /**
      * Removes an attribute for the path with the given URI from the attribute cache.
      *
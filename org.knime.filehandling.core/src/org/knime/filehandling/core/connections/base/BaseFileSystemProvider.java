@@ -560,8 +560,16 @@ public DirectoryStream<Path> newDirectoryStream(final Path dir, final Filter<? s
         }
 
         final Iterator<Path> pathIterator = (Iterator<Path>)createPathIterator(checkedDir, filter);
+        // stops paged iterators from fetching further pages once the stream is closed
+        final Runnable onClose = pathIterator instanceof PagedPathIterator
+            ? ((PagedPathIterator<?>)pathIterator)::close : BaseFileSystemProvider::doNothing;
 
-        return new BaseDirectoryStream(new RelativizingPathIterator(pathIterator, dir), getFileSystemInternal());
+        return new BaseDirectoryStream(new RelativizingPathIterator(pathIterator, dir), getFileSystemInternal(),
+            onClose);
+    }
+
+    private static void doNothing() {
+        // nothing to do when closing a directory stream whose iterator doesn't fetch in the background
     }
 
     /**
@@ -52,15 +52,27 @@
 import java.nio.file.DirectoryIteratorException;
 import java.nio.file.DirectoryStream.Filter;
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.Future;
 
+import org.knime.core.node.KNIMEConstants;
 import org.knime.filehandling.core.connections.FSPath;
+import org.knime.filehandling.core.connections.base.attributes.BaseFileAttributes;
+import org.knime.filehandling.core.util.ThreadPoolUtils;
 
 /**
  * Base implementation of a "paged" path iterator. Paging is important when a directory contains too many entries to
  * fetch them all at once and the fetching needs to be split into multiple requests (this is for example the case with
- * some of the object stores).
+ * some of the object stores).</br>
+ * Subclasses can opt into prefetching via {@link #PagedPathIterator(FSPath, Filter, boolean)}. Then, once the first
+ * path has been returned by {@link #next()}, the next page is fetched in the background while the current page is
+ * being consumed, i.e. {@link #loadNextPage()} may be called from a different thread. However, it is never called
+ * concurrently with itself or {@link #hasNextPage()}, and never after the directory stream has been closed.</br>
+ * If the listing of a page also returns the attributes of its paths, subclasses should store them with
+ * {@link #cacheAttributes(Map)}, so that the attributes don't have to be fetched path by path later on.
  *
  * @author Bjoern Lohrmann, KNIME GmbH
  * @param <T> The path type.
@@ -76,19 +88,41 @@
 
     private final Filter<? super Path> m_filter;
 
+    private final boolean m_prefetch;
+
+    private final Object m_loadLock = new Object();
+
+    private volatile boolean m_closed;
+
     private T m_next;
 
     private Iterator<T> m_currPage;
 
+    private Future<Iterator<T>> m_nextPage;
+
     /**
-     * Creates new instance.
+     * Creates new instance that fetches the pages when they are needed.
      *
      * @param path The path to create an iterator for.
      * @param filter Filter to apply on the returned paths.
      */
     protected PagedPathIterator(final T path, final Filter<? super Path> filter) {
+        this(path, filter, false);
+    }
+
+    /**
+     * Creates new instance.
+     *
+     * @param path The path to create an iterator for.
+     * @param filter Filter to apply on the returned paths.
+     * @param prefetch whether the next page is fetched in the background while the current page is being consumed, in
+     *            which case {@link #loadNextPage()} must be safe to call from another thread
+     * @since 5.1
+     */
+    protected PagedPathIterator(final T path, final Filter<? super Path> filter, final boolean prefetch) {
         m_path = path;
         m_filter = filter;
+        m_prefetch = prefetch;
     }
 
     /**
@@ -107,8 +141,8 @@ protected void setFirstPage(final Iterator<T> firstPage) throws IOException {
 
     private T getNextPath() throws IOException {
         T next = getNextPathFromCurrPage();
-        while (next == null && hasNextPage()) {
-            m_currPage = loadNextPage();
+        while (next == null && !m_closed && (m_nextPage != null || hasNextPage())) {
+            m_currPage = takeNextPage();
             next = getNextPathFromCurrPage();
         }
 
@@ -133,6 +167,58 @@ private T getNextPathFromCurrPage() throws IOException {
         return null;
     }
 
+    /**
+     * Starts fetching the next page in the background unless it is already being fetched or there is no next page.
+     */
+    private void startLoadingNextPage() {
+        if (m_nextPage == null && hasNextPage()) {
+            m_nextPage = KNIMEConstants.GLOBAL_THREAD_POOL.enqueue(this::loadNextPageUnlessClosed);
+        }
+    }
+
+    private Iterator<T> loadNextPageUnlessClosed() throws IOException {
+        synchronized (m_loadLock) {
+            return m_closed ? Collections.emptyIterator() : loadNextPage();
+        }
+    }
+
+    private Iterator<T> takeNextPage() throws IOException {
+        final Future<Iterator<T>> nextPage = m_nextPage;
+        if (nextPage == null) {
+            return loadNextPage();
+        }
+        m_nextPage = null;
+        return ThreadPoolUtils.waitFor(KNIMEConstants.GLOBAL_THREAD_POOL, nextPage, IOException.class);
+    }
+
+    /**
+     * Cancels the fetching of the next page. If the page is currently being fetched, this method waits until
+     * {@link #loadNextPage()} returns, so that it is never called after the directory stream has been closed.
+     */
+    void close() {
+        if (m_nextPage != null) {
+            m_nextPage.cancel(false);
+            m_nextPage = null;
+        }
+        synchronized (m_loadLock) {
+            m_closed = true;
+        }
+    }
+
+    /**
+     * Stores the attributes of the paths of a page, as returned by the listing, in the attributes cache of the file
+     * system at once. May be called from {@link #loadNextPage()} also when prefetching.
+     *
+     * @param attributes the attributes of the paths of a page
+     * @since 5.1
+     */
+    @SuppressWarnings("resource") // the file system is owned by the path
+    protected final void cacheAttributes(final Map<T, BaseFileAttributes> attributes) {
+        if (m_path.getFileSystem() instanceof BaseFileSystem) {
+            ((BaseFileSystem<?>)m_path.getFileSystem()).addToAttributeCache(attributes);
+        }
+    }
+
     @Override
     public boolean hasNext() {
         return m_next != null;
@@ -147,6 +233,9 @@ public T next() {
         final T toReturn = m_next;
 
         try {
+            if (m_prefetch) {
+                startLoadingNextPage();
+            }
             m_next = getNextPath();
         } catch (IOException ex) {
             throw new DirectoryIteratorException(ex);
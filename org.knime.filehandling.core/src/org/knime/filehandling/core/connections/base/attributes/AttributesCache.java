@@ -48,6 +48,7 @@
  */
 package org.knime.filehandling.core.connections.base.attributes;
 
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -67,6 +68,16 @@ public interface AttributesCache {
      */
     void storeAttributes(final String path, BaseFileAttributes attributes);
 
+    /**
+     * Stores the attributes of several paths in the cache, e.g. the attributes of all paths of a directory listing.
+     *
+     * @param attributes the file attributes to cache by path as string
+     * @since 5.1
+     */
+    default void storeAttributes(final Map<String, BaseFileAttributes> attributes) {
+        attributes.forEach(this::storeAttributes);
+    }
+
     /**
      * Returns an Optional containing the cached file-attributes for a path if present.
      *
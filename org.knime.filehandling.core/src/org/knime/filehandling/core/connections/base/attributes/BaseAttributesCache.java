@@ -49,6 +49,7 @@
 package org.knime.filehandling.core.connections.base.attributes;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -89,6 +90,14 @@ public synchronized void storeAttributes(final String path, final BaseFileAttrib
         m_attributesCache.put(path, attributes);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void storeAttributes(final Map<String, BaseFileAttributes> attributes) {
+        m_attributesCache.putAll(attributes);
+    }
+
     /**
      * {@inheritDoc}
      */
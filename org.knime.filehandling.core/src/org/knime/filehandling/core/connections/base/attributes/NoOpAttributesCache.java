@@ -48,6 +48,7 @@
  */
 package org.knime.filehandling.core.connections.base.attributes;
 
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -64,6 +65,11 @@ public void storeAttributes(final String path, final BaseFileAttributes attribut
         //Nothing to do
     }
 
+    @Override
+    public void storeAttributes(final Map<String, BaseFileAttributes> attributes) {
+        //Nothing to do
+    }
+
     @Override
     public Optional<BaseFileAttributes> getAttributes(final String path) {
         //Nothing to do
@@ -0,0 +1,330 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.core.defaultnodesettings.filechooser;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.FileVisitor;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+import org.knime.filehandling.core.util.ThreadPoolUtils;
+
+/**
+ * Walks a file tree like {@link Files#walkFileTree(Path, java.util.Set, int, FileVisitor)} without depth limit, but
+ * lists the directories and reads the attributes of their entries concurrently. This hides the latency of remote file
+ * systems where every listing requires at least one request.</br>
+ * The visitor is only invoked by the calling thread, i.e., it does not have to be thread-safe. The order in which the
+ * directories are visited is not defined, but as with {@link Files#walkFileTree(Path, FileVisitor)}
+ * {@link FileVisitor#postVisitDirectory(Object, IOException)} is invoked after all entries of the directory, including
+ * the ones of its subdirectories, have been visited. A directory that cannot be opened is reported via
+ * {@link FileVisitor#visitFileFailed(Object, IOException)} after it has been pre-visited, and isn't post-visited.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ConcurrentFileTreeWalker {
+
+    private static final int NR_THREADS = Runtime.getRuntime().availableProcessors();
+
+    private static final int MAX_PENDING_LISTINGS = 2 * NR_THREADS;
+
+    private final boolean m_followLinks;
+
+    private final LinkOption[] m_linkOptions;
+
+    private final FileVisitor<? super Path> m_visitor;
+
+    private final ThreadPool m_pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(NR_THREADS);
+
+    private final Deque<Directory> m_directoriesToList = new ArrayDeque<>();
+
+    private final Deque<Future<Listing>> m_pendingListings = new ArrayDeque<>();
+
+    private ConcurrentFileTreeWalker(final boolean followLinks, final FileVisitor<? super Path> visitor) {
+        m_followLinks = followLinks;
+        m_linkOptions = followLinks ? new LinkOption[0] : new LinkOption[]{LinkOption.NOFOLLOW_LINKS};
+        m_visitor = visitor;
+    }
+
+    /**
+     * Walks the file tree rooted at the given path.
+     *
+     * @param start the starting path
+     * @param followLinks {@code true} if symbolic links should be followed
+     * @param visitor the file visitor to invoke for each file
+     * @throws IOException - If thrown by the visitor
+     */
+    static void walkFileTree(final Path start, final boolean followLinks, final FileVisitor<? super Path> visitor)
+        throws IOException {
+        new ConcurrentFileTreeWalker(followLinks, visitor).walk(start);
+    }
+
+    private void walk(final Path start) throws IOException {
+        final BasicFileAttributes attrs;
+        try {
+            attrs = readAttributes(start);
+        } catch (IOException e) {
+            m_visitor.visitFileFailed(start, e);
+            return;
+        }
+        if (!attrs.isDirectory()) {
+            m_visitor.visitFile(start, attrs);
+            return;
+        }
+        if (m_visitor.preVisitDirectory(start, attrs) != FileVisitResult.CONTINUE) {
+            return;
+        }
+        m_directoriesToList.add(new Directory(start, attrs.fileKey(), null));
+        try {
+            boolean terminated = false;
+            while (!terminated && !(m_directoriesToList.isEmpty() && m_pendingListings.isEmpty())) {
+                while (!m_directoriesToList.isEmpty() && m_pendingListings.size() < MAX_PENDING_LISTINGS) {
+                    final Directory dir = m_directoriesToList.poll();
+                    m_pendingListings.add(m_pool.enqueue(() -> list(dir)));
+                }
+                terminated = !visit(waitFor(m_pendingListings.poll()));
+            }
+        } finally {
+            m_pendingListings.forEach(l -> l.cancel(true));
+        }
+    }
+
+    /**
+     * Invokes the visitor for all entries of the listing.
+     *
+     * @return {@code false} if the walk has been terminated by the visitor
+     */
+    private boolean visit(final Listing listing) throws IOException {
+        final Directory dir = listing.m_dir;
+        if (listing.m_openException != null) {
+            if (m_visitor.visitFileFailed(dir.m_path, listing.m_openException) == FileVisitResult.TERMINATE) {
+                return false;
+            }
+            return dir.m_parent == null || completeSubdirectory(dir.m_parent);
+        }
+        for (final Entry entry : listing.m_entries) {
+            final FileVisitResult result;
+            if (entry.m_exception != null) {
+                result = m_visitor.visitFileFailed(entry.m_path, entry.m_exception);
+            } else if (entry.m_attrs.isDirectory()) {
+                result = m_visitor.preVisitDirectory(entry.m_path, entry.m_attrs);
+                if (result == FileVisitResult.CONTINUE) {
+                    m_directoriesToList.add(new Directory(entry.m_path, entry.m_attrs.fileKey(), dir));
+                    dir.m_pendingSubdirectories++;
+                }
+            } else {
+                result = m_visitor.visitFile(entry.m_path, entry.m_attrs);
+            }
+            if (result == FileVisitResult.TERMINATE) {
+                return false;
+            } else if (result == FileVisitResult.SKIP_SIBLINGS) {
+                break;
+            }
+        }
+        dir.m_listed = true;
+        dir.m_iterationException = listing.m_iterationException;
+        return postVisitCompleted(dir);
+    }
+
+    private boolean completeSubdirectory(final Directory parent) throws IOException {
+        parent.m_pendingSubdirectories--;
+        return postVisitCompleted(parent);
+    }
+
+    /**
+     * Post-visits the directory and its ancestors as long as all their subdirectories have been post-visited.
+     *
+     * @return {@code false} if the walk has been terminated by the visitor
+     */
+    private boolean postVisitCompleted(final Directory dir) throws IOException {
+        Directory current = dir;
+        while (current.m_listed && current.m_pendingSubdirectories == 0) {
+            final FileVisitResult result = m_visitor.postVisitDirectory(current.m_path, current.m_iterationException);
+            if (result == FileVisitResult.TERMINATE) {
+                return false;
+            }
+            current = current.m_parent;
+            if (current == null) {
+                return true;
+            }
+            current.m_pendingSubdirectories--;
+        }
+        return true;
+    }
+
+    private Listing waitFor(final Future<Listing> listing) {
+        return ThreadPoolUtils.waitFor(m_pool, listing, RuntimeException.class);
+    }
+
+    private Listing list(final Directory dir) {
+        final List<Entry> entries = new ArrayList<>();
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(dir.m_path)) {
+            for (final Path path : stream) {
+                entries.add(createEntry(path, dir));
+            }
+        } catch (DirectoryIteratorException e) {
+            return new Listing(dir, entries, null, e.getCause());
+        } catch (IOException e) {
+            return new Listing(dir, entries, e, null);
+        }
+        return new Listing(dir, entries, null, null);
+    }
+
+    private Entry createEntry(final Path path, final Directory parent) {
+        try {
+            final BasicFileAttributes attrs = readAttributes(path);
+            if (m_followLinks && attrs.isDirectory() && wouldLoop(path, attrs.fileKey(), parent)) {
+                return new Entry(path, null, new FileSystemLoopException(path.toString()));
+            }
+            return new Entry(path, attrs, null);
+        } catch (IOException e) {
+            return new Entry(path, null, e);
+        }
+    }
+
+    private BasicFileAttributes readAttributes(final Path path) throws IOException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class, m_linkOptions);
+        } catch (IOException e) {
+            if (!m_followLinks) {
+                throw e;
+            }
+            // broken links are visited as links, like Files#walkFileTree does
+            return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        }
+    }
+
+    private static boolean wouldLoop(final Path dir, final Object key, final Directory parent) {
+        for (Directory ancestor = parent; ancestor != null; ancestor = ancestor.m_parent) {
+            if (key != null && ancestor.m_key != null) {
+                if (key.equals(ancestor.m_key)) {
+                    return true;
+                }
+            } else if (isSameFile(dir, ancestor.m_path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSameFile(final Path path, final Path other) {
+        try {
+            return Files.isSameFile(path, other);
+        } catch (IOException | SecurityException e) { // NOSONAR like Files#walkFileTree
+            return false;
+        }
+    }
+
+    private static final class Directory {
+
+        private final Path m_path;
+
+        private final Object m_key;
+
+        private final Directory m_parent;
+
+        // the following fields are only accessed by the thread invoking the visitor
+
+        private int m_pendingSubdirectories;
+
+        private boolean m_listed;
+
+        private IOException m_iterationException;
+
+        Directory(final Path path, final Object key, final Directory parent) {
+            m_path = path;
+            m_key = key;
+            m_parent = parent;
+        }
+    }
+
+    private static final class Entry {
+
+        private final Path m_path;
+
+        private final BasicFileAttributes m_attrs;
+
+        private final IOException m_exception;
+
+        Entry(final Path path, final BasicFileAttributes attrs, final IOException exception) {
+            m_path = path;
+            m_attrs = attrs;
+            m_exception = exception;
+        }
+    }
+
+    private static final class Listing {
+
+        private final Directory m_dir;
+
+        private final List<Entry> m_entries;
+
+        private final IOException m_openException;
+
+        private final IOException m_iterationException;
+
+        Listing(final Directory dir, final List<Entry> entries, final IOException openException,
+            final IOException iterationException) {
+            m_dir = dir;
+            m_entries = entries;
+            m_openException = openException;
+            m_iterationException = iterationException;
+        }
+    }
+
+}
@@ -243,9 +243,14 @@ private List<FSPath> walkFileTree(final Path rootPath) throws IOException, Inval
         final FilterVisitor visitor = createVisitor(rootPath);
         final boolean includeSubfolders = m_settings.getFilterModeModel().isIncludeSubfolders();
         final boolean followLinks = m_settings.getFilterModeModel().isFollowLinks();
-        final Set<FileVisitOption> linkOptions =
-            followLinks ? EnumSet.of(FileVisitOption.FOLLOW_LINKS) : EnumSet.noneOf(FileVisitOption.class);
-        Files.walkFileTree(rootPath, linkOptions, includeSubfolders ? Integer.MAX_VALUE : 1, visitor);
+        if (includeSubfolders) {
+            // the subfolders are listed concurrently, the result gets sorted anyway
+            ConcurrentFileTreeWalker.walkFileTree(rootPath, followLinks, visitor);
+        } else {
+            final Set<FileVisitOption> linkOptions =
+                followLinks ? EnumSet.of(FileVisitOption.FOLLOW_LINKS) : EnumSet.noneOf(FileVisitOption.class);
+            Files.walkFileTree(rootPath, linkOptions, 1, visitor);
+        }
         m_fileFilterStatistic = visitor.getFileFilterStatistic();
         final List<?> paths = visitor.getPaths();
         @SuppressWarnings("unchecked") // we know it better
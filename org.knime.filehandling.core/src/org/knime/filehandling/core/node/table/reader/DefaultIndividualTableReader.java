@@ -49,6 +49,7 @@
 package org.knime.filehandling.core.node.table.reader;
 
 import java.util.OptionalLong;
+import java.util.function.Predicate;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataRow;
@@ -58,6 +59,7 @@
 import org.knime.core.node.streamable.RowOutput;
 import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
 import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessibleDecorator;
+import org.knime.filehandling.core.node.table.reader.read.ColumnPredicate;
 import org.knime.filehandling.core.node.table.reader.read.Read;
 import org.knime.filehandling.core.node.table.reader.rowkey.RowKeyGenerator;
 import org.knime.filehandling.core.node.table.reader.type.mapping.TypeMapper;
@@ -113,6 +115,15 @@ public DataRow toRow(final RandomAccessible<V> randomAccessible) throws Exceptio
         }
     }
 
+    @Override
+    public Predicate<RandomAccessible<V>> createFilter(final int outputColumn, final ColumnPredicate predicate) {
+        return randomAccessible -> {
+            // the mapper is set again by toRow, so it's fine to use it for evaluating the predicate
+            m_mapper.set(randomAccessible);
+            return predicate.test(outputColumn < m_mapper.size() ? m_mapper.get(outputColumn) : null);
+        };
+    }
+
     @Override
     public void fillOutput(final Read<V> read, final RowOutput output, final ExecutionMonitor progress)
         throws Exception {
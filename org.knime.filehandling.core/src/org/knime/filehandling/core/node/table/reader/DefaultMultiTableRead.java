@@ -51,15 +51,21 @@
 import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.function.BiFunction;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.filestore.FileStoreFactory;
 import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.streamable.RowOutput;
+import org.knime.core.node.util.CheckUtils;
 import org.knime.filehandling.core.node.table.reader.config.TableReadConfig;
 import org.knime.filehandling.core.node.table.reader.config.tablespec.TableSpecConfig;
+import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
+import org.knime.filehandling.core.node.table.reader.read.AbstractReadDecorator;
+import org.knime.filehandling.core.node.table.reader.read.ColumnPredicate;
 import org.knime.filehandling.core.node.table.reader.read.Read;
+import org.knime.filehandling.core.node.table.reader.read.RowPushDown;
 import org.knime.filehandling.core.node.table.reader.type.mapping.MappingRuntimeException;
 import org.knime.filehandling.core.node.table.reader.type.mapping.TypeMapperException;
 import org.knime.filehandling.core.node.table.reader.util.IndividualTableReader;
@@ -151,8 +157,16 @@ public TableSpecConfig<T> getTableSpecConfig() {
     @Override
     public void fillRowOutput(final RowOutput output, final ExecutionMonitor exec, final FileStoreFactory fsFactory)
         throws Exception {
+        fillRowOutput(output, exec, fsFactory, RowPushDown.NONE);
+    }
+
+    @Override
+    public void fillRowOutput(final RowOutput output, final ExecutionMonitor exec, final FileStoreFactory fsFactory,
+        final RowPushDown pushDown) throws Exception {
         final BiFunction<I, FileStoreFactory, ? extends IndividualTableReader<V>> individualTableReaderFactory =
             m_individualTableReaderFactorySupplier.get();
+        final int filterColumn = getFilterColumn(pushDown);
+        long remainingRows = pushDown.getRowLimit().orElse(Long.MAX_VALUE);
         /* Workaround for unclear resource lifetime of resources referenced in data rows (AP-18002).
          * The problem: TableReads generally like to get closed as soon as possible in order to free resources.
          *              However, they may hand out data rows that use resources managed by the read,
@@ -182,6 +196,10 @@ public void fillRowOutput(final RowOutput output, final ExecutionMonitor exec, f
          */
         try (final MultiReadsCloser<AutoCloseable> openReads = new MultiReadsCloser<>(output)) {
             for (I item : m_sourceGroup) {
+                if (remainingRows == 0) {
+                    // there is no need to open the remaining items once the row limit is reached
+                    break;
+                }
                 exec.checkCanceled();
                 final ExecutionMonitor progress = exec.createSubProgress(1.0 / m_sourceGroup.size());
                 final IndividualTableReader<V> reader = individualTableReaderFactory.apply(item, fsFactory);
@@ -193,7 +211,14 @@ public void fillRowOutput(final RowOutput output, final ExecutionMonitor exec, f
                     openReads.add(read);
                 }
                 try {
-                    reader.fillOutput(read, output, progress);
+                    if (pushDown.isEmpty()) {
+                        reader.fillOutput(read, output, progress);
+                    } else {
+                        final PushDownRead<V> pushDownRead =
+                            new PushDownRead<>(read, createFilter(reader, pushDown, filterColumn), remainingRows);
+                        reader.fillOutput(pushDownRead, output, progress);
+                        remainingRows -= pushDownRead.getNumRows();
+                    }
                 } catch (TypeMapperException e) {
                     processAndThrowTypeMapperException(item, e);
                 } finally {
@@ -207,6 +232,65 @@ public void fillRowOutput(final RowOutput output, final ExecutionMonitor exec, f
         }
     }
 
+    private int getFilterColumn(final RowPushDown pushDown) {
+        return pushDown.getPredicate()//
+            .map(ColumnPredicate::getColumnName)//
+            .map(name -> {
+                final int idx = m_outputSpec.findColumnIndex(name);
+                CheckUtils.checkArgument(idx >= 0, "The filtered column '%s' is not part of the output.", name);
+                return idx;
+            })//
+            .orElse(-1);
+    }
+
+    private static <V> Predicate<RandomAccessible<V>> createFilter(final IndividualTableReader<V> reader,
+        final RowPushDown pushDown, final int filterColumn) {
+        return pushDown.getPredicate()//
+            .map(p -> reader.createFilter(filterColumn, p))//
+            .orElse(r -> true);
+    }
+
+    /**
+     * Skips the rows that don't pass the filter and stops once the row limit is reached. The rows are filtered before
+     * they are converted, so that rejected rows never have to be mapped to cells.
+     *
+     * @param <V> the type representing values
+     */
+    private static final class PushDownRead<V> extends AbstractReadDecorator<V> {
+
+        private final Predicate<RandomAccessible<V>> m_filter;
+
+        private final long m_rowLimit;
+
+        private long m_numRows;
+
+        PushDownRead(final Read<V> source, final Predicate<RandomAccessible<V>> filter, final long rowLimit) {
+            super(source);
+            m_filter = filter;
+            m_rowLimit = rowLimit;
+        }
+
+        @SuppressWarnings("resource") // the source is closed in AbstractReadDecorator#close
+        @Override
+        public RandomAccessible<V> next() throws IOException {
+            if (m_numRows >= m_rowLimit) {
+                return null;
+            }
+            RandomAccessible<V> next;
+            while ((next = getSource().next()) != null) {
+                if (m_filter.test(next)) {
+                    m_numRows++;
+                    return next;
+                }
+            }
+            return null;
+        }
+
+        long getNumRows() {
+            return m_numRows;
+        }
+    }
+
     /**
      * Part of the workaround for AP-18002 (TableRead resources do not live long enough for output).
      *
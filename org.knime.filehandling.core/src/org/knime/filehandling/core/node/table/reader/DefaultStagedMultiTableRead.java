@@ -52,6 +52,7 @@
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -74,6 +75,7 @@
 import org.knime.filehandling.core.node.table.reader.spec.TypedReaderTableSpec;
 import org.knime.filehandling.core.node.table.reader.type.mapping.DefaultTypeMapper;
 import org.knime.filehandling.core.node.table.reader.type.mapping.TypeMapper;
+import org.knime.filehandling.core.node.table.reader.util.IndexMapperFactory;
 import org.knime.filehandling.core.node.table.reader.util.MultiTableRead;
 import org.knime.filehandling.core.node.table.reader.util.StagedMultiTableRead;
 import org.knime.filehandling.core.node.table.reader.util.TableTransformationFactory;
@@ -170,7 +172,9 @@ private DefaultMultiTableRead<I, T, V> createMultiTableRead(final SourceGroup<I>
         final TableTransformation<T> transformationModel, final TableReadConfig<C> tableReadConfig,
         final TableSpecConfig<T> tableSpecConfig) {
         final var keepReadsOpen = m_reader instanceof KeepReadOpenReader;
-        return new DefaultMultiTableRead<>(sourceGroup, p -> createRead(p, tableReadConfig), () -> {
+        final IndexMapperFactory columnSelection =
+            IndividualTableReaderFactory.createIndexMapperFactory(transformationModel, tableReadConfig);
+        return new DefaultMultiTableRead<>(sourceGroup, p -> createRead(p, tableReadConfig, columnSelection), () -> {
             IndividualTableReaderFactory<I, T, V> factory = createIndividualTableReaderFactory(transformationModel);
             return factory::create;
         }, tableReadConfig, tableSpecConfig, keepReadsOpen);
@@ -192,8 +196,15 @@ private Function<I, DataCell> createItemIdentifierCellFactory() {
         }
     }
 
-    private Read<V> createRead(final I path, final TableReadConfig<C> config) throws IOException {
-        final Read<V> rawRead = m_reader.read(path, config);
+    @SuppressWarnings("resource") // closing the read is the responsibility of the caller
+    private Read<V> createRead(final I path, final TableReadConfig<C> config,
+        final IndexMapperFactory columnSelection) throws IOException {
+        final TypedReaderTableSpec<T> spec = m_individualSpecs.get(path);
+        // only push the column selection down to the reader if it actually excludes columns
+        final Optional<int[]> requiredColumns =
+            spec == null ? Optional.empty() : columnSelection.getRequiredColumns(spec);
+        final Read<V> rawRead = requiredColumns.isPresent() ? m_reader.read(path, config, requiredColumns.get())
+            : m_reader.read(path, config);
         if (config.decorateRead()) {
             return ReadUtils.decorateForReading(rawRead, config);
         }
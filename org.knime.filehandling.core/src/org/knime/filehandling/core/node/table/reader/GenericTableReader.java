@@ -79,9 +79,28 @@
      * @return a {@link Read} that reads from an input item using the provided {@link TableReadConfig config}
      * @throws IOException if creating the read fails due to IO problems
      */
-    // TODO add separate parameter for doing pushdown e.g. filtering
     Read<V> read(I item, TableReadConfig<C> config) throws IOException;
 
+    /**
+     * Creates a read object that only has to provide the values of the columns with the provided indices. The values
+     * at all other positions of the returned rows may be {@code null} but the size of the rows must be the same as
+     * for {@link #read(Object, TableReadConfig)}, so that the row-based decorators (e.g. the check for short rows)
+     * still work. The default implementation ignores the column indices and reads all columns.
+     *
+     * @param item of the table
+     * @param config for reading the table
+     * @param columnIndices the ascending indices of the columns whose values are required, including the row ID
+     *            column if one is used
+     * @return a {@link Read} that reads the required columns from an input item using the provided
+     *         {@link TableReadConfig config}
+     * @throws IOException if creating the read fails due to IO problems
+     * @since 5.1
+     */
+    default Read<V> read(final I item, final TableReadConfig<C> config, final int[] columnIndices)
+        throws IOException {
+        return read(item, config);
+    }
+
     /**
      * Reads the spec of the table stored at the input item. Note that the spec should not be filtered i.e. any
      * column filter should be ignored.
@@ -118,16 +118,8 @@ public IndividualTableReaderFactory(final Map<I, TypedReaderTableSpec<T>> specs,
         final GenericRowKeyGeneratorContext<I, V> rowKeyGenContext,
         final Function<I, DataCell> itemIdentifierCellFactory) {
         m_specs = specs;
-        final List<ColumnTransformation<T>> outputTransformations =
-            TableTransformationUtils.getCandidates(tableTransformation)//
-                .filter(ColumnTransformation::keep)// remove columns filtered by user
-                .sorted()//
-                .collect(toList());
-        // must contain columns that are suspected to be empty, so we can check if they really are during execution
-        m_indexMapperFactory = new IndexMapperFactory(outputTransformations.stream()//
-            .map(ColumnTransformation::getExternalSpec)//
-            .map(MultiTableUtils::getNameAfterInit)//
-            .collect(toList()), config);
+        final List<ColumnTransformation<T>> outputTransformations = getOutputTransformations(tableTransformation);
+        m_indexMapperFactory = createIndexMapperFactory(outputTransformations, config);
         final boolean skipEmptyColumns = tableTransformation.skipEmptyColumns();
         if (skipEmptyColumns && outputTransformations.stream().anyMatch(IndividualTableReaderFactory::isColumnEmpty)) {
             // we only need to do empty checking if there are columns suspected to be empty
@@ -141,6 +133,36 @@ public IndividualTableReaderFactory(final Map<I, TypedReaderTableSpec<T>> specs,
         m_itemIdentifierCellFactory = itemIdentifierCellFactory;
     }
 
+    private static <T> List<ColumnTransformation<T>>
+        getOutputTransformations(final TableTransformation<T> tableTransformation) {
+        return TableTransformationUtils.getCandidates(tableTransformation)//
+            .filter(ColumnTransformation::keep)// remove columns filtered by user
+            .sorted()//
+            .collect(toList());
+    }
+
+    private static IndexMapperFactory createIndexMapperFactory(
+        final List<? extends ColumnTransformation<?>> outputTransformations, final TableReadConfig<?> config) {
+        // must contain columns that are suspected to be empty, so we can check if they really are during execution
+        return new IndexMapperFactory(outputTransformations.stream()//
+            .map(ColumnTransformation::getExternalSpec)//
+            .map(MultiTableUtils::getNameAfterInit)//
+            .collect(toList()), config);
+    }
+
+    /**
+     * Creates an {@link IndexMapperFactory} for the columns that are part of the output of the provided
+     * {@link TableTransformation}.
+     *
+     * @param tableTransformation the {@link TableTransformation}
+     * @param config {@link TableReadConfig}
+     * @return the {@link IndexMapperFactory} for the output columns of {@link TableTransformation tableTransformation}
+     */
+    static IndexMapperFactory createIndexMapperFactory(final TableTransformation<?> tableTransformation,
+        final TableReadConfig<?> config) {
+        return createIndexMapperFactory(getOutputTransformations(tableTransformation), config);
+    }
+
     private ProductionPath[] getRelevantProductionPaths(final List<ColumnTransformation<T>> outputTransformations,
         final boolean skipEmptyColumns) {
         Stream<ColumnTransformation<T>> prodPathTransformations = outputTransformations.stream();
@@ -60,6 +60,7 @@
 import org.knime.filehandling.core.node.table.reader.config.MultiTableReadConfig;
 import org.knime.filehandling.core.node.table.reader.config.ReaderSpecificConfig;
 import org.knime.filehandling.core.node.table.reader.config.tablespec.TableSpecConfig;
+import org.knime.filehandling.core.node.table.reader.read.RowPushDown;
 import org.knime.filehandling.core.node.table.reader.util.MultiTableRead;
 import org.knime.filehandling.core.node.table.reader.util.MultiTableUtils;
 import org.knime.filehandling.core.node.table.reader.util.StagedMultiTableRead;
@@ -85,9 +86,13 @@
     private StagedMultiTableRead<I, T> m_currentMultiRead;
 
     private static <T> void fillRowOutput(final MultiTableRead<T> multiTableRead, final RowOutput output,
-        final ExecutionContext exec) throws Exception {
+        final ExecutionContext exec, final RowPushDown pushDown) throws Exception {
         final FileStoreFactory fsFactory = FileStoreFactory.createFileStoreFactory(exec);
-        multiTableRead.fillRowOutput(output, exec, fsFactory);
+        if (pushDown.isEmpty()) {
+            multiTableRead.fillRowOutput(output, exec, fsFactory);
+        } else {
+            multiTableRead.fillRowOutput(output, exec, fsFactory, pushDown);
+        }
     }
 
     /**
@@ -160,6 +165,23 @@ public TableSpecConfig<T> createTableSpecConfig(final SourceGroup<I> sourceGroup
      */
     public BufferedDataTable readTable(final SourceGroup<I> sourceGroup,
         final MultiTableReadConfig<C, T> config, final ExecutionContext exec) throws Exception {
+        return readTable(sourceGroup, config, exec, RowPushDown.NONE);
+    }
+
+    /**
+     * Reads the rows selected by the provided {@link RowPushDown} from the provided items according to the provided
+     * {@link MultiTableReadConfig config}.
+     *
+     * @param sourceGroup the {@link SourceGroup} to read from
+     * @param config for reading
+     * @param exec for table creation and reporting progress
+     * @param pushDown selects the rows to read
+     * @return the read table
+     * @throws Exception
+     * @since 5.1
+     */
+    public BufferedDataTable readTable(final SourceGroup<I> sourceGroup, final MultiTableReadConfig<C, T> config,
+        final ExecutionContext exec, final RowPushDown pushDown) throws Exception {
         exec.setMessage("Creating table spec");
         final boolean specConfigured = isConfiguredWith(config, sourceGroup);
         ExecutionContext specExec = exec.createSubExecutionContext(specConfigured ? 0 : 0.5);
@@ -170,7 +192,7 @@ public BufferedDataTable readTable(final SourceGroup<I> sourceGroup,
         final MultiTableRead<T> multiTableRead = runConfig.withoutTransformation(sourceGroup);
         final BufferedDataTableRowOutput output =
             new BufferedDataTableRowOutput(exec.createDataContainer(multiTableRead.getOutputSpec()));
-        fillRowOutput(multiTableRead, output, exec.createSubExecutionContext(specConfigured ? 1 : 0.5));
+        fillRowOutput(multiTableRead, output, exec.createSubExecutionContext(specConfigured ? 1 : 0.5), pushDown);
         return output.getDataTable();
     }
 
@@ -193,10 +215,27 @@ private boolean isConfiguredWith(final MultiTableReadConfig<C, T> config, final
     public void fillRowOutput(final SourceGroup<I> sourceGroup,
         final MultiTableReadConfig<C, T> config, final RowOutput output, final ExecutionContext exec)
         throws Exception {
+        fillRowOutput(sourceGroup, config, output, exec, RowPushDown.NONE);
+    }
+
+    /**
+     * Fills the {@link RowOutput output} with the rows selected by the provided {@link RowPushDown} from the tables
+     * stored in <b>items</b> using the provided {@link MultiTableReadConfig config}.
+     *
+     * @param sourceGroup the {@link SourceGroup} to read from
+     * @param config for reading
+     * @param output the {@link RowOutput} to fill
+     * @param exec needed by the mapping framework
+     * @param pushDown selects the rows to read
+     * @throws Exception
+     * @since 5.1
+     */
+    public void fillRowOutput(final SourceGroup<I> sourceGroup, final MultiTableReadConfig<C, T> config,
+        final RowOutput output, final ExecutionContext exec, final RowPushDown pushDown) throws Exception {
         exec.setMessage("Creating table spec");
         final StagedMultiTableRead<I, ?> multiRead = getMultiRead(sourceGroup, config, exec);
         exec.setMessage("Reading table");
-        fillRowOutput(multiRead.withoutTransformation(sourceGroup), output, exec);
+        fillRowOutput(multiRead.withoutTransformation(sourceGroup), output, exec, pushDown);
     }
 
     private StagedMultiTableRead<I, T> getMultiRead(final SourceGroup<I> sourceGroup,
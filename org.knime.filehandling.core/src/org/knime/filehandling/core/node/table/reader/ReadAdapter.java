@@ -48,8 +48,10 @@
  */
 package org.knime.filehandling.core.node.table.reader;
 
+import org.knime.core.data.DataCell;
 import org.knime.core.data.convert.map.MappingFramework;
 import org.knime.core.data.convert.map.ProducerRegistry;
+import org.knime.core.data.convert.map.ProductionPath;
 import org.knime.core.data.convert.map.Source;
 import org.knime.filehandling.core.node.table.reader.config.ReaderSpecificConfig;
 import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
@@ -105,6 +107,19 @@ public final V get(final ReadAdapterParams<?, ?> params) {
         return m_current.get(params.getIdx());
     }
 
+    /**
+     * Indicates whether the values of this adapter are already the cells that the provided {@link ProductionPath}
+     * would produce, i.e. whether they can be passed to the output table unchanged. If this method returns
+     * {@code true}, the values must be {@link DataCell DataCells} or {@code null} for missing values.
+     *
+     * @param productionPath the {@link ProductionPath} that maps the values of a column
+     * @return {@code true} if the values can be passed through instead of being mapped by the path
+     * @since 5.1
+     */
+    public boolean passesThrough(final ProductionPath productionPath) {
+        return false;
+    }
+
     /**
      * Used to identify values in {@link ReadAdapter#get(ReadAdapterParams)}.
      *
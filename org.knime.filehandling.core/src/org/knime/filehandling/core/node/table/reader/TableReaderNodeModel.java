@@ -76,6 +76,8 @@
 import org.knime.filehandling.core.node.table.reader.config.StorableMultiTableReadConfig;
 import org.knime.filehandling.core.node.table.reader.paths.SourceSettings;
 import org.knime.filehandling.core.node.table.reader.preview.dialog.GenericItemAccessor;
+import org.knime.filehandling.core.node.table.reader.read.ColumnPredicate;
+import org.knime.filehandling.core.node.table.reader.read.RowPushDown;
 import org.knime.filehandling.core.util.SettingsUtils;
 
 /**
@@ -157,7 +159,7 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
         try (final GenericItemAccessor<I> accessor = m_sourceSettings.createItemAccessor()) {
             final List<I> paths = getPaths(accessor);
             final SourceGroup<I> sourceGroup = new DefaultSourceGroup<>(m_sourceSettings.getSourceIdentifier(), paths);
-            return new PortObject[]{m_tableReader.readTable(sourceGroup, m_config, exec)};
+            return new PortObject[]{m_tableReader.readTable(sourceGroup, m_config, exec, getRowPushDown())};
         }
     }
 
@@ -185,7 +187,7 @@ public void runFinal(final PortInput[] inputs, final PortOutput[] outputs, final
                     final RowOutput output = (RowOutput)outputs[0];
                     final SourceGroup<I> sourceGroup =
                         new DefaultSourceGroup<>(m_sourceSettings.getSourceIdentifier(), paths);
-                    m_tableReader.fillRowOutput(sourceGroup, m_config, output, exec);
+                    m_tableReader.fillRowOutput(sourceGroup, m_config, output, exec, getRowPushDown());
                 }
             }
         };
@@ -241,6 +243,17 @@ protected void reset() {
         m_tableReader.reset();
     }
 
+    /**
+     * Returns the {@link RowPushDown} that selects the rows to read. Subclasses can override this method if only some
+     * of the rows are needed, e.g. the first rows or the rows whose raw value matches a {@link ColumnPredicate}.
+     *
+     * @return the {@link RowPushDown} to apply, {@link RowPushDown#NONE} by default
+     * @since 5.1
+     */
+    protected RowPushDown getRowPushDown() {
+        return RowPushDown.NONE;
+    }
+
     /**
      * Returns the config.
      *
@@ -0,0 +1,178 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.core.node.table.reader.read;
+
+import java.util.Objects;
+
+import org.knime.core.node.util.CheckUtils;
+
+/**
+ * A simple comparison on the raw value of a single output column. It is evaluated on the values as they are returned
+ * by a {@link Read}, i.e. before they are converted into cells, so that rows that don't match never have to be
+ * converted.</br>
+ * The raw values are compared by their string representation. Missing values only match {@link Operator#MISSING}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 5.1
+ */
+public final class ColumnPredicate {
+
+    /**
+     * The supported comparisons.
+     */
+    public enum Operator {
+            /** The value equals the reference value. */
+            EQUALS,
+            /** The value doesn't equal the reference value. */
+            NOT_EQUALS,
+            /** The value starts with the reference value. */
+            STARTS_WITH,
+            /** The value ends with the reference value. */
+            ENDS_WITH,
+            /** The value contains the reference value. */
+            CONTAINS,
+            /** The value is missing. */
+            MISSING,
+            /** The value is not missing. */
+            NOT_MISSING;
+    }
+
+    private final String m_columnName;
+
+    private final Operator m_operator;
+
+    private final String m_value;
+
+    private ColumnPredicate(final String columnName, final Operator operator, final String value) {
+        m_columnName = CheckUtils.checkArgumentNotNull(columnName, "The column name must not be null.");
+        m_operator = CheckUtils.checkArgumentNotNull(operator, "The operator must not be null.");
+        CheckUtils.checkArgument(value != null || operator == Operator.MISSING || operator == Operator.NOT_MISSING,
+            "The operator %s requires a value.", operator);
+        m_value = value;
+    }
+
+    /**
+     * Creates a predicate that compares the values of the given column with the provided reference value.
+     *
+     * @param columnName the name of the column in the output table
+     * @param operator the comparison to perform
+     * @param value the reference value (may be {@code null} for {@link Operator#MISSING} and
+     *            {@link Operator#NOT_MISSING})
+     * @return the predicate
+     */
+    public static ColumnPredicate create(final String columnName, final Operator operator, final String value) {
+        return new ColumnPredicate(columnName, operator, value);
+    }
+
+    /**
+     * @return the name of the column in the output table the predicate is evaluated on
+     */
+    public String getColumnName() {
+        return m_columnName;
+    }
+
+    /**
+     * @return the comparison performed by this predicate
+     */
+    public Operator getOperator() {
+        return m_operator;
+    }
+
+    /**
+     * Evaluates the predicate on a raw value.
+     *
+     * @param rawValue the value as returned by the {@link Read}, {@code null} if it is missing
+     * @return {@code true} if the value matches
+     */
+    public boolean test(final Object rawValue) {
+        if (m_operator == Operator.MISSING) {
+            return rawValue == null;
+        } else if (rawValue == null) {
+            return false;
+        }
+        final String value = rawValue.toString();
+        switch (m_operator) {
+            case EQUALS:
+                return value.equals(m_value);
+            case NOT_EQUALS:
+                return !value.equals(m_value);
+            case STARTS_WITH:
+                return value.startsWith(m_value);
+            case ENDS_WITH:
+                return value.endsWith(m_value);
+            case CONTAINS:
+                return value.contains(m_value);
+            case NOT_MISSING:
+                return true;
+            default:
+                throw new IllegalStateException("Unknown operator: " + m_operator);
+        }
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ColumnPredicate)) {
+            return false;
+        }
+        final ColumnPredicate other = (ColumnPredicate)obj;
+        return m_columnName.equals(other.m_columnName) && m_operator == other.m_operator
+            && Objects.equals(m_value, other.m_value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(m_columnName, m_operator, m_value);
+    }
+
+    @Override
+    public String toString() {
+        return m_value == null ? String.format("%s %s", m_columnName, m_operator)
+            : String.format("%s %s '%s'", m_columnName, m_operator, m_value);
+    }
+}
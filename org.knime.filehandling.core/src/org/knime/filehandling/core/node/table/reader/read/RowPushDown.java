@@ -0,0 +1,122 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.core.node.table.reader.read;
+
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import org.knime.core.node.util.CheckUtils;
+
+/**
+ * Describes which rows of a multi-item read are actually needed, so that the reading can skip rows before converting
+ * them and stop as soon as enough rows are read. In contrast to the row limit of the
+ * {@link org.knime.filehandling.core.node.table.reader.config.TableReadConfig TableReadConfig}, which applies to each
+ * item individually, the row limit of a push-down applies to all items together, i.e. no further items are opened once
+ * it is reached. The row limit is applied after the {@link ColumnPredicate}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 5.1
+ */
+public final class RowPushDown {
+
+    /**
+     * A push-down that reads all rows.
+     */
+    public static final RowPushDown NONE = new RowPushDown(-1, null);
+
+    private final long m_rowLimit;
+
+    private final ColumnPredicate m_predicate;
+
+    private RowPushDown(final long rowLimit, final ColumnPredicate predicate) {
+        m_rowLimit = rowLimit;
+        m_predicate = predicate;
+    }
+
+    /**
+     * Creates a copy of this push-down with the provided row limit.
+     *
+     * @param rowLimit the maximal number of rows to read from all items together
+     * @return a push-down with the provided row limit
+     */
+    public RowPushDown withRowLimit(final long rowLimit) {
+        CheckUtils.checkArgument(rowLimit >= 0, "The row limit must be non-negative but was %s.", rowLimit);
+        return new RowPushDown(rowLimit, m_predicate);
+    }
+
+    /**
+     * Creates a copy of this push-down with the provided predicate.
+     *
+     * @param predicate the {@link ColumnPredicate} rows must match
+     * @return a push-down with the provided predicate
+     */
+    public RowPushDown withPredicate(final ColumnPredicate predicate) {
+        return new RowPushDown(m_rowLimit,
+            CheckUtils.checkArgumentNotNull(predicate, "The predicate must not be null."));
+    }
+
+    /**
+     * @return the maximal number of rows to read from all items together or {@link OptionalLong#empty()} if the rows
+     *         aren't limited
+     */
+    public OptionalLong getRowLimit() {
+        return m_rowLimit < 0 ? OptionalLong.empty() : OptionalLong.of(m_rowLimit);
+    }
+
+    /**
+     * @return the {@link ColumnPredicate} rows must match or {@link Optional#empty()} if all rows are read
+     */
+    public Optional<ColumnPredicate> getPredicate() {
+        return Optional.ofNullable(m_predicate);
+    }
+
+    /**
+     * @return {@code true} if neither the rows are limited nor filtered
+     */
+    public boolean isEmpty() {
+        return m_rowLimit < 0 && m_predicate == null;
+    }
+}
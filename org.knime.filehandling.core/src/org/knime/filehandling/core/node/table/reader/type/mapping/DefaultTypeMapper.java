@@ -48,13 +48,17 @@
  */
 package org.knime.filehandling.core.node.table.reader.type.mapping;
 
+import java.util.Arrays;
 import java.util.stream.IntStream;
 
+import org.knime.core.data.DataCell;
 import org.knime.core.data.DataRow;
+import org.knime.core.data.DataType;
 import org.knime.core.data.RowKey;
 import org.knime.core.data.convert.map.DataRowProducer;
 import org.knime.core.data.convert.map.MappingFramework;
 import org.knime.core.data.convert.map.ProductionPath;
+import org.knime.core.data.def.DefaultRow;
 import org.knime.core.data.filestore.FileStoreFactory;
 import org.knime.filehandling.core.node.table.reader.ReadAdapter;
 import org.knime.filehandling.core.node.table.reader.ReadAdapter.ReadAdapterParams;
@@ -63,6 +67,8 @@
 
 /**
  * Handles mapping from {@link RandomAccessible RandomAccessibles} to {@link DataRow DataRows}.
+ * If the {@link ReadAdapter} passes its values through for all production paths, the values are put into the rows
+ * unchanged.
  *
  * @author Adrian Nembach, KNIME GmbH, Konstanz, Germany
  * @param <V> the type of values mapped to cells
@@ -78,6 +84,9 @@
 
     private final DataRowProducer<ReadAdapterParams<ReadAdapter<?, V>, C>> m_rowProducer;
 
+    /** true if the values are the cells of the row, see {@link ReadAdapter#passesThrough(ProductionPath)} */
+    private final boolean m_passThrough;
+
     /**
      * Constructor.
      *
@@ -89,7 +98,9 @@
     public DefaultTypeMapper(final ReadAdapter<?, V> readAdapter, final ProductionPath[] productionPaths,
         final FileStoreFactory fsFactory, final C readerSpecificConfig) {
         m_readAdapter = readAdapter;
-        m_rowProducer = MappingFramework.createDataRowProducer(fsFactory, m_readAdapter, productionPaths);
+        m_passThrough = Arrays.stream(productionPaths).allMatch(readAdapter::passesThrough);
+        m_rowProducer = m_passThrough ? null
+            : MappingFramework.createDataRowProducer(fsFactory, m_readAdapter, productionPaths);
         // ReadAdapterParams are compatible with any ReadAdapter, the generics
         // are only necessary to shut up the compiler
         @SuppressWarnings("unchecked")
@@ -102,10 +113,19 @@ public DefaultTypeMapper(final ReadAdapter<?, V> readAdapter, final ProductionPa
     public DataRow map(final RowKey key, final RandomAccessible<V> randomAccessible) throws Exception {
         m_readAdapter.setSource(randomAccessible);
         try {
-            return m_rowProducer.produceDataRow(key, m_params);
+            return m_passThrough ? passThrough(key, randomAccessible) : m_rowProducer.produceDataRow(key, m_params);
         } catch (Exception ex) {
             throw new TypeMapperException(key.toString(), randomAccessible.toString(), ex);
         }
     }
 
+    private DataRow passThrough(final RowKey key, final RandomAccessible<V> randomAccessible) {
+        final DataCell[] cells = new DataCell[m_params.length];
+        for (int i = 0; i < cells.length; i++) {
+            final V value = randomAccessible.get(i);
+            cells[i] = value == null ? DataType.getMissingCell() : (DataCell)value;
+        }
+        return new DefaultRow(key, cells);
+    }
+
 }
@@ -50,9 +50,11 @@
 
 import static org.knime.filehandling.core.node.table.reader.util.MultiTableUtils.getNameAfterInit;
 
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Supplier;
 
 import org.knime.filehandling.core.node.table.reader.config.TableReadConfig;
@@ -72,6 +74,8 @@ public final class IndexMapperFactory {
 
     private final Supplier<DefaultIndexMapperBuilder> m_builderSupplier;
 
+    private final int m_rowIDIdx;
+
     /**
      * Constructor.
      *
@@ -82,8 +86,10 @@ public IndexMapperFactory(final List<String> originalNamesInOutput, final TableR
         m_nameToIdx = createNameToIndexMap(originalNamesInOutput);
         final int outputSize = m_nameToIdx.size();
         if (config.useRowIDIdx()) {
-            m_builderSupplier = () -> DefaultIndexMapper.builder(outputSize).setRowIDIdx(config.getRowIDIdx());
+            m_rowIDIdx = config.getRowIDIdx();
+            m_builderSupplier = () -> DefaultIndexMapper.builder(outputSize).setRowIDIdx(m_rowIDIdx);
         } else {
+            m_rowIDIdx = -1;
             m_builderSupplier = () -> DefaultIndexMapper.builder(outputSize);
         }
     }
@@ -117,4 +123,30 @@ public IndexMapper createIndexMapper(final ReaderTableSpec<?> individualSpec) {
         return builder.build();
     }
 
+    /**
+     * Determines the columns of the read for the provided {@link ReaderTableSpec} that are needed to create the
+     * output, i.e. the columns included in the output and the row ID column. Note that in contrast to the spec, the
+     * rows of the read also contain the row ID column.
+     *
+     * @param individualSpec the {@link ReaderTableSpec} of an individual item
+     * @return the ascending indices of the required columns in the read or {@link Optional#empty()} if all columns
+     *         are required
+     * @since 5.1
+     */
+    public Optional<int[]> getRequiredColumns(final ReaderTableSpec<?> individualSpec) {
+        final int numColumns = individualSpec.size();
+        final BitSet required = new BitSet();
+        for (int i = 0; i < numColumns; i++) {
+            if (m_nameToIdx.containsKey(getNameAfterInit(individualSpec.getColumnSpec(i)))) {
+                // the row ID column is not part of the spec
+                required.set(m_rowIDIdx >= 0 && i >= m_rowIDIdx ? (i + 1) : i);
+            }
+        }
+        if (m_rowIDIdx >= 0) {
+            required.set(m_rowIDIdx);
+        }
+        final int numReadColumns = m_rowIDIdx >= 0 ? (numColumns + 1) : numColumns;
+        return required.cardinality() < numReadColumns ? Optional.of(required.stream().toArray()) : Optional.empty();
+    }
+
 }
@@ -48,10 +48,13 @@
  */
 package org.knime.filehandling.core.node.table.reader.util;
 
+import java.util.function.Predicate;
+
 import org.knime.core.data.DataRow;
 import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.streamable.RowOutput;
 import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
+import org.knime.filehandling.core.node.table.reader.read.ColumnPredicate;
 import org.knime.filehandling.core.node.table.reader.read.Read;
 
 /**
@@ -83,4 +86,18 @@
      */
     DataRow toRow(RandomAccessible<V> randomAccessible) throws Exception;
 
+    /**
+     * Creates a filter that evaluates the provided {@link ColumnPredicate} on the raw values of a column of the output,
+     * i.e. before the {@link RandomAccessible RandomAccessibles} are converted into {@link DataRow DataRows}.
+     * The default implementation doesn't filter, i.e. the returned filter accepts every row.
+     *
+     * @param outputColumn the index of the column in the output
+     * @param predicate the {@link ColumnPredicate} to evaluate
+     * @return a filter for the {@link RandomAccessible RandomAccessibles} returned by a {@link Read}
+     * @since 5.1
+     */
+    default Predicate<RandomAccessible<V>> createFilter(final int outputColumn, final ColumnPredicate predicate) {
+        return r -> true;
+    }
+
 }
\ No newline at end of file
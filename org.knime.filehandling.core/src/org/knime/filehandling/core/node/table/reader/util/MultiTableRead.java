@@ -52,8 +52,10 @@
 import org.knime.core.data.filestore.FileStoreFactory;
 import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.streamable.RowOutput;
+import org.knime.core.node.util.CheckUtils;
 import org.knime.filehandling.core.node.table.reader.PreviewRowIterator;
 import org.knime.filehandling.core.node.table.reader.config.tablespec.TableSpecConfig;
+import org.knime.filehandling.core.node.table.reader.read.RowPushDown;
 
 /**
  * Encapsulates information necessary to read tables from multiple items.
@@ -96,4 +98,21 @@
     // can't be specialized because the type mapping throws Exception
     void fillRowOutput(RowOutput output, ExecutionMonitor exec, FileStoreFactory fsFactory) throws Exception; // NOSONAR
 
+    /**
+     * Fills the provided {@link RowOutput} with the rows from this {@link MultiTableRead} that are selected by the
+     * provided {@link RowPushDown}. The default implementation only supports {@link RowPushDown#NONE}.
+     *
+     * @param output to push to
+     * @param exec for progress monitoring and canceling
+     * @param fsFactory the {@link FileStoreFactory} to use for cell creation
+     * @param pushDown the {@link RowPushDown} selecting the rows to read
+     * @throws Exception if something goes awry
+     * @since 5.1
+     */
+    default void fillRowOutput(final RowOutput output, final ExecutionMonitor exec, final FileStoreFactory fsFactory,
+        final RowPushDown pushDown) throws Exception { // NOSONAR
+        CheckUtils.checkArgument(pushDown.isEmpty(), "This read doesn't support push-downs.");
+        fillRowOutput(output, exec, fsFactory);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,260 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.core.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+
+/**
+ * {@link OutputStream} writing a single member gzip stream whose content is deflated block-wise on a
+ * {@link ThreadPool}, similar to pigz. Each block is deflated independently using the last 32 KB of the preceding
+ * block as preset dictionary and ends with a sync flush, so that the concatenated blocks form one valid deflate stream
+ * that can be read by every gzip decompressor. The blocks are written in order, at most a fixed number of blocks is
+ * held in memory.
+ *
+ * <p>
+ * {@link #flush()} only flushes the blocks already written, as a {@link java.util.zip.GZIPOutputStream} without sync
+ * flush does.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 5.1
+ */
+public final class ParallelGZIPOutputStream extends OutputStream {
+
+    private static final int BLOCK_SIZE = 1 << 17;
+
+    private static final int DICTIONARY_SIZE = 1 << 15;
+
+    private static final byte[] HEADER = {0x1f, (byte)0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte)0xff};
+
+    private final OutputStream m_out;
+
+    private final ThreadPool m_pool;
+
+    private final int m_maxPendingBlocks;
+
+    private final int m_level;
+
+    private final int m_blockSize;
+
+    private final Deque<Future<byte[]>> m_pendingBlocks = new ArrayDeque<>();
+
+    private final CRC32 m_crc = new CRC32();
+
+    private long m_size;
+
+    private byte[] m_block;
+
+    private int m_blockLength;
+
+    private byte[] m_previousBlock;
+
+    private boolean m_closed;
+
+    /**
+     * Creates a stream that deflates the blocks with the default compression level on as many threads as there are
+     * processors.
+     *
+     * @param out the stream to write the compressed data to, closed when this stream is closed
+     * @throws IOException - If the gzip header cannot be written
+     */
+    public ParallelGZIPOutputStream(final OutputStream out) throws IOException {
+        this(out, KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(Runtime.getRuntime().availableProcessors()),
+            2 * Runtime.getRuntime().availableProcessors(), Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param out the stream to write the compressed data to, closed when this stream is closed
+     * @param pool the pool used to deflate the blocks
+     * @param maxPendingBlocks the maximum number of blocks being deflated at the same time
+     * @param level the compression level
+     * @throws IOException - If the gzip header cannot be written
+     */
+    public ParallelGZIPOutputStream(final OutputStream out, final ThreadPool pool, final int maxPendingBlocks,
+        final int level) throws IOException {
+        this(out, pool, maxPendingBlocks, level, BLOCK_SIZE);
+    }
+
+    ParallelGZIPOutputStream(final OutputStream out, final ThreadPool pool, final int maxPendingBlocks,
+        final int level, final int blockSize) throws IOException {
+        m_out = out;
+        m_pool = pool;
+        m_maxPendingBlocks = maxPendingBlocks;
+        m_level = level;
+        m_blockSize = blockSize;
+        m_block = new byte[blockSize];
+        m_out.write(HEADER);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        ensureOpen();
+        m_crc.update(b);
+        m_size++;
+        m_block[m_blockLength++] = (byte)b;
+        if (m_blockLength == m_blockSize) {
+            enqueueBlock(false);
+        }
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        ensureOpen();
+        m_crc.update(b, off, len);
+        m_size += len;
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            final int length = Math.min(remaining, m_blockSize - m_blockLength);
+            System.arraycopy(b, offset, m_block, m_blockLength, length);
+            m_blockLength += length;
+            offset += length;
+            remaining -= length;
+            if (m_blockLength == m_blockSize) {
+                enqueueBlock(false);
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        m_out.flush();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (m_closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private void enqueueBlock(final boolean last) throws IOException {
+        final byte[] block = m_block;
+        final int blockLength = m_blockLength;
+        final byte[] dictionary = m_previousBlock;
+        m_pendingBlocks.add(m_pool.enqueue(() -> deflate(block, blockLength, dictionary, last, m_level)));
+        m_previousBlock = block;
+        m_block = last ? null : new byte[m_blockSize];
+        m_blockLength = 0;
+        while (m_pendingBlocks.size() > (last ? 0 : m_maxPendingBlocks)) {
+            m_out.write(waitFor(m_pendingBlocks.poll()));
+        }
+    }
+
+    private byte[] waitFor(final Future<byte[]> block) throws IOException {
+        return ThreadPoolUtils.waitFor(m_pool, block, IOException.class);
+    }
+
+    /**
+     * Deflates the block. Only the last block finishes the deflate stream, all others end with a sync flush which
+     * aligns them to a byte boundary.
+     */
+    private static byte[] deflate(final byte[] block, final int length, final byte[] dictionary, final boolean last,
+        final int level) {
+        final Deflater deflater = new Deflater(level, true);
+        try {
+            if (dictionary != null) {
+                final int dictionaryLength = Math.min(dictionary.length, DICTIONARY_SIZE);
+                deflater.setDictionary(dictionary, dictionary.length - dictionaryLength, dictionaryLength);
+            }
+            deflater.setInput(block, 0, length);
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(length / 2 + 64);
+            final byte[] buffer = new byte[8192];
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    out.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } else {
+                int written;
+                do {
+                    written = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    out.write(buffer, 0, written);
+                } while (written == buffer.length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (m_closed) {
+            return;
+        }
+        m_closed = true;
+        try (OutputStream out = m_out) {
+            enqueueBlock(true);
+            writeTrailer();
+        } finally {
+            m_pendingBlocks.forEach(b -> b.cancel(true));
+            m_pendingBlocks.clear();
+        }
+    }
+
+    private void writeTrailer() throws IOException {
+        final long crc = m_crc.getValue();
+        final byte[] trailer = new byte[8];
+        for (int i = 0; i < 4; i++) {
+            trailer[i] = (byte)(crc >>> (8 * i));
+            trailer[i + 4] = (byte)(m_size >>> (8 * i));
+        }
+        m_out.write(trailer);
+    }
+
+}
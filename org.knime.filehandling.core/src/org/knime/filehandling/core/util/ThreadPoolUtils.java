@@ -0,0 +1,175 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.core.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.util.ThreadPool;
+
+/**
+ * Static utility methods for running tasks on a {@link ThreadPool} and waiting for their results. The calling thread
+ * waits via {@link ThreadPool#runInvisible(Callable)}, so that it doesn't occupy a slot of the pool while waiting, and
+ * the failure of a task is rethrown unwrapped from the {@link ExecutionException ExecutionExceptions} added by the
+ * future and the pool.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 5.1
+ * @noreference non-public API
+ */
+public final class ThreadPoolUtils {
+
+    private ThreadPoolUtils() {
+        // static utility class
+    }
+
+    /**
+     * Runs the tasks on the pool and waits until all of them are done. If a task fails, the remaining tasks are
+     * cancelled and its exception is rethrown.
+     *
+     * @param <T> the result type of the tasks
+     * @param pool the pool to run the tasks on
+     * @param tasks the tasks to run
+     * @return the results of the tasks in the iteration order of {@code tasks}
+     * @throws RuntimeException the unchecked exception thrown by a task, checked exceptions are wrapped in an
+     *             {@link IllegalStateException}
+     */
+    public static <T> List<T> invokeAll(final ThreadPool pool, final Collection<? extends Callable<T>> tasks) {
+        return invokeAll(pool, tasks, RuntimeException.class);
+    }
+
+    /**
+     * Runs the tasks on the pool and waits until all of them are done. If a task fails, the remaining tasks are
+     * cancelled and, unless the execution has been canceled, its exception is rethrown.
+     *
+     * @param <T> the result type of the tasks
+     * @param pool the pool to run the tasks on
+     * @param tasks the tasks to run
+     * @param exec checked for cancellation if a task fails
+     * @return the results of the tasks in the iteration order of {@code tasks}
+     * @throws CanceledExecutionException if the execution has been canceled or a task threw it
+     */
+    public static <T> List<T> invokeAll(final ThreadPool pool, final Collection<? extends Callable<T>> tasks,
+        final ExecutionMonitor exec) throws CanceledExecutionException {
+        try {
+            return invokeAll(pool, tasks, CanceledExecutionException.class);
+        } catch (RuntimeException ex) { // NOSONAR the cancellation takes precedence over follow-up failures
+            exec.checkCanceled();
+            throw ex;
+        }
+    }
+
+    private static <T, E extends Exception> List<T> invokeAll(final ThreadPool pool,
+        final Collection<? extends Callable<T>> tasks, final Class<E> exceptionType) throws E {
+        final List<Future<T>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (final Callable<T> task : tasks) {
+                futures.add(pool.enqueue(task));
+            }
+            return pool.runInvisible(() -> {
+                final List<T> results = new ArrayList<>(futures.size());
+                for (final Future<T> future : futures) {
+                    results.add(future.get());
+                }
+                return results;
+            });
+        } catch (ExecutionException ex) {
+            throw rethrow(ex, exceptionType);
+        } finally {
+            futures.forEach(f -> f.cancel(true));
+        }
+    }
+
+    /**
+     * Waits for the result of a future computed on the pool.
+     *
+     * @param <T> the result type
+     * @param <E> the checked exception the computation may throw
+     * @param pool the pool computing the future
+     * @param future the future to wait for
+     * @param exceptionType the type of the checked exception that is rethrown as is
+     * @return the result of the future
+     * @throws E if the computation threw it
+     * @throws RuntimeException the unchecked exception thrown by the computation, other checked exceptions are
+     *             wrapped in an {@link IllegalStateException}
+     */
+    public static <T, E extends Exception> T waitFor(final ThreadPool pool, final Future<T> future,
+        final Class<E> exceptionType) throws E {
+        try {
+            return pool.runInvisible(future::get);
+        } catch (ExecutionException ex) {
+            throw rethrow(ex, exceptionType);
+        }
+    }
+
+    /**
+     * Unwraps the cause of the exception thrown by {@link ThreadPool#runInvisible(Callable)} and rethrows it.
+     *
+     * @return never returns normally, declared so that callers can {@code throw} the result
+     */
+    private static <E extends Exception> RuntimeException rethrow(final ExecutionException ex,
+        final Class<E> exceptionType) throws E {
+        Throwable cause = ex.getCause();
+        // the failure of a task is wrapped twice, by the future and by the pool
+        while (cause instanceof ExecutionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (exceptionType.isInstance(cause)) {
+            throw exceptionType.cast(cause);
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException)cause;
+        } else if (cause instanceof Error) {
+            throw (Error)cause;
+        }
+        return new IllegalStateException(cause);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.utility.nodes.compress;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.junit.Test;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+import org.knime.filehandling.core.util.ParallelGZIPOutputStream;
+
+/**
+ * Tests the {@link ReadAheadInputStream} and its combination with the {@link ParallelGZIPOutputStream} as used when
+ * creating tar.gz archives.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class ParallelCompressionStreamsTest {
+
+    private static final ThreadPool POOL = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(4);
+
+    /**
+     * Tests that data read ahead is returned unchanged.
+     *
+     * @throws IOException - If the stream cannot be read
+     */
+    @Test
+    public void testReadAhead() throws IOException {
+        final byte[] data = createData(5_000_000);
+        try (final InputStream in = new ReadAheadInputStream(new ByteArrayInputStream(data), POOL, 2)) {
+            assertArrayEquals(data, in.readAllBytes());
+        }
+    }
+
+    /**
+     * Tests that reading ahead and compressing share a pool with a single thread without blocking each other, i.e.,
+     * that the read ahead doesn't occupy the only slot while waiting for the consumer.
+     *
+     * @throws IOException - If the streams cannot be read or written
+     */
+    @Test(timeout = 60_000)
+    public void testReadAheadAndCompressionOnSingleThread() throws IOException {
+        final ThreadPool pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(1);
+        final byte[] data = createData(5_000_000);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (final InputStream in = new ReadAheadInputStream(new ByteArrayInputStream(data), pool, 1);
+                final OutputStream out =
+                    new ParallelGZIPOutputStream(compressed, pool, 2, Deflater.DEFAULT_COMPRESSION)) {
+            in.transferTo(out);
+        }
+        try (final InputStream in = new GzipCompressorInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            assertArrayEquals(data, in.readAllBytes());
+        }
+    }
+
+    private static byte[] createData(final int size) {
+        final Random random = new Random(size);
+        final byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte)('a' + random.nextInt(i % 1000 < 500 ? 4 : 26));
+        }
+        return data;
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.utility.nodes.decompress;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+
+/**
+ * Tests the {@link BoundedPipe}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class BoundedPipeTest {
+
+    private static final ThreadPool POOL = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(2);
+
+    /**
+     * Tests that the data written is read unchanged, including data that is larger than the buffer.
+     *
+     * @throws Exception - If the pipe cannot be written or read
+     */
+    @Test(timeout = 60_000)
+    public void testTransfer() throws Exception {
+        for (final int size : new int[]{0, 1, 1 << 16, (1 << 16) + 1, 3_000_000}) {
+            final byte[] data = createData(size);
+            final BoundedPipe pipe = new BoundedPipe(POOL, 2);
+            final Future<byte[]> read = POOL.enqueue(() -> {
+                try (final InputStream in = pipe.getInputStream()) {
+                    return in.readAllBytes();
+                }
+            });
+            write(data, pipe);
+            pipe.close();
+            assertArrayEquals(data, read.get());
+        }
+    }
+
+    /**
+     * Tests that the writing side doesn't block once the reading side has been closed before the end of the data.
+     *
+     * @throws Exception - If the pipe cannot be written or read
+     */
+    @Test(timeout = 60_000)
+    public void testReaderClosedEarly() throws Exception {
+        final byte[] data = createData(3_000_000);
+        final BoundedPipe pipe = new BoundedPipe(POOL, 1);
+        final Future<byte[]> read = POOL.enqueue(() -> {
+            try (final InputStream in = pipe.getInputStream()) {
+                return in.readNBytes(1000);
+            }
+        });
+        write(data, pipe);
+        pipe.close();
+        assertArrayEquals(Arrays.copyOf(data, 1000), read.get());
+    }
+
+    /**
+     * Tests that an aborted pipe ends the reading side instead of blocking it.
+     *
+     * @throws Exception - If the pipe cannot be written or read
+     */
+    @Test(timeout = 60_000)
+    public void testAbort() throws Exception {
+        final BoundedPipe pipe = new BoundedPipe(POOL, 4);
+        pipe.write(createData(100_000));
+        pipe.abort();
+        try (final InputStream in = pipe.getInputStream()) {
+            assertEquals(-1, in.read());
+        }
+    }
+
+    private static void write(final byte[] data, final BoundedPipe pipe) throws IOException {
+        final Random random = new Random(data.length);
+        int pos = 0;
+        while (pos < data.length) {
+            final int length = Math.min(data.length - pos, random.nextInt(100_000));
+            pipe.write(data, pos, length);
+            pos += length;
+            if (pos < data.length) {
+                pipe.write(data[pos++]);
+            }
+        }
+    }
+
+    private static byte[] createData(final int size) {
+        final Random random = new Random(size);
+        final byte[] data = new byte[size];
+        random.nextBytes(data);
+        return data;
+    }
+
+}
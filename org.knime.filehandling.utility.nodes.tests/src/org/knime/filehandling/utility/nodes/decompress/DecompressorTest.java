@@ -0,0 +1,316 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.utility.nodes.decompress;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.knime.core.data.BooleanValue;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.StringValue;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.streamable.RowOutput;
+import org.knime.filehandling.core.connections.DefaultFSConnectionFactory;
+import org.knime.filehandling.core.connections.FSCategory;
+import org.knime.filehandling.core.connections.FSConnection;
+import org.knime.filehandling.core.connections.FSLocation;
+import org.knime.filehandling.core.connections.FSPath;
+import org.knime.filehandling.core.data.location.FSLocationValue;
+import org.knime.filehandling.core.defaultnodesettings.filechooser.writer.FileOverwritePolicy;
+import org.knime.filehandling.utility.nodes.utils.FileStatus;
+import org.mockito.Mockito;
+
+/**
+ * Tests that the {@link Decompressor} extracts local zip files, whose entries are written concurrently, in the order
+ * of the archive, and that the sequential extraction stops at the first failing entry.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class DecompressorTest {
+
+    /** The folder containing the archives and the extracted files. */
+    @Rule
+    public TemporaryFolder m_tempFolder = new TemporaryFolder();
+
+    /**
+     * Tests that the rows are pushed in the order of the entries, even though the files are written concurrently.
+     *
+     * @throws Exception - If the archive cannot be created or extracted
+     */
+    @Test
+    public void testRowOrder() throws Exception {
+        final List<String> names = new ArrayList<>();
+        final List<String> contents = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            names.add(String.format("folder%d/file%d.txt", i % 3, i));
+            // alternate large and small entries so that later entries are likely to be written first
+            contents.add(String.valueOf(i).repeat(i % 2 == 0 ? 100_000 : 1));
+        }
+        final Path zip = createZip(names, contents);
+        final Path destination = m_tempFolder.newFolder("destination").toPath();
+        final List<DataRow> rows = decompress(zip, destination, FileOverwritePolicy.FAIL);
+
+        // a row for each folder precedes the row of the first file inside it
+        final List<String> expectedPaths = new ArrayList<>();
+        final List<String> folders = new ArrayList<>();
+        for (final String name : names) {
+            final String folder = destination.resolve(name.substring(0, name.indexOf('/'))).toString();
+            if (!folders.contains(folder)) {
+                folders.add(folder);
+                expectedPaths.add(folder);
+            }
+            expectedPaths.add(destination.resolve(name).toString());
+        }
+        assertEquals(expectedPaths.size(), rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            final DataRow row = rows.get(i);
+            assertEquals("Row" + i, row.getKey().getString());
+            assertEquals(expectedPaths.get(i), getPath(row));
+            assertEquals(folders.contains(expectedPaths.get(i)), isDirectory(row));
+            assertEquals(FileStatus.CREATED.getText(), getStatus(row));
+        }
+        for (int i = 0; i < names.size(); i++) {
+            assertEquals(contents.get(i), Files.readString(destination.resolve(names.get(i))));
+        }
+    }
+
+    /**
+     * Tests that an entry occurring twice is written after the first one has been written, i.e., overwrites it.
+     *
+     * @throws Exception - If the archive cannot be created or extracted
+     */
+    @Test
+    public void testDuplicateEntriesOverwrite() throws Exception {
+        final Path zip = createZip(List.of("a.txt", "b.txt", "a.txt"), List.of("first", "b", "second"));
+        final Path destination = m_tempFolder.newFolder("destination").toPath();
+        final List<DataRow> rows = decompress(zip, destination, FileOverwritePolicy.OVERWRITE);
+
+        assertEquals(3, rows.size());
+        assertEquals(destination.resolve("a.txt").toString(), getPath(rows.get(0)));
+        assertEquals(FileStatus.CREATED.getText(), getStatus(rows.get(0)));
+        assertEquals(destination.resolve("b.txt").toString(), getPath(rows.get(1)));
+        assertFalse(isDirectory(rows.get(1)));
+        assertEquals(destination.resolve("a.txt").toString(), getPath(rows.get(2)));
+        assertEquals(FileStatus.OVERWRITTEN.getText(), getStatus(rows.get(2)));
+        assertEquals("second", Files.readString(destination.resolve("a.txt")));
+    }
+
+    /**
+     * Tests that an entry occurring twice keeps the first one if existing files are ignored.
+     *
+     * @throws Exception - If the archive cannot be created or extracted
+     */
+    @Test
+    public void testDuplicateEntriesIgnore() throws Exception {
+        final Path zip = createZip(List.of("a.txt", "a.txt"), List.of("first", "second"));
+        final Path destination = m_tempFolder.newFolder("destination").toPath();
+        final List<DataRow> rows = decompress(zip, destination, FileOverwritePolicy.IGNORE);
+
+        assertEquals(2, rows.size());
+        assertEquals(FileStatus.CREATED.getText(), getStatus(rows.get(0)));
+        assertEquals(FileStatus.UNMODIFIED.getText(), getStatus(rows.get(1)));
+        assertEquals("first", Files.readString(destination.resolve("a.txt")));
+    }
+
+    /**
+     * Tests that an entry occurring twice fails the extraction if existing files must not be overwritten.
+     *
+     * @throws Exception - If the archive cannot be created
+     */
+    @Test
+    public void testDuplicateEntriesFail() throws Exception {
+        final Path zip = createZip(List.of("a.txt", "b.txt", "a.txt"), List.of("first", "b", "second"));
+        final Path destination = m_tempFolder.newFolder("destination").toPath();
+        assertThrows(FileAlreadyExistsException.class,
+            () -> decompress(zip, destination, FileOverwritePolicy.FAIL));
+        assertEquals("first", Files.readString(destination.resolve("a.txt")));
+    }
+
+    /**
+     * Tests the overwrite policies for files that exist before the extraction.
+     *
+     * @throws Exception - If the archive cannot be created or extracted
+     */
+    @Test
+    public void testExistingFiles() throws Exception {
+        final Path zip = createZip(List.of("a.txt", "b.txt"), List.of("new a", "new b"));
+        final Path destination = m_tempFolder.newFolder("destination").toPath();
+        Files.writeString(destination.resolve("b.txt"), "old b");
+
+        final List<DataRow> ignored = decompress(zip, destination, FileOverwritePolicy.IGNORE);
+        assertEquals(FileStatus.CREATED.getText(), getStatus(ignored.get(0)));
+        assertEquals(FileStatus.UNMODIFIED.getText(), getStatus(ignored.get(1)));
+        assertEquals("old b", Files.readString(destination.resolve("b.txt")));
+
+        final List<DataRow> overwritten = decompress(zip, destination, FileOverwritePolicy.OVERWRITE);
+        assertEquals(FileStatus.OVERWRITTEN.getText(), getStatus(overwritten.get(0)));
+        assertEquals(FileStatus.OVERWRITTEN.getText(), getStatus(overwritten.get(1)));
+        assertEquals("new b", Files.readString(destination.resolve("b.txt")));
+
+        assertThrows(FileAlreadyExistsException.class,
+            () -> decompress(zip, destination, FileOverwritePolicy.FAIL));
+    }
+
+    /**
+     * Tests that without parallel extraction no entry following an existing file is written if existing files must not
+     * be overwritten.
+     *
+     * @throws Exception - If the archive cannot be created
+     */
+    @Test
+    public void testSequentialExtractionFailsFast() throws Exception {
+        final Path zip = createZip(List.of("a.txt", "b.txt", "c.txt"), List.of("new a", "new b", "new c"));
+        final Path destination = m_tempFolder.newFolder("destination").toPath();
+        Files.writeString(destination.resolve("b.txt"), "old b");
+
+        assertThrows(FileAlreadyExistsException.class,
+            () -> decompress(zip, destination, FileOverwritePolicy.FAIL, false));
+        assertEquals("new a", Files.readString(destination.resolve("a.txt")));
+        assertEquals("old b", Files.readString(destination.resolve("b.txt")));
+        assertFalse(Files.exists(destination.resolve("c.txt")));
+    }
+
+    /**
+     * Tests that the sequential extraction writes the same files and rows as the parallel one.
+     *
+     * @throws Exception - If the archive cannot be created or extracted
+     */
+    @Test
+    public void testSequentialExtraction() throws Exception {
+        final Path zip = createZip(List.of("folder/a.txt", "b.txt", "folder/c.txt"), List.of("a", "b", "c"));
+        final Path parallelDestination = m_tempFolder.newFolder("parallel").toPath();
+        final Path sequentialDestination = m_tempFolder.newFolder("sequential").toPath();
+        final List<DataRow> parallelRows = decompress(zip, parallelDestination, FileOverwritePolicy.FAIL, true);
+        final List<DataRow> sequentialRows =
+            decompress(zip, sequentialDestination, FileOverwritePolicy.FAIL, false);
+
+        assertEquals(4, sequentialRows.size());
+        for (int i = 0; i < sequentialRows.size(); i++) {
+            assertEquals(parallelDestination.relativize(Path.of(getPath(parallelRows.get(i)))),
+                sequentialDestination.relativize(Path.of(getPath(sequentialRows.get(i)))));
+            assertEquals(isDirectory(parallelRows.get(i)), isDirectory(sequentialRows.get(i)));
+            assertEquals(getStatus(parallelRows.get(i)), getStatus(sequentialRows.get(i)));
+        }
+        assertEquals("c", Files.readString(sequentialDestination.resolve("folder/c.txt")));
+    }
+
+    private Path createZip(final List<String> names, final List<String> contents) throws IOException {
+        final Path zip = m_tempFolder.newFile().toPath();
+        // unlike the zip stream of the JDK, this one allows duplicate entry names
+        try (final OutputStream out = Files.newOutputStream(zip);
+                final ZipArchiveOutputStream zipStream = new ZipArchiveOutputStream(out)) {
+            for (int i = 0; i < names.size(); i++) {
+                zipStream.putArchiveEntry(new ZipArchiveEntry(names.get(i)));
+                zipStream.write(contents.get(i).getBytes(StandardCharsets.UTF_8));
+                zipStream.closeArchiveEntry();
+            }
+        }
+        return zip;
+    }
+
+    private static List<DataRow> decompress(final Path zip, final Path destination,
+        final FileOverwritePolicy policy) throws Exception {
+        return decompress(zip, destination, policy, true);
+    }
+
+    private static List<DataRow> decompress(final Path zip, final Path destination,
+        final FileOverwritePolicy policy, final boolean parallel) throws Exception {
+        final DecompressNodeConfig config =
+            new DecompressNodeConfig(new DecompressNodeFactory().createPortsConfigBuilder().get().build());
+        config.getParallelExtractionModel().setBooleanValue(parallel);
+        config.getOutputDirChooserModel().setLocation(new FSLocation(FSCategory.LOCAL, destination.toString()));
+        config.getOutputDirChooserModel().setFileOverwritePolicy(policy);
+        final CollectingRowOutput output = new CollectingRowOutput();
+        try (final FSConnection connection = DefaultFSConnectionFactory.createLocalFSConnection()) {
+            final FSPath source = connection.getFileSystem().getPath(zip.toString());
+            final FSPath target = connection.getFileSystem().getPath(destination.toString());
+            new Decompressor(config, output, Mockito.mock(ExecutionContext.class)).decompress(source, target);
+        }
+        return output.m_rows;
+    }
+
+    private static String getPath(final DataRow row) {
+        return ((FSLocationValue)row.getCell(0)).getFSLocation().getPath();
+    }
+
+    private static boolean isDirectory(final DataRow row) {
+        return ((BooleanValue)row.getCell(1)).getBooleanValue();
+    }
+
+    private static String getStatus(final DataRow row) {
+        return ((StringValue)row.getCell(2)).getStringValue();
+    }
+
+    private static final class CollectingRowOutput extends RowOutput {
+
+        private final List<DataRow> m_rows = new ArrayList<>();
+
+        @Override
+        public void push(final DataRow row) {
+            m_rows.add(row);
+        }
+
+        @Override
+        public void close() {
+            // nothing to close
+        }
+    }
+}
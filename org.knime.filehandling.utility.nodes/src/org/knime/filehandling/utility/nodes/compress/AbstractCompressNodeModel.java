@@ -58,24 +58,28 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.Deflater;
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveException;
 import org.apache.commons.compress.archivers.ArchiveOutputStream;
 import org.apache.commons.compress.archivers.ArchiveStreamFactory;
 import org.apache.commons.compress.archivers.ar.ArArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.commons.compress.compressors.CompressorException;
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.KNIMEConstants;
 import org.knime.core.node.NodeModel;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.context.ports.PortsConfiguration;
 import org.knime.core.node.port.PortObject;
 import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.util.ThreadPool;
 import org.knime.filehandling.core.connections.FSFiles;
 import org.knime.filehandling.core.connections.FSLocation;
 import org.knime.filehandling.core.connections.FSPath;
@@ -83,6 +87,7 @@
 import org.knime.filehandling.core.defaultnodesettings.filechooser.writer.WritePathAccessor;
 import org.knime.filehandling.core.defaultnodesettings.status.NodeModelStatusConsumer;
 import org.knime.filehandling.core.defaultnodesettings.status.StatusMessage.MessageType;
+import org.knime.filehandling.core.util.ParallelGZIPOutputStream;
 import org.knime.filehandling.utility.nodes.compress.archiver.ArchiveEntryCreator;
 import org.knime.filehandling.utility.nodes.compress.archiver.ArchiveEntryFactory;
 import org.knime.filehandling.utility.nodes.compress.iterator.CompressEntry;
@@ -106,6 +111,8 @@
     public static final String NAME_COLLISION_ERROR_TEMPLATE =
         "Name collision: '%s' and '%s' map to the same archive entry. Adapting the settings might resolve the problem.";
 
+    private static final int NR_THREADS = Runtime.getRuntime().availableProcessors();
+
     private final T m_config;
 
     private final NodeModelStatusConsumer m_statusConsumer;
@@ -211,9 +218,11 @@ private void compress(final ExecutionContext exec, final CompressIterator filesT
             throw new FileAlreadyExistsException(
                 String.format("The file '%s' already exists and must not be overwritten", outputPath));
         }
+        final ThreadPool pool = m_config.parallelCompressionModel().getBooleanValue()
+            ? KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(NR_THREADS) : null;
         try (final OutputStream outputStream = FSFiles.newOutputStream(outputPath, overwritePolicy.getOpenOptions())) {
-            try (final OutputStream compressorStream = openCompressorStream(outputStream, compression)) {
-                compress(exec, outputPath.toFSLocation(), filesToCompress, compressorStream, compression);
+            try (final OutputStream compressorStream = openCompressorStream(outputStream, compression, pool)) {
+                compress(exec, outputPath.toFSLocation(), filesToCompress, compressorStream, compression, pool);
             } catch (CompressorException e) {
                 throw new InvalidSettingsException("Unsupported compression type", e);
             }
@@ -221,11 +230,12 @@ private void compress(final ExecutionContext exec, final CompressIterator filesT
     }
 
     private void compress(final ExecutionContext exec, final FSLocation outputLocation,
-        final CompressIterator filesToCompress, final OutputStream compressorStream, final String compression)
-        throws IOException, CanceledExecutionException, InvalidSettingsException {
+        final CompressIterator filesToCompress, final OutputStream compressorStream, final String compression,
+        final ThreadPool pool) throws IOException, CanceledExecutionException, InvalidSettingsException {
         final String archiver = getArchiver(compression);
         try (ArchiveOutputStream archiveStream =
-            new ArchiveStreamFactory().createArchiveOutputStream(archiver, compressorStream)) {
+            new ArchiveStreamFactory().createArchiveOutputStream(archiver, compressorStream);
+                ArchiveEntryWriter entryWriter = createEntryWriter(archiveStream, archiver, pool)) {
             // without that only names with 16 chars would be possible, known limitation from the docs
             if (archiveStream instanceof ArArchiveOutputStream) {
                 ((ArArchiveOutputStream)archiveStream).setLongFileMode(ArArchiveOutputStream.LONGFILE_BSD);
@@ -237,14 +247,24 @@ private void compress(final ExecutionContext exec, final FSLocation outputLocati
             final Map<String, String> createdEntries = new HashMap<>();
             while (filesToCompress.hasNext()) {
                 final ExecutionContext subExec = exec.createSubExecutionContext(1d / numOfFiles);
-                compress(subExec, outputLocation, filesToCompress.next(), archiveStream, entryCreator, createdEntries);
+                compress(subExec, outputLocation, filesToCompress.next(), entryWriter, entryCreator, createdEntries);
             }
+            entryWriter.finish();
         } catch (ArchiveException e) {
             throw new IllegalArgumentException("Unsupported archive type", e);
         }
 
     }
 
+    private static ArchiveEntryWriter createEntryWriter(final ArchiveOutputStream archiveStream,
+        final String archiver, final ThreadPool pool) {
+        if (pool != null && archiver.equals(ArchiveStreamFactory.ZIP)) {
+            return new ParallelZipArchiveEntryWriter((ZipArchiveOutputStream)archiveStream, pool, 2 * NR_THREADS);
+        }
+        // the sequential writer uses the pool only to read ahead files from remote file systems
+        return new SequentialArchiveEntryWriter(archiveStream, pool);
+    }
+
     private static String getArchiver(final String compression) {
         final int archiverDelimiterIdx = compression.indexOf('.');
         final String archiver;
@@ -257,7 +277,7 @@ private static String getArchiver(final String compression) {
     }
 
     private void compress(final ExecutionContext exec, final FSLocation outputLocation,
-        final CompressEntry compressEntry, final ArchiveOutputStream archiveStream,
+        final CompressEntry compressEntry, final ArchiveEntryWriter entryWriter,
         final ArchiveEntryCreator entryCreator, final Map<String, String> createdEntries)
         throws CanceledExecutionException, IOException, InvalidSettingsException {
         try {
@@ -268,7 +288,7 @@ private void compress(final ExecutionContext exec, final FSLocation outputLocati
                 exec.setProgress((fileCounter / numOfFiles), () -> ("Compressing file: " + pathToCompress.toString()));
                 exec.checkCanceled();
                 if (!pathToCompress.getPathToCompress().toFSLocation().equals(outputLocation)) {
-                    addEntry(archiveStream, entryCreator, createdEntries, pathToCompress);
+                    addEntry(entryWriter, entryCreator, createdEntries, pathToCompress);
                 } else {
                     setWarningMessage(String.format("Skipping the compression of '%s' as this is the archive itself",
                         pathToCompress.getPathToCompress().toString()));
@@ -280,14 +300,14 @@ private void compress(final ExecutionContext exec, final FSLocation outputLocati
         }
     }
 
-    private static void addEntry(final ArchiveOutputStream archiveStream, final ArchiveEntryCreator entryCreator,
+    private static void addEntry(final ArchiveEntryWriter entryWriter, final ArchiveEntryCreator entryCreator,
         final Map<String, String> createdEntries, final CompressPair pathToCompress) throws IOException {
         final FSPath path = pathToCompress.getPathToCompress();
         final String archiveEntryName = pathToCompress.getArchiveEntryName();
         if (!createdEntries.containsKey(archiveEntryName)) {
             entryCreator.validate(path, archiveEntryName);
             final ArchiveEntry archiveEntry = entryCreator.apply(path, archiveEntryName); //NOSONAR no expansion
-            createArchiveEntry(archiveStream, path, archiveEntry);
+            entryWriter.write(archiveEntry, path);
         } else {
             throw new IllegalArgumentException(
                 String.format(NAME_COLLISION_ERROR_TEMPLATE, createdEntries.get(archiveEntryName), path.toString()));
@@ -295,26 +315,17 @@ private static void addEntry(final ArchiveOutputStream archiveStream, final Arch
         createdEntries.put(archiveEntryName, path.toString());
     }
 
-    private static void createArchiveEntry(final ArchiveOutputStream archiveStream, final Path fileToCompress,
-        final ArchiveEntry archiveEntry) throws IOException { //NOSONAR no entry expansion
-        archiveStream.putArchiveEntry(archiveEntry);
-        try {
-            if (!archiveEntry.isDirectory()) {
-                Files.copy(fileToCompress, archiveStream);
-            }
-        } finally {
-            archiveStream.closeArchiveEntry();
-        }
-    }
-
     @SuppressWarnings("resource") // closing the stream is the responsibility of the caller
-    private static OutputStream openCompressorStream(final OutputStream outputStream, final String compression)
-        throws CompressorException {
+    private static OutputStream openCompressorStream(final OutputStream outputStream, final String compression,
+        final ThreadPool pool) throws CompressorException, IOException {
         final OutputStream compressorStream;
 
         if (compression.endsWith(AbstractCompressNodeConfig.BZ2_EXTENSION)) {
             compressorStream =
                 new CompressorStreamFactory().createCompressorOutputStream(CompressorStreamFactory.BZIP2, outputStream);
+        } else if (compression.endsWith(AbstractCompressNodeConfig.GZ_EXTENSION) && pool != null) {
+            compressorStream =
+                new ParallelGZIPOutputStream(outputStream, pool, 2 * NR_THREADS, Deflater.DEFAULT_COMPRESSION);
         } else if (compression.endsWith(AbstractCompressNodeConfig.GZ_EXTENSION)) {
             compressorStream =
                 new CompressorStreamFactory().createCompressorOutputStream(CompressorStreamFactory.GZIP, outputStream);
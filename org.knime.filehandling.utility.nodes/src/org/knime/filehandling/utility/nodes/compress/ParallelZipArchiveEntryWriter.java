@@ -0,0 +1,218 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.utility.nodes.compress;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ScatterZipOutputStream;
+import org.apache.commons.compress.archivers.zip.StreamCompressor;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntryRequest;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.parallel.FileBasedScatterGatherBackingStore;
+import org.apache.commons.compress.parallel.ScatterGatherBackingStore;
+import org.knime.core.util.FileUtil;
+import org.knime.core.util.ThreadPool;
+import org.knime.filehandling.core.connections.FSPath;
+import org.knime.filehandling.core.util.ThreadPoolUtils;
+
+/**
+ * {@link ArchiveEntryWriter} that deflates the zip entries independently of each other on a {@link ThreadPool}, while
+ * the deflated entries are written in order to the archive. Small entries are deflated in memory, larger ones into
+ * temporary files.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ParallelZipArchiveEntryWriter implements ArchiveEntryWriter {
+
+    private static final long IN_MEMORY_THRESHOLD = 1 << 20;
+
+    private final ZipArchiveOutputStream m_zipStream;
+
+    private final ThreadPool m_pool;
+
+    private final int m_maxPendingEntries;
+
+    private final Deque<PendingEntry> m_pendingEntries = new ArrayDeque<>();
+
+    /**
+     * Constructor.
+     *
+     * @param zipStream the zip stream
+     * @param pool the pool used to deflate the entries
+     * @param maxPendingEntries the maximum number of entries being deflated at the same time
+     */
+    ParallelZipArchiveEntryWriter(final ZipArchiveOutputStream zipStream, final ThreadPool pool,
+        final int maxPendingEntries) {
+        m_zipStream = zipStream;
+        m_pool = pool;
+        m_maxPendingEntries = maxPendingEntries;
+    }
+
+    @Override
+    public void write(final ArchiveEntry entry, final FSPath file) throws IOException {
+        final ZipArchiveEntry zipEntry = (ZipArchiveEntry)entry;
+        final Future<ScatterZipOutputStream> deflated;
+        if (zipEntry.isDirectory()) {
+            deflated = null;
+        } else {
+            zipEntry.setMethod(ZipEntry.DEFLATED);
+            deflated = m_pool.enqueue(() -> deflate(zipEntry, file));
+        }
+        m_pendingEntries.add(new PendingEntry(zipEntry, deflated));
+        while (m_pendingEntries.size() > m_maxPendingEntries) {
+            writeNext();
+        }
+    }
+
+    private static ScatterZipOutputStream deflate(final ZipArchiveEntry entry, final FSPath file) throws IOException {
+        final ScatterGatherBackingStore store = Files.size(file) <= IN_MEMORY_THRESHOLD ? new InMemoryBackingStore()
+            : new FileBasedScatterGatherBackingStore(FileUtil.createTempFile("compress", ".tmp"));
+        final ScatterZipOutputStream scatterStream =
+            new ScatterZipOutputStream(store, StreamCompressor.create(Deflater.DEFAULT_COMPRESSION, store));
+        try (final InputStream in = Files.newInputStream(file)) {
+            scatterStream.addArchiveEntry(ZipArchiveEntryRequest.createZipArchiveEntryRequest(entry, () -> in));
+        } catch (IOException | RuntimeException e) {
+            scatterStream.close();
+            throw e;
+        }
+        return scatterStream;
+    }
+
+    private void writeNext() throws IOException {
+        final PendingEntry pending = m_pendingEntries.poll();
+        if (pending.m_deflated == null) {
+            m_zipStream.putArchiveEntry(pending.m_entry);
+            m_zipStream.closeArchiveEntry();
+        } else {
+            try (final ScatterZipOutputStream scatterStream = waitFor(pending.m_deflated)) {
+                scatterStream.writeTo(m_zipStream);
+            }
+        }
+    }
+
+    private ScatterZipOutputStream waitFor(final Future<ScatterZipOutputStream> deflated) throws IOException {
+        return ThreadPoolUtils.waitFor(m_pool, deflated, IOException.class);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        while (!m_pendingEntries.isEmpty()) {
+            writeNext();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (final PendingEntry pending : m_pendingEntries) {
+            final Future<ScatterZipOutputStream> deflated = pending.m_deflated;
+            // entries that have already been deflated still need to release their temporary files
+            if (deflated != null && !deflated.cancel(true) && !deflated.isCancelled()) {
+                closeQuietly(deflated);
+            }
+        }
+        m_pendingEntries.clear();
+    }
+
+    private static void closeQuietly(final Future<ScatterZipOutputStream> deflated) throws IOException {
+        try {
+            deflated.get().close();
+        } catch (ExecutionException ex) { // NOSONAR the task failed and cleaned up itself
+            // nothing to close
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class PendingEntry {
+
+        private final ZipArchiveEntry m_entry;
+
+        private final Future<ScatterZipOutputStream> m_deflated;
+
+        PendingEntry(final ZipArchiveEntry entry, final Future<ScatterZipOutputStream> deflated) {
+            m_entry = entry;
+            m_deflated = deflated;
+        }
+    }
+
+    private static final class InMemoryBackingStore implements ScatterGatherBackingStore {
+
+        private final ByteArrayOutputStream m_data = new ByteArrayOutputStream();
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(m_data.toByteArray());
+        }
+
+        @Override
+        public void writeOut(final byte[] data, final int offset, final int length) {
+            m_data.write(data, offset, length);
+        }
+
+        @Override
+        public void closeForWriting() {
+            // nothing to close
+        }
+
+        @Override
+        public void close() {
+            // nothing to close
+        }
+    }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.utility.nodes.compress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.knime.core.util.ThreadPool;
+
+/**
+ * {@link InputStream} that reads the underlying stream ahead on a {@link ThreadPool}, keeping at most a fixed number of
+ * chunks in memory. This allows to overlap the latency of remote file systems with the archiving.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ReadAheadInputStream extends InputStream {
+
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    private static final byte[] END_OF_STREAM = new byte[0];
+
+    private final InputStream m_in;
+
+    private final ThreadPool m_pool;
+
+    private final BlockingQueue<byte[]> m_chunks;
+
+    private final Future<Void> m_reader;
+
+    private volatile IOException m_exception;
+
+    private byte[] m_chunk = new byte[0];
+
+    private int m_pos;
+
+    private boolean m_endOfStream;
+
+    /**
+     * Constructor.
+     *
+     * @param in the stream to read ahead
+     * @param pool the pool used to read the stream
+     * @param maxChunks the maximum number of chunks read ahead
+     */
+    ReadAheadInputStream(final InputStream in, final ThreadPool pool, final int maxChunks) {
+        m_in = in;
+        m_pool = pool;
+        m_chunks = new ArrayBlockingQueue<>(maxChunks);
+        m_reader = pool.enqueue(this::readAhead);
+    }
+
+    private Void readAhead() throws ExecutionException {
+        try {
+            byte[] chunk;
+            do {
+                chunk = m_in.readNBytes(CHUNK_SIZE);
+                put(chunk.length == 0 ? END_OF_STREAM : chunk);
+            } while (chunk.length > 0);
+        } catch (IOException ex) {
+            m_exception = ex;
+            put(END_OF_STREAM);
+        }
+        return null;
+    }
+
+    /**
+     * Waits for space in the queue without occupying a slot of the pool. Otherwise a full queue could keep the tasks
+     * the consumer of this stream waits for, e.g. compressing blocks, from ever being run.
+     */
+    private void put(final byte[] chunk) throws ExecutionException {
+        m_pool.runInvisible(() -> {
+            m_chunks.put(chunk);
+            return null;
+        });
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        return m_chunk[m_pos++] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        final int length = Math.min(len, m_chunk.length - m_pos);
+        System.arraycopy(m_chunk, m_pos, b, off, length);
+        m_pos += length;
+        return length;
+    }
+
+    @Override
+    public int available() {
+        return m_chunk.length - m_pos;
+    }
+
+    private boolean ensureAvailable() throws IOException {
+        while (m_pos == m_chunk.length) {
+            if (m_endOfStream) {
+                return false;
+            }
+            try {
+                m_chunk = m_pool.runInvisible(m_chunks::take);
+            } catch (ExecutionException ex) {
+                throw new IOException("Reading ahead has been interrupted", ex.getCause());
+            }
+            m_pos = 0;
+            if (m_chunk == END_OF_STREAM) {
+                m_endOfStream = true;
+                if (m_exception != null) {
+                    throw m_exception;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        m_reader.cancel(true);
+        m_chunks.clear();
+        m_in.close();
+    }
+
+}
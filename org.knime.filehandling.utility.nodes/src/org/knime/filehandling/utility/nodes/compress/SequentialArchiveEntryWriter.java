@@ -0,0 +1,116 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.utility.nodes.compress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveOutputStream;
+import org.knime.core.util.ThreadPool;
+import org.knime.filehandling.core.connections.FSCategory;
+import org.knime.filehandling.core.connections.FSPath;
+
+/**
+ * {@link ArchiveEntryWriter} that writes every entry immediately to the archive. If a pool is provided files that are
+ * not stored on the local file system are read ahead.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class SequentialArchiveEntryWriter implements ArchiveEntryWriter {
+
+    private static final int MAX_READ_AHEAD_CHUNKS = 4;
+
+    private final ArchiveOutputStream m_archiveStream;
+
+    private final ThreadPool m_readAheadPool;
+
+    /**
+     * Constructor.
+     *
+     * @param archiveStream the archive stream
+     * @param readAheadPool the pool used to read ahead remote files, can be {@code null}
+     */
+    SequentialArchiveEntryWriter(final ArchiveOutputStream archiveStream, final ThreadPool readAheadPool) {
+        m_archiveStream = archiveStream;
+        m_readAheadPool = readAheadPool;
+    }
+
+    @Override
+    public void write(final ArchiveEntry entry, final FSPath file) throws IOException { //NOSONAR no entry expansion
+        m_archiveStream.putArchiveEntry(entry);
+        try {
+            if (!entry.isDirectory()) {
+                try (final InputStream in = newInputStream(file)) {
+                    in.transferTo(m_archiveStream);
+                }
+            }
+        } finally {
+            m_archiveStream.closeArchiveEntry();
+        }
+    }
+
+    @SuppressWarnings("resource") // the stream is closed by the read ahead stream
+    private InputStream newInputStream(final FSPath file) throws IOException {
+        final InputStream in = Files.newInputStream(file);
+        if (m_readAheadPool == null || file.toFSLocation().getFSCategory() == FSCategory.LOCAL) {
+            return in;
+        }
+        return new ReadAheadInputStream(in, m_readAheadPool, MAX_READ_AHEAD_CHUNKS);
+    }
+
+    @Override
+    public void finish() {
+        // entries are written immediately
+    }
+
+    @Override
+    public void close() {
+        // nothing to release
+    }
+
+}
@@ -0,0 +1,223 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.utility.nodes.decompress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+
+import org.knime.core.util.ThreadPool;
+
+/**
+ * Pipe with a bounded buffer that allows to write the content of an archive entry while another thread is reading it.
+ * The data written to this {@link OutputStream} can be read from the stream returned by {@link #getInputStream()}.
+ * If the reading side is closed before the end of the data has been reached, all further data is discarded.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class BoundedPipe extends OutputStream {
+
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private static final byte[] END_OF_STREAM = new byte[0];
+
+    private final ThreadPool m_pool;
+
+    private final BlockingQueue<byte[]> m_chunks;
+
+    private final InputStream m_inputStream = new PipeInputStream();
+
+    private volatile boolean m_inputClosed;
+
+    private byte[] m_chunk = new byte[CHUNK_SIZE];
+
+    private int m_chunkLength;
+
+    private boolean m_closed;
+
+    /**
+     * Constructor.
+     *
+     * @param pool the pool the reading side is running on
+     * @param maxChunks the maximum number of buffered chunks
+     */
+    BoundedPipe(final ThreadPool pool, final int maxChunks) {
+        m_pool = pool;
+        m_chunks = new ArrayBlockingQueue<>(maxChunks);
+    }
+
+    /**
+     * Returns the stream providing the data written to this pipe.
+     *
+     * @return the reading side of this pipe
+     */
+    InputStream getInputStream() {
+        return m_inputStream;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        write(new byte[]{(byte)b}, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            final int length = Math.min(remaining, CHUNK_SIZE - m_chunkLength);
+            System.arraycopy(b, offset, m_chunk, m_chunkLength, length);
+            m_chunkLength += length;
+            offset += length;
+            remaining -= length;
+            if (m_chunkLength == CHUNK_SIZE) {
+                put(m_chunk);
+                m_chunk = new byte[CHUNK_SIZE];
+                m_chunkLength = 0;
+            }
+        }
+    }
+
+    private void put(final byte[] chunk) throws IOException {
+        if (m_inputClosed) {
+            return;
+        }
+        try {
+            m_pool.runInvisible(() -> {
+                m_chunks.put(chunk);
+                return null;
+            });
+        } catch (ExecutionException ex) {
+            throw new IOException("Writing to the pipe has been interrupted", ex.getCause());
+        }
+    }
+
+    /**
+     * Discards all buffered data without signaling the end of the data to the reading side.
+     */
+    void abort() {
+        m_closed = true;
+        m_inputClosed = true;
+        m_chunks.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (m_closed) {
+            return;
+        }
+        m_closed = true;
+        if (m_chunkLength > 0) {
+            put(Arrays.copyOf(m_chunk, m_chunkLength));
+        }
+        put(END_OF_STREAM);
+    }
+
+    private final class PipeInputStream extends InputStream {
+
+        private byte[] m_current = new byte[0];
+
+        private int m_pos;
+
+        private boolean m_endOfStream;
+
+        @Override
+        public int read() throws IOException {
+            if (!ensureAvailable()) {
+                return -1;
+            }
+            return m_current[m_pos++] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!ensureAvailable()) {
+                return -1;
+            }
+            final int length = Math.min(len, m_current.length - m_pos);
+            System.arraycopy(m_current, m_pos, b, off, length);
+            m_pos += length;
+            return length;
+        }
+
+        @Override
+        public int available() {
+            return m_current.length - m_pos;
+        }
+
+        private boolean ensureAvailable() throws IOException {
+            while (m_pos == m_current.length) {
+                if (m_endOfStream || m_inputClosed) {
+                    return false;
+                }
+                try {
+                    m_current = m_chunks.take();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Reading from the pipe has been interrupted");
+                }
+                m_pos = 0;
+                m_endOfStream = m_current == END_OF_STREAM;
+            }
+            return true;
+        }
+
+        @Override
+        public void close() {
+            m_inputClosed = true;
+            m_chunks.clear();
+        }
+    }
+
+}
@@ -92,6 +92,8 @@ final class DecompressNodeConfig {
 
     private static final String CFG_GUESS_ENCODING = "guess_encoding";
 
+    private static final String CFG_PARALLEL_EXTRACTION = "parallel_extraction";
+
     private static final String DEFAULT_CHARSET = "CP437";
 
     private final SettingsModelReaderFileChooser m_inputFileChooserModel;
@@ -100,6 +102,8 @@ final class DecompressNodeConfig {
 
     private final SettingsModelBoolean m_guessEncodingModel;
 
+    private final SettingsModelBoolean m_parallelExtractionModel;
+
     private String m_charSet = DEFAULT_CHARSET;
 
     /**
@@ -118,6 +122,8 @@ public DecompressNodeConfig(final PortsConfiguration portsConfig) {
             FSCategory.getStandardNonTrivialFSCategories());
 
         m_guessEncodingModel = new SettingsModelBoolean(CFG_GUESS_ENCODING, true);
+
+        m_parallelExtractionModel = new SettingsModelBoolean(CFG_PARALLEL_EXTRACTION, true);
     }
 
     void validateSettingsForModel(final NodeSettingsRO settings) throws InvalidSettingsException {
@@ -127,6 +133,9 @@ void validateSettingsForModel(final NodeSettingsRO settings) throws InvalidSetti
         if (settings.containsKey(CFG_GUESS_ENCODING)) {
             m_guessEncodingModel.validateSettings(settings);
         }
+        if (settings.containsKey(CFG_PARALLEL_EXTRACTION)) {
+            m_parallelExtractionModel.validateSettings(settings);
+        }
     }
 
     void loadSettingsForModel(final NodeSettingsRO settings) throws InvalidSettingsException {
@@ -142,12 +151,19 @@ void loadSettingsForModel(final NodeSettingsRO settings) throws InvalidSettingsE
         } else {
             m_guessEncodingModel.setBooleanValue(true);
         }
+        // added in 5.1
+        if (settings.containsKey(CFG_PARALLEL_EXTRACTION)) {
+            m_parallelExtractionModel.loadSettingsFrom(settings);
+        } else {
+            m_parallelExtractionModel.setBooleanValue(false);
+        }
     }
 
     void saveSettingsForModel(final NodeSettingsWO settings) {
         m_inputFileChooserModel.saveSettingsTo(settings);
         m_outputDirChooserModel.saveSettingsTo(settings);
         m_guessEncodingModel.saveSettingsTo(settings);
+        m_parallelExtractionModel.saveSettingsTo(settings);
         settings.addString(CFG_CHARSET, m_charSet);
     }
 
@@ -179,6 +195,16 @@ SettingsModelBoolean getGuessEncodingModel() {
         return m_guessEncodingModel;
     }
 
+    /**
+     * Returns whether the files are written concurrently. If so, a file may already be written when the node fails
+     * because of an earlier entry of the archive, e.g., an already existing file.
+     *
+     * @return the parallel extraction model
+     */
+    SettingsModelBoolean getParallelExtractionModel() {
+        return m_parallelExtractionModel;
+    }
+
     /**
      * Returns the charset/encoding used to decompress the archive file.
      *
@@ -85,6 +85,8 @@ final class DecompressNodeDialog extends NodeDialogPane {
 
     private final DialogComponentBoolean m_guessEncoding;
 
+    private final DialogComponentBoolean m_parallelExtraction;
+
     private final CharsetNamePanel m_charsetPanel;
 
     private final DecompressNodeConfig m_config;
@@ -104,6 +106,9 @@ final class DecompressNodeDialog extends NodeDialogPane {
 
         m_config.getInputFileChooserModel().addChangeListener(l -> m_outputDirChooserPanel.updateComponent());
 
+        m_parallelExtraction =
+            new DialogComponentBoolean(m_config.getParallelExtractionModel(), "Extract files in parallel");
+
         addTab("Settings", initLayout());
 
         m_guessEncoding = new DialogComponentBoolean(m_config.getGuessEncodingModel(),
@@ -121,6 +126,8 @@ private JPanel initLayout() {
         panel.add(createInputFilePanel(), gbc.build());
         gbc.incY();
         panel.add(createOutputDirPanel(), gbc.build());
+        gbc.incY();
+        panel.add(createOptionsPanel(), gbc.build());
         gbc.incY().setWeightY(1);
         panel.add(new JPanel(), gbc.build());
 
@@ -180,11 +187,21 @@ private JPanel createOutputDirPanel() {
         return filePanel;
     }
 
+    private JPanel createOptionsPanel() {
+        final var optionsPanel = new JPanel(new GridBagLayout());
+        final var gbc = new GBCBuilder().resetX().resetY().anchorLineStart();
+        optionsPanel.setBorder(BorderFactory.createTitledBorder(BorderFactory.createEtchedBorder(), "Options"));
+        optionsPanel.add(m_parallelExtraction.getComponentPanel(), gbc.build());
+        optionsPanel.add(Box.createHorizontalGlue(), gbc.incX().fillHorizontal().setWeightX(1).build());
+        return optionsPanel;
+    }
+
     @Override
     protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSettingsException {
         m_inputFileChooserPanel.saveSettingsTo(settings);
         m_outputDirChooserPanel.saveSettingsTo(settings);
         m_guessEncoding.saveSettingsTo(settings);
+        m_parallelExtraction.saveSettingsTo(settings);
         m_config.setCharset(m_charsetPanel.getSelectedCharsetName().orElse(null));
         m_config.saveSettingsForModel(settings);
     }
@@ -195,6 +212,9 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectS
         m_inputFileChooserPanel.loadSettingsFrom(settings, specs);
         m_outputDirChooserPanel.loadSettingsFrom(settings, specs);
         m_guessEncoding.loadSettingsFrom(settings, specs);
+        // added in 5.1, workflows created before extract the files sequentially
+        m_config.getParallelExtractionModel().setBooleanValue(false);
+        m_parallelExtraction.loadSettingsFrom(settings, specs);
         m_charsetPanel.loadSettings(m_config.getCharset());
     }
 }
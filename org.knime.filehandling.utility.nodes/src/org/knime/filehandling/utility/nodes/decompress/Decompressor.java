@@ -52,19 +52,29 @@
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.AccessDeniedException;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveException;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.apache.commons.compress.compressors.CompressorException;
 import org.apache.commons.compress.compressors.CompressorInputStream;
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
@@ -75,18 +85,26 @@
 import org.knime.core.data.def.DefaultRow;
 import org.knime.core.data.def.StringCell.StringCellFactory;
 import org.knime.core.data.util.CancellableReportingInputStream;
+import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.KNIMEConstants;
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.streamable.RowOutput;
+import org.knime.core.util.ThreadPool;
+import org.knime.filehandling.core.connections.FSCategory;
 import org.knime.filehandling.core.connections.FSFiles;
 import org.knime.filehandling.core.connections.FSPath;
 import org.knime.filehandling.core.data.location.cell.SimpleFSLocationCellFactory;
 import org.knime.filehandling.core.defaultnodesettings.filechooser.writer.FileOverwritePolicy;
+import org.knime.filehandling.core.util.ThreadPoolUtils;
 import org.knime.filehandling.utility.nodes.utils.FileStatus;
 
 /**
- * Decompresses and unarchives a source file to a specified destination.
+ * Decompresses and unarchives a source file to a specified destination. If the parallel extraction is enabled, zip
+ * files on the local file system are extracted in parallel using random access, the entries of all other archives are
+ * read sequentially while the files are written on a pool of threads. Otherwise every file is written before the next
+ * entry is read, i.e., no file after a failing entry is written.
  *
  * @author Lars Schweikardt, KNIME GmbH, Konstanz, Germany
  */
@@ -100,6 +118,12 @@ final class Decompressor {
 
     private static final int STATUS_CELL_IDX = 2;
 
+    private static final int NR_THREADS = Runtime.getRuntime().availableProcessors();
+
+    private static final int MAX_PENDING_ROWS = 2 * NR_THREADS;
+
+    private static final int MAX_BUFFERED_CHUNKS = 16;
+
     private boolean m_isCompressed = false;
 
     private boolean m_isArchived = false;
@@ -114,12 +138,21 @@ final class Decompressor {
 
     private final SimpleFSLocationCellFactory m_locationCellFactory;
 
+    private final boolean m_parallel;
+
+    private final ThreadPool m_pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(NR_THREADS);
+
+    private final Deque<PendingRow> m_pendingRows = new ArrayDeque<>();
+
+    private final Set<Path> m_pendingFiles = new HashSet<>();
+
     Decompressor(final DecompressNodeConfig config, final RowOutput rowOutput, final ExecutionContext exec) {
         m_config = config;
         m_rowOutput = rowOutput;
         m_exec = exec;
         m_writeFileFunction = getWriteFileFunction(m_config.getOutputDirChooserModel().getFileOverwritePolicy());
         m_locationCellFactory = new SimpleFSLocationCellFactory(m_config.getOutputDirChooserModel().getLocation());
+        m_parallel = m_config.getParallelExtractionModel().getBooleanValue();
     }
 
     /**
@@ -130,8 +163,24 @@ final class Decompressor {
      * @throws IOException
      * @throws InterruptedException
      * @throws InvalidSettingsException
+     * @throws CanceledExecutionException
      */
     void decompress(final FSPath sourcePath, final FSPath destinationPath)
+        throws IOException, InterruptedException, InvalidSettingsException, CanceledExecutionException {
+        try {
+            if (m_parallel && isLocalZipFile(sourcePath)) {
+                createParentDirIfRequired(destinationPath);
+                decompressZipFile(sourcePath, destinationPath);
+            } else {
+                decompressStream(sourcePath, destinationPath);
+            }
+            pushPendingRows();
+        } finally {
+            cancelPendingRows();
+        }
+    }
+
+    private void decompressStream(final FSPath sourcePath, final FSPath destinationPath)
         throws IOException, InterruptedException, InvalidSettingsException {
         final long fileSize = Files.readAttributes(sourcePath, BasicFileAttributes.class).size();
         try (final InputStream sourceStream =
@@ -150,6 +199,24 @@ void decompress(final FSPath sourcePath, final FSPath destinationPath)
         }
     }
 
+    /**
+     * Checks whether the source is a zip file on the local file system, i.e., a zip file that can be accessed randomly.
+     *
+     * @param sourcePath the source {@link FSPath}
+     * @return {@code true} if the source is a zip file on the local file system
+     * @throws IOException - If the source cannot be read
+     */
+    private static boolean isLocalZipFile(final FSPath sourcePath) throws IOException {
+        if (sourcePath.toFSLocation().getFSCategory() != FSCategory.LOCAL) {
+            return false;
+        }
+        try (final var bufferedStream = new BufferedInputStream(Files.newInputStream(sourcePath))) {
+            return ArchiveStreamFactory.ZIP.equals(ArchiveStreamFactory.detect(bufferedStream));
+        } catch (ArchiveException e) { // NOSONAR the source is not an archive
+            return false;
+        }
+    }
+
     /**
      * Creates destination directory if needed.
      *
@@ -268,23 +335,102 @@ private void decompressArchive(final ArchiveInputStream archiveInputStream, fina
 
         // Process each archive entry
         while ((entry = archiveInputStream.getNextEntry()) != null) {
-            final var fileName = entry.getName();
-            if (fileName.contains("?")) {
-                LOGGER.warn("Decompressed file name has an invalid character/s ? " +
-                        "to fix it please try to set correct encoding config.");
+            rowId = decompressEntry(entry, destinationPath, processedDirs, rowId,
+                outputFilePath -> writeFile(archiveInputStream, outputFilePath));
+        }
+    }
+
+    /**
+     * Reads the entry from the archive stream while the file is written on the pool. The buffer in between is bounded,
+     * i.e., slow destination file systems are still slowing down the decompression, but not every single read. Without
+     * parallel extraction the file is written by the calling thread.
+     */
+    private Future<FileStatus> writeFile(final InputStream archiveInputStream, final Path outputFilePath)
+        throws IOException {
+        if (!m_parallel) {
+            return CompletableFuture.completedFuture(m_writeFileFunction.apply(archiveInputStream, outputFilePath));
+        }
+        final var pipe = new BoundedPipe(m_pool, MAX_BUFFERED_CHUNKS);
+        final Future<FileStatus> status = m_pool.enqueue(() -> {
+            try (final InputStream inputStream = pipe.getInputStream()) {
+                return m_writeFileFunction.apply(inputStream, outputFilePath);
             }
-            final var outputFilePath = destinationPath.resolve(fileName);
-            final boolean isDirectory = entry.isDirectory();
-            m_exec.setMessage("Decompressing " + outputFilePath);
-            rowId = createDirectories(destinationPath, rowId, processedDirs, outputFilePath, isDirectory);
-            if (!isDirectory) {
-                final FileStatus status = m_writeFileFunction.apply(archiveInputStream, outputFilePath);
-                pushRow(rowId, outputFilePath, status, false);
-                rowId++;
+        });
+        try {
+            archiveInputStream.transferTo(pipe);
+            pipe.close();
+        } catch (IOException | RuntimeException e) {
+            pipe.abort();
+            status.cancel(true);
+            throw e;
+        }
+        return status;
+    }
+
+    /**
+     * Decompresses a zip file whose entries are inflated and written concurrently.
+     *
+     * @param sourcePath the zip file
+     * @param destinationPath the destination {@link FSPath}
+     * @throws IOException
+     * @throws InterruptedException
+     * @throws CanceledExecutionException
+     */
+    private void decompressZipFile(final FSPath sourcePath, final FSPath destinationPath)
+        throws IOException, InterruptedException, CanceledExecutionException {
+        final String encoding =
+            m_config.getGuessEncodingModel().getBooleanValue() ? StandardCharsets.UTF_8.name() : m_config.getCharset();
+        try (final SeekableByteChannel channel = Files.newByteChannel(sourcePath);
+                final var zipFile = new ZipFile(channel, sourcePath.toString(), encoding, true)) {
+            final List<ZipArchiveEntry> entries = Collections.list(zipFile.getEntries());
+            final Set<String> processedDirs = new HashSet<>();
+            long rowId = 0;
+            for (int i = 0; i < entries.size(); i++) {
+                m_exec.checkCanceled();
+                m_exec.setProgress(i / (double)entries.size());
+                final ZipArchiveEntry entry = entries.get(i);
+                rowId = decompressEntry(entry, destinationPath, processedDirs, rowId,
+                    outputFilePath -> m_pool.enqueue(() -> {
+                        try (final InputStream inputStream = zipFile.getInputStream(entry)) {
+                            return m_writeFileFunction.apply(inputStream, outputFilePath);
+                        }
+                    }));
             }
+            // the entries must be written before the zip file is closed
+            pushPendingRows();
         }
     }
 
+    /**
+     * Creates the directories required by the entry and, if the entry is a file, writes it with the given writer.
+     *
+     * @return the next row id
+     */
+    private long decompressEntry(final ArchiveEntry entry, final FSPath destinationPath,
+        final Set<String> processedDirs, final long rowId, final EntryWriter entryWriter)
+        throws IOException, InterruptedException {
+        final var fileName = entry.getName();
+        if (fileName.contains("?")) {
+            LOGGER.warn("Decompressed file name has an invalid character/s ? " +
+                    "to fix it please try to set correct encoding config.");
+        }
+        final var outputFilePath = destinationPath.resolve(fileName);
+        final boolean isDirectory = entry.isDirectory();
+        m_exec.setMessage("Decompressing " + outputFilePath);
+        // the directories are created before any file inside them is written
+        final long nextRowId = createDirectories(destinationPath, rowId, processedDirs, outputFilePath, isDirectory);
+        if (isDirectory) {
+            return nextRowId;
+        }
+        if (!m_pendingFiles.add(outputFilePath)) {
+            // the archive contains the same file twice, which must not be written concurrently
+            pushPendingRows();
+            m_pendingFiles.add(outputFilePath);
+        }
+        addRow(nextRowId, outputFilePath, entryWriter.write(outputFilePath), false);
+        return nextRowId + 1;
+    }
+
     /**
      * Decompresses a compressed file.
      *
@@ -296,8 +442,7 @@ private void decompressFile(final InputStream uncompressInputStream, final FSPat
         final FSPath destinationPath) throws IOException, InterruptedException {
         final var outputFilePath = destinationPath.resolve(FilenameUtils.getBaseName(sourcePath.toString()));
         m_exec.setMessage("Decompressing " + outputFilePath);
-        final FileStatus status = m_writeFileFunction.apply(uncompressInputStream, outputFilePath);
-        pushRow(0, outputFilePath, status, false);
+        addRow(0, outputFilePath, writeFile(uncompressInputStream, outputFilePath), false);
     }
 
     private long createDirectories(final FSPath destinationPath, long rowId, final Set<String> processedDirs,
@@ -330,11 +475,49 @@ private long createDirectories(final Set<String> processedDirs, final long rowId
                 FSFiles.createDirectories(destPath);
                 status = FileStatus.CREATED;
             }
-            pushRow(idx, destPath, status, true);
+            addRow(idx, destPath, CompletableFuture.completedFuture(status), true);
             return idx + 1;
         }
     }
 
+    /**
+     * Adds a row whose status might not be known yet. The rows are pushed in the order they have been added, as soon
+     * as their status is available.
+     */
+    private void addRow(final long rowId, final Path destinationPath, final Future<FileStatus> status,
+        final boolean isDirectory) throws IOException, InterruptedException {
+        m_pendingRows.add(new PendingRow(rowId, destinationPath, status, isDirectory));
+        while (!m_pendingRows.isEmpty()
+            && (m_pendingRows.size() > MAX_PENDING_ROWS || m_pendingRows.peek().m_status.isDone())) {
+            pushNextRow();
+        }
+    }
+
+    private void pushPendingRows() throws IOException, InterruptedException {
+        while (!m_pendingRows.isEmpty()) {
+            pushNextRow();
+        }
+    }
+
+    private void pushNextRow() throws IOException, InterruptedException {
+        final PendingRow row = m_pendingRows.poll();
+        final FileStatus status = waitFor(row.m_status);
+        if (!row.m_isDirectory) {
+            m_pendingFiles.remove(row.m_path);
+        }
+        pushRow(row.m_rowId, row.m_path, status, row.m_isDirectory);
+    }
+
+    private FileStatus waitFor(final Future<FileStatus> status) throws IOException {
+        return ThreadPoolUtils.waitFor(m_pool, status, IOException.class);
+    }
+
+    private void cancelPendingRows() {
+        m_pendingRows.forEach(r -> r.m_status.cancel(true));
+        m_pendingRows.clear();
+        m_pendingFiles.clear();
+    }
+
     private void pushRow(final long rowId, final Path destinationPath, final FileStatus status,
         final boolean isDirectory) throws InterruptedException {
         final var row = new DataCell[3];
@@ -392,4 +575,28 @@ private static FileStatus createIgnoreWriteFileFunction(final InputStream inputS
         }
         return status;
     }
+
+    @FunctionalInterface
+    private interface EntryWriter {
+
+        Future<FileStatus> write(Path outputFilePath) throws IOException;
+    }
+
+    private static final class PendingRow {
+
+        private final long m_rowId;
+
+        private final Path m_path;
+
+        private final Future<FileStatus> m_status;
+
+        private final boolean m_isDirectory;
+
+        PendingRow(final long rowId, final Path path, final Future<FileStatus> status, final boolean isDirectory) {
+            m_rowId = rowId;
+            m_path = path;
+            m_status = status;
+            m_isDirectory = isDirectory;
+        }
+    }
 }
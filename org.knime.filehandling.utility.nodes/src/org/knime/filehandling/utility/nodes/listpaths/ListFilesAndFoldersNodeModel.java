@@ -52,8 +52,12 @@
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Future;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpecCreator;
@@ -65,6 +69,7 @@
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.KNIMEConstants;
 import org.knime.core.node.NodeModel;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
@@ -79,6 +84,7 @@
 import org.knime.core.node.streamable.PortOutput;
 import org.knime.core.node.streamable.RowOutput;
 import org.knime.core.node.streamable.StreamableOperator;
+import org.knime.core.util.ThreadPool;
 import org.knime.filehandling.core.connections.FSLocation;
 import org.knime.filehandling.core.connections.FSPath;
 import org.knime.filehandling.core.data.location.FSLocationValueMetaData;
@@ -86,6 +92,7 @@
 import org.knime.filehandling.core.defaultnodesettings.filechooser.reader.ReadPathAccessor;
 import org.knime.filehandling.core.defaultnodesettings.status.NodeModelStatusConsumer;
 import org.knime.filehandling.core.defaultnodesettings.status.StatusMessage.MessageType;
+import org.knime.filehandling.core.util.ThreadPoolUtils;
 
 /**
  * Node model used to list files and folders.
@@ -94,6 +101,11 @@
  */
 final class ListFilesAndFoldersNodeModel extends NodeModel {
 
+    private static final int NR_THREADS = Runtime.getRuntime().availableProcessors();
+
+    /** The maximum number of directory cells that are resolved ahead of the row being pushed. */
+    private static final int MAX_PENDING_DIR_CELLS = 2 * NR_THREADS;
+
     private final boolean m_hasInputPorts;
 
     private final NodeModelStatusConsumer m_statusConsumer;
@@ -184,6 +196,10 @@ public void runFinal(final PortInput[] inputs, final PortOutput[] outputs, final
 
     private void writeOutput(final RowOutput rowOutput, final ExecutionContext exec)
         throws IOException, InvalidSettingsException, InterruptedException, CanceledExecutionException {
+        // the attributes are read concurrently as this requires a request per path for some file systems
+        final ThreadPool pool =
+            m_config.addDirIndicatorColumn() ? KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(NR_THREADS) : null;
+        final Deque<Future<DataCell>> pendingDirCells = new ArrayDeque<>();
         try (final ReadPathAccessor accessor = m_config.getFileChooserSettings().createReadPathAccessor()) {
             final List<FSPath> fsPaths = accessor.getFSPaths(m_statusConsumer);
             if (m_config.includeRootDir()) {
@@ -195,12 +211,17 @@ private void writeOutput(final RowOutput rowOutput, final ExecutionContext exec)
             final int numEntries = fsPaths.size();
             final SimpleFSLocationCellFactory locationFactory =
                 new SimpleFSLocationCellFactory(m_config.getFileChooserSettings().getLocation());
+            final Iterator<FSPath> pathsToResolve = fsPaths.iterator();
 
             for (final FSPath p : fsPaths) {
                 final DataCell locationCell = locationFactory.createCell(p.toFSLocation());
                 final DataCell[] cells;
-                if (m_config.addDirIndicatorColumn()) {
-                    cells = new DataCell[]{locationCell, createDirCell(p)};
+                if (pool != null) {
+                    while (pendingDirCells.size() < MAX_PENDING_DIR_CELLS && pathsToResolve.hasNext()) {
+                        final FSPath toResolve = pathsToResolve.next();
+                        pendingDirCells.add(pool.enqueue(() -> createDirCell(toResolve)));
+                    }
+                    cells = new DataCell[]{locationCell, waitFor(pool, pendingDirCells.poll())};
                 } else {
                     cells = new DataCell[]{locationCell};
                 }
@@ -212,6 +233,7 @@ private void writeOutput(final RowOutput rowOutput, final ExecutionContext exec)
                     () -> String.format("Processing entry %d out of %d", curEntry, numEntries));
             }
         } finally {
+            pendingDirCells.forEach(c -> c.cancel(true));
             rowOutput.close();
         }
     }
@@ -220,6 +242,10 @@ private static DataCell createDirCell(final FSPath p) throws IOException {
         return BooleanCellFactory.create(Files.readAttributes(p, BasicFileAttributes.class).isDirectory());
     }
 
+    private static DataCell waitFor(final ThreadPool pool, final Future<DataCell> dirCell) throws IOException {
+        return ThreadPoolUtils.waitFor(pool, dirCell, IOException.class);
+    }
+
     @Override
     public InputPortRole[] getInputPortRoles() {
         if (m_hasInputPorts) {